@@ -8,7 +8,7 @@ package org.opensilex.core.experiment.dal;
 import java.net.URI;
 import java.util.List;
 import org.apache.jena.arq.querybuilder.SelectBuilder;
-import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.syntax.Element;
 import org.opensilex.core.project.dal.ProjectModel;
 import org.opensilex.core.variable.dal.BaseVariableModel;
 import org.opensilex.sparql.service.SPARQLQueryHelper;
@@ -50,14 +50,12 @@ public class ExperimentDAO {
     public ListWithPagination<ExperimentModel> search(String aliasPattern, List<OrderBy> orderByList, Integer page, Integer pageSize) throws Exception {
         SPARQLClassObjectMapper<ExperimentModel> mapper = SPARQLClassObjectMapper.getForClass(ExperimentModel.class);
 
-        Expr aliasFilter = SPARQLQueryHelper.regexFilter(ExperimentModel.ALIAS_FIELD, aliasPattern);
+        Element aliasSearch = sparql.getTextSearch(ExperimentModel.class, aliasPattern, ExperimentModel.ALIAS_FIELD);
         return sparql.searchWithPagination(
                 ExperimentModel.class,
                 (SelectBuilder select) -> {
                     // TODO implements filters
-                    if (aliasFilter != null) {
-                        select.addFilter(aliasFilter);
-                    }
+                    SPARQLQueryHelper.addWhere(select, aliasSearch);
                 },
                 orderByList,
                 page,
@@ -12,7 +12,7 @@ package org.opensilex.core.factor.dal;
 import java.net.URI;
 import java.util.List;
 import org.apache.jena.arq.querybuilder.SelectBuilder;
-import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.syntax.Element;
 import org.opensilex.sparql.mapping.SPARQLClassObjectMapper;
 import org.opensilex.sparql.service.SPARQLQueryHelper;
 import org.opensilex.sparql.service.SPARQLService;
@@ -52,14 +52,12 @@ public class FactorDAO {
     public ListWithPagination<FactorModel> search(String aliasPattern, List<OrderBy> orderByList, Integer page, Integer pageSize) throws Exception {
         SPARQLClassObjectMapper<FactorModel> mapper = SPARQLClassObjectMapper.getForClass(FactorModel.class);
 
-        Expr aliasFilter = SPARQLQueryHelper.regexFilter(FactorModel.ALIAS_FIELD, aliasPattern);
+        Element aliasSearch = sparql.getTextSearch(FactorModel.class, aliasPattern, FactorModel.ALIAS_FIELD);
         return sparql.searchWithPagination(
                 FactorModel.class,
                 (SelectBuilder select) -> {
                     // TODO implements filters
-                    if (aliasFilter != null) {
-                        select.addFilter(aliasFilter);
-                    }
+                    SPARQLQueryHelper.addWhere(select, aliasSearch);
                 },
                 orderByList,
                 page,
@@ -15,6 +15,7 @@ import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.PUT;
@@ -33,6 +34,7 @@ import org.opensilex.server.response.SingleObjectResponse;
 import org.opensilex.rest.authentication.ApiProtected;
 import org.opensilex.sparql.service.SPARQLService;
 import org.opensilex.sparql.exceptions.SPARQLAlreadyExistingUriException;
+import org.opensilex.sparql.exceptions.SPARQLInvalidCursorException;
 import org.opensilex.sparql.utils.OrderBy;
 import org.opensilex.utils.ListWithPagination;
 
@@ -144,20 +146,33 @@ public class VariableAPI {
             @ApiParam(value = "Filter by unit URI") @QueryParam("unit") URI unit,
             @ApiParam(value = "List of fields to sort as an array of fieldName=asc|desc") @QueryParam("orderBy") List<OrderBy> orderByList,
             @ApiParam(value = "Page number") @QueryParam("page") int page,
-            @ApiParam(value = "Page size") @QueryParam("pageSize") int pageSize
+            @ApiParam(value = "Page size") @QueryParam("pageSize") int pageSize,
+            @ApiParam(value = "Cursor of the next page returned by a previous search, page number is ignored if given") @QueryParam("cursor") String cursor,
+            @ApiParam(value = "Compute total count, if false total is an estimate and only hasMore is reliable") @QueryParam("countTotal") @DefaultValue("true") boolean countTotal
     ) throws Exception {
         VariableDAO dao = new VariableDAO(sparql);
-        ListWithPagination<VariableModel> resultList = dao.search(
-                namePattern,
-                commentPattern,
-                entity,
-                quality,
-                method,
-                unit,
-                orderByList,
-                page,
-                pageSize
-        );
+        ListWithPagination<VariableModel> resultList;
+        try {
+            resultList = dao.search(
+                    namePattern,
+                    commentPattern,
+                    entity,
+                    quality,
+                    method,
+                    unit,
+                    orderByList,
+                    page,
+                    pageSize,
+                    cursor,
+                    countTotal
+            );
+        } catch (SPARQLInvalidCursorException invalidCursorException) {
+            return new ErrorResponse(
+                    Response.Status.BAD_REQUEST,
+                    "Invalid cursor",
+                    invalidCursorException.getMessage()
+            ).getResponse();
+        }
         ListWithPagination<VariableGetDTO> resultDTOList = resultList.convert(
                 VariableGetDTO.class,
                 VariableGetDTO::fromModel
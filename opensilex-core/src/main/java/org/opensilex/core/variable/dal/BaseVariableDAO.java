@@ -8,7 +8,7 @@ package org.opensilex.core.variable.dal;
 import java.net.URI;
 import java.util.List;
 import org.apache.jena.arq.querybuilder.SelectBuilder;
-import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.syntax.Element;
 import org.opensilex.sparql.service.SPARQLQueryHelper;
 import org.opensilex.sparql.service.SPARQLService;
 import org.opensilex.sparql.utils.OrderBy;
@@ -48,18 +48,14 @@ public class BaseVariableDAO<T extends BaseVariableModel> {
     }
 
     public ListWithPagination<T> search(String labelPattern, String commentPattern, List<OrderBy> orderByList, Integer page, Integer pageSize) throws Exception {
-        Expr labelFilter = SPARQLQueryHelper.regexFilter(BaseVariableModel.LABEL_FIELD, labelPattern);
-        Expr commentFilter = SPARQLQueryHelper.regexFilter(BaseVariableModel.COMMENT_FIELD, commentPattern);
+        Element labelSearch = sparql.getTextSearch(objectClass, labelPattern, BaseVariableModel.LABEL_FIELD);
+        Element commentSearch = sparql.getTextSearch(objectClass, commentPattern, BaseVariableModel.COMMENT_FIELD);
 
         return sparql.searchWithPagination(
                 objectClass,
                 (SelectBuilder select) -> {
-                    if (labelFilter != null) {
-                        select.addFilter(labelFilter);
-                    }
-                    if (commentFilter != null) {
-                        select.addFilter(commentFilter);
-                    }
+                    SPARQLQueryHelper.addWhere(select, labelSearch);
+                    SPARQLQueryHelper.addWhere(select, commentSearch);
                 },
                 orderByList,
                 page,
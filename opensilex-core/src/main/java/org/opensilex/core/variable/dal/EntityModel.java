@@ -18,7 +18,8 @@ import org.opensilex.sparql.utils.ClassURIGenerator;
 @SPARQLResource(
         ontology = Oeso.class,
         resource = "Entity",
-        graph = "variable"
+        graph = "variable",
+        cacheInstances = true
 )
 public class EntityModel extends BaseVariableModel implements ClassURIGenerator<EntityModel> {
 
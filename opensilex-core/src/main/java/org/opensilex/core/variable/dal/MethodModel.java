@@ -14,7 +14,8 @@ import org.opensilex.sparql.utils.ClassURIGenerator;
 @SPARQLResource(
         ontology = Oeso.class,
         resource = "Method",
-        graph = "variable"
+        graph = "variable",
+        cacheInstances = true
 )
 public class MethodModel extends BaseVariableModel implements ClassURIGenerator<MethodModel> {
 
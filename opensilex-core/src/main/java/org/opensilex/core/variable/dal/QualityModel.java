@@ -14,7 +14,8 @@ import org.opensilex.sparql.utils.ClassURIGenerator;
 @SPARQLResource(
         ontology = Oeso.class,
         resource = "Quality",
-        graph = "variable"
+        graph = "variable",
+        cacheInstances = true
 )
 public class QualityModel extends BaseVariableModel implements ClassURIGenerator<MethodModel> {
 
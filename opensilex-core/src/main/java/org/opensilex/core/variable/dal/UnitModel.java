@@ -14,7 +14,8 @@ import org.opensilex.sparql.utils.ClassURIGenerator;
 @SPARQLResource(
         ontology = Oeso.class,
         resource = "Unit",
-        graph = "variable"
+        graph = "variable",
+        cacheInstances = true
 )
 public class UnitModel extends BaseVariableModel implements ClassURIGenerator<UnitModel> {
 
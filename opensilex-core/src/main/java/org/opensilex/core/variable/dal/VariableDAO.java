@@ -9,7 +9,7 @@ import java.net.URI;
 import java.util.List;
 import org.apache.jena.arq.querybuilder.SelectBuilder;
 import org.apache.jena.graph.Node;
-import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.syntax.Element;
 import org.opensilex.sparql.service.SPARQLQueryHelper;
 import org.opensilex.sparql.service.SPARQLService;
 import org.opensilex.sparql.deserializer.SPARQLDeserializer;
@@ -38,20 +38,32 @@ public class VariableDAO extends BaseVariableDAO<VariableModel> {
             Integer page,
             Integer pageSize
     ) throws Exception {
-        Expr labelFilter = SPARQLQueryHelper.regexFilter(BaseVariableModel.LABEL_FIELD, labelPattern);
-        Expr commentFilter = SPARQLQueryHelper.regexFilter(BaseVariableModel.COMMENT_FIELD, commentPattern);
+        return search(labelPattern, commentPattern, entity, quality, method, unit, orderByList, page, pageSize, null, true);
+    }
+
+    public ListWithPagination<VariableModel> search(
+            String labelPattern,
+            String commentPattern,
+            URI entity,
+            URI quality,
+            URI method,
+            URI unit,
+            List<OrderBy> orderByList,
+            Integer page,
+            Integer pageSize,
+            String cursor,
+            boolean countTotal
+    ) throws Exception {
+        Element labelSearch = sparql.getTextSearch(VariableModel.class, labelPattern, BaseVariableModel.LABEL_FIELD);
+        Element commentSearch = sparql.getTextSearch(VariableModel.class, commentPattern, BaseVariableModel.COMMENT_FIELD);
 
         SPARQLDeserializer<URI> sparqlURI = SPARQLDeserializers.getForClass(URI.class);
         
         return sparql.searchWithPagination(
                 VariableModel.class,
                 (SelectBuilder select) -> {
-                    if (labelFilter != null) {
-                        select.addFilter(labelFilter);
-                    }
-                    if (commentFilter != null) {
-                        select.addFilter(commentFilter);
-                    }
+                    SPARQLQueryHelper.addWhere(select, labelSearch);
+                    SPARQLQueryHelper.addWhere(select, commentSearch);
                     if (entity != null) {
                         select.addWhereValueVar(VariableModel.ENTITY_FIELD_NAME, sparqlURI.getNode(entity));
                     }
@@ -67,7 +79,9 @@ public class VariableDAO extends BaseVariableDAO<VariableModel> {
                 },
                 orderByList,
                 page,
-                pageSize
+                pageSize,
+                cursor,
+                countTotal
         );
     }
 }
@@ -48,6 +48,7 @@ import org.opensilex.rest.authentication.AuthenticationService;
 import org.opensilex.rest.user.dal.UserDAO;
 import org.opensilex.sparql.service.SPARQLService;
 import org.opensilex.sparql.rdf4j.RDF4JConfig;
+import org.opensilex.sparql.rdf4j.RDF4JConnection;
 import org.opensilex.utils.ClassUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -160,8 +161,10 @@ public class Install {
         // initialise repository manager
         RDF4JConfig config = opensilex.loadConfigPath("ontologies.sparql.rdf4j", RDF4JConfig.class);
 
-        // Create repository
-        createRDF4JRepository(config);
+        // Create repository, embedded stores are created on startup
+        if (RDF4JConnection.HTTP_REPOSITORY.equalsIgnoreCase(config.repositoryType())) {
+            createRDF4JRepository(config);
+        }
 
         // Restart repository to reload sparql service
         opensilex.restart();
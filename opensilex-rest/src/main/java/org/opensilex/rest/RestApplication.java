@@ -10,14 +10,22 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.jaxrs.json.JacksonJaxbJsonProvider;
+import io.swagger.annotations.Api;
+import io.swagger.annotations.SwaggerDefinition;
 import io.swagger.jaxrs.config.BeanConfig;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.inject.Singleton;
 import javax.servlet.ServletContext;
 import javax.ws.rs.ApplicationPath;
+import javax.ws.rs.Path;
 import javax.ws.rs.core.Context;
+import javax.ws.rs.ext.Provider;
 import org.glassfish.hk2.utilities.binding.AbstractBinder;
 import org.glassfish.jersey.jackson.JacksonFeature;
 import org.glassfish.jersey.media.multipart.MultiPartFeature;
@@ -29,6 +37,7 @@ import org.opensilex.OpenSilex;
 import org.opensilex.OpenSilexModule;
 import org.opensilex.rest.extensions.APIExtension;
 import org.opensilex.service.Service;
+import org.opensilex.utils.ClassUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -106,8 +115,9 @@ public class RestApplication extends ResourceConfig {
     }
 
     /**
-     * Initialize packages list to scan for services and request filters (A.K.A.
-     * components) from all modules
+     * Register services and request filters (A.K.A. components) from all
+     * modules packages using annotation indexes, packages without indexed
+     * components (like external libraries ones) are scanned by Jersey.
      *
      * @see
      * https://jersey.github.io/apidocs/2.28/jersey/org/glassfish/jersey/server/ResourceConfig.html#packages-boolean-java.lang.String...-
@@ -120,15 +130,37 @@ public class RestApplication extends ResourceConfig {
             packageList.addAll(api.getPackagesToScan());
         });
 
-        // Add package list for components scan
         LOGGER.info("Registred packages:\n" + String.join("\n", packageList));
-        packages(String.join(";", packageList));
 
+        Set<Class<?>> componentClasses = new HashSet<>(ClassUtils.getAnnotatedClasses(Path.class));
+        componentClasses.addAll(ClassUtils.getAnnotatedClasses(Provider.class));
+
+        List<String> packagesToScan = new ArrayList<>();
+        for (String packageName : packageList) {
+            boolean indexed = false;
+            for (Class<?> componentClass : componentClasses) {
+                if (isInPackage(componentClass, packageName) && isComponent(componentClass)) {
+                    register(componentClass);
+                    indexed = true;
+                }
+            }
+
+            if (!indexed) {
+                packagesToScan.add(packageName);
+            }
+        }
+
+        // Add package list for components scan
+        if (!packagesToScan.isEmpty()) {
+            LOGGER.debug("Packages without indexed components:\n" + String.join("\n", packagesToScan));
+            packages(String.join(";", packagesToScan));
+        }
     }
 
     /**
-     * Initialize swagger UI registering every packages to scan for services
-     * defined in modules
+     * Initialize swagger UI registering every web services defined in modules
+     * API packages, classes are read from annotation indexes instead of being
+     * scanned by swagger.
      */
     private void initSwagger() {
         // Load all packages to scan from modules implementing APIExtension
@@ -139,7 +171,12 @@ public class RestApplication extends ResourceConfig {
         });
 
         // Init swagger UI
-        BeanConfig beanConfig = new BeanConfig();
+        BeanConfig beanConfig = new BeanConfig() {
+            @Override
+            public Set<Class<?>> classes() {
+                return getAPIClasses(packageList);
+            }
+        };
         beanConfig.setVersion(app.getModulesByProjectId("opensilex-rest").get(0).getOpenSilexVersion());
         beanConfig.setResourcePackage(String.join(",", packageList));
         beanConfig.setTitle("OpenSilex API");
@@ -147,6 +184,46 @@ public class RestApplication extends ResourceConfig {
         beanConfig.setScan(true);
     }
 
+    /**
+     * Return indexed web services (Path or Api annotated) and swagger
+     * definitions classes from the given packages
+     *
+     * @param packageList packages to search in
+     * @return Set of classes to read for swagger
+     */
+    private static Set<Class<?>> getAPIClasses(Collection<String> packageList) {
+        Set<Class<?>> apiClasses = new HashSet<>(ClassUtils.getAnnotatedClasses(Path.class));
+        apiClasses.addAll(ClassUtils.getAnnotatedClasses(Api.class));
+        apiClasses.addAll(ClassUtils.getAnnotatedClasses(SwaggerDefinition.class));
+
+        Set<Class<?>> classes = new HashSet<>();
+        for (Class<?> apiClass : apiClasses) {
+            for (String packageName : packageList) {
+                if (isInPackage(apiClass, packageName)) {
+                    classes.add(apiClass);
+                    break;
+                }
+            }
+        }
+
+        return classes;
+    }
+
+    private static boolean isInPackage(Class<?> clazz, String packageName) {
+        String classPackage = clazz.getPackage() == null ? "" : clazz.getPackage().getName();
+        return classPackage.equals(packageName) || classPackage.startsWith(packageName + ".");
+    }
+
+    /**
+     * Check if a class would have been registered by Jersey package scanning:
+     * concrete class directly annotated with Path or Provider
+     */
+    private static boolean isComponent(Class<?> clazz) {
+        return !clazz.isInterface()
+                && !Modifier.isAbstract(clazz.getModifiers())
+                && (clazz.isAnnotationPresent(Path.class) || clazz.isAnnotationPresent(Provider.class));
+    }
+
     /**
      * Return list of modules implementing APIExtension
      *
@@ -46,6 +46,7 @@ public class RestModule extends OpenSilexModule implements APIExtension {
         list.add("io.swagger.jaxrs.listing");
         list.add("org.opensilex.rest.authentication");
         list.add("org.opensilex.rest.cors");
+        list.add("org.opensilex.rest.sparql");
         list.add("org.opensilex.rest.validation");
 
         return list;
@@ -13,6 +13,7 @@ import io.swagger.annotations.ApiResponses;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import javax.inject.Inject;
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
@@ -42,6 +43,9 @@ import org.opensilex.server.response.ErrorResponse;
 import org.opensilex.server.response.ObjectUriResponse;
 import org.opensilex.server.response.PaginatedListResponse;
 import org.opensilex.server.response.SingleObjectResponse;
+import org.opensilex.sparql.exceptions.SPARQLInvalidProjectionException;
+import org.opensilex.sparql.exceptions.SPARQLUnknownFieldException;
+import org.opensilex.sparql.mapping.SPARQLClassObjectMapper;
 import org.opensilex.sparql.service.SPARQLService;
 import org.opensilex.sparql.utils.OrderBy;
 import org.opensilex.utils.ListWithPagination;
@@ -167,6 +171,7 @@ public class GroupAPI {
      * fieldName=asc|desc
      * @param page Page number
      * @param pageSize Page size
+     * @param fields Fields to return, all fields if empty
      * @return filtered, ordered and paginated list
      * @throws Exception Return a 500 - INTERNAL_SERVER_ERROR error response
      */
@@ -193,15 +198,39 @@ public class GroupAPI {
             @ApiParam(value = "Page size", example = "20")
             @QueryParam("pageSize")
             @DefaultValue("20")
-            @Min(0) int pageSize
+            @Min(0) int pageSize,
+            @ApiParam(value = "Fields to return, all fields if empty", example = "uri,name")
+            @QueryParam("fields") List<String> fields
     ) throws Exception {
+        // Only read model fields needed by returned DTO
+        Set<String> projection;
+        try {
+            projection = SPARQLClassObjectMapper.getForClass(GroupModel.class).getProjection(GroupGetDTO.class, fields);
+        } catch (SPARQLUnknownFieldException unknownFieldException) {
+            return new ErrorResponse(
+                    Response.Status.BAD_REQUEST,
+                    "Invalid fields",
+                    unknownFieldException.getMessage()
+            ).getResponse();
+        }
+
         GroupDAO dao = new GroupDAO(sparql);
-        ListWithPagination<GroupModel> resultList = dao.search(
-                pattern,
-                orderByList,
-                page,
-                pageSize
-        );
+        ListWithPagination<GroupModel> resultList;
+        try {
+            resultList = dao.search(
+                    pattern,
+                    orderByList,
+                    page,
+                    pageSize,
+                    projection
+            );
+        } catch (SPARQLInvalidProjectionException invalidProjectionException) {
+            return new ErrorResponse(
+                    Response.Status.BAD_REQUEST,
+                    "Invalid fields",
+                    invalidProjectionException.getMessage()
+            ).getResponse();
+        }
 
         // Convert paginated list to DTO
         ListWithPagination<GroupGetDTO> resultDTOList = resultList.convert(
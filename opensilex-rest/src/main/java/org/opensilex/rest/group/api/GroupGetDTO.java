@@ -5,6 +5,7 @@
  */
 package org.opensilex.rest.group.api;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
 import java.net.URI;
@@ -20,6 +21,7 @@ import org.opensilex.rest.user.dal.UserModel;
  * @author vidalmor
  */
 @ApiModel
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class GroupGetDTO {
 
     /**
@@ -75,6 +77,11 @@ public class GroupGetDTO {
         dto.setName(group.getName());
         dto.setDescription(group.getDescription());
         
+        // User profiles are null if not part of requested fields
+        if (group.getUserProfiles() == null) {
+            return dto;
+        }
+
         List<GroupUserProfileDTO> userProfiles = new ArrayList<>();
         group.getUserProfiles().forEach((userProfile) -> {
             GroupUserProfileDTO userProfileDTO = new GroupUserProfileDTO();
@@ -7,9 +7,10 @@ package org.opensilex.rest.group.dal;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import org.apache.jena.arq.querybuilder.SelectBuilder;
-import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.syntax.Element;
 import org.opensilex.rest.profile.dal.ProfileModel;
 import org.opensilex.rest.user.dal.UserModel;
 import org.opensilex.sparql.service.SPARQLQueryHelper;
@@ -48,19 +49,24 @@ public class GroupDAO {
     }
 
     public ListWithPagination<GroupModel> search(String namePattern, List<OrderBy> orderByList, Integer page, Integer pageSize) throws Exception {
+        return search(namePattern, orderByList, page, pageSize, null);
+    }
+
+    public ListWithPagination<GroupModel> search(String namePattern, List<OrderBy> orderByList, Integer page, Integer pageSize, Collection<String> fields) throws Exception {
 
-        Expr nameFilter = SPARQLQueryHelper.regexFilter(GroupModel.NAME_FIELD, namePattern);
+        Element nameSearch = sparql.getTextSearch(GroupModel.class, namePattern, GroupModel.NAME_FIELD);
 
         return sparql.searchWithPagination(
                 GroupModel.class,
                 (SelectBuilder select) -> {
-                    if (nameFilter != null) {
-                        select.addFilter(nameFilter);
-                    }
+                    SPARQLQueryHelper.addWhere(select, nameSearch);
                 },
                 orderByList,
                 page,
-                pageSize
+                pageSize,
+                null,
+                true,
+                fields
         );
     }
 }
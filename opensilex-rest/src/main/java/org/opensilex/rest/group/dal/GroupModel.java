@@ -23,7 +23,8 @@ import org.opensilex.sparql.utils.ClassURIGenerator;
         ontology = SecurityOntology.class,
         resource = "Group",
         graph = "groups",
-        prefix = "g"
+        prefix = "g",
+        cacheInstances = true
 )
 public class GroupModel extends SPARQLResourceModel implements ClassURIGenerator<GroupModel> {
 
@@ -14,6 +14,7 @@ import io.swagger.annotations.ApiResponses;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import javax.inject.Inject;
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
@@ -42,6 +43,9 @@ import org.opensilex.rest.profile.dal.ProfileModel;
 import org.opensilex.rest.validation.ValidURI;
 import org.opensilex.server.response.ErrorDTO;
 import org.opensilex.server.response.PaginatedListResponse;
+import org.opensilex.sparql.exceptions.SPARQLInvalidProjectionException;
+import org.opensilex.sparql.exceptions.SPARQLUnknownFieldException;
+import org.opensilex.sparql.mapping.SPARQLClassObjectMapper;
 import org.opensilex.sparql.service.SPARQLService;
 import org.opensilex.sparql.utils.OrderBy;
 import org.opensilex.utils.ListWithPagination;
@@ -172,16 +176,39 @@ public class ProfileAPI {
             @ApiParam(value = "Regex pattern for filtering list by name", example = ".*") @DefaultValue(".*") @QueryParam("pattern") String pattern,
             @ApiParam(value = "List of fields to sort as an array of fieldName=asc|desc", example = "email=asc") @QueryParam("orderBy") List<OrderBy> orderByList,
             @ApiParam(value = "Page number", example = "0") @QueryParam("page") @DefaultValue("0") @Min(0) int page,
-            @ApiParam(value = "Page size", example = "20") @QueryParam("pageSize") @DefaultValue("20") @Min(0) int pageSize
+            @ApiParam(value = "Page size", example = "20") @QueryParam("pageSize") @DefaultValue("20") @Min(0) int pageSize,
+            @ApiParam(value = "Fields to return, all fields if empty", example = "uri,name") @QueryParam("fields") List<String> fields
     ) throws Exception {
+        // Only read model fields needed by returned DTO
+        Set<String> projection;
+        try {
+            projection = SPARQLClassObjectMapper.getForClass(ProfileModel.class).getProjection(ProfileGetDTO.class, fields);
+        } catch (SPARQLUnknownFieldException unknownFieldException) {
+            return new ErrorResponse(
+                    Response.Status.BAD_REQUEST,
+                    "Invalid fields",
+                    unknownFieldException.getMessage()
+            ).getResponse();
+        }
+
         // Search profiles with Profile DAO
         ProfileDAO dao = new ProfileDAO(sparql);
-        ListWithPagination<ProfileModel> resultList = dao.search(
-                pattern,
-                orderByList,
-                page,
-                pageSize
-        );
+        ListWithPagination<ProfileModel> resultList;
+        try {
+            resultList = dao.search(
+                    pattern,
+                    orderByList,
+                    page,
+                    pageSize,
+                    projection
+            );
+        } catch (SPARQLInvalidProjectionException invalidProjectionException) {
+            return new ErrorResponse(
+                    Response.Status.BAD_REQUEST,
+                    "Invalid fields",
+                    invalidProjectionException.getMessage()
+            ).getResponse();
+        }
 
         // Convert paginated list to DTO
         ListWithPagination<ProfileGetDTO> resultDTOList = resultList.convert(
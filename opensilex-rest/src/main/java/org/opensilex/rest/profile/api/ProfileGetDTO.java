@@ -6,6 +6,7 @@
 //******************************************************************************
 package org.opensilex.rest.profile.api;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
 import java.net.URI;
@@ -30,6 +31,7 @@ import org.opensilex.rest.profile.dal.ProfileModel;
  * @author Vincent Migot
  */
 @ApiModel
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class ProfileGetDTO {
 
     /**
@@ -6,12 +6,13 @@
 package org.opensilex.rest.profile.dal;
 
 import java.net.URI;
+import java.util.Collection;
 import java.util.List;
 import static org.apache.jena.arq.querybuilder.AbstractQueryBuilder.makeVar;
 import org.apache.jena.arq.querybuilder.SelectBuilder;
 import org.apache.jena.arq.querybuilder.handlers.WhereHandler;
 import org.apache.jena.sparql.core.Var;
-import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.syntax.Element;
 import org.apache.jena.sparql.syntax.ElementNamedGraph;
 import org.apache.jena.vocabulary.DCTerms;
 import org.opensilex.rest.authentication.SecurityOntology;
@@ -73,19 +74,24 @@ public class ProfileDAO {
     }
 
     public ListWithPagination<ProfileModel> search(String namePattern, List<OrderBy> orderByList, Integer page, Integer pageSize) throws Exception {
+        return search(namePattern, orderByList, page, pageSize, null);
+    }
+
+    public ListWithPagination<ProfileModel> search(String namePattern, List<OrderBy> orderByList, Integer page, Integer pageSize, Collection<String> fields) throws Exception {
 
-        Expr nameFilter = SPARQLQueryHelper.regexFilter(ProfileModel.NAME_FIELD, namePattern);
+        Element nameSearch = sparql.getTextSearch(ProfileModel.class, namePattern, ProfileModel.NAME_FIELD);
 
         return sparql.searchWithPagination(
                 ProfileModel.class,
                 (SelectBuilder select) -> {
-                    if (nameFilter != null) {
-                        select.addFilter(nameFilter);
-                    }
+                    SPARQLQueryHelper.addWhere(select, nameSearch);
                 },
                 orderByList,
                 page,
-                pageSize
+                pageSize,
+                null,
+                true,
+                fields
         );
     }
 
@@ -21,7 +21,8 @@ import org.opensilex.sparql.utils.ClassURIGenerator;
         ontology = SecurityOntology.class,
         resource = "Profile",
         graph = "profiles",
-        prefix = "profiles"
+        prefix = "profiles",
+        cacheInstances = true
 )
 public class ProfileModel extends SPARQLResourceModel implements ClassURIGenerator<ProfileModel> {
 
@@ -0,0 +1,53 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.rest.sparql;
+
+import java.io.IOException;
+import javax.annotation.Priority;
+import javax.inject.Inject;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.ext.Provider;
+import org.opensilex.sparql.service.SPARQLService;
+
+/**
+ * <pre>
+ * SPARQL identity map filter.
+ * For more information on request filters with Jersey
+ * see: https://eclipse-ee4j.github.io/jersey.github.io/documentation/latest/filters-and-interceptors.html
+ *
+ * Open a SPARQL identity map for each request, so an object loaded several
+ * times by URI during the request (for example a user referenced by multiple
+ * relations) is queried only once, and close it when response is sent.
+ *
+ * Identity map is opened before authentication so the current user loaded by
+ * authentication filter is shared with services.
+ * </pre>
+ *
+ * @see org.opensilex.sparql.service.SPARQLIdentityMap
+ * @author vincent
+ */
+@Provider
+@Priority(Priorities.AUTHENTICATION - 1)
+public class SPARQLIdentityMapFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+    @Inject
+    SPARQLService sparql;
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) throws IOException {
+        sparql.openIdentityMap();
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext)
+            throws IOException {
+        sparql.closeIdentityMap();
+    }
+}
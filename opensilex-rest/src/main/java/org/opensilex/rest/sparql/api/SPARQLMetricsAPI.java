@@ -0,0 +1,138 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.rest.sparql.api;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+import io.swagger.annotations.ApiParam;
+import io.swagger.annotations.ApiResponse;
+import io.swagger.annotations.ApiResponses;
+import javax.inject.Inject;
+import javax.validation.constraints.Min;
+import javax.ws.rs.DELETE;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.SecurityContext;
+import org.opensilex.rest.authentication.ApiProtected;
+import org.opensilex.rest.authentication.AuthenticationService;
+import org.opensilex.rest.user.dal.UserModel;
+import org.opensilex.server.exceptions.ForbiddenException;
+import org.opensilex.server.response.ErrorDTO;
+import org.opensilex.server.response.ErrorResponse;
+import org.opensilex.server.response.SingleObjectResponse;
+import org.opensilex.sparql.service.SPARQLQueryMetrics;
+import org.opensilex.sparql.service.SPARQLService;
+
+/**
+ * <pre>
+ * Administration service giving access to SPARQL query metrics.
+ * </pre>
+ *
+ * @see org.opensilex.sparql.service.SPARQLQueryMetrics
+ * @author vincent
+ */
+@Api("SPARQL")
+@Path("/sparql")
+public class SPARQLMetricsAPI {
+
+    /**
+     * Inject SPARQL service
+     */
+    @Inject
+    private SPARQLService sparql;
+
+    /**
+     * Inject Authentication service
+     */
+    @Inject
+    private AuthenticationService authentication;
+
+    /**
+     * Return SPARQL query metrics report
+     *
+     * @param limit maximum number of returned query shapes
+     * @param securityContext security context
+     * @return metrics report
+     * @throws Exception Return a 500 - INTERNAL_SERVER_ERROR error response
+     */
+    @GET
+    @Path("metrics")
+    @ApiOperation("Get SPARQL query metrics and most expensive query shapes")
+    @ApiProtected
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiResponses({
+        @ApiResponse(code = 200, message = "Return SPARQL query metrics", response = SPARQLMetricsDTO.class),
+        @ApiResponse(code = 403, message = "Current user is not an admin", response = ErrorDTO.class),
+        @ApiResponse(code = 404, message = "SPARQL query metrics are disabled", response = ErrorDTO.class)
+    })
+    public Response getMetrics(
+            @ApiParam(value = "Maximum number of returned query shapes", example = "20") @QueryParam("limit") @DefaultValue("20") @Min(0) int limit,
+            @Context SecurityContext securityContext
+    ) throws Exception {
+        checkAdmin(securityContext);
+
+        SPARQLQueryMetrics metrics = sparql.getQueryMetrics();
+        if (metrics == null) {
+            return getDisabledResponse();
+        }
+
+        return new SingleObjectResponse<>(
+                SPARQLMetricsDTO.fromMetrics(metrics, sparql.getInstanceCache(), limit)
+        ).getResponse();
+    }
+
+    /**
+     * Reset SPARQL query metrics
+     *
+     * @param securityContext security context
+     * @return empty response
+     * @throws Exception Return a 500 - INTERNAL_SERVER_ERROR error response
+     */
+    @DELETE
+    @Path("metrics")
+    @ApiOperation("Reset SPARQL query metrics")
+    @ApiProtected
+    @Produces(MediaType.APPLICATION_JSON)
+    @ApiResponses({
+        @ApiResponse(code = 200, message = "SPARQL query metrics reset"),
+        @ApiResponse(code = 403, message = "Current user is not an admin", response = ErrorDTO.class),
+        @ApiResponse(code = 404, message = "SPARQL query metrics are disabled", response = ErrorDTO.class)
+    })
+    public Response resetMetrics(
+            @Context SecurityContext securityContext
+    ) throws Exception {
+        checkAdmin(securityContext);
+
+        SPARQLQueryMetrics metrics = sparql.getQueryMetrics();
+        if (metrics == null) {
+            return getDisabledResponse();
+        }
+
+        metrics.reset();
+        return Response.ok().build();
+    }
+
+    private void checkAdmin(SecurityContext securityContext) throws ForbiddenException {
+        UserModel currentUser = authentication.getCurrentUser(securityContext);
+        if (currentUser == null || !currentUser.isAdmin()) {
+            throw new ForbiddenException("You must be an admin to access SPARQL query metrics");
+        }
+    }
+
+    private Response getDisabledResponse() {
+        return new ErrorResponse(
+                Response.Status.NOT_FOUND,
+                "SPARQL query metrics are disabled",
+                "Enable queryMetrics in SPARQL module configuration"
+        ).getResponse();
+    }
+}
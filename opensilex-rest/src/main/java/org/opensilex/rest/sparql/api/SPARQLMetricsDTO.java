@@ -0,0 +1,107 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.rest.sparql.api;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.opensilex.sparql.service.SPARQLInstanceCache;
+import org.opensilex.sparql.service.SPARQLQueryMetrics;
+import org.opensilex.sparql.service.SPARQLQueryStats;
+
+/**
+ * <pre>
+ * SPARQL query metrics report: statistics by query kind, most expensive query
+ * shapes and instance cache statistics.
+ * </pre>
+ *
+ * @author vincent
+ */
+@ApiModel
+public class SPARQLMetricsDTO {
+
+    protected long[] histogramBounds;
+
+    protected List<SPARQLQueryStatsDTO> queryKinds;
+
+    protected List<SPARQLQueryStatsDTO> topShapes;
+
+    protected int instanceCacheSize;
+
+    protected long instanceCacheHits;
+
+    protected long instanceCacheMisses;
+
+    @ApiModelProperty(value = "Upper bounds in milliseconds of histogram buckets, last bucket is unbounded")
+    public long[] getHistogramBounds() {
+        return histogramBounds;
+    }
+
+    public void setHistogramBounds(long[] histogramBounds) {
+        this.histogramBounds = histogramBounds;
+    }
+
+    @ApiModelProperty(value = "Statistics by query kind")
+    public List<SPARQLQueryStatsDTO> getQueryKinds() {
+        return queryKinds;
+    }
+
+    public void setQueryKinds(List<SPARQLQueryStatsDTO> queryKinds) {
+        this.queryKinds = queryKinds;
+    }
+
+    @ApiModelProperty(value = "Shapes of slow queries sorted by decreasing total execution time")
+    public List<SPARQLQueryStatsDTO> getTopShapes() {
+        return topShapes;
+    }
+
+    public void setTopShapes(List<SPARQLQueryStatsDTO> topShapes) {
+        this.topShapes = topShapes;
+    }
+
+    @ApiModelProperty(value = "Number of cached instances", example = "1500")
+    public int getInstanceCacheSize() {
+        return instanceCacheSize;
+    }
+
+    public void setInstanceCacheSize(int instanceCacheSize) {
+        this.instanceCacheSize = instanceCacheSize;
+    }
+
+    @ApiModelProperty(value = "Number of instances loaded from cache", example = "12000")
+    public long getInstanceCacheHits() {
+        return instanceCacheHits;
+    }
+
+    public void setInstanceCacheHits(long instanceCacheHits) {
+        this.instanceCacheHits = instanceCacheHits;
+    }
+
+    @ApiModelProperty(value = "Number of instances loaded from triplestore", example = "3000")
+    public long getInstanceCacheMisses() {
+        return instanceCacheMisses;
+    }
+
+    public void setInstanceCacheMisses(long instanceCacheMisses) {
+        this.instanceCacheMisses = instanceCacheMisses;
+    }
+
+    public static SPARQLMetricsDTO fromMetrics(SPARQLQueryMetrics metrics, SPARQLInstanceCache instanceCache, int limit) {
+        SPARQLMetricsDTO dto = new SPARQLMetricsDTO();
+        dto.setHistogramBounds(SPARQLQueryStats.HISTOGRAM_BOUNDS);
+        dto.setQueryKinds(metrics.getStatsByKind().stream()
+                .map(SPARQLQueryStatsDTO::fromStats)
+                .collect(Collectors.toList()));
+        dto.setTopShapes(metrics.getTopShapes(limit).stream()
+                .map(SPARQLQueryStatsDTO::fromStats)
+                .collect(Collectors.toList()));
+        dto.setInstanceCacheSize(instanceCache.size());
+        dto.setInstanceCacheHits(instanceCache.getHitCount());
+        dto.setInstanceCacheMisses(instanceCache.getMissCount());
+        return dto;
+    }
+}
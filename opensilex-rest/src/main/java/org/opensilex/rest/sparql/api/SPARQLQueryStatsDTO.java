@@ -0,0 +1,146 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.rest.sparql.api;
+
+import io.swagger.annotations.ApiModel;
+import io.swagger.annotations.ApiModelProperty;
+import org.opensilex.sparql.service.SPARQLQueryStats;
+
+/**
+ * <pre>
+ * Statistics of a SPARQL query kind or query shape.
+ * </pre>
+ *
+ * @author vincent
+ */
+@ApiModel
+public class SPARQLQueryStatsDTO {
+
+    protected String key;
+
+    protected String kind;
+
+    protected long count;
+
+    protected long errors;
+
+    protected double totalTime;
+
+    protected double meanTime;
+
+    protected double maxTime;
+
+    protected long rows;
+
+    protected long queryBytes;
+
+    protected long[] histogram;
+
+    @ApiModelProperty(value = "Query kind or normalized query shape", example = "SELECT ?uri WHERE { ?uri a <?> } LIMIT ?")
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    @ApiModelProperty(value = "Query kind", example = "SELECT")
+    public String getKind() {
+        return kind;
+    }
+
+    public void setKind(String kind) {
+        this.kind = kind;
+    }
+
+    @ApiModelProperty(value = "Number of executed queries", example = "42")
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    @ApiModelProperty(value = "Number of failed queries", example = "0")
+    public long getErrors() {
+        return errors;
+    }
+
+    public void setErrors(long errors) {
+        this.errors = errors;
+    }
+
+    @ApiModelProperty(value = "Total execution time in milliseconds", example = "1250.5")
+    public double getTotalTime() {
+        return totalTime;
+    }
+
+    public void setTotalTime(double totalTime) {
+        this.totalTime = totalTime;
+    }
+
+    @ApiModelProperty(value = "Mean execution time in milliseconds", example = "29.8")
+    public double getMeanTime() {
+        return meanTime;
+    }
+
+    public void setMeanTime(double meanTime) {
+        this.meanTime = meanTime;
+    }
+
+    @ApiModelProperty(value = "Maximum execution time in milliseconds", example = "210.3")
+    public double getMaxTime() {
+        return maxTime;
+    }
+
+    public void setMaxTime(double maxTime) {
+        this.maxTime = maxTime;
+    }
+
+    @ApiModelProperty(value = "Total number of returned results or statements", example = "840")
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    @ApiModelProperty(value = "Total size of sent queries in bytes", example = "25000")
+    public long getQueryBytes() {
+        return queryBytes;
+    }
+
+    public void setQueryBytes(long queryBytes) {
+        this.queryBytes = queryBytes;
+    }
+
+    @ApiModelProperty(value = "Number of queries by duration bucket, see histogramBounds")
+    public long[] getHistogram() {
+        return histogram;
+    }
+
+    public void setHistogram(long[] histogram) {
+        this.histogram = histogram;
+    }
+
+    public static SPARQLQueryStatsDTO fromStats(SPARQLQueryStats stats) {
+        SPARQLQueryStatsDTO dto = new SPARQLQueryStatsDTO();
+        dto.setKey(stats.getKey());
+        dto.setKind(stats.getKind().name());
+        dto.setCount(stats.getCount());
+        dto.setErrors(stats.getErrors());
+        dto.setTotalTime(stats.getTotalTime());
+        dto.setMeanTime(stats.getMeanTime());
+        dto.setMaxTime(stats.getMaxTime());
+        dto.setRows(stats.getRows());
+        dto.setQueryBytes(stats.getQueryBytes());
+        dto.setHistogram(stats.getHistogram());
+        return dto;
+    }
+}
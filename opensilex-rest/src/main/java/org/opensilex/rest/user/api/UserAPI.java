@@ -13,6 +13,7 @@ import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import java.net.URI;
 import java.util.List;
+import java.util.Set;
 import javax.inject.Inject;
 import javax.mail.internet.InternetAddress;
 import javax.validation.Valid;
@@ -42,6 +43,10 @@ import org.opensilex.server.response.ObjectUriResponse;
 import org.opensilex.server.response.SingleObjectResponse;
 import org.opensilex.rest.authentication.ApiProtected;
 import org.opensilex.rest.authentication.AuthenticationService;
+import org.opensilex.sparql.exceptions.SPARQLInvalidCursorException;
+import org.opensilex.sparql.exceptions.SPARQLInvalidProjectionException;
+import org.opensilex.sparql.exceptions.SPARQLUnknownFieldException;
+import org.opensilex.sparql.mapping.SPARQLClassObjectMapper;
 import org.opensilex.sparql.service.SPARQLService;
 import org.opensilex.rest.user.dal.UserDAO;
 import org.opensilex.rest.user.dal.UserModel;
@@ -188,6 +193,9 @@ public class UserAPI {
      * fieldName=asc|desc
      * @param page Page number
      * @param pageSize Page size
+     * @param cursor Cursor of the next page returned by a previous search
+     * @param countTotal Compute total count if true
+     * @param fields Fields to return, all fields if empty
      * @return filtered, ordered and paginated list
      * @throws Exception Return a 500 - INTERNAL_SERVER_ERROR error response
      */
@@ -205,16 +213,49 @@ public class UserAPI {
             @ApiParam(value = "Regex pattern for filtering list by names or email", example = ".*") @DefaultValue(".*") @QueryParam("pattern") String pattern,
             @ApiParam(value = "List of fields to sort as an array of fieldName=asc|desc", example = "email=asc") @QueryParam("orderBy") List<OrderBy> orderByList,
             @ApiParam(value = "Page number", example = "0") @QueryParam("page") @DefaultValue("0") @Min(0) int page,
-            @ApiParam(value = "Page size", example = "20") @QueryParam("pageSize") @DefaultValue("20") @Min(0) int pageSize
+            @ApiParam(value = "Page size", example = "20") @QueryParam("pageSize") @DefaultValue("20") @Min(0) int pageSize,
+            @ApiParam(value = "Cursor of the next page returned by a previous search, page number is ignored if given") @QueryParam("cursor") String cursor,
+            @ApiParam(value = "Compute total count, if false total is an estimate and only hasMore is reliable") @QueryParam("countTotal") @DefaultValue("true") boolean countTotal,
+            @ApiParam(value = "Fields to return, all fields if empty", example = "uri,email") @QueryParam("fields") List<String> fields
     ) throws Exception {
+        // Only read model fields needed by returned DTO
+        Set<String> projection;
+        try {
+            projection = SPARQLClassObjectMapper.getForClass(UserModel.class).getProjection(UserGetDTO.class, fields);
+        } catch (SPARQLUnknownFieldException unknownFieldException) {
+            return new ErrorResponse(
+                    Response.Status.BAD_REQUEST,
+                    "Invalid fields",
+                    unknownFieldException.getMessage()
+            ).getResponse();
+        }
+
         // Search users with User DAO
         UserDAO dao = new UserDAO(sparql, authentication);
-        ListWithPagination<UserModel> resultList = dao.search(
-                pattern,
-                orderByList,
-                page,
-                pageSize
-        );
+        ListWithPagination<UserModel> resultList;
+        try {
+            resultList = dao.search(
+                    pattern,
+                    orderByList,
+                    page,
+                    pageSize,
+                    cursor,
+                    countTotal,
+                    projection
+            );
+        } catch (SPARQLInvalidCursorException invalidCursorException) {
+            return new ErrorResponse(
+                    Response.Status.BAD_REQUEST,
+                    "Invalid cursor",
+                    invalidCursorException.getMessage()
+            ).getResponse();
+        } catch (SPARQLInvalidProjectionException invalidProjectionException) {
+            return new ErrorResponse(
+                    Response.Status.BAD_REQUEST,
+                    "Invalid fields",
+                    invalidProjectionException.getMessage()
+            ).getResponse();
+        }
 
         // Convert paginated list to DTO
         ListWithPagination<UserGetDTO> resultDTOList = resultList.convert(
@@ -76,7 +76,7 @@ public class UserCreationDTO extends UserGetDTO {
 
     @NotNull
     @ApiModelProperty(value = "User admin flag", example = "false", required = true)
-    public boolean isAdmin() {
+    public Boolean isAdmin() {
         return super.isAdmin();
     }
 }
@@ -6,6 +6,8 @@
 //******************************************************************************
 package org.opensilex.rest.user.api;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.annotations.ApiModel;
 import io.swagger.annotations.ApiModelProperty;
 import java.net.URI;
@@ -23,6 +25,8 @@ import org.opensilex.rest.user.dal.UserModel;
  *      lastName: ... user last name
  *      admin: ... flag to define if user is an admin or not
  * }
+ *
+ * Fields out of requested fields of a search are null and omitted.
  * </pre>
  *
  * @see org.opensilex.rest.user.api.UserAPI#getUser(java.net.URI)
@@ -30,6 +34,7 @@ import org.opensilex.rest.user.dal.UserModel;
  * @author Vincent Migot
  */
 @ApiModel
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class UserGetDTO {
 
     /**
@@ -55,7 +60,7 @@ public class UserGetDTO {
     /**
      * Determine if user is admin or not
      */
-    protected boolean admin;
+    protected Boolean admin;
 
     @ApiModelProperty(value = "User URI", example = "http://opensilex.dev/users#Admin.OpenSilex")
     public URI getUri() {
@@ -94,11 +99,12 @@ public class UserGetDTO {
     }
 
     @ApiModelProperty(value = "User admin flag", example = "false")
-    public boolean isAdmin() {
+    @JsonProperty("admin")
+    public Boolean isAdmin() {
         return admin;
     }
 
-    public void setAdmin(boolean admin) {
+    public void setAdmin(Boolean admin) {
         this.admin = admin;
     }
 
@@ -113,7 +119,9 @@ public class UserGetDTO {
 
         dto.setUri(model.getUri());
         dto.setAdmin(model.isAdmin());
-        dto.setEmail(model.getEmail().toString());
+        if (model.getEmail() != null) {
+            dto.setEmail(model.getEmail().toString());
+        }
         dto.setFirstName(model.getFirstName());
         dto.setLastName(model.getLastName());
 
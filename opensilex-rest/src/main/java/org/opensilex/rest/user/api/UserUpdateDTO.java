@@ -77,7 +77,7 @@ public class UserUpdateDTO extends UserGetDTO {
 
     @NotNull
     @ApiModelProperty(value = "User admin flag", example = "false", required = true)
-    public boolean isAdmin() {
+    public Boolean isAdmin() {
         return super.isAdmin();
     }
 
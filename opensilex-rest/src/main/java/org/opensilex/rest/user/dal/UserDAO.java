@@ -7,10 +7,11 @@ package org.opensilex.rest.user.dal;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import javax.mail.internet.InternetAddress;
 import org.apache.jena.arq.querybuilder.SelectBuilder;
-import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.syntax.Element;
 import org.apache.jena.sparql.vocabulary.FOAF;
 import org.opensilex.rest.authentication.AuthenticationService;
 import org.opensilex.rest.profile.dal.ProfileDAO;
@@ -143,23 +144,34 @@ public class UserDAO {
     }
 
     public ListWithPagination<UserModel> search(String stringPattern, List<OrderBy> orderByList, Integer page, Integer pageSize) throws Exception {
+        return search(stringPattern, orderByList, page, pageSize, null, true);
+    }
+
+    public ListWithPagination<UserModel> search(String stringPattern, List<OrderBy> orderByList, Integer page, Integer pageSize, String cursor, boolean countTotal) throws Exception {
+        return search(stringPattern, orderByList, page, pageSize, cursor, countTotal, null);
+    }
 
-        Expr stringFilter = SPARQLQueryHelper.or(
-                SPARQLQueryHelper.regexFilter(UserModel.FIRST_NAME_FIELD, stringPattern),
-                SPARQLQueryHelper.regexFilter(UserModel.LAST_NAME_FIELD, stringPattern),
-                SPARQLQueryHelper.regexFilter(UserModel.EMAIL_FIELD, stringPattern)
+    public ListWithPagination<UserModel> search(String stringPattern, List<OrderBy> orderByList, Integer page, Integer pageSize, String cursor, boolean countTotal, Collection<String> fields) throws Exception {
+
+        Element stringSearch = sparql.getTextSearch(
+                UserModel.class,
+                stringPattern,
+                UserModel.FIRST_NAME_FIELD,
+                UserModel.LAST_NAME_FIELD,
+                UserModel.EMAIL_FIELD
         );
 
         return sparql.searchWithPagination(
                 UserModel.class,
                 (SelectBuilder select) -> {
-                    if (stringFilter != null) {
-                        select.addFilter(stringFilter);
-                    }
+                    SPARQLQueryHelper.addWhere(select, stringSearch);
                 },
                 orderByList,
                 page,
-                pageSize
+                pageSize,
+                cursor,
+                countTotal,
+                fields
         );
     }
 }
@@ -22,7 +22,8 @@ import org.opensilex.sparql.utils.ClassURIGenerator;
         ontology = FOAF.class,
         resource = "Agent",
         graph = "users",
-        prefix = "u"
+        prefix = "u",
+        cacheInstances = true
 )
 public class UserModel extends SPARQLResourceModel implements Principal, ClassURIGenerator<UserModel> {
 
@@ -0,0 +1,47 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package test.opensilex.rest.user.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import javax.mail.internet.InternetAddress;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.opensilex.rest.user.api.UserGetDTO;
+import org.opensilex.rest.user.dal.UserModel;
+
+/**
+ *
+ * @author vincent
+ */
+public class UserGetDTOTest {
+
+    private final ObjectMapper jsonMapper = new ObjectMapper();
+
+    @Test
+    public void testFieldsOutOfProjectionAreOmitted() throws Exception {
+        UserModel model = new UserModel();
+        model.setEmail(new InternetAddress("jean.michel@example.com"));
+        model.setAdmin(null);
+
+        JsonNode json = jsonMapper.valueToTree(UserGetDTO.fromModel(model));
+        assertEquals("jean.michel@example.com", json.get("email").asText());
+        assertFalse("Non requested admin flag must be omitted", json.has("admin"));
+        assertFalse("Non requested first name must be omitted", json.has("firstName"));
+    }
+
+    @Test
+    public void testAdminFlagIsSerialized() throws Exception {
+        UserModel model = new UserModel();
+        model.setAdmin(Boolean.TRUE);
+
+        JsonNode json = jsonMapper.valueToTree(UserGetDTO.fromModel(model));
+        assertTrue("Admin flag must keep its JSON name", json.get("admin").asBoolean());
+        assertFalse("Admin flag must not be serialized twice", json.has("isAdmin"));
+    }
+}
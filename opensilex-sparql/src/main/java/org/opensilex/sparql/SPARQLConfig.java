@@ -32,4 +32,52 @@ public interface SPARQLConfig extends ModuleConfig {
             value = "SPARQL data source"
     )
     public SPARQLService sparql();
+
+    @ConfigDescription(
+            value = "Maximum number of cached search counts, 0 to disable count cache",
+            defaultInt = SPARQLService.DEFAULT_COUNT_CACHE_SIZE
+    )
+    public int countCacheSize();
+
+    @ConfigDescription(
+            value = "Cached search counts time to live in milliseconds, negative for no expiration",
+            defaultLong = SPARQLService.DEFAULT_COUNT_CACHE_TTL
+    )
+    public long countCacheTTL();
+
+    @ConfigDescription(
+            value = "Maximum number of cached instances loaded by URI, 0 to disable instance cache",
+            defaultInt = SPARQLService.DEFAULT_INSTANCE_CACHE_SIZE
+    )
+    public int instanceCacheSize();
+
+    @ConfigDescription(
+            value = "Enable SPARQL query metrics",
+            defaultBoolean = true
+    )
+    public boolean queryMetrics();
+
+    @ConfigDescription(
+            value = "Duration in milliseconds above which SPARQL queries are logged and recorded by shape, negative to disable slow queries log",
+            defaultLong = SPARQLService.DEFAULT_SLOW_QUERY_THRESHOLD
+    )
+    public long slowQueryThreshold();
+
+    @ConfigDescription(
+            value = "Keep rdfs:subClassOf hierarchy in memory to avoid property paths in queries, disable it if ontologies change at runtime",
+            defaultBoolean = true
+    )
+    public boolean classHierarchyCache();
+
+    @ConfigDescription(
+            value = "Answer name and label searches with in memory full text indexes (substring, token prefix and fuzzy queries) instead of regular expressions",
+            defaultBoolean = true
+    )
+    public boolean textIndex();
+
+    @ConfigDescription(
+            value = "Maximum number of resources matched by a full text index search, regular expressions are used above",
+            defaultInt = SPARQLService.DEFAULT_TEXT_INDEX_MAX_MATCHES
+    )
+    public int textIndexMaxMatches();
 }
@@ -15,6 +15,8 @@ import org.opensilex.module.ModuleNotFoundException;
 import org.opensilex.OpenSilexModule;
 import org.opensilex.sparql.deserializer.URIDeserializer;
 import org.opensilex.sparql.mapping.SPARQLClassObjectMapper;
+import org.opensilex.sparql.service.SPARQLLRUInstanceCache;
+import org.opensilex.sparql.service.SPARQLQueryMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,6 +51,18 @@ public class SPARQLModule extends OpenSilexModule {
         }
 
         SPARQLService sparql = sparqlConfig.sparql();
+        sparql.setCountCache(sparqlConfig.countCacheSize(), sparqlConfig.countCacheTTL());
+        sparql.setInstanceCache(new SPARQLLRUInstanceCache(sparqlConfig.instanceCacheSize()));
+        sparql.setTextIndex(sparqlConfig.textIndex(), sparqlConfig.textIndexMaxMatches());
+        if (sparqlConfig.queryMetrics()) {
+            sparql.setQueryMetrics(new SPARQLQueryMetrics(sparqlConfig.slowQueryThreshold(), SPARQLQueryMetrics.DEFAULT_MAX_SHAPES));
+        } else {
+            sparql.setQueryMetrics(null);
+        }
+
+        // Build all mappers eagerly so lookups never wait for initialization
+        SPARQLClassObjectMapper.initialize();
+
         SPARQLClassObjectMapper.forEach((Resource resource, SPARQLClassObjectMapper<?> mapper) -> {
             String resourceNamespace = mapper.getResourceGraphNamespace();
             String resourcePrefix = mapper.getResourceGraphPrefix();
@@ -61,6 +75,12 @@ public class SPARQLModule extends OpenSilexModule {
         SPARQLConfig cfg = OpenSilex.getModuleConfig(SPARQLModule.class, SPARQLConfig.class);
         sparql.addPrefix(cfg.baseURIAlias(), cfg.baseURI());
 
+        if (sparqlConfig.classHierarchyCache()) {
+            sparql.enableClassHierarchyCache();
+        } else {
+            sparql.disableClassHierarchyCache();
+        }
+
     }
 
     /**
@@ -33,4 +33,11 @@ public @interface SPARQLResource {
     public String graph() default "";
 
     public String prefix() default "";
+
+    /**
+     * Enable SPARQL service instance cache for loads by URI of this class
+     *
+     * @return true if instances loaded by URI are cached
+     */
+    public boolean cacheInstances() default false;
 }
@@ -0,0 +1,198 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.cli;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFLanguages;
+import org.opensilex.OpenSilex;
+import org.opensilex.cli.OpenSilexCommand;
+import org.opensilex.cli.help.HelpOption;
+import org.opensilex.cli.help.HelpPrinterCommand;
+import org.opensilex.sparql.SPARQLModule;
+import org.opensilex.sparql.service.SPARQLService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+/**
+ * <pre>
+ * This class regroup all commands concerning OpenSilex SPARQL operations:
+ * - load: Load RDF files into a graph
+ * - benchmark: Measure SELECT queries execution time on configured repository
+ * </pre>
+ *
+ * @author vincent
+ */
+@Command(
+        name = "sparql",
+        header = "Subcommand to group OpenSILEX SPARQL operations"
+)
+public class SPARQLCommands extends HelpPrinterCommand implements OpenSilexCommand {
+
+    private final static Logger LOGGER = LoggerFactory.getLogger(SPARQLCommands.class);
+
+    /**
+     * This method load RDF files into a graph, files are loaded in parallel
+     * and each one is streamed by chunks in its own transaction
+     *
+     * @param graph Graph URI to load files into (default: platform graph)
+     * @param format RDF format of files, deduced from file extensions if not
+     * defined
+     * @param chunkSize Maximum number of triples added at once
+     * @param threads Maximum number of files loaded in parallel
+     * @param files RDF files to load
+     * @param help Helper parameter to allow help usage display for this command
+     * @throws Exception if command fail
+     */
+    @Command(
+            name = "load",
+            header = "Load RDF files into a graph",
+            description = "Load RDF files in parallel into a graph, streaming their content by chunks"
+    )
+    public void load(
+            @Option(names = {"--graph"}, description = "Define graph URI to load files into (default: platform graph)") URI graph,
+            @Option(names = {"--format"}, description = "Define RDF format of files (RDF/XML, TURTLE, N-TRIPLES...), deduced from file extensions by default") String format,
+            @Option(names = {"--chunkSize"}, description = "Define maximum number of triples added at once", defaultValue = "10000") int chunkSize,
+            @Option(names = {"--threads"}, description = "Define maximum number of files loaded in parallel", defaultValue = "4") int threads,
+            @Parameters(description = "List of RDF files to load") List<File> files,
+            @Mixin HelpOption help
+    ) throws Exception {
+        List<Lang> formats = new ArrayList<>();
+        for (File file : files) {
+            Lang lang;
+            if (format != null) {
+                lang = RDFLanguages.nameToLang(format);
+            } else {
+                lang = RDFLanguages.filenameToLang(file.getName());
+            }
+
+            if (lang == null) {
+                LOGGER.error("Unknown RDF format for file: " + file.getPath() + ", use --format option to define it");
+                return;
+            }
+            formats.add(lang);
+        }
+
+        OpenSilex opensilex = OpenSilex.getInstance();
+        SPARQLService sparql = opensilex.getServiceInstance(SPARQLService.DEFAULT_SPARQL_SERVICE, SPARQLService.class);
+
+        URI graphURI = graph;
+        if (graphURI == null) {
+            graphURI = SPARQLModule.getPlatformURI();
+        }
+        final URI loadGraph = graphURI;
+
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, files.size())));
+        List<Future<Long>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < files.size(); i++) {
+                File file = files.get(i);
+                Lang lang = formats.get(i);
+                results.add(executor.submit(() -> {
+                    LOGGER.info("Loading file: " + file.getPath());
+                    try (InputStream stream = new BufferedInputStream(new FileInputStream(file))) {
+                        return sparql.loadOntologyStream(loadGraph, stream, lang, chunkSize);
+                    }
+                }));
+            }
+
+            long tripleCount = 0;
+            int loadedFiles = 0;
+            for (int i = 0; i < files.size(); i++) {
+                try {
+                    tripleCount += results.get(i).get();
+                    loadedFiles++;
+                } catch (ExecutionException ex) {
+                    LOGGER.error("Error while loading file: " + files.get(i).getPath(), ex.getCause());
+                }
+            }
+
+            long duration = Math.max(1, System.currentTimeMillis() - start);
+            LOGGER.info("Loaded " + tripleCount + " triples from " + loadedFiles + "/" + files.size() + " file(s) into graph " + loadGraph
+                    + " in " + duration + "ms (" + (tripleCount * 1000 / duration) + " triples/s)");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * This method measure execution time of SELECT queries on the configured
+     * repository, allowing to compare repository types (http, native, memory)
+     * and result formats requested to RDF4J server
+     *
+     * @param warmup Number of untimed executions of each query
+     * @param iterations Number of timed executions of each query
+     * @param files Files containing a SPARQL SELECT query
+     * @param help Helper parameter to allow help usage display for this command
+     * @throws Exception if command fail
+     */
+    @Command(
+            name = "benchmark",
+            header = "Measure SELECT queries execution time",
+            description = "Execute SELECT queries read from files on the configured repository and display their execution time"
+    )
+    public void benchmark(
+            @Option(names = {"--warmup"}, description = "Define number of untimed executions of each query", defaultValue = "10") int warmup,
+            @Option(names = {"--iterations"}, description = "Define number of timed executions of each query", defaultValue = "100") int iterations,
+            @Parameters(description = "List of files containing a SPARQL SELECT query") List<File> files,
+            @Mixin HelpOption help
+    ) throws Exception {
+        OpenSilex opensilex = OpenSilex.getInstance();
+        SPARQLService sparql = opensilex.getServiceInstance(SPARQLService.DEFAULT_SPARQL_SERVICE, SPARQLService.class);
+
+        for (File file : files) {
+            String query = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+
+            for (int i = 0; i < warmup; i++) {
+                sparql.executePreparedSelectQuery(query, Collections.emptyMap(), null);
+            }
+
+            long[] durations = new long[Math.max(1, iterations)];
+            int rows = 0;
+            for (int i = 0; i < durations.length; i++) {
+                long start = System.nanoTime();
+                rows = sparql.executePreparedSelectQuery(query, Collections.emptyMap(), null).size();
+                durations[i] = System.nanoTime() - start;
+            }
+
+            Arrays.sort(durations);
+            long total = 0;
+            for (long duration : durations) {
+                total += duration;
+            }
+
+            LOGGER.info(file.getName() + ": " + durations.length + " executions, " + rows + " rows"
+                    + ", mean " + toMillis(total / durations.length) + "ms"
+                    + ", p50 " + toMillis(durations[durations.length / 2]) + "ms"
+                    + ", p95 " + toMillis(durations[(int) Math.ceil(durations.length * 0.95) - 1]) + "ms"
+                    + ", max " + toMillis(durations[durations.length - 1]) + "ms"
+                    + ", " + String.format("%.1f", durations.length * 1000000000d / Math.max(1, total)) + " queries/s");
+        }
+    }
+
+    private static String toMillis(long nanos) {
+        return String.format("%.2f", nanos / 1000000d);
+    }
+}
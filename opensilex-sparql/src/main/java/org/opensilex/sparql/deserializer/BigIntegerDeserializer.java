@@ -9,6 +9,7 @@ import java.math.BigInteger;
 import org.apache.jena.graph.Node;
 import org.apache.jena.sparql.expr.NodeValue;
 import org.apache.jena.sparql.expr.nodevalue.NodeValueInteger;
+import org.opensilex.sparql.service.SPARQLResult;
 
 
 /**
@@ -22,6 +23,11 @@ public class BigIntegerDeserializer implements SPARQLDeserializer<BigInteger> {
         return new BigInteger(value);
     }
 
+    @Override
+    public BigInteger fromResult(SPARQLResult result, String key) throws Exception {
+        return result.getBigInteger(key);
+    }
+
     @Override
     public Node getNode(Object value) throws Exception {
         NodeValue v = new NodeValueInteger((BigInteger) value);
@@ -8,6 +8,7 @@ package org.opensilex.sparql.deserializer;
 import org.apache.jena.datatypes.xsd.XSDDatatype;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
+import org.opensilex.sparql.service.SPARQLResult;
 
 
 
@@ -23,6 +24,11 @@ public class BooleanDeserializer implements SPARQLDeserializer<Boolean> {
         return Boolean.valueOf(value);
     }
 
+    @Override
+    public Boolean fromResult(SPARQLResult result, String key) throws Exception {
+        return result.getBoolean(key);
+    }
+
     @Override
     public Node getNode(Object value) throws Exception {
         return NodeFactory.createLiteralByValue(value, XSDDatatype.XSDboolean);
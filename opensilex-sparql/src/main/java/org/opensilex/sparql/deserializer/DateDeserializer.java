@@ -10,6 +10,7 @@ import java.time.format.DateTimeFormatter;
 import org.apache.jena.datatypes.xsd.XSDDatatype;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
+import org.opensilex.sparql.service.SPARQLResult;
 
 
 /**
@@ -23,6 +24,11 @@ public class DateDeserializer implements SPARQLDeserializer<LocalDate> {
         return LocalDate.parse(value);
     }
 
+    @Override
+    public LocalDate fromResult(SPARQLResult result, String key) throws Exception {
+        return result.getLocalDate(key);
+    }
+
     @Override
     public Node getNode(Object value) throws Exception {
         LocalDate date = (LocalDate) value;
@@ -10,6 +10,7 @@ import java.time.format.DateTimeFormatter;
 import org.apache.jena.datatypes.xsd.XSDDatatype;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
+import org.opensilex.sparql.service.SPARQLResult;
 
 
 
@@ -25,6 +26,11 @@ public class DateTimeDeserializer implements SPARQLDeserializer<OffsetDateTime>
         return  OffsetDateTime.parse(value, DateTimeFormatter.ISO_OFFSET_DATE_TIME);
     }
 
+    @Override
+    public OffsetDateTime fromResult(SPARQLResult result, String key) throws Exception {
+        return result.getOffsetDateTime(key);
+    }
+
     @Override
     public Node getNode(Object value) throws Exception {
         OffsetDateTime date = (OffsetDateTime) value;
@@ -8,6 +8,7 @@ package org.opensilex.sparql.deserializer;
 import org.apache.jena.datatypes.xsd.XSDDatatype;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
+import org.opensilex.sparql.service.SPARQLResult;
 
 /**
  *
@@ -20,6 +21,11 @@ public class DoubleDeserializer implements SPARQLDeserializer<Double> {
         return Double.valueOf(value);
     }
 
+    @Override
+    public Double fromResult(SPARQLResult result, String key) throws Exception {
+        return result.getDouble(key);
+    }
+
     @Override
     public Node getNode(Object value) throws Exception {
         return NodeFactory.createLiteralByValue(value, XSDDatatype.XSDdouble);
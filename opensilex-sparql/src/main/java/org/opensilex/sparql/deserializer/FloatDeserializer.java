@@ -8,6 +8,7 @@ package org.opensilex.sparql.deserializer;
 import org.apache.jena.datatypes.xsd.XSDDatatype;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
+import org.opensilex.sparql.service.SPARQLResult;
 
 
 /**
@@ -21,6 +22,11 @@ public class FloatDeserializer implements SPARQLDeserializer<Float> {
         return Float.valueOf(value);
     }
 
+    @Override
+    public Float fromResult(SPARQLResult result, String key) throws Exception {
+        return result.getFloat(key);
+    }
+
     @Override
     public Node getNode(Object value) throws Exception {
         return NodeFactory.createLiteralByValue(value, XSDDatatype.XSDfloat);
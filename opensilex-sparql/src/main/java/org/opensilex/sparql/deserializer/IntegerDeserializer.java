@@ -8,6 +8,7 @@ package org.opensilex.sparql.deserializer;
 import org.apache.jena.datatypes.xsd.XSDDatatype;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
+import org.opensilex.sparql.service.SPARQLResult;
 
 
 /**
@@ -21,6 +22,11 @@ public class IntegerDeserializer implements SPARQLDeserializer<Integer> {
         return Integer.valueOf(value);
     }
 
+    @Override
+    public Integer fromResult(SPARQLResult result, String key) throws Exception {
+        return result.getInt(key);
+    }
+
     @Override
     public Node getNode(Object value) throws Exception {
          return NodeFactory.createLiteralByValue(value, XSDDatatype.XSDinteger);
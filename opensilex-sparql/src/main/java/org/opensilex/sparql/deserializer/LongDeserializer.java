@@ -8,6 +8,7 @@ package org.opensilex.sparql.deserializer;
 import org.apache.jena.datatypes.xsd.XSDDatatype;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
+import org.opensilex.sparql.service.SPARQLResult;
 
 
 /**
@@ -21,6 +22,11 @@ public class LongDeserializer implements SPARQLDeserializer<Long> {
         return Long.valueOf(value);
     }
 
+    @Override
+    public Long fromResult(SPARQLResult result, String key) throws Exception {
+        return result.getLong(key);
+    }
+
     @Override
     public Node getNode(Object value) throws Exception {
         return NodeFactory.createLiteralByValue(value, XSDDatatype.XSDlong);
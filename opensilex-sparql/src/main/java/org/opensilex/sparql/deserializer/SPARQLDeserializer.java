@@ -6,6 +6,7 @@
 package org.opensilex.sparql.deserializer;
 
 import org.apache.jena.graph.Node;
+import org.opensilex.sparql.service.SPARQLResult;
 
 
 /**
@@ -16,6 +17,24 @@ public interface SPARQLDeserializer<T> {
 
     public T fromString(String value) throws Exception;
 
+    /**
+     * Read a value directly from a SPARQL result binding, default
+     * implementation parse the binding string value, deserializers should
+     * override it to use the result typed getters when available
+     *
+     * @param result SPARQL result
+     * @param key binding name
+     * @return deserialized value or null if not bound
+     * @throws Exception if value can't be deserialized
+     */
+    public default T fromResult(SPARQLResult result, String key) throws Exception {
+        String value = result.getStringValue(key);
+        if (value == null) {
+            return null;
+        }
+        return fromString(value);
+    }
+
     public Node getNode(Object value) throws Exception;
     
     public default String getNodeString(Object value) throws Exception {
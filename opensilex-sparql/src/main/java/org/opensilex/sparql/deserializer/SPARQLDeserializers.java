@@ -9,6 +9,7 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,14 +28,17 @@ public class SPARQLDeserializers {
 
     private final static Logger LOGGER = LoggerFactory.getLogger(SPARQLDeserializers.class);
 
-    private static Map<Class<?>, SPARQLDeserializer<?>> deserialisersMap;
+    /**
+     * Lazy holder, deserializers map is built once on first access by class
+     * initialization which is thread safe
+     */
+    private static class DeserializersMapHolder {
 
-    private static Map<Class<?>, SPARQLDeserializer<?>> getDeserializerMap() {
-        if (deserialisersMap == null) {
-            deserialisersMap = buildDeserializersMap();
-        }
+        private final static Map<Class<?>, SPARQLDeserializer<?>> DESERIALIZERS_MAP = Collections.unmodifiableMap(buildDeserializersMap());
+    }
 
-        return deserialisersMap;
+    private static Map<Class<?>, SPARQLDeserializer<?>> getDeserializerMap() {
+        return DeserializersMapHolder.DESERIALIZERS_MAP;
     }
 
     public static boolean existsForClass(Class<?> clazz) {
@@ -10,6 +10,7 @@ import java.util.Map;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
 import org.apache.jena.shared.PrefixMapping;
+import org.opensilex.sparql.service.SPARQLResult;
 
 /**
  *
@@ -26,6 +27,15 @@ public class URIDeserializer implements SPARQLDeserializer<URI> {
         return new URI(prefixes.shortForm(value));
     }
 
+    @Override
+    public URI fromResult(SPARQLResult result, String key) throws Exception {
+        if (prefixes == null) {
+            return result.getURI(key);
+        }
+
+        return SPARQLDeserializer.super.fromResult(result, key);
+    }
+
     @Override
     public Node getNodeFromString(String value) throws Exception {
         if (prefixes == null) {
@@ -0,0 +1,21 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.exceptions;
+
+/**
+ *
+ * @author vincent
+ */
+public class SPARQLInvalidCursorException extends SPARQLException {
+
+    public SPARQLInvalidCursorException(String cursor) {
+        super("Invalid pagination cursor: " + cursor);
+    }
+
+    public SPARQLInvalidCursorException(String cursor, Throwable cause) {
+        super("Invalid pagination cursor: " + cursor, cause);
+    }
+}
@@ -0,0 +1,19 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.exceptions;
+
+/**
+ * Exception thrown when a projected search filters on an optional field out
+ * of the projection
+ *
+ * @author vincent
+ */
+public class SPARQLInvalidProjectionException extends SPARQLException {
+
+    public SPARQLInvalidProjectionException(Class<?> objectClass, String fieldName) {
+        super("Field '" + fieldName + "' of class " + objectClass.getCanonicalName() + " is filtered but not part of requested fields");
+    }
+}
@@ -11,4 +11,12 @@ package org.opensilex.sparql.exceptions;
  */
 public class SPARQLTransactionException extends SPARQLException {
 
+    public SPARQLTransactionException() {
+        super();
+    }
+
+    public SPARQLTransactionException(String message) {
+        super(message);
+    }
+
 }
@@ -7,6 +7,9 @@ package org.opensilex.sparql.mapping;
 
 import com.google.common.collect.BiMap;
 import com.google.common.collect.HashBiMap;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
@@ -66,6 +69,20 @@ public class SPARQLClassAnalyzer {
 
     private final BiMap<Method, Field> fieldsBySetter;
 
+    /**
+     * Getters method handles by field adapted to (Object)Object signature
+     */
+    private final Map<Field, MethodHandle> getterHandlesByField = new HashMap<>();
+
+    /**
+     * Setters method handles by field adapted to (Object,Object)void signature
+     */
+    private final Map<Field, MethodHandle> setterHandlesByField = new HashMap<>();
+
+    private final static MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final static MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
     private final Map<Field, SPARQLProperty> annotationsByField = new HashMap<>();
     private final List<Field> optionalFields = new ArrayList<>();
 
@@ -73,6 +90,8 @@ public class SPARQLClassAnalyzer {
 
     private final URIGenerator<? extends SPARQLResourceModel> uriGenerator;
 
+    private final boolean cacheInstances;
+
     public SPARQLClassAnalyzer(Class<?> objectClass) throws SPARQLInvalidClassDefinitionException {
         LOGGER.debug("Start SPARQL model class analyze for: " + objectClass.getName());
         this.objectClass = objectClass;
@@ -83,6 +102,8 @@ public class SPARQLClassAnalyzer {
             throw new SPARQLInvalidClassDefinitionException(objectClass, "annotation not found: " + SPARQLResource.class.getCanonicalName());
         }
 
+        cacheInstances = resourceAnnotation.cacheInstances();
+
         try {
             if (URIGenerator.class.isAssignableFrom(objectClass)) {
                 uriGenerator = null;
@@ -173,6 +194,21 @@ public class SPARQLClassAnalyzer {
                 throw new SPARQLInvalidClassDefinitionException(objectClass,"no setter found for the field :"+field.getName());
             }
         }
+
+        LOGGER.debug("Init fields accessor method handles for: " + objectClass.getName());
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        try {
+            for (Map.Entry<Method, Field> getter : fieldsByGetter.entrySet()) {
+                getter.getKey().setAccessible(true);
+                getterHandlesByField.put(getter.getValue(), lookup.unreflect(getter.getKey()).asType(GETTER_TYPE));
+            }
+            for (Map.Entry<Method, Field> setter : fieldsBySetter.entrySet()) {
+                setter.getKey().setAccessible(true);
+                setterHandlesByField.put(setter.getValue(), lookup.unreflect(setter.getKey()).asType(SETTER_TYPE));
+            }
+        } catch (IllegalAccessException | SecurityException ex) {
+            throw new SPARQLInvalidClassDefinitionException(objectClass, "Technical error while creating fields accessors", ex);
+        }
     }
 
     private void analyzeSPARQLPropertyField(SPARQLProperty sProperty, Field field) throws SPARQLInvalidClassDefinitionException {
@@ -357,6 +393,48 @@ public class SPARQLClassAnalyzer {
         return fieldsBySetter.inverse().get(field);
     }
 
+    /**
+     * Read a field value through its getter
+     *
+     * @param field field to read
+     * @param instance instance to read from
+     * @return field value
+     * @throws Exception if getter throws an exception
+     */
+    public Object getFieldValue(Field field, Object instance) throws Exception {
+        MethodHandle getter = getterHandlesByField.get(field);
+        try {
+            return (Object) getter.invokeExact(instance);
+        } catch (Exception | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new InvocationTargetException(ex);
+        }
+    }
+
+    /**
+     * Write a field value through its setter
+     *
+     * @param field field to write
+     * @param instance instance to update
+     * @param value new field value
+     * @throws Exception if setter throws an exception
+     */
+    public void setFieldValue(Field field, Object instance, Object value) throws Exception {
+        MethodHandle setter = setterHandlesByField.get(field);
+        try {
+            setter.invokeExact(instance, value);
+        } catch (Exception | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new InvocationTargetException(ex);
+        }
+    }
+
+    public boolean isCacheInstances() {
+        return cacheInstances;
+    }
+
     public String getURIFieldName() {
         return fieldURI.getName();
     }
@@ -435,8 +513,8 @@ public class SPARQLClassAnalyzer {
 
     public URI getURI(Object instance) {
         try {
-            return (URI) getGetterFromField(getURIField()).invoke(instance);
-        } catch (IllegalArgumentException | IllegalAccessException | InvocationTargetException ex) {
+            return (URI) getFieldValue(getURIField(), instance);
+        } catch (Exception ex) {
             LOGGER.error("Exception while getting SPARQL object URI (should never happend)", ex);
             return null;
         }
@@ -444,8 +522,8 @@ public class SPARQLClassAnalyzer {
 
     public void setURI(Object instance, URI uri) throws Exception {
         try {
-            getSetterFromField(getURIField()).invoke(instance, uri);
-        } catch (IllegalArgumentException | IllegalAccessException ex) {
+            setFieldValue(getURIField(), instance, uri);
+        } catch (IllegalArgumentException | ClassCastException ex) {
             LOGGER.error("Error while setting object uri", ex);
             throw ex;
         }
@@ -23,6 +23,7 @@ import org.opensilex.sparql.exceptions.SPARQLInvalidClassDefinitionException;
 import org.opensilex.sparql.exceptions.SPARQLMapperNotFoundException;
 import org.opensilex.sparql.exceptions.SPARQLUnknownFieldException;
 import org.opensilex.sparql.model.SPARQLResourceModel;
+import org.opensilex.sparql.service.SPARQLClassHierarchy;
 import org.opensilex.sparql.service.SPARQLQueryHelper;
 import org.opensilex.sparql.service.SPARQLResult;
 import org.opensilex.sparql.service.SPARQLService;
@@ -33,9 +34,13 @@ import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.net.URI;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.BiConsumer;
 import static org.apache.jena.arq.querybuilder.AbstractQueryBuilder.makeVar;
 import org.apache.jena.sparql.core.Var;
@@ -47,10 +52,15 @@ import org.apache.jena.sparql.core.Var;
 public class SPARQLClassObjectMapper<T extends SPARQLResourceModel> {
 
     private final static Logger LOGGER = LoggerFactory.getLogger(SPARQLClassObjectMapper.class);
-    private static Set<Class<?>> SPARQL_CLASSES_LIST;
-    private static final Map<Class<?>, SPARQLClassObjectMapper<?>> SPARQL_CLASSES_MAPPER = new HashMap<>();
-    private static final Map<Resource, SPARQLClassObjectMapper<?>> SPARQL_RESOURCES_MAPPER = new HashMap<>();
-    private static final List<Class<? extends SPARQLResourceModel>> SPARQL_RESOURCES_EXCLUSION_LIST = new ArrayList<>();
+
+    /**
+     * Immutable registry published once all mappers are built, lookups only
+     * read these volatile references and never lock
+     */
+    private static volatile Set<Class<?>> SPARQL_CLASSES_LIST;
+    private static volatile Map<Class<?>, SPARQLClassObjectMapper<?>> SPARQL_CLASSES_MAPPER;
+    private static volatile Map<Resource, SPARQLClassObjectMapper<?>> SPARQL_RESOURCES_MAPPER;
+    private static final List<Class<? extends SPARQLResourceModel>> SPARQL_RESOURCES_EXCLUSION_LIST = new CopyOnWriteArrayList<>();
 
     private static <T> Class<? super T> getConcreteClass(Class<T> objectClass) {
         if (SPARQLProxyMarker.class.isAssignableFrom(objectClass)) {
@@ -66,48 +76,117 @@ public class SPARQLClassObjectMapper<T extends SPARQLResourceModel> {
     }
 
     public static void initialize() throws SPARQLInvalidClassDefinitionException {
-        if (SPARQL_CLASSES_LIST == null) {
-            SPARQL_CLASSES_LIST = ClassUtils.getAnnotatedClasses(SPARQLResource.class);
+        if (SPARQL_CLASSES_MAPPER == null) {
+            synchronized (SPARQLClassObjectMapper.class) {
+                if (SPARQL_CLASSES_MAPPER == null) {
+                    buildRegistry();
+                }
+            }
+        }
+    }
 
-            SPARQL_CLASSES_LIST.removeAll(SPARQL_RESOURCES_EXCLUSION_LIST);
+    /**
+     * Build mappers of all SPARQL resource classes in parallel, then publish
+     * them as immutable maps
+     */
+    @SuppressWarnings("unchecked")
+    private static void buildRegistry() throws SPARQLInvalidClassDefinitionException {
+        long start = System.nanoTime();
+
+        Set<Class<?>> classes = new HashSet<>(ClassUtils.getAnnotatedClasses(SPARQLResource.class));
+        classes.removeAll(SPARQL_RESOURCES_EXCLUSION_LIST);
+
+        // Class list must be published first, analyzers use it to detect
+        // object properties
+        SPARQL_CLASSES_LIST = Collections.unmodifiableSet(classes);
 
-            for (Class<?> sparqlModelClass : SPARQL_CLASSES_LIST) {
-                SPARQLClassObjectMapper<?> sparqlObjectMapper = new SPARQLClassObjectMapper<>((Class<? extends SPARQLResourceModel>) sparqlModelClass);
-                SPARQL_CLASSES_MAPPER.put(sparqlModelClass, sparqlObjectMapper);
-                SPARQL_RESOURCES_MAPPER.put(sparqlObjectMapper.getRDFType(), sparqlObjectMapper);
+        int threadCount = Math.max(1, Math.min(classes.size(), Runtime.getRuntime().availableProcessors()));
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount, (Runnable r) -> {
+            Thread thread = new Thread(r, "sparql-mapper-init");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Map<Class<?>, SPARQLClassObjectMapper<?>> classesMapper = new HashMap<>();
+        Map<Resource, SPARQLClassObjectMapper<?>> resourcesMapper = new HashMap<>();
+        try {
+            List<Future<SPARQLClassObjectMapper<?>>> futures = new ArrayList<>(classes.size());
+            for (Class<?> sparqlModelClass : classes) {
+                futures.add(executor.submit(() -> {
+                    return new SPARQLClassObjectMapper<>((Class<? extends SPARQLResourceModel>) sparqlModelClass);
+                }));
             }
+
+            for (Future<SPARQLClassObjectMapper<?>> future : futures) {
+                SPARQLClassObjectMapper<?> sparqlObjectMapper = getMapper(future);
+                classesMapper.put(sparqlObjectMapper.getObjectClass(), sparqlObjectMapper);
+                resourcesMapper.put(sparqlObjectMapper.getRDFType(), sparqlObjectMapper);
+                LOGGER.debug("SPARQL mapper initialized in " + sparqlObjectMapper.getInitializationTime() + " ms for: " + sparqlObjectMapper.getObjectClass().getName());
+            }
+        } finally {
+            executor.shutdownNow();
         }
 
+        SPARQL_RESOURCES_MAPPER = Collections.unmodifiableMap(resourcesMapper);
+        SPARQL_CLASSES_MAPPER = Collections.unmodifiableMap(classesMapper);
+
+        LOGGER.info("SPARQL mappers initialized for " + classesMapper.size() + " classes in " + ((System.nanoTime() - start) / 1000000) + " ms");
+    }
+
+    private static SPARQLClassObjectMapper<?> getMapper(Future<SPARQLClassObjectMapper<?>> future) throws SPARQLInvalidClassDefinitionException {
+        try {
+            return future.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof SPARQLInvalidClassDefinitionException) {
+                throw (SPARQLInvalidClassDefinitionException) ex.getCause();
+            }
+            throw new IllegalStateException("Error while initializing SPARQL mapper", ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("SPARQL mappers initialization interrupted", ex);
+        }
     }
 
     /**
-     * Add a class to the initialization class exclusion list
+     * Add a class to the initialization class exclusion list, must be called
+     * before mappers registry is built
      *
      * @param clazz the class to remove from initialization
+     * @throws IllegalStateException if a mapper is already registered for
+     * this class
      * @see #initialize()
      */
     public static void excludeResourceClass(Class<? extends SPARQLResourceModel> clazz) {
-        SPARQL_RESOURCES_EXCLUSION_LIST.add(clazz);
+        // Lock with initialize to not change exclusion list while registry is built
+        synchronized (SPARQLClassObjectMapper.class) {
+            if (SPARQL_CLASSES_MAPPER != null && SPARQL_CLASSES_MAPPER.containsKey(clazz)) {
+                throw new IllegalStateException("SPARQL mappers already initialized, can't exclude class: " + clazz.getName());
+            }
+            SPARQL_RESOURCES_EXCLUSION_LIST.add(clazz);
+        }
     }
 
     @SuppressWarnings("unchecked")
-    public static synchronized <T extends SPARQLResourceModel> SPARQLClassObjectMapper<T> getForClass(Class<?> objectClass) throws SPARQLMapperNotFoundException, SPARQLInvalidClassDefinitionException {
+    public static <T extends SPARQLResourceModel> SPARQLClassObjectMapper<T> getForClass(Class<?> objectClass) throws SPARQLMapperNotFoundException, SPARQLInvalidClassDefinitionException {
         initialize();
 
         Class<T> concreteObjectClass = (Class<T>) getConcreteClass(objectClass);
 
-        if (SPARQL_CLASSES_MAPPER.containsKey(concreteObjectClass)) {
-            return (SPARQLClassObjectMapper<T>) SPARQL_CLASSES_MAPPER.get(concreteObjectClass);
+        SPARQLClassObjectMapper<T> mapper = (SPARQLClassObjectMapper<T>) SPARQL_CLASSES_MAPPER.get(concreteObjectClass);
+        if (mapper != null) {
+            return mapper;
         } else {
             throw new SPARQLMapperNotFoundException(concreteObjectClass);
         }
     }
 
     @SuppressWarnings("unchecked")
-    public static synchronized <T extends SPARQLResourceModel> SPARQLClassObjectMapper<T> getForResource(Resource resource) throws SPARQLMapperNotFoundException, SPARQLInvalidClassDefinitionException {
+    public static <T extends SPARQLResourceModel> SPARQLClassObjectMapper<T> getForResource(Resource resource) throws SPARQLMapperNotFoundException, SPARQLInvalidClassDefinitionException {
         initialize();
-        if (SPARQL_RESOURCES_MAPPER.containsKey(resource)) {
-            return (SPARQLClassObjectMapper<T>) SPARQL_RESOURCES_MAPPER.get(resource);
+
+        SPARQLClassObjectMapper<T> mapper = (SPARQLClassObjectMapper<T>) SPARQL_RESOURCES_MAPPER.get(resource);
+        if (mapper != null) {
+            return mapper;
         } else {
             throw new SPARQLMapperNotFoundException(resource);
         }
@@ -119,7 +198,11 @@ public class SPARQLClassObjectMapper<T extends SPARQLResourceModel> {
     }
 
     public static boolean existsForClass(Class<?> c) throws SPARQLInvalidClassDefinitionException {
-        initialize();
+        // Only the class list is needed, it is available while mappers are
+        // being built
+        if (SPARQL_CLASSES_LIST == null) {
+            initialize();
+        }
         return SPARQL_CLASSES_LIST.contains(c);
     }
 
@@ -127,8 +210,10 @@ public class SPARQLClassObjectMapper<T extends SPARQLResourceModel> {
     private final Constructor<T> constructor;
     private final SPARQLClassQueryBuilder classQueryBuilder;
     private final SPARQLClassAnalyzer classAnalizer;
+    private final long initializationTime;
 
     private SPARQLClassObjectMapper(Class<T> objectClass) throws SPARQLInvalidClassDefinitionException {
+        long start = System.nanoTime();
         LOGGER.debug("Initialize SPARQL ressource class object mapper for: " + objectClass.getName());
         this.objectClass = objectClass;
 
@@ -145,12 +230,20 @@ public class SPARQLClassObjectMapper<T extends SPARQLResourceModel> {
         LOGGER.debug("Init SPARQL class query builder: " + objectClass.getName());
         classQueryBuilder = new SPARQLClassQueryBuilder(classAnalizer);
 
+        initializationTime = (System.nanoTime() - start) / 1000000;
     }
 
     public Class<T> getObjectClass() {
         return objectClass;
     }
 
+    /**
+     * @return time spent analyzing the class and building its mapper in ms
+     */
+    public long getInitializationTime() {
+        return initializationTime;
+    }
+
     public String getResourceGraphPrefix() {
         return classAnalizer.getResourceGraphPrefix();
     }
@@ -180,70 +273,155 @@ public class SPARQLClassObjectMapper<T extends SPARQLResourceModel> {
     }
 
     public T createInstance(SPARQLResult result, SPARQLService service) throws Exception {
+        return createInstance(result, service, null);
+    }
+
+    /**
+     * Create an instance from a SPARQL result, object references are loaded
+     * through the given batch loader if not null
+     *
+     * @param result SPARQL result
+     * @param service SPARQL service
+     * @param batchLoader batch loader shared by results of the same list
+     * @return created instance
+     * @throws Exception in case of error
+     */
+    public T createInstance(SPARQLResult result, SPARQLService service, SPARQLResourceBatchLoader batchLoader) throws Exception {
+        return createInstance(result, service, batchLoader, null);
+    }
+
+    /**
+     * Create an instance from a SPARQL result of a projected query, fields
+     * out of the projection are left null (except primitive fields), even if
+     * initialized by the class.
+     *
+     * Loaded values of complete instances are not recorded, callers loading
+     * instances to update them must call {@link #resetChanges(SPARQLResourceModel)}.
+     * Loaded values of partial instances are always recorded so fields out of
+     * the projection are never written by an update.
+     *
+     * @param result SPARQL result
+     * @param service SPARQL service
+     * @param batchLoader batch loader shared by results of the same list
+     * @param fieldNames names of fields of the projection, all fields if null
+     * @return created instance
+     * @throws Exception in case of error
+     * @see #getSelectBuilder(Node, Collection, SPARQLClassHierarchy)
+     */
+    public T createInstance(SPARQLResult result, SPARQLService service, SPARQLResourceBatchLoader batchLoader, Collection<String> fieldNames) throws Exception {
         String realType = result.getStringValue(SPARQLQueryHelper.typeDefVar.getName());
         if (!realType.equals(getRDFType().toString())) {
             // TODO handle sub classes
         }
 
         SPARQLDeserializer<URI> uriDeserializer = SPARQLDeserializers.getForClass(URI.class);
-        URI uri = uriDeserializer.fromString((result.getStringValue(classAnalizer.getURIFieldName())));
+        URI uri = uriDeserializer.fromResult(result, classAnalizer.getURIFieldName());
 
         T instance = createInstance(uri);
 
         for (Field field : classAnalizer.getDataPropertyFields()) {
-            Method setter = classAnalizer.getSetterFromField(field);
-
-            String strValue = result.getStringValue(field.getName());
-
-            if (strValue != null) {
+            if (result.hasValue(field.getName())) {
                 if (SPARQLDeserializers.existsForClass(field.getType())) {
-                    Object objValue = SPARQLDeserializers.getForClass(field.getType()).fromString(strValue);
-                    setter.invoke(instance, objValue);
+                    Object objValue = SPARQLDeserializers.getForClass(field.getType()).fromResult(result, field.getName());
+                    classAnalizer.setFieldValue(field, instance, objValue);
                 } else {
                     //TODO change exception type
                     throw new Exception("No deserializer for field: " + field.getName());
                 }
+            } else if (!isProjected(field, fieldNames) && !field.getType().isPrimitive()) {
+                classAnalizer.setFieldValue(field, instance, null);
             }
 
         }
 
         for (Field field : classAnalizer.getObjectPropertyFields()) {
-            Method setter = classAnalizer.getSetterFromField(field);
-            if (result.getStringValue(field.getName()) != null) {
-                URI objURI = uriDeserializer.fromString(result.getStringValue(field.getName()));
+            if (result.hasValue(field.getName())) {
+                URI objURI = uriDeserializer.fromResult(result, field.getName());
 
                 Class<? extends SPARQLResourceModel> fieldType = (Class<? extends SPARQLResourceModel>) field.getType();
-                SPARQLProxyResource<?> proxy = new SPARQLProxyResource<>(getDefaultGraph(), objURI, fieldType, service);
-                setter.invoke(instance, proxy.getInstance());
+                SPARQLProxyResource<?> proxy = new SPARQLProxyResource<>(getDefaultGraph(), objURI, fieldType, service, batchLoader);
+                classAnalizer.setFieldValue(field, instance, proxy.getInstance());
+            } else if (!isProjected(field, fieldNames)) {
+                classAnalizer.setFieldValue(field, instance, null);
             }
         }
 
         for (Field field : classAnalizer.getDataListPropertyFields()) {
-            Method setter = classAnalizer.getSetterFromField(field);
-
-            SPARQLProxyListData<?> proxy = new SPARQLProxyListData<>(getDefaultGraph(), uri, classAnalizer.getDataListPropertyByField(field), ClassUtils.getGenericTypeFromField(field), classAnalizer.isReverseRelation(field), service);
-            setter.invoke(instance, proxy.getInstance());
+            if (!isProjected(field, fieldNames)) {
+                classAnalizer.setFieldValue(field, instance, null);
+                continue;
+            }
+            SPARQLProxyListData<?> proxy = new SPARQLProxyListData<>(getDefaultGraph(), uri, classAnalizer.getDataListPropertyByField(field), ClassUtils.getGenericTypeFromField(field), classAnalizer.isReverseRelation(field), service, batchLoader);
+            classAnalizer.setFieldValue(field, instance, proxy.getInstance());
         }
 
         for (Field field : classAnalizer.getObjectListPropertyFields()) {
-            Method setter = classAnalizer.getSetterFromField(field);
-
+            if (!isProjected(field, fieldNames)) {
+                classAnalizer.setFieldValue(field, instance, null);
+                continue;
+            }
             Class<? extends SPARQLResourceModel> model = (Class<? extends SPARQLResourceModel>) ClassUtils.getGenericTypeFromField(field);
             SPARQLProxyListObject<? extends SPARQLResourceModel> proxy = new SPARQLProxyListObject<>(getDefaultGraph(), uri, classAnalizer.getObjectListPropertyByField(field), model, classAnalizer.isReverseRelation(field), service);
-            setter.invoke(instance, proxy.getInstance());
+            classAnalizer.setFieldValue(field, instance, proxy.getInstance());
         }
 
         Set<String> properties = classAnalizer.getManagedProperties();
-        instance.setRelations(new SPARQLProxyRelationList(null, uri, properties, service).getInstance());
+        instance.setRelations(new SPARQLProxyRelationList(null, uri, properties, service, batchLoader).getInstance());
+        if (fieldNames != null) {
+            resetChanges(instance);
+        }
         return instance;
     }
 
+    private static boolean isProjected(Field field, Collection<String> fieldNames) {
+        return fieldNames == null || fieldNames.contains(field.getName());
+    }
+
+    /**
+     * Return names of optional single valued fields out of a projection,
+     * these fields are not matched by projected queries so they can not be
+     * filtered on
+     *
+     * @param fieldNames names of fields of the projection
+     * @return field names
+     */
+    public Set<String> getUnmatchedFields(Collection<String> fieldNames) {
+        Set<String> unmatchedFields = new HashSet<>();
+        List<Field> fields = new ArrayList<>(classAnalizer.getDataPropertyFields());
+        fields.addAll(classAnalizer.getObjectPropertyFields());
+        for (Field field : fields) {
+            if (!fieldNames.contains(field.getName()) && classAnalizer.isOptional(field)) {
+                unmatchedFields.add(field.getName());
+            }
+        }
+        return unmatchedFields;
+    }
+
+    /**
+     * Record current mapped field values of an instance as its loaded values,
+     * next update will only write fields changed since this call
+     *
+     * @param instance instance to reset
+     * @throws Exception in case of error
+     */
+    public void resetChanges(T instance) throws Exception {
+        Map<String, Object> loadedValues = new HashMap<>();
+        for (Field field : classQueryBuilder.getMappedFields()) {
+            Object value = classAnalizer.getFieldValue(field, instance);
+            if (value instanceof List && !SPARQLProxy.isUnloadedProxy(value)) {
+                // Copy loaded lists to detect changes made in place
+                value = new ArrayList<>((List<?>) value);
+            }
+            loadedValues.put(field.getName(), value);
+        }
+        instance.setLoadedValues(loadedValues);
+    }
+
     public T createInstance(URI uri) throws Exception {
         T instance = constructor.newInstance();
 
         if (uri != null) {
-            Method uriSetter = classAnalizer.getSetterFromField(classAnalizer.getURIField());
-            uriSetter.invoke(instance, uri);
+            classAnalizer.setURI(instance, uri);
         }
 
         return instance;
@@ -267,7 +445,15 @@ public class SPARQLClassObjectMapper<T extends SPARQLResourceModel> {
     }
 
     public AskBuilder getAskBuilder(Node graph) {
-        return classQueryBuilder.getAskBuilder(graph);
+        return getAskBuilder(graph, null);
+    }
+
+    public AskBuilder getAskBuilder(SPARQLClassHierarchy hierarchy) {
+        return getAskBuilder(getDefaultGraph(), hierarchy);
+    }
+
+    public AskBuilder getAskBuilder(Node graph, SPARQLClassHierarchy hierarchy) {
+        return classQueryBuilder.getAskBuilder(graph, hierarchy);
     }
 
     public SelectBuilder getSelectBuilder() {
@@ -275,7 +461,106 @@ public class SPARQLClassObjectMapper<T extends SPARQLResourceModel> {
     }
 
     public SelectBuilder getSelectBuilder(Node graph) {
-        return classQueryBuilder.getSelectBuilder(graph);
+        return getSelectBuilder(graph, (SPARQLClassHierarchy) null);
+    }
+
+    public SelectBuilder getSelectBuilder(SPARQLClassHierarchy hierarchy) {
+        return getSelectBuilder(getDefaultGraph(), hierarchy);
+    }
+
+    public SelectBuilder getSelectBuilder(Node graph, SPARQLClassHierarchy hierarchy) {
+        return classQueryBuilder.getSelectBuilder(graph, hierarchy);
+    }
+
+    public SelectBuilder getSelectBuilder(Collection<String> fieldNames) throws SPARQLUnknownFieldException {
+        return getSelectBuilder(getDefaultGraph(), fieldNames);
+    }
+
+    public SelectBuilder getSelectBuilder(Collection<String> fieldNames, SPARQLClassHierarchy hierarchy) throws SPARQLUnknownFieldException {
+        return getSelectBuilder(getDefaultGraph(), fieldNames, hierarchy);
+    }
+
+    public SelectBuilder getSelectBuilder(Node graph, Collection<String> fieldNames) throws SPARQLUnknownFieldException {
+        return getSelectBuilder(graph, fieldNames, null);
+    }
+
+    /**
+     * Return a select query only returning the given fields
+     *
+     * @param graph graph to search in or null for all graphs
+     * @param fieldNames names of fields to return, all fields if null
+     * @param hierarchy class hierarchy, null to use property paths
+     * @return select query
+     * @throws SPARQLUnknownFieldException if a field is not mapped
+     * @see SPARQLClassQueryBuilder#getSelectBuilder(Node, Collection, SPARQLClassHierarchy)
+     */
+    public SelectBuilder getSelectBuilder(Node graph, Collection<String> fieldNames, SPARQLClassHierarchy hierarchy) throws SPARQLUnknownFieldException {
+        if (fieldNames != null) {
+            for (String fieldName : fieldNames) {
+                if (classAnalizer.getFieldFromName(fieldName) == null) {
+                    throw new SPARQLUnknownFieldException(objectClass, fieldName, null);
+                }
+            }
+        }
+        return classQueryBuilder.getSelectBuilder(graph, fieldNames, hierarchy);
+    }
+
+    /**
+     * Return names of mapped fields also declared in the given DTO class or
+     * its super classes, which are the only fields needed to build this DTO
+     *
+     * @param dtoClass DTO class
+     * @return field names
+     */
+    public Set<String> getProjection(Class<?> dtoClass) {
+        Set<String> fieldNames = new HashSet<>();
+        for (Field dtoField : ClassUtils.getClassFieldsRecursivly(dtoClass)) {
+            if (classAnalizer.getFieldFromName(dtoField.getName()) != null) {
+                fieldNames.add(dtoField.getName());
+            }
+        }
+        return fieldNames;
+    }
+
+    /**
+     * Return names of mapped fields needed to build the given DTO class,
+     * restricted to the requested DTO fields if any. Requested fields may be
+     * given as comma separated lists.
+     *
+     * @param dtoClass DTO class
+     * @param requestedFields requested DTO field names, all DTO fields if null
+     * or empty
+     * @return field names
+     * @throws SPARQLUnknownFieldException if a requested field is not a DTO
+     * field
+     */
+    public Set<String> getProjection(Class<?> dtoClass, Collection<String> requestedFields) throws SPARQLUnknownFieldException {
+        Set<String> fieldNames = getProjection(dtoClass);
+        if (requestedFields == null || requestedFields.isEmpty()) {
+            return fieldNames;
+        }
+
+        Set<String> dtoFieldNames = new HashSet<>();
+        for (Field dtoField : ClassUtils.getClassFieldsRecursivly(dtoClass)) {
+            dtoFieldNames.add(dtoField.getName());
+        }
+
+        Set<String> projection = new HashSet<>();
+        for (String requestedField : requestedFields) {
+            for (String fieldName : requestedField.split(",")) {
+                fieldName = fieldName.trim();
+                if (fieldName.isEmpty()) {
+                    continue;
+                }
+                if (!dtoFieldNames.contains(fieldName)) {
+                    throw new SPARQLUnknownFieldException(dtoClass, fieldName, null);
+                }
+                if (fieldNames.contains(fieldName)) {
+                    projection.add(fieldName);
+                }
+            }
+        }
+        return projection;
     }
 
     public SelectBuilder getCountBuilder(String countFieldName) {
@@ -283,7 +568,15 @@ public class SPARQLClassObjectMapper<T extends SPARQLResourceModel> {
     }
 
     public SelectBuilder getCountBuilder(Node graph, String countFieldName) {
-        return classQueryBuilder.getCountBuilder(graph, countFieldName);
+        return getCountBuilder(graph, countFieldName, null);
+    }
+
+    public SelectBuilder getCountBuilder(String countFieldName, SPARQLClassHierarchy hierarchy) {
+        return getCountBuilder(getDefaultGraph(), countFieldName, hierarchy);
+    }
+
+    public SelectBuilder getCountBuilder(Node graph, String countFieldName, SPARQLClassHierarchy hierarchy) {
+        return classQueryBuilder.getCountBuilder(graph, countFieldName, hierarchy);
     }
 
     public UpdateBuilder getCreateBuilder(T instance) throws Exception {
@@ -294,12 +587,12 @@ public class SPARQLClassObjectMapper<T extends SPARQLResourceModel> {
         return classQueryBuilder.getCreateBuilder(graph, instance);
     }
 
-    public void addUpdateBuilder(T oldInstance, T newInstance, UpdateBuilder update) throws Exception {
-        addUpdateBuilder(getDefaultGraph(), oldInstance, newInstance, update);
+    public boolean addUpdateBuilder(T instance, UpdateBuilder update, int instanceIndex) throws Exception {
+        return addUpdateBuilder(getDefaultGraph(), instance, update, instanceIndex);
     }
 
-    public void addUpdateBuilder(Node graph, T oldInstance, T newInstance, UpdateBuilder update) throws Exception {
-        classQueryBuilder.addUpdateBuilder(graph, oldInstance, newInstance, update);
+    public boolean addUpdateBuilder(Node graph, T instance, UpdateBuilder update, int instanceIndex) throws Exception {
+        return classQueryBuilder.addUpdateBuilder(graph, instance, update, instanceIndex);
     }
 
     public void addCreateBuilder(T instance, UpdateBuilder create) throws Exception {
@@ -310,6 +603,10 @@ public class SPARQLClassObjectMapper<T extends SPARQLResourceModel> {
         classQueryBuilder.addCreateBuilder(graph, instance, create);
     }
 
+    public void addWrittenURIs(T instance, Set<String> uris) throws Exception {
+        classQueryBuilder.addWrittenURIs(instance, uris);
+    }
+
     public UpdateBuilder getDeleteBuilder(T instance) throws Exception {
         return getDeleteBuilder(getDefaultGraph(), instance);
     }
@@ -318,6 +615,30 @@ public class SPARQLClassObjectMapper<T extends SPARQLResourceModel> {
         return classQueryBuilder.getDeleteBuilder(graph, instance);
     }
 
+    public UpdateBuilder getDeleteByURIsBuilder(Collection<URI> uris) {
+        return getDeleteByURIsBuilder(getDefaultGraph(), uris);
+    }
+
+    public UpdateBuilder getDeleteByURIsBuilder(Node graph, Collection<URI> uris) {
+        return getDeleteByURIsBuilder(graph, uris, null);
+    }
+
+    public UpdateBuilder getDeleteByURIsBuilder(Collection<URI> uris, SPARQLClassHierarchy hierarchy) {
+        return getDeleteByURIsBuilder(getDefaultGraph(), uris, hierarchy);
+    }
+
+    public UpdateBuilder getDeleteByURIsBuilder(Node graph, Collection<URI> uris, SPARQLClassHierarchy hierarchy) {
+        return classQueryBuilder.getDeleteByURIsBuilder(graph, uris, hierarchy);
+    }
+
+    public SelectBuilder getUnknownURIsBuilder(Collection<URI> uris) {
+        return getUnknownURIsBuilder(uris, null);
+    }
+
+    public SelectBuilder getUnknownURIsBuilder(Collection<URI> uris, SPARQLClassHierarchy hierarchy) {
+        return classQueryBuilder.getUnknownURIsBuilder(uris, hierarchy);
+    }
+
     public void addDeleteBuilder(T instance, UpdateBuilder delete) throws Exception {
         addDeleteBuilder(getDefaultGraph(), instance, delete);
     }
@@ -360,6 +681,19 @@ public class SPARQLClassObjectMapper<T extends SPARQLResourceModel> {
         }
     }
 
+    public Property getFieldDataProperty(String fieldName) throws SPARQLUnknownFieldException {
+        Field f = classAnalizer.getFieldFromName(fieldName);
+        Property property = null;
+        if (f != null) {
+            property = classAnalizer.getDataPropertyByField(f);
+        }
+
+        if (property == null) {
+            throw new SPARQLUnknownFieldException(objectClass, fieldName, null);
+        }
+        return property;
+    }
+
     public Expr getFieldOrderExpr(String fieldName) throws SPARQLUnknownFieldException {
         Field f = classAnalizer.getFieldFromName(fieldName);
         if (f != null) {
@@ -373,6 +707,35 @@ public class SPARQLClassObjectMapper<T extends SPARQLResourceModel> {
         }
     }
 
+    /**
+     * Return the value used to order results by the given field for a result
+     * row, consistent with {@link #getFieldOrderExpr(String)}
+     *
+     * @param fieldName field name
+     * @param result SPARQL result row
+     * @return order value node or null if field is not bound
+     * @throws Exception if field is unknown or value can't be read
+     */
+    public Node getFieldOrderValue(String fieldName, SPARQLResult result) throws Exception {
+        Field f = classAnalizer.getFieldFromName(fieldName);
+        if (f == null) {
+            throw new SPARQLUnknownFieldException(objectClass, fieldName, null);
+        }
+
+        if (!result.hasValue(f.getName())) {
+            return null;
+        }
+
+        if (f.getType().equals(String.class)) {
+            return NodeFactory.createLiteral(result.getStringValue(f.getName()).toLowerCase(Locale.ROOT));
+        } else if (!f.getType().equals(URI.class) && SPARQLDeserializers.existsForClass(f.getType())) {
+            SPARQLDeserializer<?> deserializer = SPARQLDeserializers.getForClass(f.getType());
+            return deserializer.getNode(deserializer.fromResult(result, f.getName()));
+        } else {
+            return NodeFactory.createURI(result.getURI(f.getName()).toString());
+        }
+    }
+
     public Field getFieldFromUniqueProperty(Property property) {
         return classAnalizer.getFieldFromUniqueProperty(property);
     }
@@ -390,4 +753,8 @@ public class SPARQLClassObjectMapper<T extends SPARQLResourceModel> {
         return classAnalizer.getRDFType();
     }
 
+    public boolean isCacheInstances() {
+        return classAnalizer.isCacheInstances();
+    }
+
 }
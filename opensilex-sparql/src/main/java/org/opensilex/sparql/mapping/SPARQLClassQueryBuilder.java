@@ -8,6 +8,7 @@ package org.opensilex.sparql.mapping;
 import org.apache.jena.arq.querybuilder.AskBuilder;
 import org.apache.jena.arq.querybuilder.SelectBuilder;
 import org.apache.jena.arq.querybuilder.UpdateBuilder;
+import org.apache.jena.arq.querybuilder.WhereBuilder;
 import org.apache.jena.arq.querybuilder.handlers.WhereHandler;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.Triple;
@@ -15,20 +16,30 @@ import org.apache.jena.rdf.model.Property;
 import org.apache.jena.sparql.core.TriplePath;
 import org.apache.jena.sparql.core.Var;
 import org.apache.jena.sparql.lang.sparql_11.ParseException;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.expr.E_NotExists;
+import org.apache.jena.sparql.syntax.Element;
+import org.apache.jena.sparql.syntax.ElementData;
+import org.apache.jena.sparql.syntax.ElementFilter;
+import org.apache.jena.sparql.syntax.ElementGroup;
 import org.apache.jena.sparql.syntax.ElementNamedGraph;
+import org.apache.jena.sparql.syntax.ElementPathBlock;
 import org.apache.jena.vocabulary.RDF;
 import org.opensilex.sparql.deserializer.SPARQLDeserializers;
 import org.opensilex.sparql.model.SPARQLModelRelation;
 import org.opensilex.sparql.model.SPARQLResourceModel;
-import org.opensilex.sparql.utils.Ontology;
+import org.opensilex.sparql.service.SPARQLClassHierarchy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import static org.apache.jena.arq.querybuilder.AbstractQueryBuilder.makeVar;
 import static org.opensilex.sparql.service.SPARQLQueryHelper.typeDefVar;
@@ -40,9 +51,28 @@ public class SPARQLClassQueryBuilder {
 
     private final static Logger LOGGER = LoggerFactory.getLogger(SPARQLClassQueryBuilder.class);
 
-    private SelectBuilder selectBuilder;
-    private AskBuilder askBuilder;
-    private SelectBuilder countBuilder;
+    /**
+     * Query templates built with the class hierarchy of a service
+     */
+    private static class QueryTemplates {
+
+        private final SPARQLClassHierarchy hierarchy;
+        private final long generation;
+        private volatile SelectBuilder selectBuilder;
+        private volatile AskBuilder askBuilder;
+        private volatile SelectBuilder countBuilder;
+
+        private QueryTemplates(SPARQLClassHierarchy hierarchy) {
+            this.hierarchy = hierarchy;
+            this.generation = hierarchy == null ? 0 : hierarchy.getGeneration();
+        }
+
+        private boolean isBuiltWith(SPARQLClassHierarchy hierarchy) {
+            return this.hierarchy == hierarchy && (hierarchy == null || generation == hierarchy.getGeneration());
+        }
+    }
+
+    private volatile QueryTemplates queryTemplates = new QueryTemplates(null);
 
     private final SPARQLClassAnalyzer analyzer;
 
@@ -50,97 +80,161 @@ public class SPARQLClassQueryBuilder {
         this.analyzer = analyzer;
     }
 
-    public SelectBuilder getSelectBuilder(Node graph) {
-        if (selectBuilder == null) {
-            selectBuilder = new SelectBuilder();
+    /**
+     * Return query templates of the given class hierarchy, templates built
+     * with another hierarchy or a previous generation are forgotten
+     *
+     * @param hierarchy class hierarchy, null to use property paths
+     * @return query templates
+     */
+    private QueryTemplates getQueryTemplates(SPARQLClassHierarchy hierarchy) {
+        QueryTemplates templates = queryTemplates;
+        if (!templates.isBuiltWith(hierarchy)) {
+            templates = new QueryTemplates(hierarchy);
+            queryTemplates = templates;
+        }
+        return templates;
+    }
 
-            String uriFieldName = analyzer.getURIFieldName();
-            selectBuilder.addVar(uriFieldName);
-            selectBuilder.addVar(typeDefVar);
+    private static Element getSubClassOfElement(SPARQLClassHierarchy hierarchy, Var typeVar, Node type) {
+        if (hierarchy == null) {
+            return SPARQLClassHierarchy.getSubClassOfPathElement(typeVar, type);
+        }
+        return hierarchy.getSubClassOfElement(typeVar, type);
+    }
 
-            // WhereHandler used for adding all WHERE clause
-            WhereHandler rootWhereHandler = new WhereHandler();
-            rootWhereHandler.addWhere(selectBuilder.makeTriplePath(makeVar(uriFieldName), RDF.type, typeDefVar));
-            rootWhereHandler.addWhere(selectBuilder.makeTriplePath(typeDefVar, Ontology.subClassAny, analyzer.getRDFType()));
+    public SelectBuilder getSelectBuilder(Node graph, SPARQLClassHierarchy hierarchy) {
+        QueryTemplates templates = getQueryTemplates(hierarchy);
+        // Templates are fully built before being published to other threads
+        SelectBuilder select = templates.selectBuilder;
+        if (select == null) {
+            select = buildSelectBuilder(graph, null, hierarchy);
+            templates.selectBuilder = select;
+        }
 
-            analyzer.forEachDataProperty((Field field, Property property) -> {
-                selectBuilder.addVar(field.getName());
-                addSelectProperty(selectBuilder, uriFieldName, property, field, rootWhereHandler);
-            });
+        return select.clone();
+    }
 
-            analyzer.forEachObjectProperty((Field field, Property property) -> {
-                selectBuilder.addVar(field.getName());
-                addSelectProperty(selectBuilder, uriFieldName, property, field, rootWhereHandler);
-            });
+    /**
+     * Return a select query only returning the given fields. Other optional
+     * fields are not matched at all, other required fields are matched but
+     * not returned so the query finds the same instances as the full one.
+     * List fields are loaded separately and are not affected.
+     *
+     * @param graph graph to search in or null for all graphs
+     * @param fieldNames names of fields to return, all fields if null
+     * @param hierarchy class hierarchy, null to use property paths
+     * @return select query
+     */
+    public SelectBuilder getSelectBuilder(Node graph, Collection<String> fieldNames, SPARQLClassHierarchy hierarchy) {
+        if (fieldNames == null) {
+            return getSelectBuilder(graph, hierarchy);
+        }
 
-            // add the rootWhereHandler inside a GRAPH clause
-            if (graph != null) {
-                ElementNamedGraph elementNamedGraph = new ElementNamedGraph(graph, rootWhereHandler.getElement());
-                selectBuilder.getWhereHandler().getClause().addElement(elementNamedGraph);
-            } else {
-                selectBuilder.getHandlerBlock().addAll(rootWhereHandler);
+        return buildSelectBuilder(graph, fieldNames, hierarchy);
+    }
+
+    private SelectBuilder buildSelectBuilder(Node graph, Collection<String> fieldNames, SPARQLClassHierarchy hierarchy) {
+        SelectBuilder select = new SelectBuilder();
+
+        String uriFieldName = analyzer.getURIFieldName();
+        select.addVar(uriFieldName);
+        select.addVar(typeDefVar);
+
+        // WhereHandler used for adding all WHERE clause
+        WhereHandler rootWhereHandler = new WhereHandler();
+        rootWhereHandler.addWhere(select.makeTriplePath(makeVar(uriFieldName), RDF.type, typeDefVar));
+        rootWhereHandler.getClause().addElement(getSubClassOfElement(hierarchy, typeDefVar, analyzer.getRDFType().asNode()));
+
+        BiConsumer<Field, Property> fieldHandler = (Field field, Property property) -> {
+            boolean projected = fieldNames == null || fieldNames.contains(field.getName());
+            if (projected) {
+                select.addVar(field.getName());
+            }
+            if (projected || !analyzer.isOptional(field)) {
+                addSelectProperty(select, uriFieldName, property, field, rootWhereHandler);
             }
+        };
+        analyzer.forEachDataProperty(fieldHandler);
+        analyzer.forEachObjectProperty(fieldHandler);
+
+        // add the rootWhereHandler inside a GRAPH clause
+        if (graph != null) {
+            ElementNamedGraph elementNamedGraph = new ElementNamedGraph(graph, rootWhereHandler.getElement());
+            select.getWhereHandler().getClause().addElement(elementNamedGraph);
+        } else {
+            select.getHandlerBlock().addAll(rootWhereHandler);
         }
 
-        return selectBuilder.clone();
+        return select;
     }
 
-    public AskBuilder getAskBuilder(Node graph) {
-        if (askBuilder == null) {
-            askBuilder = new AskBuilder();
+    public AskBuilder getAskBuilder(Node graph, SPARQLClassHierarchy hierarchy) {
+        QueryTemplates templates = getQueryTemplates(hierarchy);
+        AskBuilder ask = templates.askBuilder;
+        if (ask == null) {
+            AskBuilder newAsk = new AskBuilder();
 
             if (graph != null) {
-                askBuilder.from(graph.toString());
+                newAsk.from(graph.toString());
             }
 
             String uriFieldName = analyzer.getURIFieldName();
-            askBuilder.addWhere(makeVar(uriFieldName), RDF.type, typeDefVar);
-            askBuilder.addWhere(typeDefVar, Ontology.subClassAny, analyzer.getRDFType());
+            newAsk.addWhere(makeVar(uriFieldName), RDF.type, typeDefVar);
+            newAsk.getWhereHandler().getClause().addElement(getSubClassOfElement(hierarchy, typeDefVar, analyzer.getRDFType().asNode()));
             analyzer.forEachDataProperty((Field field, Property property) -> {
-                addAskProperty(askBuilder, uriFieldName, property, field);
+                addAskProperty(newAsk, uriFieldName, property, field);
             });
 
             analyzer.forEachObjectProperty((Field field, Property property) -> {
-                addAskProperty(askBuilder, uriFieldName, property, field);
+                addAskProperty(newAsk, uriFieldName, property, field);
             });
+
+            ask = newAsk;
+            templates.askBuilder = ask;
         }
 
-        return askBuilder.clone();
+        return ask.clone();
     }
 
-    public SelectBuilder getCountBuilder(Node graph, String countFieldName) {
-        if (countBuilder == null) {
-            countBuilder = new SelectBuilder();
+    public SelectBuilder getCountBuilder(Node graph, String countFieldName, SPARQLClassHierarchy hierarchy) {
+        QueryTemplates templates = getQueryTemplates(hierarchy);
+        SelectBuilder count = templates.countBuilder;
+        if (count == null) {
+            SelectBuilder newCount = new SelectBuilder();
 
             String uriFieldName = analyzer.getURIFieldName();
             try {
                 // TODO generate properly count/distinct trought Jena API
-                countBuilder.addVar("(COUNT(DISTINCT ?" + uriFieldName + "))", makeVar(countFieldName));
+                newCount.addVar("(COUNT(DISTINCT ?" + uriFieldName + "))", makeVar(countFieldName));
             } catch (ParseException ex) {
                 LOGGER.error("Error while building count query (should never happend)", ex);
             }
             WhereHandler rootWhereHandler = new WhereHandler();
-            rootWhereHandler.addWhere(countBuilder.makeTriplePath(makeVar(uriFieldName), RDF.type, typeDefVar));
-            rootWhereHandler.addWhere(countBuilder.makeTriplePath(typeDefVar, Ontology.subClassAny, analyzer.getRDFType()));
+            rootWhereHandler.addWhere(newCount.makeTriplePath(makeVar(uriFieldName), RDF.type, typeDefVar));
+            rootWhereHandler.getClause().addElement(getSubClassOfElement(hierarchy, typeDefVar, analyzer.getRDFType().asNode()));
 
             analyzer.forEachDataProperty((Field field, Property property) -> {
-                addSelectProperty(countBuilder, uriFieldName, property, field, rootWhereHandler);
+                addSelectProperty(newCount, uriFieldName, property, field, rootWhereHandler);
             });
 
             analyzer.forEachObjectProperty((Field field, Property property) -> {
-                addSelectProperty(countBuilder, uriFieldName, property, field, rootWhereHandler);
+                addSelectProperty(newCount, uriFieldName, property, field, rootWhereHandler);
             });
 
             // add the rootWhereHandler inside a GRAPH clause
             if (graph != null) {
                 ElementNamedGraph elementNamedGraph = new ElementNamedGraph(graph, rootWhereHandler.getElement());
-                countBuilder.getWhereHandler().getClause().addElement(elementNamedGraph);
+                newCount.getWhereHandler().getClause().addElement(elementNamedGraph);
             } else {
-                countBuilder.getHandlerBlock().addAll(rootWhereHandler);
+                newCount.getHandlerBlock().addAll(rootWhereHandler);
             }
+
+            count = newCount;
+            templates.countBuilder = count;
         }
 
-        return countBuilder.clone();
+        return count.clone();
     }
 
     public <T extends SPARQLResourceModel> UpdateBuilder getCreateBuilder(Node graph, T instance) throws Exception {
@@ -193,6 +287,32 @@ public class SPARQLClassQueryBuilder {
         }
     }
 
+    /**
+     * Add to the given set the URI of an instance and URIs of resources
+     * related to it by its object fields or relations, which cached state may
+     * change when the instance is written
+     *
+     * @param instance written instance
+     * @param uris set of expanded URIs to complete
+     * @throws Exception in case of error
+     */
+    public void addWrittenURIs(Object instance, Set<String> uris) throws Exception {
+        uris.add(SPARQLDeserializers.nodeURI(analyzer.getURI(instance)).getURI());
+        executeOnInstanceTriples(instance, (Triple triple, Field field) -> {
+            if (!analyzer.getURIField().equals(field) && triple.getObject().isURI()) {
+                uris.add(triple.getObject().getURI());
+            }
+        }, true);
+
+        if (instance instanceof SPARQLResourceModel) {
+            for (SPARQLModelRelation relation : ((SPARQLResourceModel) instance).getRelations()) {
+                if (URI.class.equals(relation.getType())) {
+                    uris.add(SPARQLDeserializers.nodeURI(new URI(relation.getValue())).getURI());
+                }
+            }
+        }
+    }
+
     public UpdateBuilder getDeleteBuilder(Node graph, Object instance) throws Exception {
         UpdateBuilder delete = new UpdateBuilder();
         addDeleteBuilder(graph, instance, delete);
@@ -200,48 +320,225 @@ public class SPARQLClassQueryBuilder {
         return delete;
     }
 
-    public <T extends SPARQLResourceModel> void addUpdateBuilder(Node graph, T oldInstance, T newInstance, UpdateBuilder update) throws Exception {
-        final AtomicInteger i = new AtomicInteger(0);
-        executeOnInstanceTriples(oldInstance, (Triple triple, Field field) -> {
-            boolean isReverse = false;
-            boolean ignoreUpdateIfNull = false;
-            if (field != null) {
-                isReverse = analyzer.isReverseRelation(field);
-                try {
-                    Object newFieldValue = analyzer.getGetterFromField(field).invoke(newInstance);
-                    ignoreUpdateIfNull = newFieldValue == null && analyzer.getFieldAnnotation(field).ignoreUpdateIfNull();
-                } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException ex) {
-                    LOGGER.warn("Unexpected error (should never happend) while reading field: " + field.getName(), ex);
-                }
-
+    /**
+     * <pre>
+     * Add to an update query the replacement of changed fields values of an
+     * instance, without loading stored instance.
+     *
+     * Fields are compared to values recorded when instance was loaded or last
+     * written, only changed fields are rewritten. Instances without such a
+     * snapshot (built from a DTO for example) have all their fields and their
+     * rdf:type rewritten as stored values are unknown.
+     * Stored values of a changed field are matched in their own UNION branch
+     * of the WHERE clause, so the caller must add a branch always matching to
+     * ensure new values are inserted when no value is stored.
+     * </pre>
+     *
+     * @param <T> instance type
+     * @param graph instance graph, may be null
+     * @param instance instance to update
+     * @param update update query
+     * @param instanceIndex index of the instance in the update query, used to
+     * generate unique variables names
+     * @return true if instance has changed fields
+     * @throws Exception in case of error
+     */
+    public <T extends SPARQLResourceModel> boolean addUpdateBuilder(Node graph, T instance, UpdateBuilder update, int instanceIndex) throws Exception {
+        Map<String, Object> loadedValues = instance.getLoadedValues();
+
+        Set<Field> changedFields = new LinkedHashSet<>();
+        for (Field field : getMappedFields()) {
+            Object value = analyzer.getFieldValue(field, instance);
+            boolean changed = loadedValues == null || isChanged(field, value, loadedValues.get(field.getName()));
+            boolean ignoreUpdateIfNull = value == null && analyzer.getFieldAnnotation(field).ignoreUpdateIfNull();
+            if (changed && !ignoreUpdateIfNull) {
+                changedFields.add(field);
             }
+        }
 
-            if (!ignoreUpdateIfNull) {
-                String var = "?x" + i.addAndGet(1);
+        if (loadedValues != null && changedFields.isEmpty()) {
+            return false;
+        }
 
+        Node uriNode = SPARQLDeserializers.nodeURI(analyzer.getURI(instance));
+        int i = 0;
+        for (Field field : changedFields) {
+            Var var = makeVar("x" + instanceIndex + "_" + i++);
+            Node property = getFieldProperty(field).asNode();
+            WhereBuilder where = new WhereBuilder();
+
+            if (analyzer.isReverseRelation(field)) {
                 if (graph != null) {
-                    if (isReverse) {
-                        update.addDelete(graph, var, triple.getPredicate(), triple.getSubject());
-                        update.addWhere(var, triple.getPredicate(), triple.getSubject());
-                    } else {
-                        update.addDelete(graph, triple.getSubject(), triple.getPredicate(), var);
-                        update.addWhere(triple.getSubject(), triple.getPredicate(), var);
-                    }
+                    update.addDelete(graph, var, property, uriNode);
                 } else {
-                    if (isReverse) {
-                        update.addDelete(var, triple.getPredicate(), triple.getSubject());
-                        update.addWhere(var, triple.getPredicate(), triple.getSubject());
-                    } else {
-                        update.addDelete(triple.getSubject(), triple.getPredicate(), var);
-                        update.addWhere(triple.getSubject(), triple.getPredicate(), var);
-                    }
+                    update.addDelete(var, property, uriNode);
                 }
+                where.addWhere(var, property, uriNode);
+            } else {
+                if (graph != null) {
+                    update.addDelete(graph, uriNode, property, var);
+                } else {
+                    update.addDelete(uriNode, property, var);
+                }
+                where.addWhere(uriNode, property, var);
             }
-        }, true);
 
-        executeOnInstanceTriples(newInstance, (Triple triple, Field field) -> {
+            update.addUnion(where);
+        }
+
+        // rdf:type is only written for instances not loaded from triplestore
+        if (loadedValues == null) {
+            changedFields.add(analyzer.getURIField());
+        }
+
+        executeOnInstanceTriples(instance, (Triple triple, Field field) -> {
             addCreateBuilderHelper(graph, triple, field, update);
-        }, true);
+        }, true, changedFields);
+
+        return true;
+    }
+
+    /**
+     * <pre>
+     * Return an update query deleting all mapped triples of the given URIs
+     * without loading instances.
+     *
+     * Each mapped property (including rdf:type and reverse relations) is
+     * matched in its own UNION branch restricted to the URIs with VALUES and
+     * to resources typed by the class or one of its sub-classes, only the
+     * matching rdf:type triple is deleted.
+     * </pre>
+     *
+     * @param graph instances graph, may be null
+     * @param uris URIs of instances to delete
+     * @param hierarchy class hierarchy, null to use property paths
+     * @return delete query
+     * @see #getUnknownURIsBuilder(Collection, SPARQLClassHierarchy)
+     */
+    public UpdateBuilder getDeleteByURIsBuilder(Node graph, Collection<URI> uris, SPARQLClassHierarchy hierarchy) {
+        UpdateBuilder delete = new UpdateBuilder();
+
+        List<Node> uriNodes = getURINodes(uris);
+        Var uriVar = makeVar(analyzer.getURIFieldName());
+
+        Var typeVar = makeVar("x0");
+        addDeleteByURIsBranch(delete, graph, uriVar, uriNodes, typeVar, RDF.type.asNode(), typeVar, false, hierarchy);
+
+        int varIndex = 1;
+        for (Field field : getMappedFields()) {
+            addDeleteByURIsBranch(delete, graph, uriVar, uriNodes, typeDefVar, getFieldProperty(field).asNode(), makeVar("x" + varIndex++), analyzer.isReverseRelation(field), hierarchy);
+        }
+
+        return delete;
+    }
+
+    private void addDeleteByURIsBranch(UpdateBuilder delete, Node graph, Var uriVar, List<Node> uriNodes, Var typeVar, Node property, Var valueVar, boolean isReverse, SPARQLClassHierarchy hierarchy) {
+        Var subject = isReverse ? valueVar : uriVar;
+        Var object = isReverse ? uriVar : valueVar;
+
+        if (graph != null) {
+            delete.addDelete(graph, subject, property, object);
+        } else {
+            delete.addDelete(subject, property, object);
+        }
+
+        WhereBuilder where = new WhereBuilder();
+        ElementGroup clause = where.getWhereHandler().getClause();
+        clause.addElement(getURIValues(uriVar, uriNodes));
+        clause.addElement(getTypeElement(uriVar, typeVar, hierarchy));
+        if (!RDF.type.asNode().equals(property)) {
+            where.addWhere(subject, property, object);
+        }
+        delete.addUnion(where);
+    }
+
+    /**
+     * Return a query selecting the given URIs which are not instances of the
+     * class or of one of its sub-classes, limited to the first one
+     *
+     * @param uris URIs to check
+     * @param hierarchy class hierarchy, null to use property paths
+     * @return select query
+     */
+    public SelectBuilder getUnknownURIsBuilder(Collection<URI> uris, SPARQLClassHierarchy hierarchy) {
+        Var uriVar = makeVar(analyzer.getURIFieldName());
+
+        ElementGroup typeGroup = new ElementGroup();
+        typeGroup.addElement(getTypeElement(uriVar, typeDefVar, hierarchy));
+
+        SelectBuilder select = new SelectBuilder();
+        select.addVar(uriVar);
+        ElementGroup clause = select.getWhereHandler().getClause();
+        clause.addElement(getURIValues(uriVar, getURINodes(uris)));
+        clause.addElement(new ElementFilter(new E_NotExists(typeGroup)));
+        select.setLimit(1);
+
+        return select;
+    }
+
+    private List<Node> getURINodes(Collection<URI> uris) {
+        List<Node> uriNodes = new ArrayList<>(uris.size());
+        for (URI uri : uris) {
+            uriNodes.add(SPARQLDeserializers.nodeURI(uri));
+        }
+        return uriNodes;
+    }
+
+    private ElementData getURIValues(Var uriVar, List<Node> uriNodes) {
+        ElementData data = new ElementData();
+        data.add(uriVar);
+        for (Node uriNode : uriNodes) {
+            data.add(BindingFactory.binding(uriVar, uriNode));
+        }
+        return data;
+    }
+
+    private ElementGroup getTypeElement(Var uriVar, Var typeVar, SPARQLClassHierarchy hierarchy) {
+        ElementPathBlock typeBlock = new ElementPathBlock();
+        typeBlock.addTriple(new Triple(uriVar, RDF.type.asNode(), typeVar));
+
+        ElementGroup typeGroup = new ElementGroup();
+        typeGroup.addElement(typeBlock);
+        typeGroup.addElement(getSubClassOfElement(hierarchy, typeVar, analyzer.getRDFType().asNode()));
+        return typeGroup;
+    }
+
+    /**
+     * @return all fields mapped to a property
+     */
+    public List<Field> getMappedFields() {
+        List<Field> fields = new ArrayList<>();
+        fields.addAll(analyzer.getDataPropertyFields());
+        fields.addAll(analyzer.getObjectPropertyFields());
+        fields.addAll(analyzer.getDataListPropertyFields());
+        fields.addAll(analyzer.getObjectListPropertyFields());
+        return fields;
+    }
+
+    private Property getFieldProperty(Field field) {
+        if (analyzer.isDataPropertyField(field)) {
+            return analyzer.getDataPropertyByField(field);
+        } else if (analyzer.isObjectPropertyField(field)) {
+            return analyzer.getObjectPropertyByField(field);
+        } else if (analyzer.isDataListField(field)) {
+            return analyzer.getDataListPropertyByField(field);
+        } else {
+            return analyzer.getObjectListPropertyByField(field);
+        }
+    }
+
+    private boolean isChanged(Field field, Object value, Object loadedValue) {
+        if (analyzer.isDataPropertyField(field)) {
+            return !Objects.equals(value, loadedValue);
+        } else if (analyzer.isObjectPropertyField(field)) {
+            return value != loadedValue;
+        } else if (value == loadedValue) {
+            // Lists loaded after snapshot may have been modified in place
+            return value != null && !SPARQLProxy.isUnloadedProxy(value);
+        } else {
+            // Snapshot holds a copy of lists loaded at the time
+            return !Objects.equals(value, loadedValue);
+        }
     }
 
     public void addDeleteBuilder(Node graph, Object instance, UpdateBuilder delete) throws Exception {
@@ -317,13 +614,33 @@ public class SPARQLClassQueryBuilder {
     }
 
     private void executeOnInstanceTriples(Object instance, BiConsumer<Triple, Field> tripleHandler, boolean ignoreNullFields) throws Exception {
+        executeOnInstanceTriples(instance, tripleHandler, ignoreNullFields, null);
+    }
+
+    /**
+     * Call triple handler for each triple of an instance
+     *
+     * @param instance instance
+     * @param tripleHandler handler called with each triple and its field
+     * @param ignoreNullFields if false, throw an exception for null required
+     * fields
+     * @param fields fields to handle (URI field for rdf:type), null for all
+     * fields
+     * @throws Exception in case of error
+     */
+    private void executeOnInstanceTriples(Object instance, BiConsumer<Triple, Field> tripleHandler, boolean ignoreNullFields, Set<Field> fields) throws Exception {
         URI uri = analyzer.getURI(instance);
         Node uriNode = SPARQLDeserializers.getForClass(URI.class).getNodeFromString(uri.toString());
 
-        tripleHandler.accept(new Triple(uriNode, RDF.type.asNode(), analyzer.getRDFType().asNode()), analyzer.getURIField());
+        if (fields == null || fields.contains(analyzer.getURIField())) {
+            tripleHandler.accept(new Triple(uriNode, RDF.type.asNode(), analyzer.getRDFType().asNode()), analyzer.getURIField());
+        }
 
         for (Field field : analyzer.getDataPropertyFields()) {
-            Object fieldValue = analyzer.getGetterFromField(field).invoke(instance);
+            if (fields != null && !fields.contains(field)) {
+                continue;
+            }
+            Object fieldValue = analyzer.getFieldValue(field, instance);
 
             if (fieldValue == null) {
                 if (!ignoreNullFields && !analyzer.isOptional(field)) {
@@ -338,7 +655,10 @@ public class SPARQLClassQueryBuilder {
         }
 
         for (Field field : analyzer.getObjectPropertyFields()) {
-            Object fieldValue = analyzer.getGetterFromField(field).invoke(instance);
+            if (fields != null && !fields.contains(field)) {
+                continue;
+            }
+            Object fieldValue = analyzer.getFieldValue(field, instance);
 
             if (fieldValue == null) {
                 if (!ignoreNullFields && !analyzer.isOptional(field)) {
@@ -358,7 +678,10 @@ public class SPARQLClassQueryBuilder {
         }
 
         for (Field field : analyzer.getDataListPropertyFields()) {
-            List<?> fieldValues = (List<?>) analyzer.getGetterFromField(field).invoke(instance);
+            if (fields != null && !fields.contains(field)) {
+                continue;
+            }
+            List<?> fieldValues = (List<?>) analyzer.getFieldValue(field, instance);
 
             if (fieldValues != null) {
                 Property property = analyzer.getDataListPropertyByField(field);
@@ -371,7 +694,10 @@ public class SPARQLClassQueryBuilder {
         }
 
         for (Field field : analyzer.getObjectListPropertyFields()) {
-            List<?> fieldValues = (List<?>) analyzer.getGetterFromField(field).invoke(instance);
+            if (fields != null && !fields.contains(field)) {
+                continue;
+            }
+            List<?> fieldValues = (List<?>) analyzer.getFieldValue(field, instance);
 
             if (fieldValues != null) {
                 for (Object listValue : fieldValues) {
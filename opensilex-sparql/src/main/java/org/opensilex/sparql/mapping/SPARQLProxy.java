@@ -5,9 +5,14 @@
  */
 package org.opensilex.sparql.mapping;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.modifier.Visibility;
 import net.bytebuddy.implementation.InvocationHandlerAdapter;
 import net.bytebuddy.matcher.ElementMatchers;
 import org.apache.jena.graph.*;
@@ -35,25 +40,94 @@ abstract class SPARQLProxy<T> implements InvocationHandler {
     protected final Node graph;
     protected T instance;
     
+    /**
+     * Name of the generated field holding the proxy invocation handler
+     */
+    private final static String HANDLER_FIELD = "sparqlProxyHandler";
+
+    /**
+     * Generated proxy classes by proxied type, each instance delegates calls
+     * to its own handler so a single class is needed per type
+     */
+    private final static Map<Class<?>, ProxyClass> PROXY_CLASSES = new ConcurrentHashMap<>();
+
+    /**
+     * Handler fields by generated proxy class, to read proxies handler without
+     * looking up the field on each call
+     */
+    private final static Map<Class<?>, Field> HANDLER_FIELDS = new ConcurrentHashMap<>();
+
     public T getInstance() {
-        Class<? extends T> proxy = new ByteBuddy()
+        ProxyClass proxyClass = PROXY_CLASSES.computeIfAbsent(type, SPARQLProxy::createProxyClass);
+
+        try {
+            @SuppressWarnings("unchecked")
+            T proxy = (T) proxyClass.constructor.newInstance();
+            proxyClass.handlerField.set(proxy, this);
+            return proxy;
+        } catch (Exception ex) {
+            LOGGER.error("Error while creating SPARQL proxy class (should never happend)", ex);
+        }
+        
+        return null;
+    }
+
+    private static ProxyClass createProxyClass(Class<?> type) {
+        LOGGER.debug("Generate SPARQL proxy class for: " + type.getName());
+        Class<?> proxy = new ByteBuddy()
                 .subclass(type)
                 .implement(SPARQLProxyMarker.class)
+                .defineField(HANDLER_FIELD, InvocationHandler.class, Visibility.PUBLIC)
                 .method(ElementMatchers.any())
-                .intercept(InvocationHandlerAdapter.of(this))
+                .intercept(InvocationHandlerAdapter.toField(HANDLER_FIELD))
                 .make()
                 .load(OpenSilex.getClassLoader())
                 .getLoaded();
-        
+
         try {
-            return proxy.getConstructor().newInstance();
-        } catch (Exception ex) {
-            LOGGER.error("Error while creating SPARQL proxy class (should never happend)", ex);
+            Field handlerField = proxy.getField(HANDLER_FIELD);
+            HANDLER_FIELDS.put(proxy, handlerField);
+            return new ProxyClass(proxy.getConstructor(), handlerField);
+        } catch (NoSuchMethodException | NoSuchFieldException ex) {
+            throw new IllegalStateException("Invalid generated SPARQL proxy class for: " + type.getName(), ex);
+        }
+    }
+
+    private static class ProxyClass {
+
+        private final Constructor<?> constructor;
+        private final Field handlerField;
+
+        private ProxyClass(Constructor<?> constructor, Field handlerField) {
+            this.constructor = constructor;
+            this.handlerField = handlerField;
         }
-        
-        return null;
     }
     
+    /**
+     * Check if a value is a proxy which has not been loaded yet, without
+     * loading it
+     *
+     * @param value value to check
+     * @return true if value is a proxy not loaded yet
+     */
+    static boolean isUnloadedProxy(Object value) {
+        if (value instanceof SPARQLProxyMarker) {
+            Field handlerField = HANDLER_FIELDS.get(value.getClass());
+            if (handlerField == null) {
+                return false;
+            }
+            try {
+                Object handler = handlerField.get(value);
+                return handler instanceof SPARQLProxy && !((SPARQLProxy<?>) handler).isLoaded();
+            } catch (ReflectiveOperationException ex) {
+                LOGGER.error("Error while reading SPARQL proxy handler (should never happend)", ex);
+            }
+        }
+
+        return false;
+    }
+
     private boolean loaded = false;
     
     protected T loadIfNeeded() throws Exception {
@@ -64,6 +138,20 @@ abstract class SPARQLProxy<T> implements InvocationHandler {
         
         return instance;
     }
+
+    protected boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Set proxied instance when it has been loaded externally
+     *
+     * @param instance loaded instance
+     */
+    protected void setLoadedInstance(T instance) {
+        this.instance = instance;
+        loaded = true;
+    }
     
     @Override
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
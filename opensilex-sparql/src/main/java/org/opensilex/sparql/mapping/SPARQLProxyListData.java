@@ -29,12 +29,29 @@ class SPARQLProxyListData<T> extends SPARQLProxyList<T> {
 
     private final static Logger LOGGER = LoggerFactory.getLogger(SPARQLProxyListData.class);
 
+    private final SPARQLResourceBatchLoader batchLoader;
+
     public SPARQLProxyListData(Node graph, URI uri, Property property, Class<T> genericType, boolean isReverseRelation, SPARQLService service) throws SPARQLDeserializerNotFoundException {
+        this(graph, uri, property, genericType, isReverseRelation, service, null);
+    }
+
+    public SPARQLProxyListData(Node graph, URI uri, Property property, Class<T> genericType, boolean isReverseRelation, SPARQLService service, SPARQLResourceBatchLoader batchLoader) throws SPARQLDeserializerNotFoundException {
         super(graph, uri, property, genericType, isReverseRelation, service);
+        this.batchLoader = batchLoader;
+        if (batchLoader != null) {
+            batchLoader.register(this);
+        }
     }
 
     @Override
     protected List<T> loadData() throws Exception {
+        if (batchLoader != null) {
+            batchLoader.loadPending(this);
+            if (isLoaded()) {
+                return instance;
+            }
+        }
+
         SelectBuilder select = new SelectBuilder();
 
         Var value = makeVar("value");
@@ -50,11 +67,10 @@ class SPARQLProxyListData<T> extends SPARQLProxyList<T> {
         SPARQLDeserializer<T> deserializer = SPARQLDeserializers.getForClass(genericType);
 
         service.executeSelectQuery(select, (SPARQLResult result) -> {
-            String strValue = result.getStringValue("value");
             try {
-                results.add(deserializer.fromString(strValue));
+                results.add(deserializer.fromResult(result, "value"));
             } catch (Exception ex) {
-                LOGGER.warn("Error while parsing SPARQL result, result will be ignored: " + strValue, ex);
+                LOGGER.warn("Error while parsing SPARQL result, result will be ignored: " + result.getStringValue("value"), ex);
             }
         });
 
@@ -6,6 +6,7 @@
 package org.opensilex.sparql.mapping;
 
 import java.net.URI;
+import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
@@ -23,13 +24,23 @@ import org.opensilex.sparql.utils.Ontology;
 @SuppressWarnings("rawtypes")
 public class SPARQLProxyRelationList extends SPARQLProxy<List> {
 
-    private final Set<String> propertiesToIgnore;
-    private final URI uri;
+    protected final Set<String> propertiesToIgnore;
+    protected final URI uri;
+
+    private final SPARQLResourceBatchLoader batchLoader;
 
     public SPARQLProxyRelationList(Node graph, URI uri, Set<String> propertiesToIgnore, SPARQLService service) {
+        this(graph, uri, propertiesToIgnore, service, null);
+    }
+
+    public SPARQLProxyRelationList(Node graph, URI uri, Set<String> propertiesToIgnore, SPARQLService service, SPARQLResourceBatchLoader batchLoader) {
         super(graph, List.class, service);
         this.uri = uri;
         this.propertiesToIgnore = propertiesToIgnore;
+        this.batchLoader = batchLoader;
+        if (batchLoader != null) {
+            batchLoader.register(this);
+        }
     }
 
     @Override
@@ -40,30 +51,22 @@ public class SPARQLProxyRelationList extends SPARQLProxy<List> {
 
     @Override
     protected List loadData() throws Exception {
+        if (batchLoader != null) {
+            batchLoader.loadPending(this);
+            if (isLoaded()) {
+                return instance;
+            }
+        }
+
         List<SPARQLStatement> results = this.service.describe(uri);
 
         List<SPARQLModelRelation> list = new ArrayList<>();
         
         for (SPARQLStatement statement : results) {
             if (!propertiesToIgnore.contains(statement.getPredicate())) {
-                SPARQLModelRelation relation = new SPARQLModelRelation();
-
-                relation.setProperty(Ontology.property(statement.getPredicate()));
-
                 boolean isReverse = uri.toString().equals(statement.getObject());
-                relation.setReverse(isReverse);
-
-                if (isReverse) {
-                    relation.setValue(statement.getSubject());
-                } else {
-                    relation.setValue(statement.getObject());
-                }
-                
-                if (statement.getContext() != null) {
-                    relation.setGraph(new URI(statement.getContext()));
-                }
-                
-                list.add(relation);
+                String value = isReverse ? statement.getSubject() : statement.getObject();
+                list.add(createRelation(statement.getPredicate(), value, isReverse, statement.getContext()));
             }
 
         };
@@ -71,4 +74,28 @@ public class SPARQLProxyRelationList extends SPARQLProxy<List> {
         return list;
     }
 
+    /**
+     * Create a relation not mapped to any field
+     *
+     * @param property relation property URI
+     * @param value related value
+     * @param isReverse true if the instance is the object of the relation
+     * @param graph relation graph URI or null
+     * @return relation
+     * @throws URISyntaxException if graph URI is invalid
+     */
+    static SPARQLModelRelation createRelation(String property, String value, boolean isReverse, String graph) throws URISyntaxException {
+        SPARQLModelRelation relation = new SPARQLModelRelation();
+
+        relation.setProperty(Ontology.property(property));
+        relation.setReverse(isReverse);
+        relation.setValue(value);
+
+        if (graph != null) {
+            relation.setGraph(new URI(graph));
+        }
+
+        return relation;
+    }
+
 }
@@ -19,14 +19,31 @@ class SPARQLProxyResource<T extends SPARQLResourceModel> extends SPARQLProxy<T>
     
     
     SPARQLProxyResource(Node graph, URI uri, Class<T> type, SPARQLService service) {
+        this(graph, uri, type, service, null);
+    }
+
+    SPARQLProxyResource(Node graph, URI uri, Class<T> type, SPARQLService service, SPARQLResourceBatchLoader batchLoader) {
         super(graph, type, service);
         this.uri = uri;
+        this.batchLoader = batchLoader;
+        if (batchLoader != null) {
+            batchLoader.register(this);
+        }
     }
     
     protected final URI uri;
 
+    private final SPARQLResourceBatchLoader batchLoader;
+
     @Override
     protected T loadData() throws Exception {
+        if (batchLoader != null) {
+            batchLoader.loadPending(type);
+            if (isLoaded()) {
+                return instance;
+            }
+        }
+
         return service.loadByURI(type, uri);
     }
 
@@ -0,0 +1,313 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.mapping;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import static org.apache.jena.arq.querybuilder.AbstractQueryBuilder.makeVar;
+import org.apache.jena.arq.querybuilder.SelectBuilder;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.expr.E_NotExists;
+import org.apache.jena.sparql.syntax.Element;
+import org.apache.jena.sparql.syntax.ElementData;
+import org.apache.jena.sparql.syntax.ElementFilter;
+import org.apache.jena.sparql.syntax.ElementGroup;
+import org.apache.jena.sparql.syntax.ElementNamedGraph;
+import org.apache.jena.sparql.syntax.ElementPathBlock;
+import org.apache.jena.sparql.syntax.ElementUnion;
+import org.opensilex.sparql.deserializer.SPARQLDeserializer;
+import org.opensilex.sparql.deserializer.SPARQLDeserializers;
+import org.opensilex.sparql.model.SPARQLModelRelation;
+import org.opensilex.sparql.model.SPARQLResourceModel;
+import org.opensilex.sparql.service.SPARQLQueryHelper;
+import org.opensilex.sparql.service.SPARQLResult;
+import org.opensilex.sparql.service.SPARQLService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <pre>
+ * Collect object references created while materializing a list of results.
+ *
+ * When one of the references is accessed, all pending references of the same
+ * type are loaded with a single query instead of one query per reference.
+ *
+ * Multi-valued data properties are handled the same way: all pending lists
+ * of the same property are loaded with a single query keyed by their subject
+ * URIs.
+ *
+ * Relations not mapped to any field are also loaded for all pending
+ * instances at once instead of one DESCRIBE query per instance.
+ * </pre>
+ *
+ * @author vincent
+ */
+public class SPARQLResourceBatchLoader {
+
+    private final static Logger LOGGER = LoggerFactory.getLogger(SPARQLResourceBatchLoader.class);
+
+    private final SPARQLService service;
+
+    private final Map<Class<?>, List<SPARQLProxyResource<?>>> pendingProxies = new HashMap<>();
+
+    private final Map<DataListKey, List<SPARQLProxyListData<?>>> pendingDataLists = new HashMap<>();
+
+    private final List<SPARQLProxyRelationList> pendingRelationLists = new ArrayList<>();
+
+    public SPARQLResourceBatchLoader(SPARQLService service) {
+        this.service = service;
+    }
+
+    synchronized void register(SPARQLProxyResource<?> proxy) {
+        if (!pendingProxies.containsKey(proxy.type)) {
+            pendingProxies.put(proxy.type, new ArrayList<>());
+        }
+
+        pendingProxies.get(proxy.type).add(proxy);
+    }
+
+    @SuppressWarnings("unchecked")
+    synchronized <T extends SPARQLResourceModel> void loadPending(Class<T> type) throws Exception {
+        List<SPARQLProxyResource<?>> proxies = pendingProxies.remove(type);
+        if (proxies == null || proxies.isEmpty()) {
+            return;
+        }
+
+        Set<URI> uris = new LinkedHashSet<>();
+        for (SPARQLProxyResource<?> proxy : proxies) {
+            uris.add(proxy.uri);
+        }
+
+        Map<URI, T> instancesByURI = new HashMap<>();
+        for (T instance : service.loadListByURIs(type, uris)) {
+            instancesByURI.put(instance.getUri(), instance);
+        }
+
+        for (SPARQLProxyResource<?> proxy : proxies) {
+            SPARQLProxyResource<T> typedProxy = (SPARQLProxyResource<T>) proxy;
+            typedProxy.setLoadedInstance(instancesByURI.get(typedProxy.uri));
+        }
+    }
+
+    synchronized void register(SPARQLProxyListData<?> proxy) {
+        DataListKey key = new DataListKey(proxy);
+        if (!pendingDataLists.containsKey(key)) {
+            pendingDataLists.put(key, new ArrayList<>());
+        }
+
+        pendingDataLists.get(key).add(proxy);
+    }
+
+    @SuppressWarnings("unchecked")
+    synchronized <T> void loadPending(SPARQLProxyListData<T> requestingProxy) throws Exception {
+        List<SPARQLProxyListData<?>> proxies = pendingDataLists.remove(new DataListKey(requestingProxy));
+        if (proxies == null || proxies.isEmpty()) {
+            return;
+        }
+
+        Var uriVar = makeVar("uri");
+        Var valueVar = makeVar("value");
+
+        SelectBuilder select = new SelectBuilder();
+        select.addVar(uriVar);
+        select.addVar(valueVar);
+
+        if (requestingProxy.isReverseRelation) {
+            select.addWhere(valueVar, requestingProxy.property, uriVar);
+        } else {
+            select.addWhere(uriVar, requestingProxy.property, valueVar);
+        }
+
+        Set<URI> uris = new LinkedHashSet<>();
+        for (SPARQLProxyListData<?> proxy : proxies) {
+            uris.add(proxy.uri);
+        }
+        Object[] uriNodes = new Object[uris.size()];
+        int i = 0;
+        for (URI uri : uris) {
+            uriNodes[i++] = SPARQLDeserializers.nodeURI(uri);
+        }
+        select.addWhereValueVar(uriVar, uriNodes);
+
+        SPARQLDeserializer<URI> uriDeserializer = SPARQLDeserializers.getForClass(URI.class);
+        SPARQLDeserializer<T> deserializer = SPARQLDeserializers.getForClass(requestingProxy.genericType);
+        Map<URI, List<T>> valuesByURI = new HashMap<>();
+
+        service.executeSelectQuery(select, (SPARQLResult result) -> {
+            try {
+                URI uri = uriDeserializer.fromResult(result, uriVar.getName());
+                if (!valuesByURI.containsKey(uri)) {
+                    valuesByURI.put(uri, new ArrayList<>());
+                }
+                valuesByURI.get(uri).add(deserializer.fromResult(result, valueVar.getName()));
+            } catch (Exception ex) {
+                LOGGER.warn("Error while parsing SPARQL result, result will be ignored: " + result.getStringValue(valueVar.getName()), ex);
+            }
+        });
+
+        for (SPARQLProxyListData<?> proxy : proxies) {
+            List<T> values = valuesByURI.get(proxy.uri);
+            if (values == null) {
+                values = new ArrayList<>();
+            }
+            ((SPARQLProxyListData<T>) proxy).setLoadedInstance(values);
+        }
+    }
+
+    synchronized void register(SPARQLProxyRelationList proxy) {
+        pendingRelationLists.add(proxy);
+    }
+
+    synchronized void loadPending(SPARQLProxyRelationList requestingProxy) throws Exception {
+        if (!pendingRelationLists.contains(requestingProxy)) {
+            return;
+        }
+        List<SPARQLProxyRelationList> proxies = new ArrayList<>(pendingRelationLists);
+        pendingRelationLists.clear();
+
+        Var uriVar = makeVar("uri");
+        Var subjectVar = makeVar("s");
+        Var propertyVar = makeVar("p");
+        Var objectVar = makeVar("o");
+        Var graphVar = makeVar("g");
+
+        SelectBuilder select = new SelectBuilder();
+        select.addVar(uriVar);
+        select.addVar(subjectVar);
+        select.addVar(propertyVar);
+        select.addVar(objectVar);
+        select.addVar(graphVar);
+
+        Set<URI> uris = new LinkedHashSet<>();
+        for (SPARQLProxyRelationList proxy : proxies) {
+            uris.add(proxy.uri);
+        }
+        List<Node> uriNodes = new ArrayList<>(uris.size());
+        for (URI uri : uris) {
+            uriNodes.add(SPARQLDeserializers.nodeURI(uri));
+        }
+
+        // Statements where URIs are subject, or object in reverse branches.
+        // URIs are bound inside each branch and statements are matched once
+        // by graph, plus once if they are in the default graph only, as
+        // described statements are.
+        Triple statement = new Triple(uriVar, propertyVar, objectVar);
+        Triple reverseStatement = new Triple(subjectVar, propertyVar, uriVar);
+        ElementUnion union = new ElementUnion();
+        union.addElement(getRelationsBranch(uriVar, uriNodes, statement, graphVar));
+        union.addElement(getRelationsBranch(uriVar, uriNodes, statement, null));
+        union.addElement(getRelationsBranch(uriVar, uriNodes, reverseStatement, graphVar));
+        union.addElement(getRelationsBranch(uriVar, uriNodes, reverseStatement, null));
+        SPARQLQueryHelper.addWhere(select, union);
+
+        SPARQLDeserializer<URI> uriDeserializer = SPARQLDeserializers.getForClass(URI.class);
+        Map<URI, List<SPARQLModelRelation>> relationsByURI = new HashMap<>();
+
+        service.executeSelectQuery(select, (SPARQLResult result) -> {
+            try {
+                URI uri = uriDeserializer.fromResult(result, uriVar.getName());
+                boolean isReverse = result.hasValue(subjectVar.getName());
+                String value = result.getStringValue(isReverse ? subjectVar.getName() : objectVar.getName());
+                String graph = result.hasValue(graphVar.getName()) ? result.getStringValue(graphVar.getName()) : null;
+
+                if (!relationsByURI.containsKey(uri)) {
+                    relationsByURI.put(uri, new ArrayList<>());
+                }
+                relationsByURI.get(uri).add(SPARQLProxyRelationList.createRelation(result.getStringValue(propertyVar.getName()), value, isReverse, graph));
+            } catch (Exception ex) {
+                LOGGER.warn("Error while parsing SPARQL result, result will be ignored: " + result.getStringValue(propertyVar.getName()), ex);
+            }
+        });
+
+        for (SPARQLProxyRelationList proxy : proxies) {
+            List<SPARQLModelRelation> relations = new ArrayList<>();
+            List<SPARQLModelRelation> uriRelations = relationsByURI.get(proxy.uri);
+            if (uriRelations != null) {
+                for (SPARQLModelRelation relation : uriRelations) {
+                    if (!proxy.propertiesToIgnore.contains(relation.getProperty().getURI())) {
+                        relations.add(relation);
+                    }
+                }
+            }
+            proxy.setLoadedInstance(relations);
+        }
+    }
+
+    /**
+     * Return a union branch matching the given statement of the given URIs,
+     * in any named graph or, if graph variable is null, only in default graph
+     */
+    private static Element getRelationsBranch(Var uriVar, List<Node> uriNodes, Triple statement, Var graphVar) {
+        ElementData data = new ElementData();
+        data.add(uriVar);
+        for (Node uriNode : uriNodes) {
+            data.add(BindingFactory.binding(uriVar, uriNode));
+        }
+
+        ElementGroup branch = new ElementGroup();
+        branch.addElement(data);
+        if (graphVar != null) {
+            branch.addElement(new ElementNamedGraph(graphVar, getTripleBlock(statement)));
+        } else {
+            branch.addElement(getTripleBlock(statement));
+            ElementNamedGraph namedGraphStatement = new ElementNamedGraph(makeVar("namedGraph"), getTripleBlock(statement));
+            branch.addElement(new ElementFilter(new E_NotExists(namedGraphStatement)));
+        }
+
+        return branch;
+    }
+
+    private static ElementPathBlock getTripleBlock(Triple triple) {
+        ElementPathBlock block = new ElementPathBlock();
+        block.addTriple(triple);
+        return block;
+    }
+
+    /**
+     * Key grouping data list proxies which can be loaded with the same query
+     */
+    private static class DataListKey {
+
+        private final Property property;
+        private final Class<?> genericType;
+        private final boolean isReverseRelation;
+
+        private DataListKey(SPARQLProxyListData<?> proxy) {
+            this.property = proxy.property;
+            this.genericType = proxy.genericType;
+            this.isReverseRelation = proxy.isReverseRelation;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(property, genericType, isReverseRelation);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final DataListKey other = (DataListKey) obj;
+            return isReverseRelation == other.isReverseRelation
+                    && Objects.equals(property, other.property)
+                    && Objects.equals(genericType, other.genericType);
+        }
+    }
+}
@@ -5,9 +5,11 @@
 //******************************************************************************
 package org.opensilex.sparql.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import org.opensilex.sparql.annotations.SPARQLResourceURI;
 
@@ -23,6 +25,12 @@ public abstract class SPARQLResourceModel implements SPARQLModel {
     public static final String URI_FIELD = "uri";
     
     protected List<SPARQLModelRelation> relations = new ArrayList<>();
+
+    /**
+     * Mapped field values when instance was loaded from triplestore, null if
+     * instance was not loaded by URI (searches do not record loaded values)
+     */
+    private transient Map<String, Object> loadedValues;
         
     public URI getUri() {
         return uri;
@@ -40,6 +48,19 @@ public abstract class SPARQLResourceModel implements SPARQLModel {
         this.relations = relations;
     }
 
+    /**
+     * @return mapped field values when instance was loaded, used to update
+     * only changed fields
+     */
+    @JsonIgnore
+    public Map<String, Object> getLoadedValues() {
+        return loadedValues;
+    }
+
+    public void setLoadedValues(Map<String, Object> loadedValues) {
+        this.loadedValues = loadedValues;
+    }
+
     @Override
     public int hashCode() {
         int hash = 3;
@@ -35,4 +35,191 @@ public interface RDF4JConfig {
     )
     String repository();
 
+    /**
+     * Number of connections opened at startup
+     *
+     * @return minimum pool size
+     */
+    @ConfigDescription(
+            value = "Minimum number of RDF4J connections kept in pool",
+            defaultInt = 1
+    )
+    int poolMinSize();
+
+    /**
+     * Maximum number of connections opened at the same time
+     *
+     * @return maximum pool size
+     */
+    @ConfigDescription(
+            value = "Maximum number of RDF4J connections in pool",
+            defaultInt = 16
+    )
+    int poolMaxSize();
+
+    /**
+     * Maximum time to wait for a free connection
+     *
+     * @return timeout in milliseconds
+     */
+    @ConfigDescription(
+            value = "Maximum time in milliseconds to wait for a free RDF4J connection",
+            defaultLong = 30000
+    )
+    long poolBorrowTimeout();
+
+    /**
+     * Idle time after which a connection state is checked before using it
+     *
+     * @return idle time in milliseconds
+     */
+    @ConfigDescription(
+            value = "Validate RDF4J connections borrowed from pool after being idle for this time in milliseconds (0 to always validate, negative to never validate)",
+            defaultLong = RDF4JConnection.DEFAULT_POOL_VALIDATION_IDLE_TIME
+    )
+    long poolValidationIdleTime();
+
+    /**
+     * Repository type: remote RDF4J server or store embedded in application
+     *
+     * @return repository type
+     */
+    @ConfigDescription(
+            value = "RDF4J repository type: http (RDF4J server), native (embedded native store) or memory (embedded memory store)",
+            defaultString = RDF4JConnection.HTTP_REPOSITORY
+    )
+    String repositoryType();
+
+    /**
+     * Data directory of embedded stores
+     *
+     * @return directory path
+     */
+    @ConfigDescription(
+            value = "Data directory of embedded RDF4J store, required for native store, memory store is persisted in it if defined",
+            defaultString = ""
+    )
+    String dataDir();
+
+    /**
+     * Triple indexes of embedded native store
+     *
+     * @return comma separated list of indexes
+     */
+    @ConfigDescription(
+            value = "Triple indexes of embedded native store (comma separated combinations of s, p, o and c)",
+            defaultString = RDF4JConnection.DEFAULT_NATIVE_INDEXES
+    )
+    String nativeIndexes();
+
+    /**
+     * Flag to sync embedded native store files to disk on each commit
+     *
+     * @return true if files must be synced on commit
+     */
+    @ConfigDescription(
+            value = "Force sync of embedded native store files to disk on each commit",
+            defaultBoolean = false
+    )
+    boolean nativeForceSync();
+
+    /**
+     * Size of embedded native store value cache
+     *
+     * @return number of cached values
+     */
+    @ConfigDescription(
+            value = "Number of values cached by embedded native store",
+            defaultInt = RDF4JConnection.DEFAULT_NATIVE_VALUE_CACHE_SIZE
+    )
+    int nativeValueCacheSize();
+
+    /**
+     * Size of embedded native store value id cache
+     *
+     * @return number of cached value ids
+     */
+    @ConfigDescription(
+            value = "Number of value ids cached by embedded native store",
+            defaultInt = RDF4JConnection.DEFAULT_NATIVE_VALUE_ID_CACHE_SIZE
+    )
+    int nativeValueIdCacheSize();
+
+    /**
+     * Delay before embedded memory store is synced to its data directory
+     *
+     * @return delay in milliseconds
+     */
+    @ConfigDescription(
+            value = "Delay in milliseconds before embedded memory store changes are written to data directory, 0 to write on each commit",
+            defaultLong = 1000
+    )
+    long memorySyncDelay();
+
+    /**
+     * Result format requested to RDF4J server for SELECT queries
+     *
+     * @return format name
+     */
+    @ConfigDescription(
+            value = "SELECT results format requested to RDF4J server: BINARY, SPARQL/XML, SPARQL/JSON, SPARQL/TSV...",
+            defaultString = RDF4JConnection.DEFAULT_TUPLE_QUERY_RESULT_FORMAT
+    )
+    String tupleQueryResultFormat();
+
+    /**
+     * RDF format requested to RDF4J server for CONSTRUCT and DESCRIBE queries
+     *
+     * @return format name
+     */
+    @ConfigDescription(
+            value = "Statements format requested to RDF4J server: BinaryRDF, Turtle, N-Triples, RDF/XML...",
+            defaultString = RDF4JConnection.DEFAULT_RDF_FORMAT
+    )
+    String rdfFormat();
+
+    /**
+     * Maximum number of HTTP connections to RDF4J server
+     *
+     * @return maximum number of connections
+     */
+    @ConfigDescription(
+            value = "Maximum number of kept alive HTTP connections to RDF4J server",
+            defaultInt = RDF4JConnection.DEFAULT_HTTP_MAX_CONNECTIONS
+    )
+    int httpMaxConnections();
+
+    /**
+     * HTTP connection timeout
+     *
+     * @return timeout in milliseconds
+     */
+    @ConfigDescription(
+            value = "Timeout in milliseconds to open an HTTP connection to RDF4J server",
+            defaultInt = RDF4JConnection.DEFAULT_HTTP_CONNECT_TIMEOUT
+    )
+    int httpConnectTimeout();
+
+    /**
+     * HTTP socket timeout
+     *
+     * @return timeout in milliseconds
+     */
+    @ConfigDescription(
+            value = "Maximum inactivity time in milliseconds while waiting for RDF4J server response, 0 for no timeout",
+            defaultInt = 0
+    )
+    int httpSocketTimeout();
+
+    /**
+     * Flag to request compressed HTTP responses
+     *
+     * @return true if responses may be compressed
+     */
+    @ConfigDescription(
+            value = "Accept gzip compressed responses from RDF4J server",
+            defaultBoolean = true
+    )
+    boolean httpCompression();
+
 }
@@ -5,16 +5,32 @@
 //******************************************************************************
 package org.opensilex.sparql.rdf4j;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.Consumer;
-import org.apache.jena.arq.querybuilder.AskBuilder;
-import org.apache.jena.arq.querybuilder.ConstructBuilder;
-import org.apache.jena.arq.querybuilder.DescribeBuilder;
-import org.apache.jena.arq.querybuilder.SelectBuilder;
-import org.apache.jena.arq.querybuilder.UpdateBuilder;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
+import org.eclipse.rdf4j.common.lang.FileFormat;
+import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.query.BindingSet;
 import org.eclipse.rdf4j.query.BooleanQuery;
@@ -24,14 +40,25 @@ import org.eclipse.rdf4j.query.QueryLanguage;
 import org.eclipse.rdf4j.query.QueryResult;
 import org.eclipse.rdf4j.query.TupleQuery;
 import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultParserRegistry;
 import org.eclipse.rdf4j.query.Update;
+import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
 import org.eclipse.rdf4j.repository.http.HTTPRepository;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFParserRegistry;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.eclipse.rdf4j.sail.nativerdf.NativeStore;
 import org.opensilex.sparql.service.SPARQLConnection;
 import org.opensilex.sparql.service.SPARQLResult;
 import org.opensilex.sparql.service.SPARQLStatement;
 import org.opensilex.sparql.exceptions.SPARQLQueryException;
 import org.opensilex.sparql.exceptions.SPARQLTransactionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 
 /**
@@ -40,98 +67,452 @@ import org.opensilex.sparql.exceptions.SPARQLTransactionException;
  */
 public class RDF4JConnection implements SPARQLConnection {
 
-    private RepositoryConnection rdf4JConnection;
+    private final static Logger LOGGER = LoggerFactory.getLogger(RDF4JConnection.class);
+
+    private final static int DEFAULT_POOL_MAX_SIZE = 16;
+    private final static long DEFAULT_POOL_BORROW_TIMEOUT = 30000;
+    public final static long DEFAULT_POOL_VALIDATION_IDLE_TIME = 30000;
+
+    public final static String HTTP_REPOSITORY = "http";
+    public final static String NATIVE_REPOSITORY = "native";
+    public final static String MEMORY_REPOSITORY = "memory";
+
+    public final static String DEFAULT_NATIVE_INDEXES = "spoc,posc,cosp";
+    public final static int DEFAULT_NATIVE_VALUE_CACHE_SIZE = 16384;
+    public final static int DEFAULT_NATIVE_VALUE_ID_CACHE_SIZE = 8192;
+
+    public final static String DEFAULT_TUPLE_QUERY_RESULT_FORMAT = "BINARY";
+    public final static String DEFAULT_RDF_FORMAT = "BinaryRDF";
+    public final static int DEFAULT_HTTP_MAX_CONNECTIONS = 32;
+    public final static int DEFAULT_HTTP_CONNECT_TIMEOUT = 5000;
+
+    private RDF4JConnectionPool pool;
     private RDF4JConfig config;
+    private Repository repository;
+    private boolean ownRepository = false;
+    private CloseableHttpClient httpClient;
+
+    /**
+     * Connection bound to the current thread while a transaction is running
+     */
+    private final ThreadLocal<RepositoryConnection> transactionConnection = new ThreadLocal<>();
 
     public RDF4JConnection(RDF4JConfig config) {
         this.config = config;
     }
 
+    public RDF4JConnection(Repository repository) {
+        this.repository = repository;
+    }
+
     public RDF4JConnection(RepositoryConnection connection) {
-        this.rdf4JConnection = connection;
+        this.pool = new RDF4JConnectionPool(connection);
     }
 
     @Override
     public void startup() {
-        if (rdf4JConnection == null) {
-            HTTPRepository repository = new HTTPRepository(config.serverURI(), config.repository());
-            rdf4JConnection = repository.getConnection();
+        if (pool == null) {
+            if (repository == null) {
+                repository = createRepository(config);
+                repository.init();
+                ownRepository = true;
+            }
+
+            if (config != null) {
+                pool = new RDF4JConnectionPool(repository, config.poolMinSize(), config.poolMaxSize(), config.poolBorrowTimeout(), config.poolValidationIdleTime());
+            } else {
+                pool = new RDF4JConnectionPool(repository, 1, DEFAULT_POOL_MAX_SIZE, DEFAULT_POOL_BORROW_TIMEOUT, DEFAULT_POOL_VALIDATION_IDLE_TIME);
+            }
+        }
+
+        pool.startup();
+    }
+
+    /**
+     * Create repository defined by configuration, embedded stores avoid HTTP
+     * and results serialization cost on single node installations
+     *
+     * @param config RDF4J configuration
+     * @return uninitialized repository
+     */
+    private Repository createRepository(RDF4JConfig config) {
+        String type = config.repositoryType();
+        if (type == null || type.isEmpty() || HTTP_REPOSITORY.equalsIgnoreCase(type)) {
+            return createHTTPRepository(config);
+        }
+
+        String dataDir = config.dataDir();
+        if (NATIVE_REPOSITORY.equalsIgnoreCase(type)) {
+            if (dataDir == null || dataDir.isEmpty()) {
+                throw new RepositoryException("Data directory must be defined for RDF4J native store");
+            }
+            NativeStore store = new NativeStore(new File(dataDir, config.repository()), config.nativeIndexes());
+            store.setForceSync(config.nativeForceSync());
+            store.setValueCacheSize(config.nativeValueCacheSize());
+            store.setValueIDCacheSize(config.nativeValueIdCacheSize());
+            LOGGER.info("Use embedded RDF4J native store: " + store.getDataDir().getAbsolutePath() + " (indexes: " + config.nativeIndexes() + ")");
+            return new SailRepository(store);
         }
 
+        if (MEMORY_REPOSITORY.equalsIgnoreCase(type)) {
+            MemoryStore store;
+            if (dataDir == null || dataDir.isEmpty()) {
+                store = new MemoryStore();
+            } else {
+                store = new MemoryStore(new File(dataDir, config.repository()));
+                store.setPersist(true);
+                store.setSyncDelay(config.memorySyncDelay());
+            }
+            LOGGER.info("Use embedded RDF4J memory store");
+            return new SailRepository(store);
+        }
+
+        throw new RepositoryException("Unknown RDF4J repository type: " + type);
+    }
+
+    /**
+     * Create a repository on RDF4J server using configured result formats and
+     * a pooled keep alive HTTP client
+     *
+     * @param config RDF4J configuration
+     * @return uninitialized repository
+     */
+    private Repository createHTTPRepository(RDF4JConfig config) {
+        HTTPRepository httpRepository = new HTTPRepository(config.serverURI(), config.repository());
+
+        TupleQueryResultFormat tupleFormat = getFormat(config.tupleQueryResultFormat(), TupleQueryResultParserRegistry.getInstance().getKeys());
+        httpRepository.setPreferredTupleQueryResultFormat(tupleFormat);
+        RDFFormat rdfFormat = getFormat(config.rdfFormat(), RDFParserRegistry.getInstance().getKeys());
+        httpRepository.setPreferredRDFFormat(rdfFormat);
+
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(config.httpMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(config.httpMaxConnections());
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(config.httpConnectTimeout())
+                .setConnectionRequestTimeout(config.httpConnectTimeout())
+                .setSocketTimeout(config.httpSocketTimeout())
+                .build();
+
+        HttpClientBuilder clientBuilder = HttpClients.custom()
+                .useSystemProperties()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(DefaultConnectionKeepAliveStrategy.INSTANCE);
+        if (!config.httpCompression()) {
+            clientBuilder.disableContentCompression();
+        }
+        httpClient = clientBuilder.build();
+        httpRepository.setHttpClient(httpClient);
+
+        LOGGER.debug("Use RDF4J server repository with " + tupleFormat.getName() + " results and " + rdfFormat.getName() + " statements");
+        return httpRepository;
+    }
+
+    /**
+     * Return a registered file format by name
+     *
+     * @param <F> format type
+     * @param name format name (case insensitive)
+     * @param formats registered formats
+     * @return matching format
+     */
+    private static <F extends FileFormat> F getFormat(String name, Collection<F> formats) {
+        for (F format : formats) {
+            if (format.getName().equalsIgnoreCase(name)) {
+                return format;
+            }
+        }
+
+        List<String> names = new ArrayList<>();
+        formats.forEach(format -> names.add(format.getName()));
+        throw new RepositoryException("Unknown RDF4J format: " + name + ", available formats: " + names);
     }
 
     @Override
     public void shutdown() {
-        if (rdf4JConnection != null) {
-            rdf4JConnection.close();
+        if (pool != null) {
+            pool.shutdown();
+        }
+
+        if (ownRepository && repository != null) {
+            repository.shutDown();
+        }
+
+        if (httpClient != null) {
+            try {
+                httpClient.close();
+            } catch (IOException ex) {
+                LOGGER.warn("Error while closing RDF4J HTTP client", ex);
+            }
+            httpClient = null;
+        }
+    }
+
+    /**
+     * Return the connection bound to the current transaction if any or a
+     * connection borrowed from pool
+     *
+     * @return RDF4J connection to use for the next query
+     */
+    private RepositoryConnection getConnection() {
+        RepositoryConnection connection = transactionConnection.get();
+        if (connection == null) {
+            connection = pool.borrow();
+        }
+
+        return connection;
+    }
+
+    private void releaseConnection(RepositoryConnection connection) {
+        if (connection != transactionConnection.get()) {
+            pool.release(connection);
         }
     }
 
     @Override
-    public boolean executeAskQuery(AskBuilder ask) throws SPARQLQueryException {
-        BooleanQuery askQuery = rdf4JConnection.prepareBooleanQuery(QueryLanguage.SPARQL, ask.buildString());
-        return askQuery.evaluate();
+    public boolean executeAskQuery(String query) throws SPARQLQueryException {
+        RepositoryConnection connection = getConnection();
+        try {
+            BooleanQuery askQuery = connection.prepareBooleanQuery(QueryLanguage.SPARQL, query);
+            return askQuery.evaluate();
+        } finally {
+            releaseConnection(connection);
+        }
     }
 
     @Override
-    public List<SPARQLStatement> executeDescribeQuery(DescribeBuilder describe) throws SPARQLQueryException {
-        GraphQuery describeQuery = rdf4JConnection.prepareGraphQuery(QueryLanguage.SPARQL, describe.buildString());
-        GraphQueryResult results = describeQuery.evaluate();
-        
-        return statementsToSPARQLResultList(results);
+    public List<SPARQLStatement> executeDescribeQuery(String query) throws SPARQLQueryException {
+        RepositoryConnection connection = getConnection();
+        try {
+            GraphQuery describeQuery = connection.prepareGraphQuery(QueryLanguage.SPARQL, query);
+            try (GraphQueryResult results = describeQuery.evaluate()) {
+                return statementsToSPARQLResultList(results);
+            }
+        } finally {
+            releaseConnection(connection);
+        }
     }
 
     @Override
-    public List<SPARQLStatement> executeConstructQuery(ConstructBuilder construct) throws SPARQLQueryException {
-        GraphQuery constructQuery = rdf4JConnection.prepareGraphQuery(QueryLanguage.SPARQL, construct.buildString());
-        GraphQueryResult results = constructQuery.evaluate();
+    public List<SPARQLStatement> executeConstructQuery(String query) throws SPARQLQueryException {
+        RepositoryConnection connection = getConnection();
+        try {
+            GraphQuery constructQuery = connection.prepareGraphQuery(QueryLanguage.SPARQL, query);
+            try (GraphQueryResult results = constructQuery.evaluate()) {
+                return statementsToSPARQLResultList(results);
+            }
+        } finally {
+            releaseConnection(connection);
+        }
+    }
 
-        return statementsToSPARQLResultList(results);
+    @Override
+    public List<SPARQLResult> executeSelectQuery(String query, Consumer<SPARQLResult> resultHandler) throws SPARQLQueryException {
+        RepositoryConnection connection = getConnection();
+        try {
+            TupleQuery selectQuery = connection.prepareTupleQuery(QueryLanguage.SPARQL, query);
+            try (TupleQueryResult results = selectQuery.evaluate()) {
+                return bindingSetsToSPARQLResultList(results, resultHandler);
+            }
+        } finally {
+            releaseConnection(connection);
+        }
     }
 
     @Override
-    public List<SPARQLResult> executeSelectQuery(SelectBuilder select, Consumer<SPARQLResult> resultHandler) throws SPARQLQueryException {
-        TupleQuery selectQuery = rdf4JConnection.prepareTupleQuery(QueryLanguage.SPARQL, select.buildString());
-        TupleQueryResult results = selectQuery.evaluate();
+    public List<SPARQLResult> executePreparedSelectQuery(String query, Map<String, Node> bindings, Consumer<SPARQLResult> resultHandler) throws SPARQLQueryException {
+        RepositoryConnection connection = getConnection();
+        try {
+            TupleQuery selectQuery = pool.prepareTupleQuery(connection, query);
+            bindings.forEach((String name, Node value) -> {
+                selectQuery.setBinding(name, toValue(value));
+            });
+            try (TupleQueryResult results = selectQuery.evaluate()) {
+                return bindingSetsToSPARQLResultList(results, resultHandler);
+            }
+        } finally {
+            releaseConnection(connection);
+        }
+    }
+
+    @Override
+    public boolean executePreparedAskQuery(String query, Map<String, Node> bindings) throws SPARQLQueryException {
+        RepositoryConnection connection = getConnection();
+        try {
+            BooleanQuery askQuery = pool.prepareBooleanQuery(connection, query);
+            bindings.forEach((String name, Node value) -> {
+                askQuery.setBinding(name, toValue(value));
+            });
+            return askQuery.evaluate();
+        } finally {
+            releaseConnection(connection);
+        }
+    }
+
+    /**
+     * Convert a Jena node to the equivalent RDF4J value
+     *
+     * @param node Jena node
+     * @return RDF4J value
+     */
+    private static Value toValue(Node node) {
+        ValueFactory factory = SimpleValueFactory.getInstance();
+        if (node.isURI()) {
+            return factory.createIRI(node.getURI());
+        } else if (node.isBlank()) {
+            return factory.createBNode(node.getBlankNodeLabel());
+        } else if (node.isLiteral()) {
+            String language = node.getLiteralLanguage();
+            if (language != null && !language.isEmpty()) {
+                return factory.createLiteral(node.getLiteralLexicalForm(), language);
+            }
+            return factory.createLiteral(node.getLiteralLexicalForm(), factory.createIRI(node.getLiteralDatatypeURI()));
+        } else {
+            throw new IllegalArgumentException("Unsupported binding value: " + node);
+        }
+    }
+
+    @Override
+    public Stream<SPARQLResult> executeSelectQueryAsStream(String query) throws SPARQLQueryException {
+        RepositoryConnection connection = getConnection();
+        TupleQueryResult results;
+        try {
+            TupleQuery selectQuery = connection.prepareTupleQuery(QueryLanguage.SPARQL, query);
+            results = selectQuery.evaluate();
+        } catch (RuntimeException ex) {
+            releaseConnection(connection);
+            throw ex;
+        }
+
+        Iterator<SPARQLResult> iterator = new Iterator<SPARQLResult>() {
+            @Override
+            public boolean hasNext() {
+                return results.hasNext();
+            }
+
+            @Override
+            public SPARQLResult next() {
+                return new RDF4JResult(results.next());
+            }
+        };
 
-        return bindingSetsToSPARQLResultList(results, resultHandler);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    try {
+                        results.close();
+                    } finally {
+                        releaseConnection(connection);
+                    }
+                });
     }
 
     @Override
-    public void executeUpdateQuery(UpdateBuilder update) throws SPARQLQueryException {
-        Update updateQuery = rdf4JConnection.prepareUpdate(QueryLanguage.SPARQL, update.buildRequest().toString());
-        updateQuery.execute();
+    public void executeUpdateQuery(String query) throws SPARQLQueryException {
+        RepositoryConnection connection = getConnection();
+        try {
+            Update updateQuery = connection.prepareUpdate(QueryLanguage.SPARQL, query);
+            updateQuery.execute();
+        } finally {
+            releaseConnection(connection);
+        }
     }
 
     @Override
-    public void executeDeleteQuery(UpdateBuilder update) throws SPARQLQueryException {
-        Update updateQuery = rdf4JConnection.prepareUpdate(QueryLanguage.SPARQL, update.buildRequest().toString());
-        updateQuery.execute();
+    public void addTriples(Node graph, Collection<Triple> triples) throws SPARQLQueryException {
+        ValueFactory factory = SimpleValueFactory.getInstance();
+        List<Statement> statements = new ArrayList<>(triples.size());
+        for (Triple triple : triples) {
+            statements.add(factory.createStatement(
+                    (Resource) toValue(triple.getSubject()),
+                    factory.createIRI(triple.getPredicate().getURI()),
+                    toValue(triple.getObject())
+            ));
+        }
+
+        RepositoryConnection connection = getConnection();
+        try {
+            if (graph != null) {
+                connection.add(statements, factory.createIRI(graph.getURI()));
+            } else {
+                connection.add(statements);
+            }
+        } finally {
+            releaseConnection(connection);
+        }
     }
 
     @Override
     public void startTransaction() throws SPARQLTransactionException {
-        rdf4JConnection.begin();
+        if (transactionConnection.get() != null) {
+            throw new SPARQLTransactionException("A transaction is already running for current thread");
+        }
+
+        RepositoryConnection connection = pool.borrow();
+        try {
+            connection.begin();
+        } catch (RuntimeException ex) {
+            pool.release(connection);
+            throw ex;
+        }
+        transactionConnection.set(connection);
     }
 
     @Override
     public void commitTransaction() throws SPARQLTransactionException {
-        rdf4JConnection.commit();
+        RepositoryConnection connection = getTransactionConnection();
+        try {
+            connection.commit();
+        } finally {
+            transactionConnection.remove();
+            pool.release(connection);
+        }
     }
 
     @Override
     public void rollbackTransaction() throws SPARQLTransactionException {
-        rdf4JConnection.rollback();
+        RepositoryConnection connection = getTransactionConnection();
+        try {
+            connection.rollback();
+        } finally {
+            transactionConnection.remove();
+            pool.release(connection);
+        }
+    }
+
+    @Override
+    public boolean isTransactionActive() {
+        return transactionConnection.get() != null;
+    }
+
+    private RepositoryConnection getTransactionConnection() throws SPARQLTransactionException {
+        RepositoryConnection connection = transactionConnection.get();
+        if (connection == null) {
+            throw new SPARQLTransactionException("No transaction running for current thread");
+        }
+
+        return connection;
     }
 
     @Override
     public void clearGraph(URI graph) throws SPARQLQueryException {
-        rdf4JConnection.clear(SimpleValueFactory.getInstance().createIRI(graph.toString()));
+        RepositoryConnection connection = getConnection();
+        try {
+            connection.clear(SimpleValueFactory.getInstance().createIRI(graph.toString()));
+        } finally {
+            releaseConnection(connection);
+        }
     }
 
     @Override
     public void clear() throws SPARQLQueryException {
-        rdf4JConnection.clear();
+        RepositoryConnection connection = getConnection();
+        try {
+            connection.clear();
+        } finally {
+            releaseConnection(connection);
+        }
     }
 
     private List<SPARQLStatement> statementsToSPARQLResultList(QueryResult<Statement> queryResults) {
@@ -152,9 +533,9 @@ public class RDF4JConnection implements SPARQLConnection {
             RDF4JResult result = new RDF4JResult(queryResults.next());
             if (resultHandler != null) {
                 resultHandler.accept(result);
+            } else {
+                resultList.add(result);
             }
-
-            resultList.add(result);
         }
 
         return resultList;
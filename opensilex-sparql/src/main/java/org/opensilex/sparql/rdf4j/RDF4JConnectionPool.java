@@ -0,0 +1,326 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.rdf4j;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.rdf4j.query.BooleanQuery;
+import org.eclipse.rdf4j.query.Query;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <pre>
+ * Bounded pool of RDF4J repository connections.
+ *
+ * Connections are opened lazily up to the maximum size, borrowers wait for
+ * a free connection until the configured timeout is reached.
+ *
+ * A pool created from a single connection is re-entrant: the thread owning
+ * the connection gets it back on nested borrows (ie: a lazy load while a
+ * stream is open) and other threads wait for it with a bounded timeout.
+ * </pre>
+ *
+ * @author vincent
+ */
+public class RDF4JConnectionPool {
+
+    private final static Logger LOGGER = LoggerFactory.getLogger(RDF4JConnectionPool.class);
+
+    private final static String VALIDATION_QUERY = "ASK {}";
+
+    /**
+     * Maximum number of prepared queries kept for each connection
+     */
+    private final static int PREPARED_QUERY_CACHE_SIZE = 128;
+
+    /**
+     * Time to wait for the connection of a single connection pool owned by
+     * another thread
+     */
+    private final static long SINGLE_CONNECTION_BORROW_TIMEOUT = 30000;
+
+    private final Repository repository;
+
+    private final int minSize;
+
+    private final long borrowTimeout;
+
+    /**
+     * Idle time after which a connection is validated before being borrowed,
+     * validation query is not run on each borrow to not double round trips
+     * of queries on remote repositories
+     */
+    private final long validationIdleTime;
+
+    private final Semaphore permits;
+
+    private final LinkedBlockingDeque<RepositoryConnection> idleConnections = new LinkedBlockingDeque<>();
+
+    /**
+     * Prepared queries by connection, a connection is used by a single
+     * thread at a time so inner maps are not synchronized
+     */
+    private final Map<RepositoryConnection, Map<String, Query>> preparedQueries = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    /**
+     * Last release time of idle connections
+     */
+    private final Map<RepositoryConnection, Long> releaseTimes = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    /**
+     * True if connection is given back to its owner thread on nested borrows
+     */
+    private final boolean reentrant;
+
+    /**
+     * Thread owning the connection of a re-entrant pool, its connection and
+     * its number of borrows not released yet, guarded by this pool
+     */
+    private Thread owner;
+
+    private RepositoryConnection ownedConnection;
+
+    private int holdCount = 0;
+
+    /**
+     * Create a pool of connections on the given repository
+     *
+     * @param repository repository to open connections on
+     * @param minSize number of connections opened at startup
+     * @param maxSize maximum number of connections
+     * @param borrowTimeout maximum time to wait for a connection in
+     * milliseconds
+     * @param validationIdleTime idle time in milliseconds after which a
+     * connection is validated before being borrowed, 0 to always validate,
+     * negative to never validate
+     */
+    public RDF4JConnectionPool(Repository repository, int minSize, int maxSize, long borrowTimeout, long validationIdleTime) {
+        this(repository, minSize, maxSize, borrowTimeout, validationIdleTime, false);
+    }
+
+    private RDF4JConnectionPool(Repository repository, int minSize, int maxSize, long borrowTimeout, long validationIdleTime, boolean reentrant) {
+        this.repository = repository;
+        this.minSize = Math.max(0, Math.min(minSize, maxSize));
+        this.borrowTimeout = borrowTimeout;
+        this.validationIdleTime = validationIdleTime;
+        this.permits = new Semaphore(Math.max(1, maxSize), true);
+        this.reentrant = reentrant;
+    }
+
+    /**
+     * Create a re-entrant pool of a single already opened connection
+     *
+     * @param connection connection to share
+     */
+    public RDF4JConnectionPool(RepositoryConnection connection) {
+        this(connection.getRepository(), 1, 1, SINGLE_CONNECTION_BORROW_TIMEOUT, -1, true);
+        idleConnections.add(connection);
+    }
+
+    public Repository getRepository() {
+        return repository;
+    }
+
+    public void startup() {
+        while (idleConnections.size() < minSize) {
+            RepositoryConnection connection = repository.getConnection();
+            releaseTimes.put(connection, System.currentTimeMillis());
+            idleConnections.add(connection);
+        }
+        LOGGER.debug("RDF4J connection pool started with " + idleConnections.size() + " connection(s)");
+    }
+
+    public void shutdown() {
+        RepositoryConnection connection = idleConnections.poll();
+        while (connection != null) {
+            close(connection);
+            connection = idleConnections.poll();
+        }
+    }
+
+    /**
+     * Get a connection from the pool, opening a new one if none is available
+     * and maximum pool size is not reached
+     *
+     * @return a connection which must be given back with {@link #release(RepositoryConnection)}
+     * @throws RepositoryException if no connection is available before timeout
+     */
+    public RepositoryConnection borrow() throws RepositoryException {
+        if (reentrant) {
+            synchronized (this) {
+                if (owner == Thread.currentThread()) {
+                    holdCount++;
+                    return ownedConnection;
+                }
+            }
+        }
+
+        try {
+            if (borrowTimeout > 0) {
+                if (!permits.tryAcquire(borrowTimeout, TimeUnit.MILLISECONDS)) {
+                    throw new RepositoryException("No RDF4J connection available after " + borrowTimeout + "ms");
+                }
+            } else {
+                permits.acquire();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RepositoryException("Interrupted while waiting for an RDF4J connection", ex);
+        }
+
+        try {
+            RepositoryConnection connection = idleConnections.pollFirst();
+            while (connection != null && !isValid(connection)) {
+                LOGGER.debug("Discard invalid RDF4J connection from pool");
+                close(connection);
+                connection = idleConnections.pollFirst();
+            }
+
+            if (connection == null) {
+                connection = repository.getConnection();
+            }
+
+            if (reentrant) {
+                synchronized (this) {
+                    owner = Thread.currentThread();
+                    ownedConnection = connection;
+                    holdCount = 1;
+                }
+            }
+
+            return connection;
+        } catch (RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Give back a connection to the pool, any pending transaction is rolled
+     * back
+     *
+     * @param connection connection to release
+     */
+    public void release(RepositoryConnection connection) {
+        if (reentrant) {
+            synchronized (this) {
+                if (connection == ownedConnection && --holdCount > 0) {
+                    return;
+                }
+                owner = null;
+                ownedConnection = null;
+                holdCount = 0;
+            }
+        }
+
+        try {
+            if (connection.isOpen()) {
+                if (connection.isActive()) {
+                    LOGGER.warn("RDF4J connection released with an active transaction, rollback");
+                    connection.rollback();
+                }
+                releaseTimes.put(connection, System.currentTimeMillis());
+                idleConnections.offerFirst(connection);
+            }
+        } catch (RepositoryException ex) {
+            LOGGER.warn("Error while releasing RDF4J connection, connection discarded", ex);
+            close(connection);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Return a tuple query prepared on the given connection, queries are
+     * prepared once by connection and their bindings are cleared before reuse
+     *
+     * @param connection borrowed connection
+     * @param query query string
+     * @return prepared query without bindings
+     */
+    public TupleQuery prepareTupleQuery(RepositoryConnection connection, String query) {
+        Map<String, Query> queries = getPreparedQueries(connection);
+        TupleQuery tupleQuery = (TupleQuery) queries.get(query);
+        if (tupleQuery == null) {
+            tupleQuery = connection.prepareTupleQuery(QueryLanguage.SPARQL, query);
+            queries.put(query, tupleQuery);
+        } else {
+            tupleQuery.clearBindings();
+        }
+
+        return tupleQuery;
+    }
+
+    /**
+     * Return a boolean query prepared on the given connection, queries are
+     * prepared once by connection and their bindings are cleared before reuse
+     *
+     * @param connection borrowed connection
+     * @param query query string
+     * @return prepared query without bindings
+     */
+    public BooleanQuery prepareBooleanQuery(RepositoryConnection connection, String query) {
+        Map<String, Query> queries = getPreparedQueries(connection);
+        BooleanQuery booleanQuery = (BooleanQuery) queries.get(query);
+        if (booleanQuery == null) {
+            booleanQuery = connection.prepareBooleanQuery(QueryLanguage.SPARQL, query);
+            queries.put(query, booleanQuery);
+        } else {
+            booleanQuery.clearBindings();
+        }
+
+        return booleanQuery;
+    }
+
+    private Map<String, Query> getPreparedQueries(RepositoryConnection connection) {
+        return preparedQueries.computeIfAbsent(connection, (RepositoryConnection c) -> {
+            return new LinkedHashMap<String, Query>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Query> eldest) {
+                    return size() > PREPARED_QUERY_CACHE_SIZE;
+                }
+            };
+        });
+    }
+
+    private boolean isValid(RepositoryConnection connection) {
+        if (!connection.isOpen()) {
+            return false;
+        }
+
+        Long releaseTime = releaseTimes.remove(connection);
+        if (validationIdleTime >= 0 && (releaseTime == null || System.currentTimeMillis() - releaseTime >= validationIdleTime)) {
+            try {
+                connection.prepareBooleanQuery(QueryLanguage.SPARQL, VALIDATION_QUERY).evaluate();
+            } catch (RuntimeException ex) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void close(RepositoryConnection connection) {
+        preparedQueries.remove(connection);
+        releaseTimes.remove(connection);
+        try {
+            connection.close();
+        } catch (RepositoryException ex) {
+            LOGGER.warn("Error while closing RDF4J connection", ex);
+        }
+    }
+}
@@ -5,7 +5,14 @@
 //******************************************************************************
 package org.opensilex.sparql.rdf4j;
 
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.function.BiConsumer;
+import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.query.Binding;
 import org.eclipse.rdf4j.query.BindingSet;
@@ -13,6 +20,14 @@ import org.opensilex.sparql.service.SPARQLResult;
 
 
 /**
+ * <pre>
+ * RDF4J binding set wrapper.
+ *
+ * Typed getters read numeric values directly from RDF4J literals and fall
+ * back to string parsing for other values. Boolean and date values are parsed
+ * from the literal label with the same parsers as SPARQLResult to keep the
+ * same lexical rules.
+ * </pre>
  *
  * @author vincent
  */
@@ -41,4 +56,89 @@ public class RDF4JResult implements SPARQLResult {
         });
     }
 
+    @Override
+    public boolean hasValue(String key) {
+        return bindingSet.getValue(key) != null;
+    }
+
+    @Override
+    public Integer getInt(String key) {
+        Value value = bindingSet.getValue(key);
+        if (value instanceof Literal) {
+            return ((Literal) value).intValue();
+        }
+        return SPARQLResult.super.getInt(key);
+    }
+
+    @Override
+    public Long getLong(String key) {
+        Value value = bindingSet.getValue(key);
+        if (value instanceof Literal) {
+            return ((Literal) value).longValue();
+        }
+        return SPARQLResult.super.getLong(key);
+    }
+
+    @Override
+    public Double getDouble(String key) {
+        Value value = bindingSet.getValue(key);
+        if (value instanceof Literal) {
+            return ((Literal) value).doubleValue();
+        }
+        return SPARQLResult.super.getDouble(key);
+    }
+
+    @Override
+    public Float getFloat(String key) {
+        Value value = bindingSet.getValue(key);
+        if (value instanceof Literal) {
+            return ((Literal) value).floatValue();
+        }
+        return SPARQLResult.super.getFloat(key);
+    }
+
+    @Override
+    public Boolean getBoolean(String key) {
+        Value value = bindingSet.getValue(key);
+        if (value instanceof Literal) {
+            return Boolean.valueOf(((Literal) value).getLabel());
+        }
+        return SPARQLResult.super.getBoolean(key);
+    }
+
+    @Override
+    public BigInteger getBigInteger(String key) {
+        Value value = bindingSet.getValue(key);
+        if (value instanceof Literal) {
+            return ((Literal) value).integerValue();
+        }
+        return SPARQLResult.super.getBigInteger(key);
+    }
+
+    @Override
+    public LocalDate getLocalDate(String key) {
+        Value value = bindingSet.getValue(key);
+        if (value instanceof Literal) {
+            return LocalDate.parse(((Literal) value).getLabel());
+        }
+        return SPARQLResult.super.getLocalDate(key);
+    }
+
+    @Override
+    public OffsetDateTime getOffsetDateTime(String key) {
+        Value value = bindingSet.getValue(key);
+        if (value instanceof Literal) {
+            return OffsetDateTime.parse(((Literal) value).getLabel(), DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+        }
+        return SPARQLResult.super.getOffsetDateTime(key);
+    }
+
+    @Override
+    public URI getURI(String key) throws URISyntaxException {
+        Value value = bindingSet.getValue(key);
+        if (value == null) {
+            return null;
+        }
+        return new URI(value.stringValue());
+    }
 }
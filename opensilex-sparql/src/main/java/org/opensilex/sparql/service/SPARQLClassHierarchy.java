@@ -0,0 +1,159 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.service;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.jena.graph.Node;
+import org.apache.jena.sparql.core.TriplePath;
+import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.syntax.Element;
+import org.apache.jena.sparql.syntax.ElementData;
+import org.apache.jena.sparql.syntax.ElementPathBlock;
+import org.opensilex.sparql.utils.Ontology;
+
+/**
+ * <pre>
+ * In memory cache of rdfs:subClassOf hierarchy.
+ *
+ * When the hierarchy is loaded, type restrictions of generated queries are
+ * written as "VALUES ?__type { ... }" of known sub-classes instead of the
+ * costly "?__type rdfs:subClassOf* Type" property path. Otherwise the
+ * property path is used, which is the right choice for ontologies changing
+ * at runtime.
+ *
+ * Each service owns its own hierarchy, query templates are cached by
+ * hierarchy and generation number, incremented on each change, so they are
+ * rebuilt after a reload and never shared between repositories.
+ * </pre>
+ *
+ * @see SPARQLService#getClassHierarchy()
+ * @author vincent
+ */
+public final class SPARQLClassHierarchy {
+
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Direct sub-classes by class, null if hierarchy is not loaded
+     */
+    private volatile Map<Node, Set<Node>> directSubClasses = null;
+
+    /**
+     * Computed sub-classes closures by class for current hierarchy
+     */
+    private volatile Map<Node, Set<Node>> subClassesClosures = new ConcurrentHashMap<>();
+
+    /**
+     * Define hierarchy from direct rdfs:subClassOf relations
+     *
+     * @param superClasses direct super-classes by class
+     */
+    public synchronized void setHierarchy(Map<Node, Set<Node>> superClasses) {
+        Map<Node, Set<Node>> subClasses = new HashMap<>();
+        superClasses.forEach((Node subClass, Set<Node> classes) -> {
+            for (Node superClass : classes) {
+                subClasses.computeIfAbsent(superClass, (Node key) -> new HashSet<>()).add(subClass);
+            }
+        });
+
+        subClassesClosures = new ConcurrentHashMap<>();
+        directSubClasses = subClasses;
+        generation.incrementAndGet();
+    }
+
+    /**
+     * Forget hierarchy, type restrictions use property path again
+     */
+    public synchronized void clear() {
+        if (directSubClasses != null) {
+            directSubClasses = null;
+            subClassesClosures = new ConcurrentHashMap<>();
+            generation.incrementAndGet();
+        }
+    }
+
+    public boolean isLoaded() {
+        return directSubClasses != null;
+    }
+
+    /**
+     * @return number incremented on each hierarchy change
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * @param type class
+     * @return class and all its sub-classes, null if hierarchy is not loaded
+     */
+    public Set<Node> getSubClasses(Node type) {
+        Map<Node, Set<Node>> subClasses = directSubClasses;
+        if (subClasses == null) {
+            return null;
+        }
+
+        return subClassesClosures.computeIfAbsent(type, (Node key) -> {
+            Set<Node> closure = new LinkedHashSet<>();
+            Deque<Node> toVisit = new ArrayDeque<>();
+            toVisit.add(key);
+            while (!toVisit.isEmpty()) {
+                Node current = toVisit.poll();
+                if (closure.add(current)) {
+                    toVisit.addAll(subClasses.getOrDefault(current, Collections.emptySet()));
+                }
+            }
+            return Collections.unmodifiableSet(closure);
+        });
+    }
+
+    /**
+     * Return a query element restricting a variable to a class or one of its
+     * sub-classes: inline VALUES if hierarchy is loaded, rdfs:subClassOf*
+     * property path otherwise
+     *
+     * @param typeVar restricted variable
+     * @param type class
+     * @return query element
+     */
+    public Element getSubClassOfElement(Var typeVar, Node type) {
+        Set<Node> subClasses = getSubClasses(type);
+        if (subClasses == null) {
+            return getSubClassOfPathElement(typeVar, type);
+        }
+
+        ElementData data = new ElementData();
+        data.add(typeVar);
+        for (Node subClass : subClasses) {
+            data.add(BindingFactory.binding(typeVar, subClass));
+        }
+        return data;
+    }
+
+    /**
+     * Return a query element restricting a variable to a class or one of its
+     * sub-classes with a rdfs:subClassOf* property path
+     *
+     * @param typeVar restricted variable
+     * @param type class
+     * @return query element
+     */
+    public static Element getSubClassOfPathElement(Var typeVar, Node type) {
+        ElementPathBlock pathBlock = new ElementPathBlock();
+        pathBlock.addTriplePath(new TriplePath(typeVar, Ontology.subClassAny, type));
+        return pathBlock;
+    }
+}
@@ -6,13 +6,18 @@
 package org.opensilex.sparql.service;
 
 import java.net.URI;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 import org.apache.jena.arq.querybuilder.AskBuilder;
 import org.apache.jena.arq.querybuilder.ConstructBuilder;
 import org.apache.jena.arq.querybuilder.DescribeBuilder;
 import org.apache.jena.arq.querybuilder.SelectBuilder;
 import org.apache.jena.arq.querybuilder.UpdateBuilder;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.Triple;
 import org.opensilex.service.ServiceConnection;
 import org.opensilex.sparql.exceptions.SPARQLQueryException;
 import org.opensilex.sparql.exceptions.SPARQLTransactionException;
@@ -27,21 +32,119 @@ import org.opensilex.sparql.service.SPARQLStatement;
  */
 public interface SPARQLConnection extends ServiceConnection {
 
-    public boolean executeAskQuery(AskBuilder ask) throws SPARQLQueryException;
+    public default boolean executeAskQuery(AskBuilder ask) throws SPARQLQueryException {
+        return executeAskQuery(ask.buildString());
+    }
+
+    public boolean executeAskQuery(String query) throws SPARQLQueryException;
+
+    public default List<SPARQLStatement> executeDescribeQuery(DescribeBuilder describe) throws SPARQLQueryException {
+        return executeDescribeQuery(describe.buildString());
+    }
 
-    public List<SPARQLStatement> executeDescribeQuery(DescribeBuilder describe) throws SPARQLQueryException;
+    public List<SPARQLStatement> executeDescribeQuery(String query) throws SPARQLQueryException;
+
+    public default List<SPARQLStatement> executeConstructQuery(ConstructBuilder construct) throws SPARQLQueryException {
+        return executeConstructQuery(construct.buildString());
+    }
+
+    public List<SPARQLStatement> executeConstructQuery(String query) throws SPARQLQueryException;
+
+    /**
+     * Execute a SELECT query, if a result handler is given results are only
+     * passed to it and the returned list is empty
+     *
+     * @param select query to execute
+     * @param resultHandler optional handler called for each result
+     * @return list of results if no handler is given
+     * @throws SPARQLQueryException in case of query error
+     */
+    public default List<SPARQLResult> executeSelectQuery(SelectBuilder select, Consumer<SPARQLResult> resultHandler) throws SPARQLQueryException {
+        return executeSelectQuery(select.buildString(), resultHandler);
+    }
 
-    public List<SPARQLStatement> executeConstructQuery(ConstructBuilder construct) throws SPARQLQueryException;
+    /**
+     * Execute a SELECT query string
+     *
+     * @param query query to execute
+     * @param resultHandler optional handler called for each result
+     * @return list of results if no handler is given
+     * @throws SPARQLQueryException in case of query error
+     * @see #executeSelectQuery(SelectBuilder, Consumer)
+     */
+    public List<SPARQLResult> executeSelectQuery(String query, Consumer<SPARQLResult> resultHandler) throws SPARQLQueryException;
+
+    /**
+     * Execute a SELECT query and return results as a lazy stream, the stream
+     * must be closed to release underlying resources
+     *
+     * @param select query to execute
+     * @return stream of results
+     * @throws SPARQLQueryException in case of query error
+     */
+    public default Stream<SPARQLResult> executeSelectQueryAsStream(SelectBuilder select) throws SPARQLQueryException {
+        return executeSelectQueryAsStream(select.buildString());
+    }
 
-    public List<SPARQLResult> executeSelectQuery(SelectBuilder select, Consumer<SPARQLResult> resultHandler) throws SPARQLQueryException;
+    public Stream<SPARQLResult> executeSelectQueryAsStream(String query) throws SPARQLQueryException;
 
     public default List<SPARQLResult> executeSelectQuery(SelectBuilder select) throws SPARQLQueryException {
         return executeSelectQuery(select, null);
     }
 
-    public void executeUpdateQuery(UpdateBuilder update) throws SPARQLQueryException;
+    /**
+     * Execute a SELECT query template with the given variable bindings, the
+     * template is prepared only once by the underlying connection
+     *
+     * @param query query template
+     * @param bindings values by variable name
+     * @param resultHandler optional handler called for each result
+     * @return list of results if no handler is given
+     * @throws SPARQLQueryException in case of query error
+     */
+    public List<SPARQLResult> executePreparedSelectQuery(String query, Map<String, Node> bindings, Consumer<SPARQLResult> resultHandler) throws SPARQLQueryException;
+
+    /**
+     * Execute an ASK query template with the given variable bindings, the
+     * template is prepared only once by the underlying connection
+     *
+     * @param query query template
+     * @param bindings values by variable name
+     * @return ASK query result
+     * @throws SPARQLQueryException in case of query error
+     */
+    public boolean executePreparedAskQuery(String query, Map<String, Node> bindings) throws SPARQLQueryException;
+
+    public default void executeUpdateQuery(UpdateBuilder update) throws SPARQLQueryException {
+        executeUpdateQuery(update.buildRequest().toString());
+    }
+
+    public void executeUpdateQuery(String query) throws SPARQLQueryException;
+
+    public default void executeDeleteQuery(UpdateBuilder update) throws SPARQLQueryException {
+        executeUpdateQuery(update);
+    }
 
-    public void executeDeleteQuery(UpdateBuilder update) throws SPARQLQueryException;
+    /**
+     * Add triples to a graph, default implementation sends an INSERT DATA
+     * query and should be overriden by connections able to add statements
+     * directly
+     *
+     * @param graph graph to write, null for default graph
+     * @param triples triples to add
+     * @throws SPARQLQueryException in case of query error
+     */
+    public default void addTriples(Node graph, Collection<Triple> triples) throws SPARQLQueryException {
+        UpdateBuilder insert = new UpdateBuilder();
+        for (Triple triple : triples) {
+            if (graph != null) {
+                insert.addInsert(graph, triple);
+            } else {
+                insert.addInsert(triple);
+            }
+        }
+        executeUpdateQuery(insert);
+    }
 
     public void clearGraph(URI graph) throws SPARQLQueryException;
 
@@ -53,4 +156,11 @@ public interface SPARQLConnection extends ServiceConnection {
 
     public void rollbackTransaction() throws SPARQLTransactionException;
 
+    /**
+     * @return true if a transaction is running for current thread
+     */
+    public default boolean isTransactionActive() {
+        return false;
+    }
+
 }
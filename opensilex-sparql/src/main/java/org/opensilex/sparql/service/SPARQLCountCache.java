@@ -0,0 +1,135 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.jena.graph.Node;
+
+/**
+ * <pre>
+ * Bounded cache of count query results.
+ *
+ * Entries are keyed by count query string (which includes class type and
+ * filters) and are attached to the set of graphs read by the count query.
+ * Writing a graph invalidates entries reading it and entries which may read
+ * any graph.
+ *
+ * A generation number is incremented on each invalidation, counts computed
+ * while an invalidation occured are not stored.
+ * </pre>
+ *
+ * @author vincent
+ */
+public class SPARQLCountCache {
+
+    private final int maxSize;
+
+    private final long timeToLive;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Map<String, CountEntry> entries;
+
+    /**
+     * @param maxSize maximum number of cached counts, 0 to disable cache
+     * @param timeToLive time to live of entries in milliseconds, 0 to disable
+     * cache, negative for no expiration
+     */
+    public SPARQLCountCache(int maxSize, long timeToLive) {
+        this.maxSize = maxSize;
+        this.timeToLive = timeToLive;
+        this.entries = new LinkedHashMap<String, CountEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CountEntry> eldest) {
+                return size() > SPARQLCountCache.this.maxSize;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return maxSize > 0 && timeToLive != 0;
+    }
+
+    /**
+     * @return current generation to pass to {@link #put(Set, String, int, long)}
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public synchronized Integer get(String query) {
+        CountEntry entry = entries.get(query);
+        if (entry == null) {
+            return null;
+        }
+
+        if (timeToLive > 0 && System.currentTimeMillis() - entry.timestamp > timeToLive) {
+            entries.remove(query);
+            return null;
+        }
+
+        return entry.count;
+    }
+
+    /**
+     * Store a count if no invalidation occured since the given generation
+     *
+     * @param graphs graphs read by count query, null if it may read any graph
+     * @param query count query string
+     * @param count count value
+     * @param queryGeneration generation read before executing count query
+     * @see SPARQLQueryHelper#getReadGraphs(org.apache.jena.sparql.syntax.Element)
+     */
+    public synchronized void put(Set<Node> graphs, String query, int count, long queryGeneration) {
+        if (queryGeneration == generation.get()) {
+            entries.put(query, new CountEntry(graphs, count));
+        }
+    }
+
+    /**
+     * Invalidate counts of a graph
+     *
+     * @param graph written graph, null to invalidate all counts
+     */
+    public synchronized void invalidate(Node graph) {
+        generation.incrementAndGet();
+        if (graph == null) {
+            entries.clear();
+            return;
+        }
+
+        Iterator<CountEntry> it = entries.values().iterator();
+        while (it.hasNext()) {
+            CountEntry entry = it.next();
+            if (entry.graphs == null || entry.graphs.contains(graph)) {
+                it.remove();
+            }
+        }
+    }
+
+    public void clear() {
+        invalidate(null);
+    }
+
+    private static class CountEntry {
+
+        private final Set<Node> graphs;
+
+        private final int count;
+
+        private final long timestamp;
+
+        private CountEntry(Set<Node> graphs, int count) {
+            this.graphs = graphs;
+            this.count = count;
+            this.timestamp = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <pre>
+ * Identity map of instances loaded by URI during a unit of work (typically an
+ * HTTP request).
+ *
+ * Unlike {@link SPARQLInstanceCache}, instances themselves are kept so the
+ * same instance is returned for a given class and URI during the whole unit
+ * of work. It is bound to a single thread and is not synchronized.
+ *
+ * URIs are always expanded (not prefixed).
+ * </pre>
+ *
+ * @see SPARQLService#openIdentityMap()
+ * @author vincent
+ */
+public class SPARQLIdentityMap {
+
+    private final Map<InstanceKey, Object> instances = new HashMap<>();
+
+    private long hitCount = 0;
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(Class<T> objectClass, String uri) {
+        T instance = (T) instances.get(new InstanceKey(objectClass, uri));
+        if (instance != null) {
+            hitCount++;
+        }
+        return instance;
+    }
+
+    public <T> void put(Class<T> objectClass, String uri, T instance) {
+        instances.put(new InstanceKey(objectClass, uri), instance);
+    }
+
+    /**
+     * Remove instances of the given URIs for all classes
+     *
+     * @param uris URIs to remove
+     */
+    public void invalidate(Collection<String> uris) {
+        if (uris.isEmpty()) {
+            return;
+        }
+
+        Iterator<InstanceKey> it = instances.keySet().iterator();
+        while (it.hasNext()) {
+            if (uris.contains(it.next().uri)) {
+                it.remove();
+            }
+        }
+    }
+
+    public void clear() {
+        instances.clear();
+    }
+
+    public int size() {
+        return instances.size();
+    }
+
+    /**
+     * @return number of loads answered by this identity map
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    private static class InstanceKey {
+
+        private final Class<?> objectClass;
+        private final String uri;
+
+        private InstanceKey(Class<?> objectClass, String uri) {
+            this.objectClass = objectClass;
+            this.uri = uri;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(objectClass, uri);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final InstanceKey other = (InstanceKey) obj;
+            return Objects.equals(objectClass, other.objectClass)
+                    && Objects.equals(uri, other.uri);
+        }
+    }
+}
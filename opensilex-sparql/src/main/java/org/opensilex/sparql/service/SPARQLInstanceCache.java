@@ -0,0 +1,59 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.service;
+
+import java.util.Collection;
+
+/**
+ * <pre>
+ * Cache of instances query results by class and URI.
+ *
+ * Results rows are cached instead of instances, so each load returns a new
+ * instance which can be safely modified by its caller.
+ *
+ * URIs are always expanded (not prefixed).
+ * </pre>
+ *
+ * @see SPARQLService#setInstanceCache(SPARQLInstanceCache)
+ * @author vincent
+ */
+public interface SPARQLInstanceCache {
+
+    public SPARQLResult get(Class<?> objectClass, String uri);
+
+    /**
+     * @return current generation to pass to
+     * {@link #put(Class, String, SPARQLResult, long)}
+     */
+    public long getGeneration();
+
+    /**
+     * Store a result if no invalidation occured since the given generation
+     *
+     * @param objectClass loaded class
+     * @param uri loaded URI
+     * @param result loaded result row
+     * @param queryGeneration generation read before executing load query
+     */
+    public void put(Class<?> objectClass, String uri, SPARQLResult result, long queryGeneration);
+
+    /**
+     * Invalidate cached results of the given URIs for all classes
+     *
+     * @param uris URIs to invalidate
+     */
+    public void invalidate(Collection<String> uris);
+
+    public void clear();
+
+    public int size();
+
+    public long getHitCount();
+
+    public long getMissCount();
+
+    public long getEvictionCount();
+}
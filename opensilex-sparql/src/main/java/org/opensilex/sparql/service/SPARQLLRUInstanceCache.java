@@ -0,0 +1,167 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size bounded least recently used implementation of
+ * {@link SPARQLInstanceCache}.
+ *
+ * @author vincent
+ */
+public class SPARQLLRUInstanceCache implements SPARQLInstanceCache {
+
+    private final int maxSize;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    private final Map<CacheKey, SPARQLResult> entries;
+
+    /**
+     * Cached keys by URI, used to invalidate all classes of an URI
+     */
+    private final Map<String, Set<CacheKey>> keysByURI = new HashMap<>();
+
+    public SPARQLLRUInstanceCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<CacheKey, SPARQLResult>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, SPARQLResult> eldest) {
+                if (size() > SPARQLLRUInstanceCache.this.maxSize) {
+                    removeKeyIndex(eldest.getKey());
+                    evictionCount.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public synchronized SPARQLResult get(Class<?> objectClass, String uri) {
+        SPARQLResult result = entries.get(new CacheKey(objectClass, uri));
+        if (result == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+        return result;
+    }
+
+    @Override
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    @Override
+    public synchronized void put(Class<?> objectClass, String uri, SPARQLResult result, long queryGeneration) {
+        if (maxSize <= 0 || queryGeneration != generation.get()) {
+            return;
+        }
+
+        CacheKey key = new CacheKey(objectClass, uri);
+        Set<CacheKey> uriKeys = keysByURI.get(uri);
+        if (uriKeys == null) {
+            uriKeys = new HashSet<>();
+            keysByURI.put(uri, uriKeys);
+        }
+        uriKeys.add(key);
+        entries.put(key, result);
+    }
+
+    @Override
+    public synchronized void invalidate(Collection<String> uris) {
+        generation.incrementAndGet();
+        for (String uri : uris) {
+            Set<CacheKey> uriKeys = keysByURI.remove(uri);
+            if (uriKeys != null) {
+                for (CacheKey key : uriKeys) {
+                    entries.remove(key);
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+        keysByURI.clear();
+    }
+
+    @Override
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    private void removeKeyIndex(CacheKey key) {
+        Set<CacheKey> uriKeys = keysByURI.get(key.uri);
+        if (uriKeys != null) {
+            uriKeys.remove(key);
+            if (uriKeys.isEmpty()) {
+                keysByURI.remove(key.uri);
+            }
+        }
+    }
+
+    private static class CacheKey {
+
+        private final Class<?> objectClass;
+
+        private final String uri;
+
+        private CacheKey(Class<?> objectClass, String uri) {
+            this.objectClass = objectClass;
+            this.uri = uri;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * objectClass.hashCode() + uri.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) obj;
+            return objectClass.equals(other.objectClass) && Objects.equals(uri, other.uri);
+        }
+    }
+}
@@ -17,6 +17,19 @@ import org.apache.jena.sparql.expr.Expr;
 import org.apache.jena.sparql.expr.ExprVar;
 import org.apache.jena.sparql.expr.E_GreaterThanOrEqual;
 import org.apache.jena.sparql.expr.E_LessThanOrEqual;
+import org.apache.jena.sparql.expr.ExprFunction;
+import org.apache.jena.sparql.expr.ExprFunctionOp;
+import org.apache.jena.sparql.syntax.Element;
+import org.apache.jena.sparql.syntax.ElementAssign;
+import org.apache.jena.sparql.syntax.ElementBind;
+import org.apache.jena.sparql.syntax.ElementData;
+import org.apache.jena.sparql.syntax.ElementFilter;
+import org.apache.jena.sparql.syntax.ElementGroup;
+import org.apache.jena.sparql.syntax.ElementMinus;
+import org.apache.jena.sparql.syntax.ElementNamedGraph;
+import org.apache.jena.sparql.syntax.ElementOptional;
+import org.apache.jena.sparql.syntax.ElementSubQuery;
+import org.apache.jena.sparql.syntax.ElementUnion;
 import org.opensilex.sparql.deserializer.DateDeserializer;
 import org.opensilex.sparql.deserializer.SPARQLDeserializer;
 import org.opensilex.sparql.deserializer.SPARQLDeserializerNotFoundException;
@@ -26,7 +39,9 @@ import org.opensilex.sparql.exceptions.SPARQLMapperNotFoundException;
 import org.opensilex.sparql.mapping.SPARQLClassObjectMapper;
 import org.opensilex.sparql.model.SPARQLResourceModel;
 import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import static org.apache.jena.arq.querybuilder.AbstractQueryBuilder.makeVar;
 
 /**
@@ -64,6 +79,19 @@ public class SPARQLQueryHelper {
         return new E_Regex(name, regexPattern, regexFlag);
     }
 
+    /**
+     * Add an element to the WHERE clause of a query
+     *
+     * @param select query
+     * @param element element to add, ignored if null
+     * @see SPARQLService#getTextSearch(Class, String, String...)
+     */
+    public static void addWhere(SelectBuilder select, Element element) {
+        if (element != null) {
+            select.getWhereHandler().getClause().addElement(element);
+        }
+    }
+
     public static Expr or(Expr... expressions) {
         Expr parentExpr = null;
 
@@ -96,6 +124,76 @@ public class SPARQLQueryHelper {
         return parentExpr;
     }
 
+    /**
+     * Return the named graphs read by a graph pattern
+     *
+     * @param element graph pattern
+     * @return graphs of the GRAPH elements of the pattern, or null if the
+     * pattern may read any graph (triple pattern outside of a GRAPH element,
+     * GRAPH with a variable name or unsupported element)
+     * @see SPARQLCountCache#put(Set, String, int, long)
+     */
+    public static Set<Node> getReadGraphs(Element element) {
+        Set<Node> graphs = new HashSet<>();
+        if (collectReadGraphs(element, graphs)) {
+            return graphs;
+        }
+        return null;
+    }
+
+    private static boolean collectReadGraphs(Element element, Set<Node> graphs) {
+        if (element == null || element instanceof ElementData
+                || element instanceof ElementBind || element instanceof ElementAssign) {
+            return true;
+        } else if (element instanceof ElementNamedGraph) {
+            Node graph = ((ElementNamedGraph) element).getGraphNameNode();
+            if (!graph.isURI()) {
+                return false;
+            }
+            graphs.add(graph);
+            return true;
+        } else if (element instanceof ElementGroup) {
+            for (Element child : ((ElementGroup) element).getElements()) {
+                if (!collectReadGraphs(child, graphs)) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (element instanceof ElementUnion) {
+            for (Element child : ((ElementUnion) element).getElements()) {
+                if (!collectReadGraphs(child, graphs)) {
+                    return false;
+                }
+            }
+            return true;
+        } else if (element instanceof ElementOptional) {
+            return collectReadGraphs(((ElementOptional) element).getOptionalElement(), graphs);
+        } else if (element instanceof ElementMinus) {
+            return collectReadGraphs(((ElementMinus) element).getMinusElement(), graphs);
+        } else if (element instanceof ElementSubQuery) {
+            return collectReadGraphs(((ElementSubQuery) element).getQuery().getQueryPattern(), graphs);
+        } else if (element instanceof ElementFilter) {
+            return collectReadGraphs(((ElementFilter) element).getExpr(), graphs);
+        }
+
+        // Triple patterns outside of GRAPH, SERVICE...
+        return false;
+    }
+
+    private static boolean collectReadGraphs(Expr expr, Set<Node> graphs) {
+        if (expr instanceof ExprFunctionOp) {
+            // EXISTS and NOT EXISTS
+            return collectReadGraphs(((ExprFunctionOp) expr).getGraphPattern(), graphs);
+        } else if (expr instanceof ExprFunction) {
+            for (Expr arg : ((ExprFunction) expr).getArgs()) {
+                if (!collectReadGraphs(arg, graphs)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     /**
      * @param varName the variable name
      * @param object the object to compare with the given variable
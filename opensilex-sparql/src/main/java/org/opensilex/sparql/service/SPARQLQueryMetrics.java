@@ -0,0 +1,197 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * <pre>
+ * Execution metrics of SPARQL queries.
+ *
+ * Statistics are recorded by query kind for all queries. Queries slower than
+ * the configured threshold are also recorded by query shape, a shape being the
+ * query string without prefix declarations, IRIs, literals and numbers (see
+ * {@link #getShape(String)}). Shapes are not computed for faster queries to
+ * not scan each query string with regular expressions. The number of tracked
+ * shapes is bounded, queries of additional shapes are recorded under
+ * {@link #OTHER_SHAPES}.
+ *
+ * Failed queries are recorded with the duration until their failure and
+ * counted as errors.
+ *
+ * Queries slower than the configured threshold are logged with their shape,
+ * a hash of their full content and calling method in
+ * "org.opensilex.sparql.slow-queries" logger. Full queries are never logged
+ * as their literals may contain sensitive data (password hashes...).
+ * </pre>
+ *
+ * @author vincent
+ */
+public class SPARQLQueryMetrics {
+
+    private final static Logger SLOW_QUERY_LOGGER = LoggerFactory.getLogger("org.opensilex.sparql.slow-queries");
+
+    public enum QueryKind {
+        ASK, SELECT, CONSTRUCT, DESCRIBE, UPDATE
+    }
+
+    public final static int DEFAULT_MAX_SHAPES = 500;
+
+    public final static String OTHER_SHAPES = "other";
+
+    private final static Pattern PREFIX_PATTERN = Pattern.compile("(?i)PREFIX\\s+[^\\s:]*:\\s*<[^>]*>");
+    private final static Pattern IRI_PATTERN = Pattern.compile("<[^<>\\s]*>");
+    private final static Pattern LITERAL_PATTERN = Pattern.compile("\"(?:[^\"\\\\]|\\\\.)*\"(?:@[a-zA-Z\\-]+)?");
+    private final static Pattern NUMBER_PATTERN = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private final static Pattern VALUES_PATTERN = Pattern.compile("(?i)(VALUES\\s*(?:\\?\\w+|\\([^)]*\\))\\s*)\\{[^}]*\\}");
+    private final static Pattern WHITESPACES_PATTERN = Pattern.compile("\\s+");
+
+    private final long slowQueryThreshold;
+
+    private final int maxShapes;
+
+    private final Map<QueryKind, SPARQLQueryStats> statsByKind = new EnumMap<>(QueryKind.class);
+
+    private final Map<String, SPARQLQueryStats> statsByShape = new ConcurrentHashMap<>();
+
+    /**
+     * @param slowQueryThreshold duration in milliseconds above which queries
+     * are logged and recorded by shape, 0 to record all queries by shape,
+     * negative to disable slow queries log and shapes statistics
+     * @param maxShapes maximum number of tracked query shapes
+     */
+    public SPARQLQueryMetrics(long slowQueryThreshold, int maxShapes) {
+        this.slowQueryThreshold = slowQueryThreshold;
+        this.maxShapes = maxShapes;
+        for (QueryKind kind : QueryKind.values()) {
+            statsByKind.put(kind, new SPARQLQueryStats(kind.name(), kind));
+        }
+    }
+
+    /**
+     * Record a successful query execution
+     *
+     * @param kind query kind
+     * @param query full query string
+     * @param durationNanos execution duration in nanoseconds
+     * @param rows number of returned rows (results or statements)
+     */
+    public void record(QueryKind kind, String query, long durationNanos, long rows) {
+        record(kind, query, durationNanos, rows, false);
+    }
+
+    /**
+     * Record a query execution
+     *
+     * @param kind query kind
+     * @param query full query string
+     * @param durationNanos execution duration in nanoseconds
+     * @param rows number of returned rows (results or statements)
+     * @param failed true if query execution failed
+     */
+    public void record(QueryKind kind, String query, long durationNanos, long rows, boolean failed) {
+        long bytes = query.length();
+        statsByKind.get(kind).record(durationNanos, rows, bytes, failed);
+
+        if (slowQueryThreshold < 0 || durationNanos / 1000000 < slowQueryThreshold) {
+            return;
+        }
+
+        String shape = getShape(query);
+        String shapeKey = shape;
+        SPARQLQueryStats shapeStats = statsByShape.get(shapeKey);
+        if (shapeStats == null) {
+            if (statsByShape.size() >= maxShapes) {
+                shapeKey = OTHER_SHAPES;
+            }
+            shapeStats = statsByShape.computeIfAbsent(shapeKey, key -> new SPARQLQueryStats(key, kind));
+        }
+        shapeStats.record(durationNanos, rows, bytes, failed);
+
+        if (SLOW_QUERY_LOGGER.isWarnEnabled()) {
+            SLOW_QUERY_LOGGER.warn("Slow {} query{} ({} ms, {} rows, hash {}) called from {}:\n{}",
+                    kind, failed ? " failed" : "", durationNanos / 1000000, rows, getHash(query), getCaller(), shape);
+        }
+    }
+
+    /**
+     * @param query query string
+     * @return hexadecimal hash of the full query, allowing to match a logged
+     * shape with a query without logging its content
+     */
+    public static String getHash(String query) {
+        return String.format("%08x", query.hashCode());
+    }
+
+    /**
+     * @param query query string
+     * @return query without prefixes, IRIs, literals and numbers, lists of
+     * VALUES are reduced to a single element.
+     */
+    public static String getShape(String query) {
+        String shape = PREFIX_PATTERN.matcher(query).replaceAll("");
+        shape = IRI_PATTERN.matcher(shape).replaceAll("<?>");
+        shape = LITERAL_PATTERN.matcher(shape).replaceAll("\"?\"");
+        shape = NUMBER_PATTERN.matcher(shape).replaceAll("?");
+        shape = VALUES_PATTERN.matcher(shape).replaceAll("$1{ ... }");
+        shape = WHITESPACES_PATTERN.matcher(shape).replaceAll(" ");
+        return shape.trim();
+    }
+
+    public SPARQLQueryStats getStats(QueryKind kind) {
+        return statsByKind.get(kind);
+    }
+
+    public List<SPARQLQueryStats> getStatsByKind() {
+        return new ArrayList<>(statsByKind.values());
+    }
+
+    /**
+     * @param limit maximum number of returned shapes
+     * @return statistics of slow query shapes sorted by decreasing total
+     * execution time
+     */
+    public List<SPARQLQueryStats> getTopShapes(int limit) {
+        List<SPARQLQueryStats> shapes = new ArrayList<>(statsByShape.values());
+        Collections.sort(shapes, (s1, s2) -> Double.compare(s2.getTotalTime(), s1.getTotalTime()));
+        if (shapes.size() > limit) {
+            return new ArrayList<>(shapes.subList(0, limit));
+        }
+        return shapes;
+    }
+
+    public void reset() {
+        statsByShape.clear();
+        for (SPARQLQueryStats stats : statsByKind.values()) {
+            stats.reset();
+        }
+    }
+
+    /**
+     * @return first method of call stack which is not part of SPARQL service
+     */
+    private static String getCaller() {
+        for (StackTraceElement element : Thread.currentThread().getStackTrace()) {
+            String className = element.getClassName();
+            if (!className.startsWith("org.opensilex.sparql.")
+                    && !className.startsWith("java.")
+                    && !className.startsWith("sun.")
+                    && !className.startsWith("jdk.")
+                    && !className.startsWith("net.bytebuddy.")) {
+                return className + "." + element.getMethodName() + "(" + element.getFileName() + ":" + element.getLineNumber() + ")";
+            }
+        }
+        return "unknown";
+    }
+}
@@ -0,0 +1,141 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.service;
+
+import java.util.Arrays;
+
+/**
+ * <pre>
+ * Statistics of executed queries sharing the same key (query kind or query
+ * shape).
+ *
+ * Durations are counted in a latency histogram whose upper bounds in
+ * milliseconds are given by {@link #HISTOGRAM_BOUNDS}, last bucket counts
+ * queries slower than the last bound.
+ * </pre>
+ *
+ * @author vincent
+ */
+public class SPARQLQueryStats {
+
+    public final static long[] HISTOGRAM_BOUNDS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000};
+
+    private final String key;
+
+    private final SPARQLQueryMetrics.QueryKind kind;
+
+    private long count = 0;
+
+    private long errors = 0;
+
+    private long totalNanos = 0;
+
+    private long maxNanos = 0;
+
+    private long rows = 0;
+
+    private long queryBytes = 0;
+
+    private final long[] histogram = new long[HISTOGRAM_BOUNDS.length + 1];
+
+    public SPARQLQueryStats(String key, SPARQLQueryMetrics.QueryKind kind) {
+        this.key = key;
+        this.kind = kind;
+    }
+
+    synchronized void record(long durationNanos, long resultRows, long bytes, boolean failed) {
+        count++;
+        if (failed) {
+            errors++;
+        }
+        totalNanos += durationNanos;
+        maxNanos = Math.max(maxNanos, durationNanos);
+        rows += resultRows;
+        queryBytes += bytes;
+
+        long durationMillis = durationNanos / 1000000;
+        int bucket = 0;
+        while (bucket < HISTOGRAM_BOUNDS.length && durationMillis > HISTOGRAM_BOUNDS[bucket]) {
+            bucket++;
+        }
+        histogram[bucket]++;
+    }
+
+    synchronized void reset() {
+        count = 0;
+        errors = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+        rows = 0;
+        queryBytes = 0;
+        Arrays.fill(histogram, 0);
+    }
+
+    /**
+     * @return query kind or query shape
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public SPARQLQueryMetrics.QueryKind getKind() {
+        return kind;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * @return number of failed queries, included in {@link #getCount()}
+     */
+    public synchronized long getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return total execution time in milliseconds
+     */
+    public synchronized double getTotalTime() {
+        return totalNanos / 1000000d;
+    }
+
+    /**
+     * @return mean execution time in milliseconds
+     */
+    public synchronized double getMeanTime() {
+        return count == 0 ? 0 : totalNanos / 1000000d / count;
+    }
+
+    /**
+     * @return maximum execution time in milliseconds
+     */
+    public synchronized double getMaxTime() {
+        return maxNanos / 1000000d;
+    }
+
+    /**
+     * @return total number of returned rows (results or statements)
+     */
+    public synchronized long getRows() {
+        return rows;
+    }
+
+    /**
+     * @return total size of sent queries in bytes
+     */
+    public synchronized long getQueryBytes() {
+        return queryBytes;
+    }
+
+    /**
+     * @return number of queries by duration bucket
+     * @see #HISTOGRAM_BOUNDS
+     */
+    public synchronized long[] getHistogram() {
+        return Arrays.copyOf(histogram, histogram.length);
+    }
+}
@@ -5,15 +5,84 @@
 //******************************************************************************
 package org.opensilex.sparql.service;
 
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.function.BiConsumer;
 
 /**
+ * <pre>
+ * SPARQL result binding set.
+ *
+ * Typed getters return null if the key is not bound, default implementations
+ * parse the string value and should be overriden by connections able to read
+ * native typed values.
+ * </pre>
  *
  * @author Vincent Migot
  */
 public interface SPARQLResult {
 
     public String getStringValue(String key);
-    
+
     public void forEach(BiConsumer<? super String, ? super String> action);
+
+    public default boolean hasValue(String key) {
+        return getStringValue(key) != null;
+    }
+
+    public default Integer getInt(String key) {
+        String value = getStringValue(key);
+        return value == null ? null : Integer.valueOf(value);
+    }
+
+    public default Long getLong(String key) {
+        String value = getStringValue(key);
+        return value == null ? null : Long.valueOf(value);
+    }
+
+    public default Double getDouble(String key) {
+        String value = getStringValue(key);
+        return value == null ? null : Double.valueOf(value);
+    }
+
+    public default Float getFloat(String key) {
+        String value = getStringValue(key);
+        return value == null ? null : Float.valueOf(value);
+    }
+
+    public default Boolean getBoolean(String key) {
+        String value = getStringValue(key);
+        return value == null ? null : Boolean.valueOf(value);
+    }
+
+    public default BigInteger getBigInteger(String key) {
+        String value = getStringValue(key);
+        return value == null ? null : new BigInteger(value);
+    }
+
+    public default LocalDate getLocalDate(String key) {
+        String value = getStringValue(key);
+        return value == null ? null : LocalDate.parse(value);
+    }
+
+    public default OffsetDateTime getOffsetDateTime(String key) {
+        String value = getStringValue(key);
+        return value == null ? null : OffsetDateTime.parse(value, DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+    }
+
+    /**
+     * Return the bound value as a full URI (not prefixed)
+     *
+     * @param key binding name
+     * @return URI or null if not bound
+     * @throws URISyntaxException if value is not a valid URI
+     */
+    public default URI getURI(String key) throws URISyntaxException {
+        String value = getStringValue(key);
+        return value == null ? null : new URI(value);
+    }
 }
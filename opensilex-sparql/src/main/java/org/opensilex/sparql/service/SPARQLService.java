@@ -10,30 +10,81 @@ import java.lang.reflect.Field;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.apache.jena.arq.querybuilder.AbstractQueryBuilder;
 import static org.apache.jena.arq.querybuilder.AbstractQueryBuilder.makeVar;
 import org.apache.jena.arq.querybuilder.AskBuilder;
 import org.apache.jena.arq.querybuilder.ConstructBuilder;
 import org.apache.jena.arq.querybuilder.DescribeBuilder;
 import org.apache.jena.arq.querybuilder.ExprFactory;
+import org.apache.jena.arq.querybuilder.Order;
 import org.apache.jena.arq.querybuilder.SelectBuilder;
 import org.apache.jena.arq.querybuilder.UpdateBuilder;
 import org.apache.jena.arq.querybuilder.WhereBuilder;
+import org.apache.jena.arq.querybuilder.handlers.WhereHandler;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
-import org.apache.jena.rdf.model.Model;
-import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.graph.Triple;
+import org.apache.jena.query.Query;
 import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.Resource;
-import org.apache.jena.rdf.model.Statement;
-import org.apache.jena.rdf.model.StmtIterator;
 import org.apache.jena.riot.Lang;
+import org.apache.jena.riot.RDFDataMgr;
+import org.apache.jena.riot.RiotException;
+import org.apache.jena.riot.system.StreamRDFBase;
+import org.apache.jena.sparql.core.Quad;
 import org.apache.jena.sparql.core.Var;
+import org.apache.jena.sparql.engine.binding.BindingFactory;
+import org.apache.jena.sparql.expr.E_Bound;
+import org.apache.jena.sparql.expr.E_Equals;
+import org.apache.jena.sparql.expr.E_GreaterThan;
+import org.apache.jena.sparql.expr.E_IsIRI;
+import org.apache.jena.sparql.expr.E_LessThan;
+import org.apache.jena.sparql.expr.E_LogicalAnd;
+import org.apache.jena.sparql.expr.E_LogicalNot;
+import org.apache.jena.sparql.expr.E_LogicalOr;
+import org.apache.jena.sparql.expr.E_Str;
 import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.expr.ExprVar;
+import org.apache.jena.sparql.expr.NodeValue;
+import org.apache.jena.sparql.syntax.Element;
+import org.apache.jena.sparql.syntax.ElementData;
+import org.apache.jena.sparql.syntax.ElementFilter;
+import org.apache.jena.sparql.syntax.ElementGroup;
+import org.apache.jena.sparql.syntax.ElementNamedGraph;
+import org.apache.jena.sparql.syntax.ElementPathBlock;
+import org.apache.jena.sparql.syntax.ElementUnion;
+import org.apache.jena.sparql.syntax.ElementVisitorBase;
+import org.apache.jena.sparql.syntax.ElementWalker;
 import org.apache.jena.vocabulary.DCTerms;
 import org.apache.jena.vocabulary.OA;
 import org.apache.jena.vocabulary.RDF;
@@ -51,18 +102,22 @@ import org.opensilex.sparql.deserializer.SPARQLDeserializers;
 import org.opensilex.sparql.deserializer.URIDeserializer;
 import org.opensilex.sparql.exceptions.SPARQLAlreadyExistingUriException;
 import org.opensilex.sparql.exceptions.SPARQLException;
+import org.opensilex.sparql.exceptions.SPARQLInvalidCursorException;
+import org.opensilex.sparql.exceptions.SPARQLInvalidProjectionException;
+import org.opensilex.sparql.exceptions.SPARQLInvalidURIException;
 import org.opensilex.sparql.exceptions.SPARQLQueryException;
 import org.opensilex.sparql.exceptions.SPARQLTransactionException;
 import org.opensilex.sparql.exceptions.SPARQLUnknownFieldException;
 import org.opensilex.sparql.mapping.SPARQLClassObjectMapper;
+import org.opensilex.sparql.mapping.SPARQLResourceBatchLoader;
 import org.opensilex.sparql.model.SPARQLResourceModel;
 import org.opensilex.sparql.rdf4j.RDF4JConfig;
 import org.opensilex.sparql.rdf4j.RDF4JConnection;
 import org.opensilex.sparql.service.SPARQLQueryHelper;
 import org.opensilex.sparql.service.SPARQLResult;
 import org.opensilex.sparql.service.SPARQLStatement;
-import org.opensilex.sparql.utils.Ontology;
 import org.opensilex.sparql.utils.OrderBy;
+import org.opensilex.sparql.utils.SPARQLPageCursor;
 import org.opensilex.sparql.utils.URIGenerator;
 import org.opensilex.utils.ListWithPagination;
 import org.opensilex.utils.ThrowingConsumer;
@@ -83,8 +138,94 @@ public class SPARQLService implements SPARQLConnection, Service {
 
     public final static String DEFAULT_SPARQL_SERVICE = "sparql";
 
+    public final static int DEFAULT_COUNT_CACHE_SIZE = 1000;
+
+    public final static long DEFAULT_COUNT_CACHE_TTL = 60000;
+
+    public final static int DEFAULT_INSTANCE_CACHE_SIZE = 10000;
+
+    public final static int DEFAULT_BULK_CHUNK_SIZE = 1000;
+
+    public final static int DEFAULT_LOAD_CHUNK_SIZE = 10000;
+
+    public final static long DEFAULT_SLOW_QUERY_THRESHOLD = 1000;
+
+    public final static int DEFAULT_STREAM_CHUNK_SIZE = 500;
+
+    public final static int DEFAULT_TEXT_INDEX_MAX_MATCHES = 1000;
+
+    /**
+     * Maximum number of URIs checked by a single existence query
+     */
+    private final static int URI_CHECK_BATCH_SIZE = 5000;
+
     private final SPARQLConnection connection;
 
+    private volatile SPARQLCountCache countCache = new SPARQLCountCache(DEFAULT_COUNT_CACHE_SIZE, DEFAULT_COUNT_CACHE_TTL);
+
+    private volatile SPARQLInstanceCache instanceCache = new SPARQLLRUInstanceCache(DEFAULT_INSTANCE_CACHE_SIZE);
+
+    private volatile SPARQLTextIndexCache textIndexCache = new SPARQLTextIndexCache(true, DEFAULT_TEXT_INDEX_MAX_MATCHES);
+
+    private volatile SPARQLQueryMetrics queryMetrics = new SPARQLQueryMetrics(DEFAULT_SLOW_QUERY_THRESHOLD, SPARQLQueryMetrics.DEFAULT_MAX_SHAPES);
+
+    /**
+     * URIs written during the transaction of current thread, invalidated again
+     * on commit because other threads may have cached them before commit
+     */
+    private final ThreadLocal<Set<String>> transactionWrittenURIs = new ThreadLocal<>();
+
+    /**
+     * Graphs written during the transaction of current thread, a null element
+     * means an unknown graph was written
+     */
+    private final ThreadLocal<Set<Node>> transactionWrittenGraphs = new ThreadLocal<>();
+
+    /**
+     * Marker of transaction written URIs meaning all instances must be
+     * invalidated
+     */
+    private final static String ALL_URIS = "*";
+
+    /**
+     * Identity map of the unit of work bound to current thread, if any
+     */
+    private final ThreadLocal<SPARQLIdentityMap> identityMap = new ThreadLocal<>();
+
+    /**
+     * Flag to use in memory class hierarchy instead of rdfs:subClassOf*
+     * property paths
+     */
+    private volatile boolean classHierarchyCache = false;
+
+    /**
+     * rdfs:subClassOf hierarchy of this service repository, only loaded if
+     * class hierarchy cache is enabled
+     */
+    private final SPARQLClassHierarchy classHierarchy = new SPARQLClassHierarchy();
+
+    /**
+     * Flag set when ontologies are loaded in the transaction of current
+     * thread, class hierarchy is reloaded on commit
+     */
+    private final ThreadLocal<Boolean> transactionHierarchyChanged = new ThreadLocal<>();
+
+    /**
+     * Maximum number of count queries run concurrently in background
+     */
+    private final static int COUNT_EXECUTOR_THREADS = 4;
+
+    /**
+     * Maximum number of pending background count queries, counts are run in
+     * caller thread above
+     */
+    private final static int COUNT_EXECUTOR_QUEUE_SIZE = 64;
+
+    /**
+     * Executor used to run count queries concurrently with page queries
+     */
+    private ExecutorService countExecutor;
+
     public SPARQLService(SPARQLConnection connection) throws URISyntaxException {
         this.connection = connection;
     }
@@ -96,9 +237,139 @@ public class SPARQLService implements SPARQLConnection, Service {
 
     @Override
     public void shutdown() throws Exception {
+        synchronized (this) {
+            if (countExecutor != null) {
+                countExecutor.shutdownNow();
+                countExecutor = null;
+            }
+        }
         connection.shutdown();
     }
 
+    /**
+     * Define count cache parameters
+     *
+     * @param maxSize maximum number of cached counts, 0 to disable cache
+     * @param timeToLive time to live of counts in milliseconds, 0 to disable
+     * cache, negative for no expiration
+     */
+    public void setCountCache(int maxSize, long timeToLive) {
+        countCache = new SPARQLCountCache(maxSize, timeToLive);
+    }
+
+    /**
+     * Enable or disable full text indexes used by
+     * {@link #getTextSearch(Class, String, String...)}
+     *
+     * @param enabled false to always use regular expressions filters
+     */
+    public void setTextIndex(boolean enabled) {
+        setTextIndex(enabled, DEFAULT_TEXT_INDEX_MAX_MATCHES);
+    }
+
+    /**
+     * Enable or disable full text indexes used by
+     * {@link #getTextSearch(Class, String, String...)}
+     *
+     * @param enabled false to always use regular expressions filters
+     * @param maxMatches maximum number of resources matched by an index
+     * search, regular expressions filters are used above
+     */
+    public void setTextIndex(boolean enabled, int maxMatches) {
+        textIndexCache = new SPARQLTextIndexCache(enabled, maxMatches);
+    }
+
+    /**
+     * Define instance cache used for classes with
+     * {@link org.opensilex.sparql.annotations.SPARQLResource#cacheInstances()}
+     * enabled
+     *
+     * @param instanceCache instance cache implementation
+     */
+    public void setInstanceCache(SPARQLInstanceCache instanceCache) {
+        this.instanceCache = instanceCache;
+    }
+
+    /**
+     * @return instance cache, giving access to its statistics
+     */
+    public SPARQLInstanceCache getInstanceCache() {
+        return instanceCache;
+    }
+
+    /**
+     * Define query metrics recorder
+     *
+     * @param queryMetrics query metrics, null to disable metrics
+     */
+    public void setQueryMetrics(SPARQLQueryMetrics queryMetrics) {
+        this.queryMetrics = queryMetrics;
+    }
+
+    /**
+     * @return query metrics, null if disabled
+     */
+    public SPARQLQueryMetrics getQueryMetrics() {
+        return queryMetrics;
+    }
+
+    private void recordQuery(SPARQLQueryMetrics.QueryKind kind, String query, long start, long rows, boolean failed) {
+        SPARQLQueryMetrics metrics = queryMetrics;
+        if (metrics != null) {
+            metrics.record(kind, query, System.nanoTime() - start, rows, failed);
+        }
+    }
+
+    /**
+     * Bind a new identity map to current thread, until
+     * {@link #closeIdentityMap()} is called instances loaded by URI are
+     * returned as the same object for a given class and URI.
+     *
+     * Any identity map previously bound to current thread is discarded.
+     */
+    public void openIdentityMap() {
+        identityMap.set(new SPARQLIdentityMap());
+    }
+
+    /**
+     * Unbind identity map of current thread
+     */
+    public void closeIdentityMap() {
+        SPARQLIdentityMap map = identityMap.get();
+        identityMap.remove();
+        if (map != null && LOGGER.isDebugEnabled()) {
+            LOGGER.debug("SPARQL identity map closed with " + map.size() + " instance(s) and " + map.getHitCount() + " hit(s)");
+        }
+    }
+
+    /**
+     * @return identity map bound to current thread or null if none
+     */
+    public SPARQLIdentityMap getIdentityMap() {
+        return identityMap.get();
+    }
+
+    private synchronized ExecutorService getCountExecutor() {
+        if (countExecutor == null) {
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                    COUNT_EXECUTOR_THREADS, COUNT_EXECUTOR_THREADS,
+                    60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(COUNT_EXECUTOR_QUEUE_SIZE),
+                    (Runnable r) -> {
+                        Thread thread = new Thread(r, "sparql-count-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    // Run count in request thread when pool is saturated
+                    new ThreadPoolExecutor.CallerRunsPolicy()
+            );
+            executor.allowCoreThreadTimeOut(true);
+            countExecutor = executor;
+        }
+        return countExecutor;
+    }
+
     private HashMap<String, String> prefixes = new HashMap<String, String>() {
         {
             put(RDFS.PREFIX, RDFS.NAMESPACE);
@@ -111,12 +382,27 @@ public class SPARQLService implements SPARQLConnection, Service {
 
     public void addPrefix(String prefix, String namespace) {
         prefixes.put(prefix, namespace);
+        queryTemplates.clear();
     }
 
     public Map<String, String> getPrefixes() {
         return prefixes;
     }
 
+    /**
+     * Query strings with their prefixes by template key, used for queries
+     * only differing by their bound variables
+     */
+    private final Map<String, String> queryTemplates = new ConcurrentHashMap<>();
+
+    private String getQueryTemplate(String key, Supplier<AbstractQueryBuilder<?>> builderSupplier) {
+        return queryTemplates.computeIfAbsent(key, (String templateKey) -> {
+            AbstractQueryBuilder<?> builder = builderSupplier.get();
+            addPrefixes(builder);
+            return builder.buildString();
+        });
+    }
+
     private void addPrefixes(UpdateBuilder builder) {
         getPrefixes().forEach((key, value) -> {
             builder.addPrefix(key, value);
@@ -132,19 +418,44 @@ public class SPARQLService implements SPARQLConnection, Service {
     @Override
     public boolean executeAskQuery(AskBuilder ask) throws SPARQLQueryException {
         addPrefixes(ask);
+        return executeAskQuery(ask.buildString());
+    }
+
+    @Override
+    public boolean executeAskQuery(String query) throws SPARQLQueryException {
         if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("SPARQL ASK\n" + ask.buildString());
+            LOGGER.debug("SPARQL ASK\n" + query);
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            boolean result = connection.executeAskQuery(query);
+            failed = false;
+            return result;
+        } finally {
+            recordQuery(SPARQLQueryMetrics.QueryKind.ASK, query, start, failed ? 0 : 1, failed);
         }
-        return connection.executeAskQuery(ask);
     }
 
     @Override
     public List<SPARQLStatement> executeDescribeQuery(DescribeBuilder describe) throws SPARQLQueryException {
         addPrefixes(describe);
+        return executeDescribeQuery(describe.buildString());
+    }
+
+    @Override
+    public List<SPARQLStatement> executeDescribeQuery(String query) throws SPARQLQueryException {
         if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("SPARQL DESCRIBE\n" + describe.buildString());
+            LOGGER.debug("SPARQL DESCRIBE\n" + query);
+        }
+        long start = System.nanoTime();
+        List<SPARQLStatement> statements = null;
+        try {
+            statements = connection.executeDescribeQuery(query);
+            return statements;
+        } finally {
+            recordQuery(SPARQLQueryMetrics.QueryKind.DESCRIBE, query, start, statements == null ? 0 : statements.size(), statements == null);
         }
-        return connection.executeDescribeQuery(describe);
     }
 
     public List<SPARQLStatement> describe(URI uri) throws SPARQLQueryException {
@@ -158,84 +469,475 @@ public class SPARQLService implements SPARQLConnection, Service {
     @Override
     public List<SPARQLStatement> executeConstructQuery(ConstructBuilder construct) throws SPARQLQueryException {
         addPrefixes(construct);
+        return executeConstructQuery(construct.buildString());
+    }
+
+    @Override
+    public List<SPARQLStatement> executeConstructQuery(String query) throws SPARQLQueryException {
         if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("SPARQL CONSTRUCT\n" + construct.buildString());
+            LOGGER.debug("SPARQL CONSTRUCT\n" + query);
+        }
+        long start = System.nanoTime();
+        List<SPARQLStatement> statements = null;
+        try {
+            statements = connection.executeConstructQuery(query);
+            return statements;
+        } finally {
+            recordQuery(SPARQLQueryMetrics.QueryKind.CONSTRUCT, query, start, statements == null ? 0 : statements.size(), statements == null);
         }
-        return connection.executeConstructQuery(construct);
     }
 
     @Override
     public List<SPARQLResult> executeSelectQuery(SelectBuilder select, Consumer<SPARQLResult> resultHandler) throws SPARQLQueryException {
         addPrefixes(select);
+        return executeSelectQuery(select.buildString(), resultHandler);
+    }
+
+    @Override
+    public List<SPARQLResult> executeSelectQuery(String query, Consumer<SPARQLResult> resultHandler) throws SPARQLQueryException {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("SPARQL SELECT\n" + query);
+        }
+        long start = System.nanoTime();
+        RowCounter counter = new RowCounter(resultHandler);
+        List<SPARQLResult> results = null;
+        try {
+            results = connection.executeSelectQuery(query, resultHandler == null ? null : counter);
+            return results;
+        } finally {
+            recordSelectQuery(query, start, resultHandler, counter, results);
+        }
+    }
+
+    @Override
+    public List<SPARQLResult> executePreparedSelectQuery(String query, Map<String, Node> bindings, Consumer<SPARQLResult> resultHandler) throws SPARQLQueryException {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("SPARQL PREPARED SELECT\n" + query + "\nBINDINGS: " + bindings);
+        }
+        long start = System.nanoTime();
+        RowCounter counter = new RowCounter(resultHandler);
+        List<SPARQLResult> results = null;
+        try {
+            results = connection.executePreparedSelectQuery(query, bindings, resultHandler == null ? null : counter);
+            return results;
+        } finally {
+            recordSelectQuery(query, start, resultHandler, counter, results);
+        }
+    }
+
+    private void recordSelectQuery(String query, long start, Consumer<SPARQLResult> resultHandler, RowCounter counter, List<SPARQLResult> results) {
+        boolean failed = results == null;
+        long rows = resultHandler != null ? counter.rows : (failed ? 0 : results.size());
+        recordQuery(SPARQLQueryMetrics.QueryKind.SELECT, query, start, rows, failed);
+    }
+
+    @Override
+    public boolean executePreparedAskQuery(String query, Map<String, Node> bindings) throws SPARQLQueryException {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("SPARQL PREPARED ASK\n" + query + "\nBINDINGS: " + bindings);
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            boolean result = connection.executePreparedAskQuery(query, bindings);
+            failed = false;
+            return result;
+        } finally {
+            recordQuery(SPARQLQueryMetrics.QueryKind.ASK, query, start, failed ? 0 : 1, failed);
+        }
+    }
+
+    @Override
+    public Stream<SPARQLResult> executeSelectQueryAsStream(SelectBuilder select) throws SPARQLQueryException {
+        addPrefixes(select);
+        return executeSelectQueryAsStream(select.buildString());
+    }
+
+    @Override
+    public Stream<SPARQLResult> executeSelectQueryAsStream(String query) throws SPARQLQueryException {
         if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("SPARQL SELECT\n" + select.buildString());
+            LOGGER.debug("SPARQL SELECT (STREAM)\n" + query);
         }
-        return connection.executeSelectQuery(select, resultHandler);
+        long start = System.nanoTime();
+        Stream<SPARQLResult> results;
+        try {
+            results = connection.executeSelectQueryAsStream(query);
+        } catch (RuntimeException | SPARQLQueryException ex) {
+            recordQuery(SPARQLQueryMetrics.QueryKind.SELECT, query, start, 0, true);
+            throw ex;
+        }
+
+        // Stream is consumed lazily, query is recorded when it is closed
+        AtomicLong rows = new AtomicLong();
+        return results
+                .peek(result -> rows.incrementAndGet())
+                .onClose(() -> recordQuery(SPARQLQueryMetrics.QueryKind.SELECT, query, start, rows.get(), false));
     }
 
+    /**
+     * Execute an update query, all cached counts and instances are invalidated
+     * as written resources are unknown
+     *
+     * @param update update query
+     * @throws SPARQLQueryException in case of query error
+     */
     @Override
     public void executeUpdateQuery(UpdateBuilder update) throws SPARQLQueryException {
+        executeUpdateQuery(update, null, null);
+    }
+
+    /**
+     * Execute an update query string, all cached counts and instances are
+     * invalidated as written resources are unknown
+     *
+     * @param query update query
+     * @throws SPARQLQueryException in case of query error
+     */
+    @Override
+    public void executeUpdateQuery(String query) throws SPARQLQueryException {
+        executeUpdateQuery("UPDATE", query, null, null);
+    }
+
+    /**
+     * Execute an update query and invalidate cached counts of the given graph
+     * and cached instances of the given URIs
+     *
+     * @param update update query
+     * @param graph written graph, null if unknown
+     * @param writtenURIs expanded URIs of written resources, null if unknown
+     * @throws SPARQLQueryException in case of query error
+     */
+    private void executeUpdateQuery(UpdateBuilder update, Node graph, Set<String> writtenURIs) throws SPARQLQueryException {
         addPrefixes(update);
-        if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("SPARQL UPDATE\n" + update.build().toString());
-        }
-        connection.executeUpdateQuery(update);
+        executeUpdateQuery("UPDATE", update.buildRequest().toString(), graph, writtenURIs);
     }
 
+    /**
+     * Execute a delete query, all cached counts and instances are invalidated
+     * as deleted resources are unknown
+     *
+     * @param delete delete query
+     * @throws SPARQLQueryException in case of query error
+     */
     @Override
     public void executeDeleteQuery(UpdateBuilder delete) throws SPARQLQueryException {
+        executeDeleteQuery(delete, null, null);
+    }
+
+    private void executeDeleteQuery(UpdateBuilder delete, Node graph, Set<String> writtenURIs) throws SPARQLQueryException {
         addPrefixes(delete);
+        executeUpdateQuery("DELETE", delete.buildRequest().toString(), graph, writtenURIs);
+    }
+
+    private void executeUpdateQuery(String operation, String query, Node graph, Set<String> writtenURIs) throws SPARQLQueryException {
         if (LOGGER.isDebugEnabled()) {
-            LOGGER.debug("SPARQL DELETE\n" + delete.buildRequest().toString());
+            LOGGER.debug("SPARQL " + operation + "\n" + query);
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            connection.executeUpdateQuery(query);
+            failed = false;
+        } finally {
+            recordQuery(SPARQLQueryMetrics.QueryKind.UPDATE, query, start, 0, failed);
+        }
+        countCache.invalidate(graph);
+        textIndexCache.invalidate(graph, writtenURIs);
+        invalidateInstances(writtenURIs);
+        addTransactionWrittenGraph(graph);
+    }
+
+    /**
+     * Record a graph written during the transaction of current thread
+     *
+     * @param graph written graph, null if unknown
+     */
+    private void addTransactionWrittenGraph(Node graph) {
+        Set<Node> writtenGraphs = transactionWrittenGraphs.get();
+        if (writtenGraphs != null) {
+            writtenGraphs.add(graph);
         }
-        connection.executeDeleteQuery(delete);
     }
 
     @Override
     public void startTransaction() throws SPARQLTransactionException {
         LOGGER.debug("SPARQL TRANSACTION START");
         connection.startTransaction();
+        transactionWrittenURIs.set(new HashSet<>());
+        transactionWrittenGraphs.set(new HashSet<>());
+        transactionHierarchyChanged.remove();
     }
 
     @Override
     public void commitTransaction() throws SPARQLTransactionException {
         LOGGER.debug("SPARQL TRANSACTION COMMIT");
+        Set<String> writtenURIs = transactionWrittenURIs.get();
+        transactionWrittenURIs.remove();
+        Set<Node> writtenGraphs = transactionWrittenGraphs.get();
+        transactionWrittenGraphs.remove();
+        boolean hierarchyChanged = Boolean.TRUE.equals(transactionHierarchyChanged.get());
+        transactionHierarchyChanged.remove();
         connection.commitTransaction();
+        // Counts and instances loaded by other threads during transaction may
+        // be outdated for written graphs
+        if (writtenGraphs == null || writtenGraphs.contains(null)) {
+            countCache.clear();
+            if (writtenURIs == null || writtenURIs.contains(ALL_URIS)) {
+                textIndexCache.clear();
+            } else {
+                textIndexCache.invalidate(null, writtenURIs);
+            }
+        } else {
+            boolean allURIs = writtenURIs == null || writtenURIs.contains(ALL_URIS);
+            for (Node writtenGraph : writtenGraphs) {
+                countCache.invalidate(writtenGraph);
+                textIndexCache.invalidate(writtenGraph, allURIs ? null : writtenURIs);
+            }
+        }
+        if (writtenURIs != null) {
+            if (writtenURIs.contains(ALL_URIS)) {
+                instanceCache.clear();
+            } else {
+                instanceCache.invalidate(writtenURIs);
+            }
+        }
+
+        if (hierarchyChanged) {
+            try {
+                reloadClassHierarchy();
+            } catch (SPARQLQueryException ex) {
+                // Data is committed, fallback on property paths which are always right
+                LOGGER.error("Error while reloading class hierarchy, rdfs:subClassOf* property paths are used instead", ex);
+                classHierarchy.clear();
+                queryTemplates.clear();
+            }
+        }
     }
 
     @Override
     public void rollbackTransaction() throws SPARQLTransactionException {
         LOGGER.debug("SPARQL TRANSACTION ROLLBACK");
+        transactionWrittenURIs.remove();
+        transactionWrittenGraphs.remove();
+        transactionHierarchyChanged.remove();
+        // Instances loaded during transaction may reflect rolled back data
+        clearIdentityMap();
         connection.rollbackTransaction();
     }
 
+    @Override
+    public boolean isTransactionActive() {
+        return connection.isTransactionActive();
+    }
+
     @Override
     public void clearGraph(URI graph) throws SPARQLQueryException {
         LOGGER.debug("SPARQL CLEAR GRAPH: " + graph);
         connection.clearGraph(graph);
+        addTransactionWrittenGraph(null);
+        countCache.clear();
+        textIndexCache.clear();
+        instanceCache.clear();
+        clearIdentityMap();
+        reloadClassHierarchy();
     }
 
     @Override
     public void clear() throws SPARQLQueryException {
         LOGGER.debug("SPARQL CLEAR REPOSITORY");
         connection.clear();
+        addTransactionWrittenGraph(null);
+        countCache.clear();
+        textIndexCache.clear();
+        instanceCache.clear();
+        clearIdentityMap();
+        reloadClassHierarchy();
+    }
+
+    /**
+     * Load rdfs:subClassOf hierarchy in memory and use it to restrict types in
+     * generated queries, hierarchy is reloaded after each ontology loading
+     * (on commit if loaded in a transaction) or repository clearing. Must not
+     * be used if ontologies are modified by other means at runtime.
+     *
+     * @throws SPARQLQueryException in case of query error
+     * @see SPARQLClassHierarchy
+     */
+    public void enableClassHierarchyCache() throws SPARQLQueryException {
+        classHierarchyCache = true;
+        reloadClassHierarchy();
+    }
+
+    /**
+     * Use rdfs:subClassOf* property paths to restrict types in generated
+     * queries
+     */
+    public void disableClassHierarchyCache() {
+        classHierarchyCache = false;
+        classHierarchy.clear();
+        queryTemplates.clear();
     }
 
-    public void loadOntologyStream(URI graph, InputStream ontology, Lang format) throws SPARQLQueryException {
+    /**
+     * @return rdfs:subClassOf hierarchy of this service, not loaded if class
+     * hierarchy cache is disabled
+     */
+    public SPARQLClassHierarchy getClassHierarchy() {
+        return classHierarchy;
+    }
+
+    /**
+     * Reload rdfs:subClassOf hierarchy from all graphs if class hierarchy
+     * cache is enabled
+     *
+     * @throws SPARQLQueryException in case of query error
+     */
+    public void reloadClassHierarchy() throws SPARQLQueryException {
+        if (!classHierarchyCache) {
+            return;
+        }
+
+        Var classVar = makeVar("class");
+        Var superClassVar = makeVar("superClass");
+        SelectBuilder select = new SelectBuilder();
+        select.setDistinct(true);
+        select.addVar(classVar);
+        select.addVar(superClassVar);
+        select.addWhere(classVar, org.apache.jena.vocabulary.RDFS.subClassOf, superClassVar);
+        select.addFilter(new E_LogicalAnd(new E_IsIRI(new ExprVar(classVar)), new E_IsIRI(new ExprVar(superClassVar))));
+
+        Map<Node, Set<Node>> superClasses = new HashMap<>();
+        AtomicInteger relationCount = new AtomicInteger();
+        executeSelectQuery(select, (SPARQLResult result) -> {
+            Node classNode = NodeFactory.createURI(result.getStringValue(classVar.getName()));
+            Node superClassNode = NodeFactory.createURI(result.getStringValue(superClassVar.getName()));
+            superClasses.computeIfAbsent(classNode, (Node key) -> new HashSet<>()).add(superClassNode);
+            relationCount.incrementAndGet();
+        });
+
+        classHierarchy.setHierarchy(superClasses);
+        queryTemplates.clear();
+        LOGGER.debug("SPARQL class hierarchy loaded with " + relationCount.get() + " rdfs:subClassOf relations");
+    }
+
+    @Override
+    public void addTriples(Node graph, Collection<Triple> triples) throws SPARQLQueryException {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("SPARQL ADD " + triples.size() + " TRIPLES INTO GRAPH: " + graph);
+        }
+        connection.addTriples(graph, triples);
+        countCache.invalidate(graph);
+        textIndexCache.invalidate(graph);
+        clearInstances(instanceCache, transactionWrittenURIs.get());
+        addTransactionWrittenGraph(graph);
+    }
+
+    public void loadOntologyStream(URI graph, InputStream ontology, Lang format) throws SPARQLException {
+        loadOntologyStream(graph, ontology, format, DEFAULT_LOAD_CHUNK_SIZE);
+    }
+
+    /**
+     * <pre>
+     * Load RDF data into a graph.
+     *
+     * Data is parsed as a stream and triples are added by chunks in a single
+     * transaction (or in the current one if any), so the whole data is never
+     * kept in memory.
+     * </pre>
+     *
+     * @param graph graph to load data into
+     * @param ontology RDF data stream
+     * @param format RDF data format
+     * @param chunkSize maximum number of triples added at once
+     * @return number of loaded triples
+     * @throws SPARQLException in case of error, nothing is loaded
+     */
+    public long loadOntologyStream(URI graph, InputStream ontology, Lang format, int chunkSize) throws SPARQLException {
         Node graphNode = NodeFactory.createURI(graph.toString());
         LOGGER.debug("SPARQL LOAD " + format.getName() + " FILE INTO GRAPH: " + graphNode);
-        Model model = ModelFactory.createDefaultModel();
-        model.read(ontology, null, format.getName());
+        long start = System.currentTimeMillis();
 
-        UpdateBuilder insertQuery = new UpdateBuilder();
-        StmtIterator iterator = model.listStatements();
+        boolean ownTransaction = !isTransactionActive();
+        if (ownTransaction) {
+            startTransaction();
+        }
 
-        while (iterator.hasNext()) {
-            Statement statement = iterator.nextStatement();
-            insertQuery.addInsert(graphNode, statement.asTriple());
+        ChunkedTripleLoader loader = new ChunkedTripleLoader(graphNode, Math.max(1, chunkSize));
+        try {
+            RDFDataMgr.parse(loader, ontology, format);
+            loader.flush();
+        } catch (Exception ex) {
+            if (ownTransaction) {
+                rollbackTransaction();
+            }
+            Throwable cause = ex;
+            if (ex instanceof RiotException && ex.getCause() instanceof SPARQLException) {
+                cause = ex.getCause();
+            }
+            if (cause instanceof SPARQLException) {
+                throw (SPARQLException) cause;
+            }
+            throw new SPARQLException("Error while loading RDF data into graph: " + graph, ex);
+        }
+
+        // Hierarchy is reloaded when loaded data is visible to other threads
+        transactionHierarchyChanged.set(Boolean.TRUE);
+        if (ownTransaction) {
+            commitTransaction();
+        }
+
+        long duration = Math.max(1, System.currentTimeMillis() - start);
+        LOGGER.info("Loaded " + loader.count + " triples into graph " + graph + " in " + duration + "ms (" + (loader.count * 1000 / duration) + " triples/s)");
+
+        return loader.count;
+    }
+
+    /**
+     * Stream RDF sink adding parsed triples by chunks to a graph
+     */
+    private class ChunkedTripleLoader extends StreamRDFBase {
+
+        private final Node graph;
+
+        private final int chunkSize;
+
+        private final List<Triple> chunk;
+
+        private long count = 0;
+
+        private ChunkedTripleLoader(Node graph, int chunkSize) {
+            this.graph = graph;
+            this.chunkSize = chunkSize;
+            this.chunk = new ArrayList<>(chunkSize);
+        }
+
+        @Override
+        public void triple(Triple triple) {
+            chunk.add(triple);
+            if (chunk.size() >= chunkSize) {
+                try {
+                    flush();
+                } catch (SPARQLQueryException ex) {
+                    throw new RiotException(ex);
+                }
+            }
+        }
+
+        @Override
+        public void quad(Quad quad) {
+            triple(quad.asTriple());
+        }
+
+        private void flush() throws SPARQLQueryException {
+            if (!chunk.isEmpty()) {
+                addTriples(graph, chunk);
+                count += chunk.size();
+                chunk.clear();
+                if (LOGGER.isDebugEnabled()) {
+                    LOGGER.debug("SPARQL LOAD: " + count + " triples loaded into graph " + graph);
+                }
+            }
         }
-        insertQuery.buildRequest().toString();
-        executeUpdateQuery(insertQuery);
     }
 
     public <T extends SPARQLResourceModel> T getByURI(Class<T> objectClass, URI uri) throws Exception {
@@ -245,18 +947,98 @@ public class SPARQLService implements SPARQLConnection, Service {
     }
 
     public <T extends SPARQLResourceModel> T loadByURI(Class<T> objectClass, URI uri) throws Exception {
-        SPARQLClassObjectMapper<T> sparqlObjectMapper = SPARQLClassObjectMapper.getForClass(objectClass);
-        SelectBuilder select = sparqlObjectMapper.getSelectBuilder();
+        SPARQLIdentityMap map = identityMap.get();
+        if (map == null) {
+            return loadByURIFromStore(objectClass, uri);
+        }
+
+        String expandedURI = SPARQLDeserializers.nodeURI(uri).getURI();
+        T instance = map.get(objectClass, expandedURI);
+        if (instance == null) {
+            instance = loadByURIFromStore(objectClass, uri);
+            if (instance != null) {
+                map.put(objectClass, expandedURI, instance);
+            }
+        }
+
+        return instance;
+    }
 
-        Node nodeURI = NodeFactory.createURI(uri.toString());
-//        select.setVar(sparqlObjectMapper.getURIFieldName(), nodeURI);
+    /**
+     * Load an instance by URI only reading the given fields, other single
+     * valued fields are left null. Partial instances are never cached nor
+     * added to the identity map.
+     *
+     * @param <T> object class
+     * @param objectClass object class
+     * @param uri instance URI
+     * @param fieldNames names of fields to load, all fields if null
+     * @return loaded instance or null if not found
+     * @throws Exception in case of error
+     */
+    public <T extends SPARQLResourceModel> T loadByURI(Class<T> objectClass, URI uri, Collection<String> fieldNames) throws Exception {
+        if (fieldNames == null) {
+            return loadByURI(objectClass, uri);
+        }
+
+        Node uriNode = SPARQLDeserializers.nodeURI(uri);
+        SPARQLIdentityMap map = identityMap.get();
+        if (map != null) {
+            T instance = map.get(objectClass, uriNode.getURI());
+            if (instance != null) {
+                return instance;
+            }
+        }
 
-        select.addValueVar(sparqlObjectMapper.getURIFieldExprVar(), SPARQLDeserializers.getForClass(URI.class).getNodeFromString(nodeURI.toString()));
+        SPARQLClassObjectMapper<T> sparqlObjectMapper = SPARQLClassObjectMapper.getForClass(objectClass);
+        SelectBuilder select = sparqlObjectMapper.getSelectBuilder(fieldNames, classHierarchy);
+        select.setVar(sparqlObjectMapper.getURIFieldVar(), uriNode);
 
         List<SPARQLResult> results = executeSelectQuery(select);
+        if (results.size() == 1) {
+            return sparqlObjectMapper.createInstance(results.get(0), this, null, fieldNames);
+        } else if (results.size() > 1) {
+            throw new SPARQLException("Multiple objects for the same URI: " + uri.toString());
+        } else {
+            return null;
+        }
+    }
+
+    /**
+     * Load an instance by URI without using the identity map, used when a
+     * fresh copy of stored data is required
+     *
+     * @param <T> object class
+     * @param objectClass object class
+     * @param uri instance URI
+     * @return loaded instance or null if not found
+     * @throws Exception in case of error
+     */
+    private <T extends SPARQLResourceModel> T loadByURIFromStore(Class<T> objectClass, URI uri) throws Exception {
+        SPARQLClassObjectMapper<T> sparqlObjectMapper = SPARQLClassObjectMapper.getForClass(objectClass);
+        Node uriNode = SPARQLDeserializers.nodeURI(uri);
+
+        SPARQLInstanceCache cache = instanceCache;
+        boolean useCache = sparqlObjectMapper.isCacheInstances() && !isTransactionActive();
+        long generation = 0;
+        if (useCache) {
+            generation = cache.getGeneration();
+            SPARQLResult cachedResult = cache.get(objectClass, uriNode.getURI());
+            if (cachedResult != null) {
+                return createInstanceForUpdate(sparqlObjectMapper, cachedResult, null);
+            }
+        }
+
+        String query = getQueryTemplate("loadByURI:" + objectClass.getName(), () -> sparqlObjectMapper.getSelectBuilder(classHierarchy));
+
+        Map<String, Node> bindings = Collections.singletonMap(sparqlObjectMapper.getURIFieldName(), uriNode);
+        List<SPARQLResult> results = executePreparedSelectQuery(query, bindings, null);
 
         if (results.size() == 1) {
-            return sparqlObjectMapper.createInstance(results.get(0), this);
+            if (useCache) {
+                cache.put(objectClass, uriNode.getURI(), results.get(0), generation);
+            }
+            return createInstanceForUpdate(sparqlObjectMapper, results.get(0), null);
         } else if (results.size() > 1) {
             throw new SPARQLException("Multiple objects for the same URI: " + uri.toString());
         } else {
@@ -264,9 +1046,96 @@ public class SPARQLService implements SPARQLConnection, Service {
         }
     }
 
+    /**
+     * Load all instances corresponding to the given URIs with a single query,
+     * instances found in the identity map or in the instance cache are not
+     * queried again
+     *
+     * @param <T> object class
+     * @param objectClass object class
+     * @param uris list of URIs to load
+     * @return list of found instances, unknown URIs are ignored
+     * @throws Exception in case of error
+     */
+    public <T extends SPARQLResourceModel> List<T> loadListByURIs(Class<T> objectClass, Collection<URI> uris) throws Exception {
+        List<T> resultList = new ArrayList<>();
+        if (uris.isEmpty()) {
+            return resultList;
+        }
+
+        SPARQLClassObjectMapper<T> sparqlObjectMapper = SPARQLClassObjectMapper.getForClass(objectClass);
+        SPARQLResourceBatchLoader batchLoader = new SPARQLResourceBatchLoader(this);
+
+        SPARQLInstanceCache cache = instanceCache;
+        boolean useCache = sparqlObjectMapper.isCacheInstances() && !isTransactionActive();
+        long generation = useCache ? cache.getGeneration() : 0;
+
+        SPARQLIdentityMap map = identityMap.get();
+        List<Node> uriNodes = new ArrayList<>(uris.size());
+        for (URI uri : uris) {
+            Node uriNode = SPARQLDeserializers.nodeURI(uri);
+            T instance = map == null ? null : map.get(objectClass, uriNode.getURI());
+            if (instance == null && useCache) {
+                SPARQLResult cachedResult = cache.get(objectClass, uriNode.getURI());
+                if (cachedResult != null) {
+                    instance = createInstanceForUpdate(sparqlObjectMapper, cachedResult, batchLoader);
+                    if (map != null) {
+                        map.put(objectClass, uriNode.getURI(), instance);
+                    }
+                }
+            }
+
+            if (instance != null) {
+                resultList.add(instance);
+            } else {
+                uriNodes.add(uriNode);
+            }
+        }
+
+        if (uriNodes.isEmpty()) {
+            return resultList;
+        }
+
+        SelectBuilder select = sparqlObjectMapper.getSelectBuilder(classHierarchy);
+        select.addValueVar(sparqlObjectMapper.getURIFieldExprVar(), uriNodes.toArray());
+
+        executeSelectQuery(select, ThrowingConsumer.wrap((SPARQLResult result) -> {
+            T instance = createInstanceForUpdate(sparqlObjectMapper, result, batchLoader);
+            String expandedURI = SPARQLDeserializers.nodeURI(instance.getUri()).getURI();
+            if (useCache) {
+                cache.put(objectClass, expandedURI, result, generation);
+            }
+            if (map != null) {
+                map.put(objectClass, expandedURI, instance);
+            }
+            resultList.add(instance);
+        }, Exception.class));
+
+        return resultList;
+    }
+
+    /**
+     * Create an instance recording its loaded values, used by single instance
+     * lookups which usually precede an update so it only writes changed
+     * fields, instances of searches are not recorded
+     *
+     * @param <T> object class
+     * @param sparqlObjectMapper object class mapper
+     * @param result loaded result row
+     * @param batchLoader batch loader shared by results of the same list, may
+     * be null
+     * @return created instance
+     * @throws Exception in case of error
+     */
+    private <T extends SPARQLResourceModel> T createInstanceForUpdate(SPARQLClassObjectMapper<T> sparqlObjectMapper, SPARQLResult result, SPARQLResourceBatchLoader batchLoader) throws Exception {
+        T instance = sparqlObjectMapper.createInstance(result, this, batchLoader);
+        sparqlObjectMapper.resetChanges(instance);
+        return instance;
+    }
+
     public <T extends SPARQLResourceModel> T getByUniquePropertyValue(Class<T> objectClass, Property property, Object propertyValue) throws Exception {
         SPARQLClassObjectMapper<T> sparqlObjectMapper = SPARQLClassObjectMapper.getForClass(objectClass);
-        SelectBuilder select = sparqlObjectMapper.getSelectBuilder();
+        SelectBuilder select = sparqlObjectMapper.getSelectBuilder(classHierarchy);
         Field field = sparqlObjectMapper.getFieldFromUniqueProperty(property);
 
         SPARQLDeserializer<?> deserializer = SPARQLDeserializers.getForClass(propertyValue.getClass());
@@ -277,7 +1146,7 @@ public class SPARQLService implements SPARQLConnection, Service {
         if (results.size() == 0) {
             return null;
         } else if (results.size() == 1) {
-            return sparqlObjectMapper.createInstance(results.get(0), this);
+            return createInstanceForUpdate(sparqlObjectMapper, results.get(0), null);
         } else {
             throw new SPARQLException("Multiple objects for some unique property");
         }
@@ -285,7 +1154,7 @@ public class SPARQLService implements SPARQLConnection, Service {
 
     public <T extends SPARQLResourceModel> boolean existsByUniquePropertyValue(Class<T> objectClass, Property property, Object propertyValue) throws Exception {
         SPARQLClassObjectMapper<T> sparqlObjectMapper = SPARQLClassObjectMapper.getForClass(objectClass);
-        AskBuilder ask = sparqlObjectMapper.getAskBuilder();
+        AskBuilder ask = sparqlObjectMapper.getAskBuilder(classHierarchy);
         Field field = sparqlObjectMapper.getFieldFromUniqueProperty(property);
         SPARQLDeserializer<?> deserializer = SPARQLDeserializers.getForClass(propertyValue.getClass());
         ask.setVar(field.getName(), deserializer.getNode(propertyValue));
@@ -310,11 +1179,65 @@ public class SPARQLService implements SPARQLConnection, Service {
     }
 
     public <T extends SPARQLResourceModel> List<T> search(Class<T> objectClass, ThrowingConsumer<SelectBuilder, Exception> filterHandler, List<OrderBy> orderByList, Integer page, Integer pageSize) throws Exception {
+        return search(objectClass, filterHandler, orderByList, page, pageSize, null);
+    }
+
+    /**
+     * Search instances only reading the given fields, other single valued
+     * fields are left null. Fields used for ordering are always read, fields
+     * used in filters must be either required or part of the projection.
+     *
+     * @param <T> object class
+     * @param objectClass object class
+     * @param filterHandler optional query filter
+     * @param orderByList optional order
+     * @param page page number
+     * @param pageSize page size
+     * @param fieldNames names of fields to read, all fields if null
+     * @return list of instances
+     * @throws SPARQLInvalidProjectionException if an optional field out of
+     * the projection is filtered
+     * @throws Exception in case of error
+     * @see SPARQLClassObjectMapper#getProjection(Class, Collection)
+     */
+    public <T extends SPARQLResourceModel> List<T> search(Class<T> objectClass, ThrowingConsumer<SelectBuilder, Exception> filterHandler, List<OrderBy> orderByList, Integer page, Integer pageSize, Collection<String> fieldNames) throws Exception {
         SPARQLClassObjectMapper<T> sparqlObjectMapper = SPARQLClassObjectMapper.getForClass(objectClass);
-        SelectBuilder select = sparqlObjectMapper.getSelectBuilder();
+        SelectBuilder select = getSearchSelectBuilder(sparqlObjectMapper, filterHandler, orderByList, fieldNames);
+
+        if (page == null || page < 0) {
+            page = 0;
+        }
+
+        if (pageSize != null && pageSize > 0) {
+            select.setOffset(page * pageSize);
+            select.setLimit(pageSize);
+        }
+
+        List<T> resultList = new ArrayList<>();
+        SPARQLResourceBatchLoader batchLoader = new SPARQLResourceBatchLoader(this);
+        executeSelectQuery(select, ThrowingConsumer.wrap((SPARQLResult result) -> {
+            resultList.add(sparqlObjectMapper.createInstance(result, this, batchLoader, fieldNames));
+        }, Exception.class));
+
+        return resultList;
+    }
+
+    private <T extends SPARQLResourceModel> SelectBuilder getSearchSelectBuilder(SPARQLClassObjectMapper<T> sparqlObjectMapper, ThrowingConsumer<SelectBuilder, Exception> filterHandler, List<OrderBy> orderByList, Collection<String> fieldNames) throws Exception {
+        if (fieldNames != null && orderByList != null) {
+            // Order fields must be bound to be sorted on
+            Set<String> projection = new HashSet<>(fieldNames);
+            for (OrderBy orderBy : orderByList) {
+                projection.add(orderBy.getFieldName());
+            }
+            fieldNames = projection;
+        }
+        SelectBuilder select = sparqlObjectMapper.getSelectBuilder(fieldNames, classHierarchy);
 
         if (filterHandler != null) {
             filterHandler.accept(select);
+            if (fieldNames != null) {
+                checkFilteredFields(sparqlObjectMapper, select, fieldNames);
+            }
         }
 
         if (orderByList != null) {
@@ -324,53 +1247,565 @@ public class SPARQLService implements SPARQLConnection, Service {
             }, SPARQLUnknownFieldException.class));
         }
 
-        if (page == null || page < 0) {
-            page = 0;
+        return select;
+    }
+
+    /**
+     * Reject filters on optional fields out of the projection, these fields
+     * are not matched so filters would exclude all instances
+     */
+    private static <T extends SPARQLResourceModel> void checkFilteredFields(SPARQLClassObjectMapper<T> sparqlObjectMapper, SelectBuilder select, Collection<String> fieldNames) throws SPARQLInvalidProjectionException {
+        Set<String> unmatchedFields = sparqlObjectMapper.getUnmatchedFields(fieldNames);
+        if (unmatchedFields.isEmpty()) {
+            return;
         }
 
-        if (pageSize != null && pageSize > 0) {
-            select.setOffset(page * pageSize);
-            select.setLimit(pageSize);
+        Set<String> filteredVarNames = new HashSet<>();
+        ElementWalker.walk(select.getWhereHandler().getClause(), new ElementVisitorBase() {
+            @Override
+            public void visit(ElementFilter el) {
+                for (Var var : el.getExpr().getVarsMentioned()) {
+                    filteredVarNames.add(var.getVarName());
+                }
+            }
+        });
+
+        for (String varName : filteredVarNames) {
+            if (unmatchedFields.contains(varName)) {
+                throw new SPARQLInvalidProjectionException(sparqlObjectMapper.getObjectClass(), varName);
+            }
         }
+    }
 
-        List<T> resultList = new ArrayList<>();
-        executeSelectQuery(select, ThrowingConsumer.wrap((SPARQLResult result) -> {
-            resultList.add(sparqlObjectMapper.createInstance(result, this));
-        }, Exception.class));
+    public <T extends SPARQLResourceModel> Stream<T> stream(Class<T> objectClass) throws Exception {
+        return stream(objectClass, null, null);
+    }
 
-        return resultList;
+    /**
+     * Search instances as a lazy stream, results are read from the
+     * triplestore while the stream is consumed and never kept in memory.
+     *
+     * Instances are materialized by chunks of
+     * {@link #DEFAULT_STREAM_CHUNK_SIZE} sharing a batch loader, so their
+     * references and lists are loaded with one query by chunk.
+     *
+     * The returned stream MUST be closed (ie: with a try-with-resources): until
+     * then the underlying connection stays borrowed from the pool.
+     *
+     * @param <T> object class
+     * @param objectClass object class
+     * @param filterHandler optional query filter
+     * @param orderByList optional order
+     * @return stream of instances
+     * @throws Exception in case of error
+     */
+    public <T extends SPARQLResourceModel> Stream<T> stream(Class<T> objectClass, ThrowingConsumer<SelectBuilder, Exception> filterHandler, List<OrderBy> orderByList) throws Exception {
+        SPARQLClassObjectMapper<T> sparqlObjectMapper = SPARQLClassObjectMapper.getForClass(objectClass);
+        SelectBuilder select = getSearchSelectBuilder(sparqlObjectMapper, filterHandler, orderByList, null);
+
+        Stream<SPARQLResult> results = executeSelectQueryAsStream(select);
+        Iterator<SPARQLResult> resultIterator = results.iterator();
+
+        Iterator<T> instanceIterator = new Iterator<T>() {
+            private List<T> chunk = Collections.emptyList();
+
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                if (index >= chunk.size() && resultIterator.hasNext()) {
+                    loadChunk();
+                }
+                return index < chunk.size();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return chunk.get(index++);
+            }
+
+            private void loadChunk() {
+                chunk = new ArrayList<>(DEFAULT_STREAM_CHUNK_SIZE);
+                index = 0;
+                SPARQLResourceBatchLoader batchLoader = new SPARQLResourceBatchLoader(SPARQLService.this);
+                while (chunk.size() < DEFAULT_STREAM_CHUNK_SIZE && resultIterator.hasNext()) {
+                    try {
+                        chunk.add(sparqlObjectMapper.createInstance(resultIterator.next(), SPARQLService.this, batchLoader));
+                    } catch (Exception ex) {
+                        throw new RuntimeException("Error while creating instance of: " + objectClass.getName(), ex);
+                    }
+                }
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(instanceIterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(results::close);
     }
 
+    /**
+     * Count instances matching the filter, counts are cached until a write
+     * to the class graph occurs or the cache entry expires
+     *
+     * @param <T> object class
+     * @param objectClass object class
+     * @param filterHandler optional query filter
+     * @return instance count
+     * @throws Exception in case of error
+     */
     public <T extends SPARQLResourceModel> int count(Class<T> objectClass, ThrowingConsumer<SelectBuilder, Exception> filterHandler) throws Exception {
+        return executeCount(getCountSelectBuilder(objectClass, filterHandler), !isTransactionActive());
+    }
+
+    private <T extends SPARQLResourceModel> SelectBuilder getCountSelectBuilder(Class<T> objectClass, ThrowingConsumer<SelectBuilder, Exception> filterHandler) throws Exception {
         SPARQLClassObjectMapper<T> sparqlObjectMapper = SPARQLClassObjectMapper.getForClass(objectClass);
-        SelectBuilder selectCount = sparqlObjectMapper.getCountBuilder("count");
+        SelectBuilder selectCount = sparqlObjectMapper.getCountBuilder("count", classHierarchy);
 
         if (filterHandler != null) {
             filterHandler.accept(selectCount);
         }
+        addPrefixes(selectCount);
 
-        List<SPARQLResult> resultSet = executeSelectQuery(selectCount);
+        return selectCount;
+    }
+
+    /**
+     * Execute a count query, its string is built once and used as cache key
+     *
+     * @param selectCount count query
+     * @param cacheAllowed false if count cache must not be used
+     * @return instance count
+     * @throws Exception in case of error
+     */
+    private int executeCount(SelectBuilder selectCount, boolean cacheAllowed) throws Exception {
+        Query query = selectCount.build();
+        String queryString = query.toString();
+
+        SPARQLCountCache cache = countCache;
+        boolean useCache = cacheAllowed && cache.isEnabled();
+        long generation = 0;
+        if (useCache) {
+            generation = cache.getGeneration();
+            Integer cachedCount = cache.get(queryString);
+            if (cachedCount != null) {
+                return cachedCount;
+            }
+        }
+
+        List<SPARQLResult> resultSet = executeSelectQuery(queryString, null);
 
         if (resultSet.size() == 1) {
-            return Integer.valueOf(resultSet.get(0).getStringValue("count"));
+            int count = resultSet.get(0).getInt("count");
+            if (useCache) {
+                cache.put(SPARQLQueryHelper.getReadGraphs(query.getQueryPattern()), queryString, count, generation);
+            }
+            return count;
         } else {
             throw new SPARQLException("Invalid count query");
         }
     }
 
+    /**
+     * <pre>
+     * Return a query element restricting instances to those with one of the
+     * given fields matching the search pattern.
+     *
+     * Text patterns are answered by in memory full text indexes of the fields
+     * (see {@link SPARQLTextIndex} for query syntax) and give a VALUES
+     * element of matching URIs. Plain patterns keep the semantic of the case
+     * insensitive regex FILTER, patterns ending with "~" are token queries.
+     * Indexes are built on first search, values of resources written since
+     * are reloaded on next search.
+     *
+     * Regular expressions patterns, searches during a transaction, with
+     * disabled indexes or matching more than the maximum number of matches
+     * give a case insensitive regex FILTER element. Above this maximum token
+     * queries are approximated by filters on each token.
+     * </pre>
+     *
+     * @param <T> object class
+     * @param objectClass object class
+     * @param pattern search pattern
+     * @param fieldNames searched data property fields
+     * @return query element to add to search query, null if pattern is empty
+     * @throws Exception in case of error
+     * @see SPARQLQueryHelper#addWhere(SelectBuilder, Element)
+     * @see #setTextIndex(boolean, int)
+     */
+    public <T extends SPARQLResourceModel> Element getTextSearch(Class<T> objectClass, String pattern, String... fieldNames) throws Exception {
+        if (pattern == null || pattern.isEmpty()) {
+            return null;
+        }
+
+        SPARQLClassObjectMapper<T> sparqlObjectMapper = SPARQLClassObjectMapper.getForClass(objectClass);
+        SPARQLTextIndexCache cache = textIndexCache;
+        if (!cache.isEnabled() || isTransactionActive() || !SPARQLTextIndex.isTextQuery(pattern)) {
+            return getRegexSearch(pattern, fieldNames);
+        }
+
+        Set<String> uris = new HashSet<>();
+        for (String fieldName : fieldNames) {
+            uris.addAll(getTextIndex(sparqlObjectMapper, fieldName, cache).search(pattern));
+        }
+
+        if (uris.size() > cache.getMaxMatches()) {
+            LOGGER.debug("SPARQL text search of " + objectClass.getName() + " matches " + uris.size() + " resources, use regex filter instead");
+            if (SPARQLTextIndex.isTokenQuery(pattern)) {
+                return getTokensRegexSearch(pattern, fieldNames);
+            }
+            return getRegexSearch(pattern, fieldNames);
+        }
+
+        Var uriVar = sparqlObjectMapper.getURIFieldVar();
+        ElementData data = new ElementData();
+        data.add(uriVar);
+        for (String uri : uris) {
+            data.add(BindingFactory.binding(uriVar, NodeFactory.createURI(uri)));
+        }
+        return data;
+    }
+
+    private static Element getRegexSearch(String pattern, String... fieldNames) {
+        Expr[] filters = new Expr[fieldNames.length];
+        for (int i = 0; i < fieldNames.length; i++) {
+            filters[i] = SPARQLQueryHelper.regexFilter(fieldNames[i], pattern);
+        }
+        return new ElementFilter(SPARQLQueryHelper.or(filters));
+    }
+
+    /**
+     * Return a filter matching values containing each token of a token query
+     */
+    private static Element getTokensRegexSearch(String pattern, String... fieldNames) {
+        List<String> tokens = SPARQLTextIndex.tokenize(pattern.replace(String.valueOf(SPARQLTextIndex.FUZZY_SUFFIX), " "));
+        Expr[] filters = new Expr[fieldNames.length];
+        for (int i = 0; i < fieldNames.length; i++) {
+            Expr[] tokenFilters = new Expr[tokens.size()];
+            for (int j = 0; j < tokens.size(); j++) {
+                tokenFilters[j] = SPARQLQueryHelper.regexFilter(fieldNames[i], tokens.get(j));
+            }
+            filters[i] = SPARQLQueryHelper.and(tokenFilters);
+        }
+        return new ElementFilter(SPARQLQueryHelper.or(filters));
+    }
+
+    private <T extends SPARQLResourceModel> SPARQLTextIndex getTextIndex(SPARQLClassObjectMapper<T> sparqlObjectMapper, String fieldName, SPARQLTextIndexCache cache) throws Exception {
+        String cacheKey = sparqlObjectMapper.getObjectClass().getName() + "#" + fieldName;
+        SPARQLTextIndex index = cache.get(cacheKey);
+        if (index != null) {
+            refreshTextIndex(sparqlObjectMapper, fieldName, index);
+            return index;
+        }
+
+        long generation = cache.getGeneration();
+        Var uriVar = sparqlObjectMapper.getURIFieldVar();
+        Var valueVar = makeVar("value");
+
+        SPARQLTextIndex newIndex = new SPARQLTextIndex();
+        executeSelectQuery(getTextIndexSelect(sparqlObjectMapper, fieldName, valueVar, null), (SPARQLResult result) -> {
+            newIndex.add(result.getStringValue(uriVar.getName()), result.getStringValue(valueVar.getName()));
+        });
+        LOGGER.debug("SPARQL text index built for " + cacheKey + " with " + newIndex.size() + " tokens");
+
+        cache.put(sparqlObjectMapper.getDefaultGraph(), cacheKey, newIndex, generation);
+        return newIndex;
+    }
+
+    /**
+     * Reload indexed values of resources written since last search
+     */
+    private <T extends SPARQLResourceModel> void refreshTextIndex(SPARQLClassObjectMapper<T> sparqlObjectMapper, String fieldName, SPARQLTextIndex index) throws Exception {
+        // Concurrent searches wait for refreshed values
+        synchronized (index) {
+            Set<String> staleURIs = index.takeStaleURIs();
+            if (staleURIs.isEmpty()) {
+                return;
+            }
+
+            Var uriVar = sparqlObjectMapper.getURIFieldVar();
+            Var valueVar = makeVar("value");
+            Map<String, List<String>> valuesByURI = new HashMap<>();
+            for (String uri : staleURIs) {
+                valuesByURI.put(uri, new ArrayList<>());
+            }
+
+            try {
+                executeSelectQuery(getTextIndexSelect(sparqlObjectMapper, fieldName, valueVar, staleURIs), (SPARQLResult result) -> {
+                    valuesByURI.computeIfAbsent(result.getStringValue(uriVar.getName()), (String key) -> new ArrayList<>()).add(result.getStringValue(valueVar.getName()));
+                });
+            } catch (Exception ex) {
+                index.markStale(staleURIs);
+                throw ex;
+            }
+
+            valuesByURI.forEach(index::replace);
+            LOGGER.debug("SPARQL text index refreshed for " + staleURIs.size() + " resources");
+        }
+    }
+
+    /**
+     * Return a query selecting values of a field
+     *
+     * @param uris URIs of selected resources, null for all resources
+     */
+    private <T extends SPARQLResourceModel> SelectBuilder getTextIndexSelect(SPARQLClassObjectMapper<T> sparqlObjectMapper, String fieldName, Var valueVar, Set<String> uris) throws Exception {
+        Property property = sparqlObjectMapper.getFieldDataProperty(fieldName);
+        Var uriVar = sparqlObjectMapper.getURIFieldVar();
+
+        SelectBuilder select = new SelectBuilder();
+        select.addVar(uriVar);
+        select.addVar(valueVar);
+        WhereHandler rootWhereHandler = new WhereHandler();
+        if (uris != null) {
+            ElementData data = new ElementData();
+            data.add(uriVar);
+            for (String uri : uris) {
+                data.add(BindingFactory.binding(uriVar, NodeFactory.createURI(uri)));
+            }
+            rootWhereHandler.getClause().addElement(data);
+        }
+        rootWhereHandler.addWhere(select.makeTriplePath(uriVar, RDF.type, SPARQLQueryHelper.typeDefVar));
+        rootWhereHandler.getClause().addElement(classHierarchy.getSubClassOfElement(SPARQLQueryHelper.typeDefVar, sparqlObjectMapper.getRDFType().asNode()));
+        rootWhereHandler.addWhere(select.makeTriplePath(uriVar, property, valueVar));
+
+        Node graph = sparqlObjectMapper.getDefaultGraph();
+        if (graph != null) {
+            select.getWhereHandler().getClause().addElement(new ElementNamedGraph(graph, rootWhereHandler.getElement()));
+        } else {
+            select.getHandlerBlock().addAll(rootWhereHandler);
+        }
+
+        return select;
+    }
+
+    /**
+     * Run count in background, count is run in current thread if a
+     * transaction is active. Count query is built in current thread, filter
+     * handler is never called concurrently nor out of request thread.
+     */
+    private <T extends SPARQLResourceModel> Future<Integer> countAsync(Class<T> objectClass, ThrowingConsumer<SelectBuilder, Exception> filterHandler) throws Exception {
+        if (isTransactionActive()) {
+            return CompletableFuture.completedFuture(count(objectClass, filterHandler));
+        }
+
+        SelectBuilder selectCount = getCountSelectBuilder(objectClass, filterHandler);
+        return getCountExecutor().submit(() -> {
+            return executeCount(selectCount, true);
+        });
+    }
+
+    private static int getCount(Future<Integer> countFuture) throws Exception {
+        try {
+            return countFuture.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof Exception) {
+                throw (Exception) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
     public <T extends SPARQLResourceModel> ListWithPagination<T> searchWithPagination(Class<T> objectClass, ThrowingConsumer<SelectBuilder, Exception> filterHandler, List<OrderBy> orderByList, Integer page, Integer pageSize) throws Exception {
-        int total = count(objectClass, filterHandler);
+        return searchWithPagination(objectClass, filterHandler, orderByList, page, pageSize, null, true);
+    }
+
+    public <T extends SPARQLResourceModel> ListWithPagination<T> searchWithPagination(Class<T> objectClass, ThrowingConsumer<SelectBuilder, Exception> filterHandler, List<OrderBy> orderByList, Integer page, Integer pageSize, String cursor) throws Exception {
+        return searchWithPagination(objectClass, filterHandler, orderByList, page, pageSize, cursor, true);
+    }
+
+    /**
+     * Search a page of instances, the page is selected with the cursor if
+     * given, with the page number otherwise.
+     *
+     * A cursor of the next page is returned if more results are available, it
+     * selects next results with a filter on the order values of the last row
+     * instead of an offset, making deep pages as fast as the first one.
+     *
+     * If total count is requested, count query runs concurrently with page
+     * query, otherwise total is a lower bound estimate and only
+     * {@link ListWithPagination#hasMore()} is reliable.
+     *
+     * @param <T> object class
+     * @param objectClass object class
+     * @param filterHandler optional query filter
+     * @param orderByList optional order
+     * @param page page number, ignored if cursor is given
+     * @param pageSize page size
+     * @param cursor optional cursor returned by a previous search with the
+     * same filter and order
+     * @param countTotal if false skip count query
+     * @return paginated list
+     * @throws Exception in case of error
+     */
+    public <T extends SPARQLResourceModel> ListWithPagination<T> searchWithPagination(Class<T> objectClass, ThrowingConsumer<SelectBuilder, Exception> filterHandler, List<OrderBy> orderByList, Integer page, Integer pageSize, String cursor, boolean countTotal) throws Exception {
+        return searchWithPagination(objectClass, filterHandler, orderByList, page, pageSize, cursor, countTotal, null);
+    }
+
+    /**
+     * Search a page of instances only reading the given fields
+     *
+     * @param <T> object class
+     * @param objectClass object class
+     * @param filterHandler optional query filter
+     * @param orderByList optional order
+     * @param page page number, ignored if cursor is given
+     * @param pageSize page size
+     * @param cursor optional cursor returned by a previous search with the
+     * same filter and order
+     * @param countTotal if false skip count query
+     * @param fieldNames names of fields to read, all fields if null
+     * @return paginated list
+     * @throws Exception in case of error
+     * @see #search(Class, ThrowingConsumer, List, Integer, Integer, Collection)
+     */
+    public <T extends SPARQLResourceModel> ListWithPagination<T> searchWithPagination(Class<T> objectClass, ThrowingConsumer<SelectBuilder, Exception> filterHandler, List<OrderBy> orderByList, Integer page, Integer pageSize, String cursor, boolean countTotal, Collection<String> fieldNames) throws Exception {
+        if (page == null || page < 0) {
+            page = 0;
+        }
 
-        List<T> list;
         if (pageSize == null || pageSize == 0) {
-            list = search(objectClass, filterHandler, orderByList);
-        } else if (total > 0 && (page * pageSize) < total) {
-            list = search(objectClass, filterHandler, orderByList, page, pageSize);
+            Future<Integer> total = countTotal ? countAsync(objectClass, filterHandler) : null;
+            List<T> list = search(objectClass, filterHandler, orderByList, null, null, fieldNames);
+            return new ListWithPagination<T>(list, page, pageSize, countTotal ? getCount(total) : list.size());
+        }
+
+        Future<Integer> total = countTotal ? countAsync(objectClass, filterHandler) : null;
+        ListWithPagination<T> result;
+        try {
+            result = searchPage(objectClass, filterHandler, orderByList, page, pageSize, cursor, fieldNames);
+        } catch (Exception ex) {
+            if (total != null) {
+                total.cancel(true);
+            }
+            throw ex;
+        }
+
+        if (countTotal) {
+            return new ListWithPagination<T>(result.getList(), page, pageSize, getCount(total), result.getNextCursor(), result.hasMore());
+        } else {
+            return result;
+        }
+    }
+
+    /**
+     * Search a page, one more result than page size is requested to know if
+     * more results are available. Returned total is a lower bound estimate.
+     */
+    private <T extends SPARQLResourceModel> ListWithPagination<T> searchPage(Class<T> objectClass, ThrowingConsumer<SelectBuilder, Exception> filterHandler, List<OrderBy> orderByList, int page, int pageSize, String cursor, Collection<String> fieldNames) throws Exception {
+        SPARQLClassObjectMapper<T> sparqlObjectMapper = SPARQLClassObjectMapper.getForClass(objectClass);
+        SelectBuilder select = getSearchSelectBuilder(sparqlObjectMapper, filterHandler, orderByList, fieldNames);
+
+        // URI is always the last order key to get a total order
+        ExprVar uriExprVar = new ExprVar(sparqlObjectMapper.getURIFieldName());
+        select.addOrderBy(new E_Str(uriExprVar), Order.ASCENDING);
+
+        String orderSignature = SPARQLPageCursor.getOrderSignature(orderByList);
+        int offset = 0;
+        if (cursor != null) {
+            SPARQLPageCursor pageCursor = SPARQLPageCursor.decode(cursor);
+            if (!orderSignature.equals(pageCursor.getOrderSignature())) {
+                throw new SPARQLInvalidCursorException(cursor);
+            }
+            select.addFilter(getCursorFilter(sparqlObjectMapper, orderByList, pageCursor, cursor));
         } else {
-            list = new ArrayList<T>();
+            offset = page * pageSize;
+            select.setOffset(offset);
+        }
+        select.setLimit(pageSize + 1);
+
+        List<T> list = new ArrayList<>();
+        List<SPARQLResult> lastResult = new ArrayList<>(1);
+        SPARQLResourceBatchLoader batchLoader = new SPARQLResourceBatchLoader(this);
+        AtomicInteger resultCount = new AtomicInteger();
+        executeSelectQuery(select, ThrowingConsumer.wrap((SPARQLResult result) -> {
+            if (resultCount.incrementAndGet() <= pageSize) {
+                list.add(sparqlObjectMapper.createInstance(result, this, batchLoader, fieldNames));
+                lastResult.clear();
+                lastResult.add(result);
+            }
+        }, Exception.class));
+
+        boolean hasMore = resultCount.get() > pageSize;
+        String nextCursor = null;
+        if (hasMore && lastResult.size() == 1) {
+            SPARQLResult result = lastResult.get(0);
+            List<Node> values = new ArrayList<>();
+            if (orderByList != null) {
+                for (OrderBy orderBy : orderByList) {
+                    values.add(sparqlObjectMapper.getFieldOrderValue(orderBy.getFieldName(), result));
+                }
+            }
+            values.add(NodeFactory.createLiteral(result.getURI(sparqlObjectMapper.getURIFieldName()).toString()));
+            nextCursor = new SPARQLPageCursor(orderSignature, values).encode();
         }
 
-        return new ListWithPagination<T>(list, page, pageSize, total);
+        int estimatedTotal = offset + list.size() + (hasMore ? 1 : 0);
+        return new ListWithPagination<T>(list, page, pageSize, estimatedTotal, nextCursor, hasMore);
+    }
+
+    /**
+     * Build the filter selecting rows after the cursor:
+     * (k1 after v1) || (k1 = v1 &amp;&amp; k2 after v2) || ... || (k1 = v1 &amp;&amp; ... &amp;&amp; STR(uri) &gt; lastURI)
+     *
+     * Unbound values are ordered first in ascending order and last in
+     * descending order. String values are compared with STR() so lang tagged
+     * literals are compared on their lexical form.
+     */
+    private <T extends SPARQLResourceModel> Expr getCursorFilter(SPARQLClassObjectMapper<T> sparqlObjectMapper, List<OrderBy> orderByList, SPARQLPageCursor pageCursor, String cursor) throws Exception {
+        List<Node> values = pageCursor.getValues();
+        int orderSize = orderByList == null ? 0 : orderByList.size();
+        if (values.size() != orderSize + 1) {
+            throw new SPARQLInvalidCursorException(cursor);
+        }
+
+        List<Expr> filters = new ArrayList<>();
+        List<Expr> previousEquals = new ArrayList<>();
+        for (int i = 0; i < orderSize; i++) {
+            OrderBy orderBy = orderByList.get(i);
+            ExprVar fieldVar = sparqlObjectMapper.getFieldExprVar(orderBy.getFieldName());
+            Expr fieldExpr = sparqlObjectMapper.getFieldOrderExpr(orderBy.getFieldName());
+            Node value = values.get(i);
+            boolean ascending = orderBy.getOrder() == Order.ASCENDING;
+
+            Expr afterExpr;
+            Expr equalsExpr;
+            if (value == null) {
+                afterExpr = ascending ? new E_Bound(fieldVar) : null;
+                equalsExpr = new E_LogicalNot(new E_Bound(fieldVar));
+            } else {
+                Expr valueExpr;
+                if (value.isURI()) {
+                    fieldExpr = new E_Str(fieldExpr);
+                    valueExpr = NodeValue.makeString(value.getURI());
+                } else if (XSDDatatype.XSDstring.getURI().equals(value.getLiteralDatatypeURI())) {
+                    // Compare lexical forms, lang tagged literals can't be compared to simple ones
+                    fieldExpr = new E_Str(fieldExpr);
+                    valueExpr = NodeValue.makeString(value.getLiteralLexicalForm());
+                } else {
+                    valueExpr = NodeValue.makeNode(value);
+                }
+                if (ascending) {
+                    afterExpr = new E_GreaterThan(fieldExpr, valueExpr);
+                } else {
+                    afterExpr = new E_LogicalOr(new E_LessThan(fieldExpr, valueExpr), new E_LogicalNot(new E_Bound(fieldVar)));
+                }
+                equalsExpr = new E_Equals(fieldExpr, valueExpr);
+            }
+
+            if (afterExpr != null) {
+                previousEquals.add(afterExpr);
+                filters.add(SPARQLQueryHelper.and(previousEquals.toArray(new Expr[previousEquals.size()])));
+                previousEquals.remove(previousEquals.size() - 1);
+            }
+            previousEquals.add(equalsExpr);
+        }
+
+        previousEquals.add(new E_GreaterThan(new E_Str(new ExprVar(sparqlObjectMapper.getURIFieldName())), NodeValue.makeNode(values.get(orderSize))));
+        filters.add(SPARQLQueryHelper.and(previousEquals.toArray(new Expr[previousEquals.size()])));
+
+        return SPARQLQueryHelper.or(filters.toArray(new Expr[filters.size()]));
     }
 
     public <T extends SPARQLResourceModel> void create(T instance) throws Exception {
@@ -380,20 +1815,217 @@ public class SPARQLService implements SPARQLConnection, Service {
         generateUniqueUriIfNullOrValidateCurrent(sparqlObjectMapper, instance);
 
         UpdateBuilder create = sparqlObjectMapper.getCreateBuilder(instance);
+        Set<String> writtenURIs = new HashSet<>();
+        sparqlObjectMapper.addWrittenURIs(instance, writtenURIs);
 
-        executeUpdateQuery(create);
+        executeUpdateQuery(create, sparqlObjectMapper.getDefaultGraph(), writtenURIs);
     }
 
     public <T extends SPARQLResourceModel> void create(List<T> instances) throws Exception {
-        UpdateBuilder create = new UpdateBuilder();
+        create(instances, DEFAULT_BULK_CHUNK_SIZE, null);
+    }
+
+    /**
+     * <pre>
+     * Create a list of instances.
+     *
+     * URIs of all instances are checked with a few existence queries, missing
+     * URIs are generated and collisions are regenerated in memory.
+     * Instances are then inserted by chunks in a single transaction (or in the
+     * current one if any).
+     * </pre>
+     *
+     * @param <T> object class
+     * @param instances instances to create
+     * @param chunkSize maximum number of instances inserted by a single query
+     * @param progressHandler called after each chunk with the number of created
+     * instances and the total number of instances, may be null
+     * @throws Exception in case of error, nothing is created
+     */
+    public <T extends SPARQLResourceModel> void create(List<T> instances, int chunkSize, BiConsumer<Integer, Integer> progressHandler) throws Exception {
+        if (instances.isEmpty()) {
+            return;
+        }
+
+        // Generated URIs are reset on failure to not reuse them on retry
+        List<T> instancesWithoutURI = new ArrayList<>();
+        for (T instance : instances) {
+            if (instance.getUri() == null) {
+                instancesWithoutURI.add(instance);
+            }
+        }
+
+        boolean ownTransaction = false;
+        try {
+            generateUniqueUrisIfNullOrValidateCurrent(instances);
+
+            ownTransaction = !isTransactionActive();
+            if (ownTransaction) {
+                startTransaction();
+            }
+
+            int total = instances.size();
+            int size = Math.max(1, chunkSize);
+            int created = 0;
+            while (created < total) {
+                int chunkEnd = Math.min(created + size, total);
+                UpdateBuilder create = new UpdateBuilder();
+                Set<String> writtenURIs = new HashSet<>();
+                Set<Node> graphs = new HashSet<>();
+                for (T instance : instances.subList(created, chunkEnd)) {
+                    @SuppressWarnings("unchecked")
+                    SPARQLClassObjectMapper<T> sparqlObjectMapper = SPARQLClassObjectMapper.getForClass((Class<T>) instance.getClass());
+                    sparqlObjectMapper.addCreateBuilder(instance, create);
+                    sparqlObjectMapper.addWrittenURIs(instance, writtenURIs);
+                    graphs.add(sparqlObjectMapper.getDefaultGraph());
+                }
+
+                // Instances of classes stored in different graphs invalidate all counts
+                Node graph = graphs.size() == 1 ? graphs.iterator().next() : null;
+                executeUpdateQuery(create, graph, writtenURIs);
+
+                created = chunkEnd;
+                LOGGER.debug("SPARQL BULK CREATE: " + created + "/" + total);
+                if (progressHandler != null) {
+                    progressHandler.accept(created, total);
+                }
+            }
+
+            if (ownTransaction) {
+                ownTransaction = false;
+                commitTransaction();
+            }
+        } catch (Exception ex) {
+            if (ownTransaction) {
+                rollbackTransaction();
+            }
+            for (T instance : instancesWithoutURI) {
+                @SuppressWarnings("unchecked")
+                SPARQLClassObjectMapper<T> sparqlObjectMapper = SPARQLClassObjectMapper.getForClass((Class<T>) instance.getClass());
+                sparqlObjectMapper.setUri(instance, null);
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Generate missing URIs and check that all URIs are unique in the list
+     * and don't exist yet
+     *
+     * @param <T> object class
+     * @param instances instances to check
+     * @throws SPARQLAlreadyExistingUriException if a given URI already exists
+     * or is used twice
+     * @throws Exception in case of error
+     */
+    private <T extends SPARQLResourceModel> void generateUniqueUrisIfNullOrValidateCurrent(List<T> instances) throws Exception {
+        Set<String> assignedURIs = new HashSet<>();
+        // Next retry count of instances with generated URIs
+        Map<T, Integer> retries = new IdentityHashMap<>();
+
         for (T instance : instances) {
             @SuppressWarnings("unchecked")
             SPARQLClassObjectMapper<T> sparqlObjectMapper = SPARQLClassObjectMapper.getForClass((Class<T>) instance.getClass());
-            generateUniqueUriIfNullOrValidateCurrent(sparqlObjectMapper, instance);
-            sparqlObjectMapper.addCreateBuilder(instance, create);
+            URI uri = sparqlObjectMapper.getURI(instance);
+            if (uri == null) {
+                retries.put(instance, 0);
+                generateUniqueUri(sparqlObjectMapper, instance, retries, assignedURIs);
+            } else if (!assignedURIs.add(SPARQLDeserializers.nodeURI(uri).getURI())) {
+                throw new SPARQLAlreadyExistingUriException(uri);
+            }
+        }
+
+        List<T> pendingInstances = instances;
+        while (!pendingInstances.isEmpty()) {
+            Set<String> existingURIs = getExistingURIs(pendingInstances);
+
+            List<T> collidingInstances = new ArrayList<>();
+            for (T instance : pendingInstances) {
+                URI uri = instance.getUri();
+                if (existingURIs.contains(SPARQLDeserializers.nodeURI(uri).getURI())) {
+                    if (!retries.containsKey(instance)) {
+                        throw new SPARQLAlreadyExistingUriException(uri);
+                    }
+                    collidingInstances.add(instance);
+                }
+            }
+
+            for (T instance : collidingInstances) {
+                @SuppressWarnings("unchecked")
+                SPARQLClassObjectMapper<T> sparqlObjectMapper = SPARQLClassObjectMapper.getForClass((Class<T>) instance.getClass());
+                generateUniqueUri(sparqlObjectMapper, instance, retries, assignedURIs);
+            }
+
+            pendingInstances = collidingInstances;
+        }
+    }
+
+    private <T extends SPARQLResourceModel> void generateUniqueUri(SPARQLClassObjectMapper<T> sparqlObjectMapper, T instance, Map<T, Integer> retries, Set<String> assignedURIs) throws Exception {
+        URIGenerator<T> uriGenerator = sparqlObjectMapper.getUriGenerator(instance);
+        String graphPrefix = sparqlObjectMapper.getDefaultGraph().toString();
+
+        int retry = retries.get(instance);
+        URI uri = uriGenerator.generateURI(graphPrefix, instance, retry);
+        while (!assignedURIs.add(SPARQLDeserializers.nodeURI(uri).getURI())) {
+            uri = uriGenerator.generateURI(graphPrefix, instance, ++retry);
+        }
+
+        retries.put(instance, retry + 1);
+        sparqlObjectMapper.setUri(instance, uri);
+    }
+
+    /**
+     * Return URIs of the given instances already used as subject or object
+     *
+     * @param <T> object class
+     * @param instances instances to check
+     * @return set of existing expanded URIs
+     * @throws Exception in case of error
+     */
+    private <T extends SPARQLResourceModel> Set<String> getExistingURIs(List<T> instances) throws Exception {
+        Set<String> existingURIs = new HashSet<>();
+        Var uriVar = makeVar(SPARQLResourceModel.URI_FIELD);
+
+        for (int start = 0; start < instances.size(); start += URI_CHECK_BATCH_SIZE) {
+            List<T> batch = instances.subList(start, Math.min(start + URI_CHECK_BATCH_SIZE, instances.size()));
+            List<Node> uriNodes = new ArrayList<>(batch.size());
+            for (T instance : batch) {
+                uriNodes.add(SPARQLDeserializers.nodeURI(instance.getUri()));
+            }
+
+            // URIs are bound in each branch, a VALUES outside of the UNION
+            // would be joined after evaluating both branches on all triples
+            ElementUnion union = new ElementUnion();
+            union.addElement(getURIValuesBranch(uriVar, uriNodes, new Triple(uriVar, makeVar("p"), makeVar("o"))));
+            union.addElement(getURIValuesBranch(uriVar, uriNodes, new Triple(makeVar("s"), makeVar("p"), uriVar)));
+
+            SelectBuilder select = new SelectBuilder();
+            select.setDistinct(true);
+            select.addVar(uriVar);
+            SPARQLQueryHelper.addWhere(select, union);
+
+            executeSelectQuery(select, (SPARQLResult result) -> {
+                existingURIs.add(result.getStringValue(uriVar.getName()));
+            });
+        }
+
+        return existingURIs;
+    }
+
+    private static Element getURIValuesBranch(Var uriVar, List<Node> uriNodes, Triple triple) {
+        ElementData data = new ElementData();
+        data.add(uriVar);
+        for (Node uriNode : uriNodes) {
+            data.add(BindingFactory.binding(uriVar, uriNode));
         }
 
-        executeUpdateQuery(create);
+        ElementPathBlock block = new ElementPathBlock();
+        block.addTriple(triple);
+
+        ElementGroup branch = new ElementGroup();
+        branch.addElement(data);
+        branch.addElement(block);
+        return branch;
     }
 
     private <T extends SPARQLResourceModel> void generateUniqueUriIfNullOrValidateCurrent(SPARQLClassObjectMapper<T> sparqlObjectMapper, T instance) throws Exception {
@@ -417,63 +2049,133 @@ public class SPARQLService implements SPARQLConnection, Service {
     }
 
     public <T extends SPARQLResourceModel> void update(T instance) throws Exception {
-        @SuppressWarnings("unchecked")
-        Class<T> objectClass = (Class<T>) instance.getClass();
-        SPARQLClassObjectMapper<T> sparqlObjectMapper = SPARQLClassObjectMapper.getForClass(objectClass);
-
-        UpdateBuilder update = new UpdateBuilder();
-        sparqlObjectMapper.addUpdateBuilder(loadByURI(objectClass, sparqlObjectMapper.getURI(instance)), instance, update);
-
-        executeUpdateQuery(update);
+        update(Collections.singletonList(instance));
     }
 
+    /**
+     * Update changed fields of instances with a single query, stored
+     * instances are not loaded before update but their type is checked with a
+     * single query by class
+     *
+     * @param <T> object class
+     * @param instances instances to update
+     * @throws SPARQLInvalidURIException if an URI is not an instance of its
+     * class, nothing is updated
+     * @throws Exception in case of error
+     */
     public <T extends SPARQLResourceModel> void update(List<T> instances) throws Exception {
         UpdateBuilder update = new UpdateBuilder();
+        List<T> changedInstances = new ArrayList<>();
+        Map<SPARQLClassObjectMapper<T>, List<URI>> changedURIsByMapper = new LinkedHashMap<>();
+        Set<String> writtenURIs = new HashSet<>();
+        Set<Node> graphs = new HashSet<>();
+        int instanceIndex = 0;
         for (T instance : instances) {
             @SuppressWarnings("unchecked")
-            Class<T> objectClass = (Class<T>) instance.getClass();
-            SPARQLClassObjectMapper<T> sparqlObjectMapper = SPARQLClassObjectMapper.getForClass(objectClass);
-            sparqlObjectMapper.addUpdateBuilder(loadByURI(objectClass, sparqlObjectMapper.getURI(instance)), instance, update);
+            SPARQLClassObjectMapper<T> sparqlObjectMapper = SPARQLClassObjectMapper.getForClass((Class<T>) instance.getClass());
+            if (sparqlObjectMapper.addUpdateBuilder(instance, update, instanceIndex++)) {
+                changedInstances.add(instance);
+                changedURIsByMapper.computeIfAbsent(sparqlObjectMapper, (mapper) -> new ArrayList<>()).add(instance.getUri());
+                sparqlObjectMapper.addWrittenURIs(instance, writtenURIs);
+                graphs.add(sparqlObjectMapper.getDefaultGraph());
+            }
         }
 
-        executeUpdateQuery(update);
-    }
+        if (changedInstances.isEmpty()) {
+            LOGGER.debug("SPARQL UPDATE skipped, no changed field");
+            return;
+        }
 
-    public <T extends SPARQLResourceModel> void delete(Class<T> objectClass, URI uri) throws Exception {
-        SPARQLClassObjectMapper<T> sparqlObjectMapper = SPARQLClassObjectMapper.getForClass(objectClass);
+        // Stored instances are not loaded anymore, check they exist with
+        // their type to not create new resources
+        for (Map.Entry<SPARQLClassObjectMapper<T>, List<URI>> changedURIs : changedURIsByMapper.entrySet()) {
+            SPARQLClassObjectMapper<T> sparqlObjectMapper = changedURIs.getKey();
+            List<SPARQLResult> unknownURIs = executeSelectQuery(sparqlObjectMapper.getUnknownURIsBuilder(changedURIs.getValue(), classHierarchy));
+            if (!unknownURIs.isEmpty()) {
+                throw new SPARQLInvalidURIException(new URI(unknownURIs.get(0).getStringValue(sparqlObjectMapper.getURIFieldName())));
+            }
+        }
+
+        // Stored values of changed fields are matched in UNION branches, this
+        // branch always matches so new values are inserted even if none is stored
+        update.addUnion(new WhereBuilder().addBind(NodeValue.TRUE, makeVar("update")));
+
+        // Instances of classes stored in different graphs invalidate all counts
+        Node graph = graphs.size() == 1 ? graphs.iterator().next() : null;
+        executeUpdateQuery(update, graph, writtenURIs);
 
-        UpdateBuilder delete = sparqlObjectMapper.getDeleteBuilder(loadByURI(objectClass, uri));
+        for (T instance : changedInstances) {
+            @SuppressWarnings("unchecked")
+            SPARQLClassObjectMapper<T> sparqlObjectMapper = SPARQLClassObjectMapper.getForClass((Class<T>) instance.getClass());
+            sparqlObjectMapper.resetChanges(instance);
+        }
+    }
 
-        executeDeleteQuery(delete);
+    public <T extends SPARQLResourceModel> void delete(Class<T> objectClass, URI uri) throws Exception {
+        delete(objectClass, Collections.singletonList(uri));
     }
 
+    /**
+     * Delete instances with a single query whatever the number of URIs,
+     * instances are not loaded before deletion but their type is checked with
+     * a single query
+     *
+     * @param <T> object class
+     * @param objectClass object class
+     * @param uris URIs of instances to delete
+     * @throws SPARQLInvalidURIException if an URI is not an instance of the
+     * class, nothing is deleted
+     * @throws Exception in case of error
+     */
     public <T extends SPARQLResourceModel> void delete(Class<T> objectClass, List<URI> uris) throws Exception {
+        if (uris.isEmpty()) {
+            return;
+        }
+
         SPARQLClassObjectMapper<T> sparqlObjectMapper = SPARQLClassObjectMapper.getForClass(objectClass);
 
-        UpdateBuilder delete = new UpdateBuilder();
+        List<SPARQLResult> unknownURIs = executeSelectQuery(sparqlObjectMapper.getUnknownURIsBuilder(uris, classHierarchy));
+        if (!unknownURIs.isEmpty()) {
+            throw new SPARQLInvalidURIException(new URI(unknownURIs.get(0).getStringValue(sparqlObjectMapper.getURIFieldName())));
+        }
+
+        UpdateBuilder delete = sparqlObjectMapper.getDeleteByURIsBuilder(uris, classHierarchy);
+        Set<String> deletedURIs = new HashSet<>();
         for (URI uri : uris) {
-            sparqlObjectMapper.addDeleteBuilder(loadByURI(objectClass, uri), delete);
+            deletedURIs.add(SPARQLDeserializers.nodeURI(uri).getURI());
         }
 
-        executeDeleteQuery(delete);
+        executeDeleteQuery(delete, sparqlObjectMapper.getDefaultGraph(), deletedURIs);
     }
 
     public boolean uriExists(URI uri) throws SPARQLException {
-        AskBuilder askQuery = new AskBuilder();
-        Var s = makeVar("s");
-        Var p = makeVar("p");
-        Var o = makeVar("o");
-        Node nodeUri = SPARQLDeserializers.nodeURI(uri);
-        askQuery.addWhere(nodeUri, p, o);
-        WhereBuilder reverseWhere = new WhereBuilder();
-        reverseWhere.addWhere(s, p, nodeUri);
-        askQuery.addUnion(reverseWhere);
+        Var uriVar = makeVar(SPARQLResourceModel.URI_FIELD);
+        String query = getQueryTemplate("uriExists", () -> {
+            AskBuilder askQuery = new AskBuilder();
+            Var s = makeVar("s");
+            Var p = makeVar("p");
+            Var o = makeVar("o");
+            askQuery.addWhere(uriVar, p, o);
+            WhereBuilder reverseWhere = new WhereBuilder();
+            reverseWhere.addWhere(s, p, uriVar);
+            askQuery.addUnion(reverseWhere);
+            return askQuery;
+        });
 
-        return executeAskQuery(askQuery);
+        return executePreparedAskQuery(query, Collections.singletonMap(uriVar.getName(), SPARQLDeserializers.nodeURI(uri)));
     }
 
     public <T extends SPARQLResourceModel> boolean uriExists(Class<T> objectClass, URI uri) throws Exception {
-        return executeAskQuery(getUriExistsQuery(objectClass, uri));
+        SPARQLClassObjectMapper<T> sparqlObjectMapper = SPARQLClassObjectMapper.getForClass(objectClass);
+        Var uriVar = makeVar(SPARQLResourceModel.URI_FIELD);
+        String query = getQueryTemplate("uriExists:" + objectClass.getName(), () -> {
+            AskBuilder askQuery = new AskBuilder();
+            askQuery.addWhere(uriVar, RDF.type, SPARQLQueryHelper.typeDefVar);
+            askQuery.getWhereHandler().getClause().addElement(classHierarchy.getSubClassOfElement(SPARQLQueryHelper.typeDefVar, sparqlObjectMapper.getRDFType().asNode()));
+            return askQuery;
+        });
+
+        return executePreparedAskQuery(query, Collections.singletonMap(uriVar.getName(), SPARQLDeserializers.nodeURI(uri)));
     }
 
     public <T extends SPARQLResourceModel> AskBuilder getUriExistsQuery(Class<T> objectClass, URI uri) throws SPARQLException {
@@ -485,15 +2187,77 @@ public class SPARQLService implements SPARQLConnection, Service {
 
         Resource typeDef = sparqlObjectMapper.getRDFType();
 
-        askQuery.addWhere(SPARQLQueryHelper.typeDefVar, Ontology.subClassAny, typeDef);
+        askQuery.getWhereHandler().getClause().addElement(classHierarchy.getSubClassOfElement(SPARQLQueryHelper.typeDefVar, typeDef.asNode()));
         return askQuery;
     }
 
     public void deleteObjectRelation(Node g, URI s, Property p, URI o) throws SPARQLException {
         UpdateBuilder delete = new UpdateBuilder();
-        delete.addDelete(g, SPARQLDeserializers.nodeURI(s), p.asNode(), SPARQLDeserializers.nodeURI(o));
+        Node subject = SPARQLDeserializers.nodeURI(s);
+        Node object = SPARQLDeserializers.nodeURI(o);
+        delete.addDelete(g, subject, p.asNode(), object);
+
+        executeDeleteQuery(delete, g, new HashSet<>(Arrays.asList(subject.getURI(), object.getURI())));
+    }
+
+    /**
+     * Invalidate cached instances and identity map entries of written
+     * resources, clear all cached instances if they are unknown
+     *
+     * @param uris expanded URIs of written resources, null if unknown
+     */
+    private void invalidateInstances(Set<String> uris) {
+        SPARQLInstanceCache cache = instanceCache;
+        Set<String> writtenURIs = transactionWrittenURIs.get();
+
+        if (uris == null) {
+            clearInstances(cache, writtenURIs);
+            return;
+        }
+
+        cache.invalidate(uris);
+        SPARQLIdentityMap map = identityMap.get();
+        if (map != null) {
+            map.invalidate(uris);
+        }
+        if (writtenURIs != null) {
+            writtenURIs.addAll(uris);
+        }
+    }
+
+    /**
+     * Result handler counting results passed to the delegated handler
+     */
+    private static class RowCounter implements Consumer<SPARQLResult> {
+
+        private final Consumer<SPARQLResult> handler;
+
+        private long rows = 0;
+
+        private RowCounter(Consumer<SPARQLResult> handler) {
+            this.handler = handler;
+        }
 
-        executeDeleteQuery(delete);
+        @Override
+        public void accept(SPARQLResult result) {
+            rows++;
+            handler.accept(result);
+        }
+    }
+
+    private void clearInstances(SPARQLInstanceCache cache, Set<String> writtenURIs) {
+        cache.clear();
+        clearIdentityMap();
+        if (writtenURIs != null) {
+            writtenURIs.add(ALL_URIS);
+        }
+    }
+
+    private void clearIdentityMap() {
+        SPARQLIdentityMap map = identityMap.get();
+        if (map != null) {
+            map.clear();
+        }
     }
 
     private SPARQLConfig getConfig() {
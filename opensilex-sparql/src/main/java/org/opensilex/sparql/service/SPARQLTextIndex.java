@@ -0,0 +1,272 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * <pre>
+ * In memory full text index of literal values, mapping tokens to resource
+ * URIs.
+ *
+ * Values and queries are split into lower case tokens without accents, used
+ * to find candidate resources of a query:
+ * - "abc" keeps the semantic of the case insensitive regular expression it
+ *   replaces: resources with a value containing "abc" ignoring case
+ *   (substring query). Candidates have tokens containing each query token
+ *   and are checked against their values.
+ * - "abc def~" (query ending with "~") matches resources having, for each
+ *   query token, a token starting with it or for tokens ending with "~" a
+ *   token at an edit distance of at most 1 (2 for tokens of more than 5
+ *   characters) of it (token query)
+ *
+ * Values of written resources are replaced to keep the index up to date,
+ * these resources are marked as stale until then.
+ * </pre>
+ *
+ * @author vincent
+ */
+public class SPARQLTextIndex {
+
+    public final static char FUZZY_SUFFIX = '~';
+
+    private final static Pattern SEPARATOR_PATTERN = Pattern.compile("[^\\p{L}\\p{N}~]+");
+
+    private final static Pattern ACCENTS_PATTERN = Pattern.compile("\\p{M}+");
+
+    /**
+     * Characters making a search pattern a regular expression
+     */
+    private final static Pattern REGEX_PATTERN = Pattern.compile("[.*+?^$|()\\[\\]{}\\\\]");
+
+    private final TreeMap<String, Set<String>> uriByTokens = new TreeMap<>();
+
+    /**
+     * Lower case values by resource URI
+     */
+    private final Map<String, List<String>> valuesByURI = new HashMap<>();
+
+    /**
+     * URIs of resources written since their values were indexed
+     */
+    private final Set<String> staleURIs = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param pattern search pattern
+     * @return true if pattern can be answered by a text index, false if it is
+     * a regular expression
+     */
+    public static boolean isTextQuery(String pattern) {
+        return !REGEX_PATTERN.matcher(pattern).find() && !tokenize(pattern).isEmpty();
+    }
+
+    /**
+     * @param pattern text query
+     * @return true if query is a token query, false for a substring query
+     */
+    public static boolean isTokenQuery(String pattern) {
+        return pattern.trim().endsWith(String.valueOf(FUZZY_SUFFIX));
+    }
+
+    /**
+     * @param text text to split
+     * @return lower case tokens without accents
+     */
+    public static List<String> tokenize(String text) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD);
+        normalized = ACCENTS_PATTERN.matcher(normalized).replaceAll("").toLowerCase(Locale.ROOT);
+
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATOR_PATTERN.split(normalized)) {
+            if (!token.isEmpty() && !token.equals(String.valueOf(FUZZY_SUFFIX))) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    public synchronized void add(String uri, String text) {
+        valuesByURI.computeIfAbsent(uri, (String key) -> new ArrayList<>()).add(text.toLowerCase(Locale.ROOT));
+        for (String token : tokenize(text)) {
+            uriByTokens.computeIfAbsent(token, (String key) -> new HashSet<>()).add(uri);
+        }
+    }
+
+    /**
+     * Replace indexed values of a resource
+     *
+     * @param uri resource URI
+     * @param texts new values, empty if resource has been deleted
+     */
+    public synchronized void replace(String uri, Collection<String> texts) {
+        List<String> values = valuesByURI.remove(uri);
+        if (values != null) {
+            for (String value : values) {
+                for (String token : tokenize(value)) {
+                    Set<String> uris = uriByTokens.get(token);
+                    if (uris != null && uris.remove(uri) && uris.isEmpty()) {
+                        uriByTokens.remove(token);
+                    }
+                }
+            }
+        }
+
+        for (String text : texts) {
+            add(uri, text);
+        }
+    }
+
+    /**
+     * @param uris URIs of written resources
+     * @return number of stale resources
+     */
+    public int markStale(Collection<String> uris) {
+        staleURIs.addAll(uris);
+        return staleURIs.size();
+    }
+
+    /**
+     * @return URIs of stale resources, no longer marked as stale
+     */
+    public Set<String> takeStaleURIs() {
+        Set<String> uris = new HashSet<>(staleURIs);
+        staleURIs.removeAll(uris);
+        return uris;
+    }
+
+    /**
+     * @param query text query
+     * @return URIs of resources matching query
+     */
+    public synchronized Set<String> search(String query) {
+        if (isTokenQuery(query)) {
+            return searchTokens(query);
+        }
+
+        Set<String> results = new HashSet<>();
+        String lowerQuery = query.toLowerCase(Locale.ROOT);
+        for (String uri : getCandidates(query)) {
+            for (String value : valuesByURI.get(uri)) {
+                if (value.contains(lowerQuery)) {
+                    results.add(uri);
+                    break;
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @return URIs of resources with tokens containing all query tokens
+     */
+    private Set<String> getCandidates(String query) {
+        Set<String> results = null;
+        for (String token : tokenize(query)) {
+            Set<String> tokenResults = new HashSet<>();
+            uriByTokens.forEach((String indexedToken, Set<String> uris) -> {
+                if (indexedToken.contains(token)) {
+                    tokenResults.addAll(uris);
+                }
+            });
+
+            results = retainAll(results, tokenResults);
+            if (results.isEmpty()) {
+                break;
+            }
+        }
+
+        if (results == null) {
+            return new HashSet<>();
+        }
+        return results;
+    }
+
+    private Set<String> searchTokens(String query) {
+        Set<String> results = null;
+        for (String token : tokenize(query)) {
+            Set<String> tokenResults = new HashSet<>();
+            String term = token.replace(String.valueOf(FUZZY_SUFFIX), "");
+            if (token.charAt(token.length() - 1) == FUZZY_SUFFIX) {
+                int maxDistance = term.length() > 5 ? 2 : 1;
+                uriByTokens.forEach((String indexedToken, Set<String> uris) -> {
+                    if (isWithinDistance(term, indexedToken, maxDistance)) {
+                        tokenResults.addAll(uris);
+                    }
+                });
+            } else {
+                for (Map.Entry<String, Set<String>> entry : uriByTokens.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+                    tokenResults.addAll(entry.getValue());
+                }
+            }
+
+            results = retainAll(results, tokenResults);
+            if (results.isEmpty()) {
+                break;
+            }
+        }
+
+        if (results == null) {
+            return new HashSet<>();
+        }
+        return results;
+    }
+
+    private static Set<String> retainAll(Set<String> results, Set<String> tokenResults) {
+        if (results == null) {
+            return tokenResults;
+        }
+        results.retainAll(tokenResults);
+        return results;
+    }
+
+    public synchronized int size() {
+        return uriByTokens.size();
+    }
+
+    /**
+     * Bounded Levenshtein distance check
+     */
+    private static boolean isWithinDistance(String a, String b, int maxDistance) {
+        if (Math.abs(a.length() - b.length()) > maxDistance) {
+            return false;
+        }
+
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > maxDistance) {
+                return false;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        return previous[b.length()] <= maxDistance;
+    }
+}
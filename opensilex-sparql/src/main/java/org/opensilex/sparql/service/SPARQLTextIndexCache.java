@@ -0,0 +1,149 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.service;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.jena.graph.Node;
+
+/**
+ * <pre>
+ * Cache of full text indexes built on demand for searched class fields.
+ *
+ * Indexes are attached to the default graph of their class, writing known
+ * resources of a graph marks them as stale in its indexes and indexes of
+ * classes without graph, their values are reloaded on next search. Writing
+ * unknown resources or too many resources drops these indexes, they are
+ * rebuilt on next search.
+ *
+ * A generation number is incremented on each invalidation, indexes built
+ * while an invalidation occured are not stored.
+ * </pre>
+ *
+ * @see SPARQLTextIndex
+ * @author vincent
+ */
+public class SPARQLTextIndexCache {
+
+    /**
+     * Maximum number of stale resources of an index, reloading them is more
+     * costly than rebuilding the index above
+     */
+    private final static int MAX_STALE_URIS = 1000;
+
+    private final boolean enabled;
+
+    private final int maxMatches;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Map<String, IndexEntry> indexes = new HashMap<>();
+
+    /**
+     * @param enabled false to always use regular expressions filters
+     * @param maxMatches maximum number of resources matched by an index
+     * search, regular expressions filters are used above
+     */
+    public SPARQLTextIndexCache(boolean enabled, int maxMatches) {
+        this.enabled = enabled;
+        this.maxMatches = maxMatches;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getMaxMatches() {
+        return maxMatches;
+    }
+
+    /**
+     * @return current generation to pass to
+     * {@link #put(Node, String, SPARQLTextIndex, long)}
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    public synchronized SPARQLTextIndex get(String key) {
+        IndexEntry entry = indexes.get(key);
+        if (entry == null) {
+            return null;
+        }
+        return entry.index;
+    }
+
+    /**
+     * Store an index if no invalidation occured since the given generation
+     *
+     * @param graph default graph of indexed class, may be null
+     * @param key indexed class and field key
+     * @param index built index
+     * @param queryGeneration generation read before reading indexed values
+     */
+    public synchronized void put(Node graph, String key, SPARQLTextIndex index, long queryGeneration) {
+        if (queryGeneration == generation.get()) {
+            indexes.put(key, new IndexEntry(graph, index));
+        }
+    }
+
+    /**
+     * Invalidate indexes of a graph
+     *
+     * @param graph written graph, null to invalidate all indexes
+     */
+    public void invalidate(Node graph) {
+        invalidate(graph, null);
+    }
+
+    /**
+     * Mark written resources as stale in indexes of a graph
+     *
+     * @param graph written graph, null if unknown
+     * @param uris URIs of written resources, null if unknown to drop indexes
+     */
+    public synchronized void invalidate(Node graph, Set<String> uris) {
+        generation.incrementAndGet();
+        if (graph == null && uris == null) {
+            indexes.clear();
+            return;
+        }
+
+        Iterator<IndexEntry> it = indexes.values().iterator();
+        while (it.hasNext()) {
+            IndexEntry entry = it.next();
+            if (graph == null || entry.graph == null || Objects.equals(entry.graph, graph)) {
+                if (uris == null || entry.index.markStale(uris) > MAX_STALE_URIS) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        invalidate(null);
+    }
+
+    public synchronized int size() {
+        return indexes.size();
+    }
+
+    private static class IndexEntry {
+
+        private final Node graph;
+
+        private final SPARQLTextIndex index;
+
+        private IndexEntry(Node graph, SPARQLTextIndex index) {
+            this.graph = graph;
+            this.index = index;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.sparql.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import org.apache.jena.graph.Node;
+import org.apache.jena.sparql.util.FmtUtils;
+import org.apache.jena.sparql.util.NodeFactoryExtra;
+import org.opensilex.sparql.exceptions.SPARQLInvalidCursorException;
+
+/**
+ * <pre>
+ * Opaque keyset pagination cursor.
+ *
+ * A cursor holds the order definition of the query which produced it and the
+ * order values of the last returned row, the URI of the row being always the
+ * last value. It is serialized as an URL safe base 64 string.
+ * </pre>
+ *
+ * @author vincent
+ */
+public class SPARQLPageCursor {
+
+    private final static String SEPARATOR = "\n";
+
+    private final static String NULL_VALUE = "";
+
+    private final String orderSignature;
+
+    private final List<Node> values;
+
+    public SPARQLPageCursor(String orderSignature, List<Node> values) {
+        this.orderSignature = orderSignature;
+        this.values = Collections.unmodifiableList(values);
+    }
+
+    public String getOrderSignature() {
+        return orderSignature;
+    }
+
+    /**
+     * @return order values of the last row, null for unbound values, the last
+     * one is the row URI
+     */
+    public List<Node> getValues() {
+        return values;
+    }
+
+    public String encode() {
+        StringBuilder builder = new StringBuilder(orderSignature);
+        for (Node value : values) {
+            builder.append(SEPARATOR);
+            if (value == null) {
+                builder.append(NULL_VALUE);
+            } else {
+                builder.append(FmtUtils.stringForNode(value));
+            }
+        }
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SPARQLPageCursor decode(String cursor) throws SPARQLInvalidCursorException {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(SEPARATOR, -1);
+            if (parts.length < 2) {
+                throw new SPARQLInvalidCursorException(cursor);
+            }
+
+            List<Node> values = new ArrayList<>(parts.length - 1);
+            for (int i = 1; i < parts.length; i++) {
+                if (parts[i].equals(NULL_VALUE)) {
+                    values.add(null);
+                } else {
+                    values.add(NodeFactoryExtra.parseNode(parts[i]));
+                }
+            }
+
+            if (values.get(values.size() - 1) == null) {
+                throw new SPARQLInvalidCursorException(cursor);
+            }
+
+            return new SPARQLPageCursor(parts[0], values);
+        } catch (SPARQLInvalidCursorException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new SPARQLInvalidCursorException(cursor, ex);
+        }
+    }
+
+    /**
+     * Build the order signature of an order by list, used to check that a
+     * cursor is reused with the same order definition
+     *
+     * @param orderByList order by list
+     * @return order signature
+     */
+    public static String getOrderSignature(List<OrderBy> orderByList) {
+        StringBuilder builder = new StringBuilder();
+        if (orderByList != null) {
+            for (OrderBy orderBy : orderByList) {
+                if (builder.length() > 0) {
+                    builder.append(",");
+                }
+                builder.append(orderBy.getFieldName()).append("=").append(orderBy.getOrder());
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,111 @@
+package org.opensilex.sparql.mapping;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.apache.jena.arq.querybuilder.UpdateBuilder;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.sparql.core.Quad;
+import org.apache.jena.sparql.modify.request.UpdateModify;
+import org.apache.jena.update.Update;
+import org.apache.jena.vocabulary.RDF;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opensilex.sparql.rdf4j.RDF4JConnection;
+import org.opensilex.sparql.service.SPARQLClassHierarchy;
+import org.opensilex.sparql.service.SPARQLService;
+import test.opensilex.sparql.SPARQLServiceTest;
+import test.opensilex.sparql.model.B;
+import test.opensilex.sparql.model.TEST_ONTOLOGY;
+
+import static org.junit.Assert.*;
+
+public class SPARQLClassQueryBuilderTest {
+
+    @BeforeClass
+    public static void initialize() throws Exception {
+
+        Repository repository = new SailRepository(new MemoryStore());
+        repository.init();
+
+        SPARQLService localService = new SPARQLService(new RDF4JConnection(repository.getConnection()));
+        SPARQLServiceTest.initialize(localService);
+    }
+
+    @Test
+    public void testUpdateOnlyWritesChangedFields() throws Exception {
+        SPARQLClassObjectMapper<B> mapper = SPARQLClassObjectMapper.getForClass(B.class);
+
+        B b = new B();
+        b.setUri(new URI("http://test.opensilex.org/b/updateBuilder"));
+        b.setInteger(1);
+        b.setStringList(new ArrayList<>(Arrays.asList("a")));
+        mapper.resetChanges(b);
+
+        assertFalse("Unchanged instance must not be updated", mapper.addUpdateBuilder(b, new UpdateBuilder(), 0));
+
+        b.setInteger(2);
+        assertEquals("Only changed field must be written",
+                new HashSet<>(Arrays.asList(TEST_ONTOLOGY.hasInt.asNode())),
+                getUpdatedPredicates(mapper, b));
+
+        b.setInteger(1);
+        b.getStringList().add("b");
+        assertEquals("List modified in place must be written",
+                new HashSet<>(Arrays.asList(TEST_ONTOLOGY.hasStringList.asNode())),
+                getUpdatedPredicates(mapper, b));
+    }
+
+    @Test
+    public void testUpdateWithoutSnapshotWritesAllFields() throws Exception {
+        SPARQLClassObjectMapper<B> mapper = SPARQLClassObjectMapper.getForClass(B.class);
+
+        B b = new B();
+        b.setUri(new URI("http://test.opensilex.org/b/updateBuilderDTO"));
+        b.setInteger(1);
+
+        Set<Node> predicates = getUpdatedPredicates(mapper, b);
+        assertTrue("Type must be written for instances without snapshot", predicates.contains(RDF.type.asNode()));
+        assertTrue("All fields must be written for instances without snapshot", predicates.contains(TEST_ONTOLOGY.hasInt.asNode()));
+        assertTrue("All fields must be written for instances without snapshot", predicates.contains(TEST_ONTOLOGY.hasLong.asNode()));
+    }
+
+    @Test
+    public void testQueryTemplatesByClassHierarchy() throws Exception {
+        SPARQLClassObjectMapper<B> mapper = SPARQLClassObjectMapper.getForClass(B.class);
+        Node subClass = NodeFactory.createURI("http://test.opensilex.org/SubClassOfB");
+
+        SPARQLClassHierarchy hierarchy = new SPARQLClassHierarchy();
+        hierarchy.setHierarchy(Collections.singletonMap(subClass, Collections.singleton(TEST_ONTOLOGY.B.asNode())));
+        assertTrue("Loaded hierarchy must restrict types with known sub-classes", mapper.getSelectBuilder(hierarchy).buildString().contains(subClass.getURI()));
+        assertFalse("Templates of another hierarchy must not be reused", mapper.getSelectBuilder(new SPARQLClassHierarchy()).buildString().contains(subClass.getURI()));
+        assertFalse("Templates without hierarchy must use property path", mapper.getSelectBuilder().buildString().contains(subClass.getURI()));
+
+        hierarchy.setHierarchy(Collections.emptyMap());
+        assertFalse("Templates must be rebuilt after hierarchy reload", mapper.getSelectBuilder(hierarchy).buildString().contains(subClass.getURI()));
+    }
+
+    private Set<Node> getUpdatedPredicates(SPARQLClassObjectMapper<B> mapper, B b) throws Exception {
+        UpdateBuilder update = new UpdateBuilder();
+        assertTrue("Changed instance must be updated", mapper.addUpdateBuilder(b, update, 0));
+
+        Set<Node> predicates = new HashSet<>();
+        for (Update operation : update.buildRequest().getOperations()) {
+            UpdateModify modify = (UpdateModify) operation;
+            for (Quad quad : modify.getDeleteQuads()) {
+                predicates.add(quad.getPredicate());
+            }
+            for (Quad quad : modify.getInsertQuads()) {
+                predicates.add(quad.getPredicate());
+            }
+        }
+        return predicates;
+    }
+}
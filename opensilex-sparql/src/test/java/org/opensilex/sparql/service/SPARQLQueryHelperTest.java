@@ -3,11 +3,16 @@ package org.opensilex.sparql.service;
 import org.apache.jena.arq.querybuilder.SelectBuilder;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.sparql.core.Var;
 import org.apache.jena.sparql.expr.E_GreaterThanOrEqual;
 import org.apache.jena.sparql.expr.E_LessThanOrEqual;
 import org.apache.jena.sparql.expr.E_LogicalAnd;
 import org.apache.jena.sparql.expr.Expr;
+import org.apache.jena.sparql.syntax.ElementGroup;
+import org.apache.jena.sparql.syntax.ElementNamedGraph;
+import org.apache.jena.sparql.syntax.ElementOptional;
+import org.apache.jena.sparql.syntax.ElementPathBlock;
 import org.junit.Test;
 import org.opensilex.sparql.deserializer.SPARQLDeserializerNotFoundException;
 import org.opensilex.sparql.deserializer.SPARQLDeserializers;
@@ -223,4 +228,34 @@ public class SPARQLQueryHelperTest {
 
         testWhereValues(new SelectBuilder(), NodeFactory.createVariable("hasSet"), setList);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetReadGraphs() {
+        Node graph1 = NodeFactory.createURI("http://test.opensilex.org/graph1");
+        Node graph2 = NodeFactory.createURI("http://test.opensilex.org/graph2");
+        Triple triple = new Triple(NodeFactory.createVariable("s"), NodeFactory.createVariable("p"), NodeFactory.createVariable("o"));
+
+        ElementGroup inGraph1 = new ElementGroup();
+        inGraph1.addElement(new ElementNamedGraph(graph1, getTriplesBlock(triple)));
+        ElementGroup optional = new ElementGroup();
+        optional.addElement(new ElementNamedGraph(graph2, getTriplesBlock(triple)));
+        inGraph1.addElement(new ElementOptional(optional));
+
+        assertEquals(new HashSet<>(Arrays.asList(graph1, graph2)), SPARQLQueryHelper.getReadGraphs(inGraph1));
+
+        ElementGroup outsideGraph = new ElementGroup();
+        outsideGraph.addElement(new ElementNamedGraph(graph1, getTriplesBlock(triple)));
+        outsideGraph.addElement(getTriplesBlock(triple));
+        assertNull("Triple outside of GRAPH may read any graph", SPARQLQueryHelper.getReadGraphs(outsideGraph));
+
+        ElementGroup variableGraph = new ElementGroup();
+        variableGraph.addElement(new ElementNamedGraph(NodeFactory.createVariable("g"), getTriplesBlock(triple)));
+        assertNull("GRAPH with a variable may read any graph", SPARQLQueryHelper.getReadGraphs(variableGraph));
+    }
+
+    private ElementPathBlock getTriplesBlock(Triple triple) {
+        ElementPathBlock block = new ElementPathBlock();
+        block.addTriple(triple);
+        return block;
+    }
+}
@@ -0,0 +1,51 @@
+package org.opensilex.sparql.service;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SPARQLQueryMetricsTest {
+
+    private final static String QUERY = "PREFIX foaf: <http://xmlns.com/foaf/0.1/> "
+            + "SELECT ?uri WHERE { ?uri <http://test.opensilex.org/passwordHash> \"secret\" } LIMIT 10";
+
+    @Test
+    public void testRecordFailedQueries() {
+        SPARQLQueryMetrics metrics = new SPARQLQueryMetrics(0, SPARQLQueryMetrics.DEFAULT_MAX_SHAPES);
+        metrics.record(SPARQLQueryMetrics.QueryKind.SELECT, QUERY, 1000000, 2);
+        metrics.record(SPARQLQueryMetrics.QueryKind.SELECT, QUERY, 1000000, 0, true);
+
+        SPARQLQueryStats stats = metrics.getStats(SPARQLQueryMetrics.QueryKind.SELECT);
+        assertEquals("Failed queries must be counted", 2, stats.getCount());
+        assertEquals("Failed queries must be counted as errors", 1, stats.getErrors());
+        assertEquals("Failed queries must be recorded with their shape", 1, metrics.getTopShapes(10).get(0).getErrors());
+
+        metrics.reset();
+        assertEquals(0, metrics.getStats(SPARQLQueryMetrics.QueryKind.SELECT).getErrors());
+    }
+
+    @Test
+    public void testShapesOnlyRecordedForSlowQueries() {
+        SPARQLQueryMetrics metrics = new SPARQLQueryMetrics(10, SPARQLQueryMetrics.DEFAULT_MAX_SHAPES);
+        metrics.record(SPARQLQueryMetrics.QueryKind.SELECT, QUERY, 1000000, 2);
+        assertEquals("Fast query must be recorded by kind", 1, metrics.getStats(SPARQLQueryMetrics.QueryKind.SELECT).getCount());
+        assertTrue("Fast query must not be recorded by shape", metrics.getTopShapes(10).isEmpty());
+
+        metrics.record(SPARQLQueryMetrics.QueryKind.SELECT, QUERY, 20000000, 2);
+        assertEquals("Slow query must be recorded by shape", 1, metrics.getTopShapes(10).size());
+
+        metrics = new SPARQLQueryMetrics(-1, SPARQLQueryMetrics.DEFAULT_MAX_SHAPES);
+        metrics.record(SPARQLQueryMetrics.QueryKind.SELECT, QUERY, 20000000, 2);
+        assertTrue("Shapes must not be recorded if slow queries are disabled", metrics.getTopShapes(10).isEmpty());
+    }
+
+    @Test
+    public void testShapeHidesLiteralsAndHashIsStable() {
+        String shape = SPARQLQueryMetrics.getShape(QUERY);
+        assertFalse("Shape must not contain literals", shape.contains("secret"));
+        assertEquals("SELECT ?uri WHERE { ?uri <?> \"?\" } LIMIT ?", shape);
+
+        assertEquals("Hash must identify a query", SPARQLQueryMetrics.getHash(QUERY), SPARQLQueryMetrics.getHash(QUERY));
+        assertNotEquals("Hash must differ for different literals", SPARQLQueryMetrics.getHash(QUERY), SPARQLQueryMetrics.getHash(QUERY.replace("secret", "other")));
+    }
+}
@@ -0,0 +1,75 @@
+package org.opensilex.sparql.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import org.apache.jena.graph.Node;
+import org.apache.jena.graph.NodeFactory;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SPARQLTextIndexTest {
+
+    private final static String URI_1 = "http://test.opensilex.org/text/1";
+
+    private final static String URI_2 = "http://test.opensilex.org/text/2";
+
+    @Test
+    public void testSubstringQueryKeepsRegexSemantic() {
+        SPARQLTextIndex index = new SPARQLTextIndex();
+        index.add(URI_1, "Jean-François Dupont");
+        index.add(URI_2, "Jeanne Martin");
+
+        assertEquals("Substring must match inside words ignoring case", Collections.singleton(URI_1), index.search("AN-FRAN"));
+        assertEquals(new HashSet<>(Arrays.asList(URI_1, URI_2)), index.search("ean"));
+        assertTrue("Substring must match whole value, not each token", index.search("jean dupont").isEmpty());
+        assertTrue("Substring must keep accents like regex", index.search("francois").isEmpty());
+        assertFalse("Regex patterns must not be answered by index", SPARQLTextIndex.isTextQuery("j.an"));
+    }
+
+    @Test
+    public void testTokenQuery() {
+        SPARQLTextIndex index = new SPARQLTextIndex();
+        index.add(URI_1, "Jean-François Dupont");
+        index.add(URI_2, "Jeanne Martin");
+
+        assertEquals("Tokens must match prefixes without accents", Collections.singleton(URI_1), index.search("jean franc dupond~"));
+        assertEquals("All tokens must match", Collections.singleton(URI_2), index.search("jean martin~"));
+    }
+
+    @Test
+    public void testReplaceValues() {
+        SPARQLTextIndex index = new SPARQLTextIndex();
+        index.add(URI_1, "Jean Dupont");
+        assertEquals(1, index.markStale(Collections.singleton(URI_1)));
+        assertEquals(Collections.singleton(URI_1), index.takeStaleURIs());
+        assertTrue("Stale URIs must be taken once", index.takeStaleURIs().isEmpty());
+
+        index.replace(URI_1, Collections.singleton("Paul Martin"));
+        assertTrue("Previous values must be removed", index.search("dupont").isEmpty());
+        assertEquals(Collections.singleton(URI_1), index.search("martin"));
+
+        index.replace(URI_1, Collections.emptySet());
+        assertTrue("Deleted resource must be removed", index.search("martin").isEmpty());
+        assertEquals("Tokens of deleted resource must be removed", 0, index.size());
+    }
+
+    @Test
+    public void testCacheMarksWrittenURIsAsStale() {
+        Node graph = NodeFactory.createURI("http://test.opensilex.org/text/graph");
+        SPARQLTextIndexCache cache = new SPARQLTextIndexCache(true, 10);
+        SPARQLTextIndex index = new SPARQLTextIndex();
+        cache.put(graph, "key", index, cache.getGeneration());
+
+        cache.invalidate(graph, Collections.singleton(URI_1));
+        assertSame("Index must be kept when written URIs are known", index, cache.get("key"));
+        assertEquals(Collections.singleton(URI_1), index.takeStaleURIs());
+
+        cache.invalidate(NodeFactory.createURI("http://test.opensilex.org/text/other"), null);
+        assertSame("Index of another graph must be kept", index, cache.get("key"));
+
+        cache.invalidate(graph);
+        assertNull("Index must be dropped when written URIs are unknown", cache.get("key"));
+    }
+}
@@ -5,23 +5,40 @@
 //******************************************************************************
 package test.opensilex.sparql;
 
+import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import org.apache.jena.arq.querybuilder.AskBuilder;
+import org.apache.jena.arq.querybuilder.SelectBuilder;
 import org.apache.jena.graph.Node;
 import org.apache.jena.graph.NodeFactory;
+import org.apache.jena.graph.Triple;
 import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.riot.Lang;
+import org.apache.jena.sparql.syntax.Element;
+import org.apache.jena.sparql.syntax.ElementData;
+import org.apache.jena.sparql.syntax.ElementFilter;
 import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
 import org.eclipse.rdf4j.model.vocabulary.OWL;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import org.junit.AfterClass;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
@@ -29,11 +46,23 @@ import static org.junit.Assert.assertTrue;
 import org.junit.Test;
 import org.opensilex.OpenSilex;
 import org.opensilex.sparql.SPARQLModule;
+import org.opensilex.sparql.deserializer.SPARQLDeserializers;
 import org.opensilex.sparql.mapping.NoGetterClass;
 import org.opensilex.sparql.mapping.NoSetterClass;
 import org.opensilex.sparql.mapping.SPARQLClassObjectMapper;
+import org.opensilex.sparql.model.SPARQLModelRelation;
+import org.opensilex.sparql.service.SPARQLClassHierarchy;
+import org.opensilex.sparql.service.SPARQLQueryHelper;
+import org.opensilex.sparql.service.SPARQLQueryMetrics;
+import org.opensilex.sparql.service.SPARQLQueryStats;
 import org.opensilex.sparql.service.SPARQLService;
+import org.opensilex.sparql.exceptions.SPARQLAlreadyExistingUriException;
+import org.opensilex.sparql.exceptions.SPARQLInvalidProjectionException;
+import org.opensilex.sparql.exceptions.SPARQLInvalidURIException;
 import org.opensilex.sparql.exceptions.SPARQLQueryException;
+import org.opensilex.sparql.exceptions.SPARQLUnknownFieldException;
+import org.opensilex.sparql.utils.OrderBy;
+import org.opensilex.utils.ListWithPagination;
 import test.opensilex.sparql.model.A;
 import test.opensilex.sparql.model.B;
 import test.opensilex.sparql.model.TEST_ONTOLOGY;
@@ -131,6 +160,208 @@ public abstract class SPARQLServiceTest {
 
     }
 
+    @Test
+    public void testProxyClassIsShared() throws Exception {
+        A a1 = service.getByURI(A.class, new URI("http://test.opensilex.org/a/001"));
+        A a2 = service.getByURI(A.class, new URI("http://test.opensilex.org/a/001"));
+
+        assertEquals("Proxy classes must be generated only once by type", a1.getClass(), a2.getClass());
+        assertEquals("Proxy classes must be generated only once by type", a1.getB().getClass(), a2.getB().getClass());
+        assertEquals("Proxies must keep their own state", a1.getUri(), a2.getUri());
+    }
+
+    @Test
+    public void testSearchLoadsDataListsByBatch() throws Exception {
+        URI bURI = new URI("http://test.opensilex.org/b/001");
+        URI otherBURI = new URI("http://test.opensilex.org/b/batchList");
+        B otherB = new B();
+        otherB.setUri(otherBURI);
+        List<String> otherStringList = new ArrayList<>();
+        otherStringList.add("L1");
+        otherStringList.add("L2");
+        otherB.setStringList(otherStringList);
+        service.create(otherB);
+
+        SPARQLQueryMetrics metrics = new SPARQLQueryMetrics(-1, SPARQLQueryMetrics.DEFAULT_MAX_SHAPES);
+        SPARQLQueryMetrics previousMetrics = service.getQueryMetrics();
+        service.setQueryMetrics(metrics);
+        try {
+            List<B> results = service.search(B.class);
+            assertTrue("Search must return several instances", results.size() > 1);
+            assertEquals("Search must be a single query", 1, metrics.getStats(SPARQLQueryMetrics.QueryKind.SELECT).getCount());
+
+            B b = null;
+            B loadedOtherB = null;
+            for (B result : results) {
+                result.getStringList().size();
+                if (bURI.equals(result.getUri())) {
+                    b = result;
+                } else if (otherBURI.equals(result.getUri())) {
+                    loadedOtherB = result;
+                }
+            }
+
+            assertNotNull("B instance must be found by search", b);
+            assertNotNull("Created B instance must be found by search", loadedOtherB);
+            assertEquals("B.getStringList size should match inserted triple count", 4, b.getStringList().size());
+            assertEquals("B.getStringList size should match created list", 2, loadedOtherB.getStringList().size());
+            assertEquals("String lists of all results must be loaded with a single query", 2, metrics.getStats(SPARQLQueryMetrics.QueryKind.SELECT).getCount());
+        } finally {
+            service.setQueryMetrics(previousMetrics);
+            service.delete(B.class, otherBURI);
+        }
+    }
+
+    @Test
+    public void testStream() throws Exception {
+        int searchCount = service.search(A.class).size();
+
+        long streamCount;
+        try (Stream<A> stream = service.stream(A.class)) {
+            streamCount = stream.count();
+        }
+
+        assertEquals("Stream must return the same number of results as search", searchCount, streamCount);
+    }
+
+    @Test
+    public void testStreamLoadsDataListsByBatch() throws Exception {
+        SPARQLQueryMetrics metrics = new SPARQLQueryMetrics(-1, SPARQLQueryMetrics.DEFAULT_MAX_SHAPES);
+        SPARQLQueryMetrics previousMetrics = service.getQueryMetrics();
+        service.setQueryMetrics(metrics);
+        try {
+            int listSizes = 0;
+            try (Stream<B> stream = service.stream(B.class)) {
+                List<B> results = new ArrayList<>();
+                stream.forEach(results::add);
+                for (B result : results) {
+                    listSizes += result.getStringList().size();
+                }
+            }
+
+            assertTrue("String lists must be loaded", listSizes > 0);
+            assertEquals("Stream and string lists of a chunk must be loaded with two queries", 2, metrics.getStats(SPARQLQueryMetrics.QueryKind.SELECT).getCount());
+        } finally {
+            service.setQueryMetrics(previousMetrics);
+        }
+    }
+
+    @Test
+    public void testCursorPagination() throws Exception {
+        List<OrderBy> orderByList = new ArrayList<>();
+        orderByList.add(new OrderBy("string=desc"));
+
+        int total = service.count(A.class, null);
+        Set<URI> pagedURIs = new HashSet<>();
+        String cursor = null;
+        int pageCount = 0;
+        do {
+            ListWithPagination<A> page = service.searchWithPagination(A.class, null, orderByList, 0, 1, cursor);
+            for (A a : page.getList()) {
+                assertTrue("Cursor pages must not overlap", pagedURIs.add(a.getUri()));
+            }
+            cursor = page.getNextCursor();
+            pageCount++;
+        } while (cursor != null && pageCount <= total);
+
+        assertEquals("Following cursors must return all results", total, pagedURIs.size());
+    }
+
+    @Test
+    public void testCursorPaginationWithLangTaggedValues() throws Exception {
+        List<Node> uriNodes = new ArrayList<>();
+        List<Triple> strings = new ArrayList<>();
+        String[] values = new String[]{"Alpha", "beta", "Gamma"};
+        for (int i = 0; i < values.length; i++) {
+            URI aURI = new URI("http://test.opensilex.org/a/lang" + i);
+            A a = new A();
+            a.setUri(aURI);
+            a.setBool(true);
+            a.setCharVar('L');
+            service.create(a);
+
+            Node uriNode = SPARQLDeserializers.nodeURI(aURI);
+            uriNodes.add(uriNode);
+            strings.add(new Triple(uriNode, TEST_ONTOLOGY.hasString.asNode(), NodeFactory.createLiteral(values[i], "en")));
+        }
+        service.addTriples(SPARQLClassObjectMapper.getGraph(A.class), strings);
+
+        SPARQLClassObjectMapper<A> mapper = SPARQLClassObjectMapper.getForClass(A.class);
+        List<OrderBy> orderByList = new ArrayList<>();
+        orderByList.add(new OrderBy("string=asc"));
+
+        List<String> pagedValues = new ArrayList<>();
+        String cursor = null;
+        int pageCount = 0;
+        try {
+            do {
+                ListWithPagination<A> page = service.searchWithPagination(A.class, (SelectBuilder select) -> {
+                    select.addWhereValueVar(mapper.getURIFieldVar(), uriNodes.toArray());
+                }, orderByList, 0, 1, cursor, false);
+                for (A a : page.getList()) {
+                    pagedValues.add(a.getString());
+                }
+                cursor = page.getNextCursor();
+                pageCount++;
+            } while (cursor != null && pageCount <= values.length);
+
+            assertEquals("Cursors must follow lang tagged values in order", Arrays.asList(values), pagedValues);
+
+            try {
+                mapper.getFieldOrderValue("unknownField", null);
+                assertTrue("Unknown order field must be rejected", false);
+            } catch (SPARQLUnknownFieldException ex) {
+                assertTrue("Error must name the unknown field", ex.getMessage().contains("unknownField"));
+            }
+        } finally {
+            for (Node uriNode : uriNodes) {
+                service.delete(A.class, new URI(uriNode.getURI()));
+            }
+        }
+    }
+
+    @Test
+    public void testCountCacheInvalidation() throws Exception {
+        int countBefore = service.count(A.class, null);
+        assertEquals("Cached count must be stable", countBefore, service.count(A.class, null));
+
+        A a = new A();
+        URI aURI = new URI("http://test.opensilex.org/a/count");
+        a.setUri(aURI);
+        a.setBool(true);
+        a.setCharVar('C');
+        service.create(a);
+
+        assertEquals("Count must be invalidated by create", countBefore + 1, service.count(A.class, null));
+
+        service.delete(A.class, aURI);
+
+        assertEquals("Count must be invalidated by delete", countBefore, service.count(A.class, null));
+    }
+
+    @Test
+    public void testSearchWithoutTotal() throws Exception {
+        int total = service.count(A.class, null);
+        ListWithPagination<A> page = service.searchWithPagination(A.class, null, null, 0, 1, null, false);
+
+        assertEquals("Page must contains one result", 1, page.getList().size());
+        assertEquals("hasMore must be true if more results exists", total > 1, page.hasMore());
+    }
+
+    @Test
+    public void testCountFilterRunsInCallerThread() throws Exception {
+        Thread caller = Thread.currentThread();
+        AtomicInteger otherThreadCalls = new AtomicInteger();
+        ListWithPagination<A> page = service.searchWithPagination(A.class, (SelectBuilder select) -> {
+            if (Thread.currentThread() != caller) {
+                otherThreadCalls.incrementAndGet();
+            }
+        }, null, 0, 1);
+
+        assertEquals("Filter handler must only be called in caller thread", 0, otherThreadCalls.get());
+        assertEquals("Total must be counted", service.count(A.class, null), page.getTotal());
+    }
+
     @Test
     public void testInsertQuery() throws Exception {
         A a = new A();
@@ -211,6 +442,540 @@ public abstract class SPARQLServiceTest {
         assertNull("A.getInteger Method should have been deleted", updatedA.getInteger());
     }
 
+    @Test
+    public void testUpdateChangedFields() throws Exception {
+        B b = new B();
+        URI bURI = new URI("http://test.opensilex.org/b/changed");
+        b.setUri(bURI);
+        b.setInteger(1);
+        b.setLongVar(2L);
+        service.create(b);
+
+        B loadedB = service.loadByURI(B.class, bURI);
+        assertNotNull("Loaded instance must record its loaded values", loadedB.getLoadedValues());
+
+        loadedB.setInteger(3);
+        service.update(loadedB);
+        // No changed field, nothing must be written
+        service.update(loadedB);
+
+        B updatedB = service.loadByURI(B.class, bURI);
+        assertEquals("Changed field must be updated", 3, (int) updatedB.getInteger());
+        assertEquals("Unchanged field must be kept", 2L, (long) updatedB.getLongVar());
+
+        updatedB.setLongVar(null);
+        service.update(updatedB);
+        assertNull("Field set to null must be deleted", service.loadByURI(B.class, bURI).getLongVar());
+
+        B searchedB = service.search(B.class, (SelectBuilder select) -> {
+            select.setVar(SPARQLClassObjectMapper.getForClass(B.class).getURIFieldVar(), SPARQLDeserializers.nodeURI(bURI));
+        }, null).get(0);
+        assertNull("Searched instance must not record its loaded values", searchedB.getLoadedValues());
+        searchedB.setLongVar(4L);
+        service.update(searchedB);
+        B searchUpdatedB = service.loadByURI(B.class, bURI);
+        assertEquals("Searched instance must be fully updated", 4L, (long) searchUpdatedB.getLongVar());
+        assertEquals("Searched instance fields must be kept", 3, (int) searchUpdatedB.getInteger());
+
+        service.delete(B.class, bURI);
+    }
+
+    @Test
+    public void testUpdateUnknownURI() throws Exception {
+        B b = new B();
+        URI bURI = new URI("http://test.opensilex.org/b/unknownUpdate");
+        b.setUri(bURI);
+        b.setInteger(1);
+
+        try {
+            service.update(b);
+            assertTrue("Update of an unknown URI must fail", false);
+        } catch (SPARQLInvalidURIException ex) {
+            // expected
+        }
+        assertFalse("Update of an unknown URI must not create it", service.uriExists(bURI));
+
+        A a = new A();
+        URI aURI = new URI("http://test.opensilex.org/a/wrongTypeUpdate");
+        a.setUri(aURI);
+        a.setBool(true);
+        a.setCharVar('T');
+        service.create(a);
+
+        b.setUri(aURI);
+        try {
+            service.update(b);
+            assertTrue("Update of an URI stored with another type must fail", false);
+        } catch (SPARQLInvalidURIException ex) {
+            // expected
+        }
+        assertFalse("Update of an URI stored with another type must not add the type", service.uriExists(B.class, aURI));
+
+        service.delete(A.class, aURI);
+    }
+
+    @Test
+    public void testInstanceCache() throws Exception {
+        B b = new B();
+        URI bURI = new URI("http://test.opensilex.org/b/cache");
+        b.setUri(bURI);
+        b.setInteger(1);
+        service.create(b);
+
+        long hitCount = service.getInstanceCache().getHitCount();
+        service.loadByURI(B.class, bURI);
+        B cachedB = service.loadByURI(B.class, bURI);
+        assertEquals("Second load must be a cache hit", hitCount + 1, service.getInstanceCache().getHitCount());
+        assertEquals("Cached instance must have loaded values", 1, (int) cachedB.getInteger());
+
+        b.setInteger(2);
+        service.update(b);
+
+        B updatedB = service.loadByURI(B.class, bURI);
+        assertEquals("Update must invalidate cached instance", 2, (int) updatedB.getInteger());
+
+        service.delete(B.class, bURI);
+        assertNull("Delete must invalidate cached instance", service.loadByURI(B.class, bURI));
+    }
+
+    @Test
+    public void testLoadListUsesInstanceCache() throws Exception {
+        B b1 = new B();
+        b1.setUri(new URI("http://test.opensilex.org/b/cacheList1"));
+        b1.setInteger(1);
+        B b2 = new B();
+        b2.setUri(new URI("http://test.opensilex.org/b/cacheList2"));
+        b2.setInteger(2);
+        service.create(b1);
+        service.create(b2);
+
+        service.loadByURI(B.class, b1.getUri());
+
+        long hitCount = service.getInstanceCache().getHitCount();
+        List<URI> uris = Arrays.asList(b1.getUri(), b2.getUri());
+        assertEquals("All instances must be loaded", 2, service.loadListByURIs(B.class, uris).size());
+        assertEquals("Cached instance must not be queried again", hitCount + 1, service.getInstanceCache().getHitCount());
+
+        assertEquals("All instances must be loaded from cache", 2, service.loadListByURIs(B.class, uris).size());
+        assertEquals("Loaded instances must be cached", hitCount + 3, service.getInstanceCache().getHitCount());
+
+        service.delete(B.class, b1.getUri());
+        service.delete(B.class, b2.getUri());
+    }
+
+    @Test
+    public void testUpdateKeepsUnrelatedCachedInstances() throws Exception {
+        B b1 = new B();
+        b1.setUri(new URI("http://test.opensilex.org/b/cacheUpdated"));
+        b1.setInteger(1);
+        B b2 = new B();
+        b2.setUri(new URI("http://test.opensilex.org/b/cacheUnrelated"));
+        b2.setInteger(2);
+        service.create(b1);
+        service.create(b2);
+
+        try {
+            B loadedB1 = service.loadByURI(B.class, b1.getUri());
+            service.loadByURI(B.class, b2.getUri());
+
+            loadedB1.setInteger(3);
+            service.update(loadedB1);
+
+            long hitCount = service.getInstanceCache().getHitCount();
+            service.loadByURI(B.class, b2.getUri());
+            assertEquals("Update must not invalidate unrelated cached instances", hitCount + 1, service.getInstanceCache().getHitCount());
+            assertEquals("Updated instance must be reloaded", 3, (int) service.loadByURI(B.class, b1.getUri()).getInteger());
+        } finally {
+            service.delete(B.class, Arrays.asList(b1.getUri(), b2.getUri()));
+        }
+    }
+
+    @Test
+    public void testBulkCreate() throws Exception {
+        List<B> bList = new ArrayList<>();
+        List<URI> bURIs = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            B b = new B();
+            URI bURI = new URI("http://test.opensilex.org/b/bulk" + i);
+            b.setUri(bURI);
+            b.setInteger(i);
+            bList.add(b);
+            bURIs.add(bURI);
+        }
+
+        int aCount = service.count(A.class, null);
+        List<Integer> progress = new ArrayList<>();
+        service.create(bList, 2, (Integer created, Integer total) -> {
+            progress.add(created);
+        });
+
+        assertEquals("Instances must be inserted by chunks", 3, progress.size());
+        SPARQLQueryMetrics metrics = new SPARQLQueryMetrics(-1, SPARQLQueryMetrics.DEFAULT_MAX_SHAPES);
+        SPARQLQueryMetrics previousMetrics = service.getQueryMetrics();
+        service.setQueryMetrics(metrics);
+        try {
+            assertEquals(aCount, service.count(A.class, null));
+            assertEquals("Counts of other graphs must stay cached", 0, metrics.getStats(SPARQLQueryMetrics.QueryKind.SELECT).getCount());
+        } finally {
+            service.setQueryMetrics(previousMetrics);
+        }
+        assertEquals("All instances must be created", 5, service.loadListByURIs(B.class, bURIs).size());
+
+        B existingB = new B();
+        existingB.setUri(bURIs.get(0));
+        B newB = new B();
+        newB.setUri(new URI("http://test.opensilex.org/b/bulkNew"));
+        B generatedB = new B();
+        generatedB.setInteger(10);
+        List<B> invalidList = new ArrayList<>();
+        invalidList.add(generatedB);
+        invalidList.add(newB);
+        invalidList.add(existingB);
+        try {
+            service.create(invalidList);
+            assertTrue("Creating an existing URI must fail", false);
+        } catch (SPARQLAlreadyExistingUriException ex) {
+            assertNull("Nothing must be created if an URI already exists", service.loadByURI(B.class, newB.getUri()));
+            assertNull("Generated URI must be reset on failure", generatedB.getUri());
+        }
+
+        service.delete(B.class, bURIs);
+        assertEquals("All instances must be deleted with a single query", 0, service.loadListByURIs(B.class, bURIs).size());
+        assertTrue("No triple must remain for deleted URIs", !service.uriExists(bURIs.get(0)));
+    }
+
+    @Test
+    public void testDeleteChecksInstancesType() throws Exception {
+        B b = new B();
+        URI bURI = new URI("http://test.opensilex.org/b/deleteType");
+        b.setUri(bURI);
+        b.setInteger(1);
+        service.create(b);
+
+        try {
+            try {
+                service.delete(A.class, bURI);
+                assertTrue("Deleting an instance of another class must fail", false);
+            } catch (SPARQLInvalidURIException ex) {
+                assertTrue("Error must name the invalid URI", ex.getMessage().contains(bURI.toString()));
+            }
+            assertNotNull("Instance of another class must not be deleted", service.loadByURI(B.class, bURI));
+
+            URI unknownURI = new URI("http://test.opensilex.org/b/deleteUnknown");
+            try {
+                service.delete(B.class, Arrays.asList(bURI, unknownURI));
+                assertTrue("Deleting an unknown URI must fail", false);
+            } catch (SPARQLInvalidURIException ex) {
+                assertTrue("Error must name the unknown URI", ex.getMessage().contains(unknownURI.toString()));
+            }
+            assertNotNull("Nothing must be deleted if an URI is unknown", service.loadByURI(B.class, bURI));
+        } finally {
+            service.delete(B.class, bURI);
+        }
+
+        assertFalse("Type triple must be deleted", service.uriExists(B.class, bURI));
+    }
+
+    @Test
+    public void testBulkCreateRejectsURIUsedAsObject() throws Exception {
+        Node graph = SPARQLClassObjectMapper.getGraph(B.class);
+        URI subjectURI = new URI("http://test.opensilex.org/b/bulkSubject");
+        URI objectURI = new URI("http://test.opensilex.org/b/bulkObject");
+        service.addTriples(graph, Collections.singletonList(new Triple(SPARQLDeserializers.nodeURI(subjectURI), RDFS.seeAlso.asNode(), SPARQLDeserializers.nodeURI(objectURI))));
+
+        B newB = new B();
+        newB.setUri(new URI("http://test.opensilex.org/b/bulkNotUsed"));
+        B objectB = new B();
+        objectB.setUri(objectURI);
+        try {
+            service.create(Arrays.asList(newB, objectB));
+            assertTrue("Creating an URI used as object must fail", false);
+        } catch (SPARQLAlreadyExistingUriException ex) {
+            assertNull("Nothing must be created if an URI already exists", service.loadByURI(B.class, newB.getUri()));
+        } finally {
+            service.deleteObjectRelation(graph, subjectURI, RDFS.seeAlso, objectURI);
+        }
+    }
+
+    @Test
+    public void testIdentityMap() throws Exception {
+        B b = new B();
+        URI bURI = new URI("http://test.opensilex.org/b/identity");
+        b.setUri(bURI);
+        b.setInteger(1);
+        service.create(b);
+
+        service.openIdentityMap();
+        try {
+            B loadedB = service.loadByURI(B.class, bURI);
+            assertTrue("Same instance must be returned during unit of work", loadedB == service.loadByURI(B.class, bURI));
+
+            loadedB.setInteger(2);
+            service.update(loadedB);
+
+            B updatedB = service.loadByURI(B.class, bURI);
+            assertTrue("Update must remove instance from identity map", loadedB != updatedB);
+            assertEquals("Reloaded instance must have updated values", 2, (int) updatedB.getInteger());
+        } finally {
+            service.closeIdentityMap();
+            service.delete(B.class, bURI);
+        }
+
+        assertNull("Identity map must be closed", service.getIdentityMap());
+    }
+
+    @Test
+    public void testQueryMetrics() throws Exception {
+        // All queries are recorded by shape with a null threshold
+        SPARQLQueryMetrics metrics = new SPARQLQueryMetrics(0, SPARQLQueryMetrics.DEFAULT_MAX_SHAPES);
+        SPARQLQueryMetrics previousMetrics = service.getQueryMetrics();
+        service.setQueryMetrics(metrics);
+        try {
+            service.uriExists(B.class, new URI("http://test.opensilex.org/b/001"));
+            service.uriExists(B.class, new URI("http://test.opensilex.org/b/002"));
+
+            SPARQLQueryStats askStats = metrics.getStats(SPARQLQueryMetrics.QueryKind.ASK);
+            assertEquals("Both ASK queries must be recorded", 2, askStats.getCount());
+            assertEquals("Queries differing by URI must have the same shape", 1, metrics.getTopShapes(10).size());
+            assertEquals("Shape must count both queries", 2, metrics.getTopShapes(10).get(0).getCount());
+
+            try {
+                service.executeSelectQuery("SELECT ?uri WHERE { ?uri", null);
+                assertTrue("Invalid query must fail", false);
+            } catch (Exception ex) {
+                assertEquals("Failed query must be recorded", 1, metrics.getStats(SPARQLQueryMetrics.QueryKind.SELECT).getErrors());
+            }
+        } finally {
+            service.setQueryMetrics(previousMetrics);
+        }
+    }
+
+    @Test
+    public void testClassHierarchyCache() throws Exception {
+        int pathCount = service.search(A.class).size();
+        int pathBCount = service.count(B.class, null);
+
+        service.enableClassHierarchyCache();
+        try {
+            SPARQLClassHierarchy classHierarchy = service.getClassHierarchy();
+            assertTrue("Class hierarchy must be loaded", classHierarchy.isLoaded());
+            assertTrue("Sub-classes must include class itself", classHierarchy.getSubClasses(TEST_ONTOLOGY.B.asNode()).contains(TEST_ONTOLOGY.B.asNode()));
+
+            assertEquals("Search must return same results with class hierarchy", pathCount, service.search(A.class).size());
+            assertEquals("Count must return same results with class hierarchy", pathBCount, service.count(B.class, null));
+            assertTrue("URI must exists and be of type B", service.uriExists(B.class, new URI("http://test.opensilex.org/b/001")));
+        } finally {
+            service.disableClassHierarchyCache();
+        }
+
+        assertFalse("Class hierarchy must be cleared", service.getClassHierarchy().isLoaded());
+    }
+
+    @Test
+    public void testClassHierarchyReloadedOnCommit() throws Exception {
+        URI graph = SPARQLModule.getPlatformDomainGraphURI("hierarchy");
+        Node subClass = NodeFactory.createURI("http://test.opensilex.org/SubClassLoadedInTransaction");
+        String ontology = "<" + subClass.getURI() + "> <" + RDFS.subClassOf.getURI() + "> <" + TEST_ONTOLOGY.B.getURI() + "> .";
+
+        service.enableClassHierarchyCache();
+        try {
+            service.startTransaction();
+            service.loadOntologyStream(graph, new ByteArrayInputStream(ontology.getBytes(StandardCharsets.UTF_8)), Lang.NTRIPLES);
+            service.commitTransaction();
+
+            assertTrue("Class hierarchy must be reloaded on commit", service.getClassHierarchy().getSubClasses(TEST_ONTOLOGY.B.asNode()).contains(subClass));
+        } finally {
+            service.clearGraph(graph);
+            service.disableClassHierarchyCache();
+        }
+    }
+
+    @Test
+    public void testFieldProjection() throws Exception {
+        A a = new A();
+        URI aURI = new URI("http://test.opensilex.org/a/projection");
+        a.setUri(aURI);
+        a.setBool(true);
+        a.setCharVar('P');
+        a.setString("projected");
+        service.create(a);
+
+        SPARQLClassObjectMapper<A> mapper = SPARQLClassObjectMapper.getForClass(A.class);
+        String query = mapper.getSelectBuilder(Collections.singleton("string")).buildString();
+        assertTrue("Projected field must be selected", query.contains("?string"));
+        assertFalse("Optional field out of projection must not be matched", query.contains("?charVar"));
+
+        A loadedA = service.loadByURI(A.class, aURI, Collections.singleton("string"));
+        assertEquals("projected", loadedA.getString());
+        assertNull("Field out of projection must not be loaded", loadedA.getCharVar());
+
+        List<A> results = service.search(A.class, (SelectBuilder select) -> {
+            select.setVar(mapper.getURIFieldVar(), SPARQLDeserializers.nodeURI(aURI));
+        }, null, null, null, Collections.singleton("bool"));
+        assertEquals(1, results.size());
+        assertTrue(results.get(0).getBool());
+        assertNull("Field out of projection must not be loaded", results.get(0).getString());
+
+        try {
+            service.search(A.class, null, null, null, null, Collections.singleton("unknownField"));
+            assertTrue("Unknown projection field must be rejected", false);
+        } catch (SPARQLUnknownFieldException ex) {
+            // expected
+        }
+
+        try {
+            service.search(A.class, (SelectBuilder select) -> {
+                select.addFilter(SPARQLQueryHelper.regexFilter("charVar", "P"));
+            }, null, null, null, Collections.singleton("bool"));
+            assertTrue("Filter on optional field out of projection must be rejected", false);
+        } catch (SPARQLInvalidProjectionException ex) {
+            // expected
+        }
+
+        service.delete(A.class, aURI);
+    }
+
+    @Test
+    public void testBatchRelationLoading() throws Exception {
+        List<Node> uriNodes = new ArrayList<>();
+        List<Triple> labels = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            URI aURI = new URI("http://test.opensilex.org/a/relation" + i);
+            A a = new A();
+            a.setUri(aURI);
+            a.setBool(true);
+            a.setCharVar('R');
+            service.create(a);
+
+            Node uriNode = SPARQLDeserializers.nodeURI(aURI);
+            uriNodes.add(uriNode);
+            labels.add(new Triple(uriNode, RDFS.label.asNode(), NodeFactory.createLiteral("relation" + i)));
+        }
+        service.addTriples(SPARQLClassObjectMapper.getGraph(A.class), labels);
+        // Same statements in another graph must be loaded once by graph
+        URI otherGraph = new URI("http://test.opensilex.org/relation/otherGraph");
+        service.addTriples(SPARQLDeserializers.nodeURI(otherGraph), labels);
+
+        SPARQLClassObjectMapper<A> mapper = SPARQLClassObjectMapper.getForClass(A.class);
+        SPARQLQueryMetrics metrics = new SPARQLQueryMetrics(-1, SPARQLQueryMetrics.DEFAULT_MAX_SHAPES);
+        SPARQLQueryMetrics previousMetrics = service.getQueryMetrics();
+        service.setQueryMetrics(metrics);
+        try {
+            List<A> results = service.search(A.class, (SelectBuilder select) -> {
+                select.addWhereValueVar(mapper.getURIFieldVar(), uriNodes.toArray());
+            });
+            assertEquals(2, results.size());
+
+            for (A result : results) {
+                Set<URI> labelGraphs = new HashSet<>();
+                int labelCount = 0;
+                for (SPARQLModelRelation relation : result.getRelations()) {
+                    if (relation.getProperty().equals(RDFS.label) && relation.getValue().equals(result.getUri().toString().replaceAll(".*/", ""))) {
+                        labelGraphs.add(relation.getGraph());
+                        labelCount++;
+                    }
+                }
+                assertEquals("Unmapped relation must be loaded once by graph for: " + result.getUri(), 2, labelCount);
+                assertTrue("Relation graphs must be loaded for: " + result.getUri(), labelGraphs.contains(otherGraph));
+            }
+
+            assertEquals("Relations must not be loaded with DESCRIBE queries", 0, metrics.getStats(SPARQLQueryMetrics.QueryKind.DESCRIBE).getCount());
+            assertEquals("Relations of all results must be loaded with a single query", 2, metrics.getStats(SPARQLQueryMetrics.QueryKind.SELECT).getCount());
+        } finally {
+            service.setQueryMetrics(previousMetrics);
+        }
+
+        service.delete(A.class, new URI("http://test.opensilex.org/a/relation1"));
+        service.delete(A.class, new URI("http://test.opensilex.org/a/relation2"));
+        service.clearGraph(otherGraph);
+    }
+
+    @Test
+    public void testMapperRegistry() throws Exception {
+        SPARQLClassObjectMapper<A> mapper = SPARQLClassObjectMapper.getForClass(A.class);
+        assertTrue("Initialization time must be recorded", mapper.getInitializationTime() >= 0);
+        assertEquals("Mapper must be found by RDF type", mapper, SPARQLClassObjectMapper.getForResource(TEST_ONTOLOGY.A));
+
+        long sameMapperCount = IntStream.range(0, 100).parallel().mapToObj((int i) -> {
+            try {
+                return SPARQLClassObjectMapper.getForClass(A.class);
+            } catch (Exception ex) {
+                return null;
+            }
+        }).filter((mapperFound) -> mapperFound == mapper).count();
+        assertEquals("Concurrent lookups must return the same mapper", 100, sameMapperCount);
+
+        // Exclusion of a class which is not registered has no effect
+        SPARQLClassObjectMapper.excludeResourceClass(NoGetterClass.class);
+        try {
+            SPARQLClassObjectMapper.excludeResourceClass(A.class);
+            assertTrue("Registered class must not be excluded after initialization", false);
+        } catch (IllegalStateException ex) {
+            // expected
+        }
+        assertEquals("Registered mapper must be kept", mapper, SPARQLClassObjectMapper.getForClass(A.class));
+    }
+
+    @Test
+    public void testDeserializersConcurrentAccess() throws Exception {
+        long foundCount = IntStream.range(0, 100).parallel().filter((int i) -> {
+            try {
+                return SPARQLDeserializers.getForClass(URI.class) != null;
+            } catch (Exception ex) {
+                return false;
+            }
+        }).count();
+        assertEquals("Concurrent lookups must find deserializer", 100, foundCount);
+    }
+
+    @Test
+    public void testTextSearch() throws Exception {
+        A a = new A();
+        URI aURI = new URI("http://test.opensilex.org/a/text");
+        a.setUri(aURI);
+        a.setBool(true);
+        a.setCharVar('T');
+        a.setString("Jean-François Dupont");
+        service.create(a);
+
+        assertThat(service.getTextSearch(A.class, "jean dup", "string"), instanceOf(ElementData.class));
+        assertThat(service.getTextSearch(A.class, "^Jean-Fr.*", "string"), instanceOf(ElementFilter.class));
+        assertNull("Empty pattern must not produce any search element", service.getTextSearch(A.class, "", "string"));
+
+        assertTrue("Substring search must match like case insensitive regex", searchText("AN-FRAN").contains(aURI));
+        assertTrue("Token search must match accented words", searchText("jean franc~").contains(aURI));
+        assertTrue("Fuzzy search must match close words", searchText("dupond~").contains(aURI));
+        assertTrue("Regex search must still be supported", searchText("^Jean-Fr.*").contains(aURI));
+        assertFalse("All tokens must match", searchText("jean martin~").contains(aURI));
+
+        a.setString("Jeanne Martin");
+        service.update(a);
+        assertTrue("Text index must be updated after update", searchText("jean martin~").contains(aURI));
+        assertFalse("Previous values must be removed from text index", searchText("dupont").contains(aURI));
+
+        service.setTextIndex(true, 0);
+        try {
+            assertThat("Searches matching too many resources must use regex", service.getTextSearch(A.class, "jeanne", "string"), instanceOf(ElementFilter.class));
+            assertTrue("Token searches matching too many resources must use token filters", searchText("jeanne mart~").contains(aURI));
+        } finally {
+            service.setTextIndex(true);
+        }
+
+        service.delete(A.class, aURI);
+        assertFalse("Text index must be updated after delete", searchText("jean martin~").contains(aURI));
+    }
+
+    private List<URI> searchText(String pattern) throws Exception {
+        Element search = service.getTextSearch(A.class, pattern, "string");
+        List<URI> uris = new ArrayList<>();
+        service.search(A.class, (SelectBuilder select) -> {
+            SPARQLQueryHelper.addWhere(select, search);
+        }).forEach((A result) -> {
+            uris.add(result.getUri());
+        });
+        return uris;
+    }
+
     @Test
     public void testUriExistsWithClass() throws Exception {
         URI bURI = new URI("http://test.opensilex.org/b/001");
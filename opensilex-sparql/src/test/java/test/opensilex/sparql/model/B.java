@@ -19,7 +19,8 @@ import org.opensilex.sparql.model.SPARQLResourceModel;
 @SPARQLResource(
         ontology = TEST_ONTOLOGY.class,
         resource = "B",
-        graph = "data"
+        graph = "data",
+        cacheInstances = true
 )
 public class B extends SPARQLResourceModel {
     
@@ -0,0 +1,99 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package test.opensilex.sparql.rdf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.rdf4j.repository.Repository;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.AfterClass;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.opensilex.sparql.rdf4j.RDF4JConnection;
+import org.opensilex.sparql.rdf4j.RDF4JConnectionPool;
+
+/**
+ *
+ * @author vincent
+ */
+public class RDF4JConnectionPoolTest {
+
+    private static Repository repository;
+
+    @BeforeClass
+    public static void initialize() {
+        repository = new SailRepository(new MemoryStore());
+        repository.init();
+    }
+
+    @AfterClass
+    public static void destroy() {
+        repository.shutDown();
+    }
+
+    @Test
+    public void testSingleConnectionReentrantBorrow() throws Exception {
+        RepositoryConnection connection = repository.getConnection();
+        RDF4JConnectionPool pool = new RDF4JConnectionPool(connection);
+        pool.startup();
+
+        RepositoryConnection outer = pool.borrow();
+        RepositoryConnection nested = pool.borrow();
+        assertSame("Nested borrow must give back the connection owned by current thread", outer, nested);
+
+        CompletableFuture<RepositoryConnection> otherThreadBorrow = CompletableFuture.supplyAsync(pool::borrow);
+        pool.release(nested);
+        Thread.sleep(100);
+        assertFalse("Connection must not be given to another thread before last release", otherThreadBorrow.isDone());
+
+        pool.release(outer);
+        RepositoryConnection otherThreadConnection = otherThreadBorrow.get(5, TimeUnit.SECONDS);
+        assertSame("Connection must be given to another thread after last release", connection, otherThreadConnection);
+        pool.release(otherThreadConnection);
+
+        assertTrue("Connection must stay open after release", connection.isOpen());
+        pool.shutdown();
+    }
+
+    @Test
+    public void testPoolReusesReleasedConnections() throws Exception {
+        RDF4JConnectionPool pool = new RDF4JConnectionPool(repository, 0, 2, 1000, 0);
+        pool.startup();
+
+        RepositoryConnection first = pool.borrow();
+        pool.release(first);
+        RepositoryConnection second = pool.borrow();
+        assertSame("Released connection must be reused", first, second);
+        pool.release(second);
+
+        pool.shutdown();
+    }
+
+    @Test
+    public void testClosedConnectionsAreDiscardedWithoutValidation() throws Exception {
+        RDF4JConnectionPool pool = new RDF4JConnectionPool(repository, 1, 2, 1000, RDF4JConnection.DEFAULT_POOL_VALIDATION_IDLE_TIME);
+        pool.startup();
+
+        RepositoryConnection first = pool.borrow();
+        pool.release(first);
+        assertSame("Recently released connection must be reused", first, pool.borrow());
+        first.close();
+        pool.release(first);
+
+        RepositoryConnection second = pool.borrow();
+        assertNotSame("Closed connection must not be reused", first, second);
+        assertTrue("New connection must be opened", second.isOpen());
+        pool.release(second);
+
+        pool.shutdown();
+    }
+}
@@ -27,7 +27,7 @@ public class RDF4JConnectionTest extends SPARQLServiceTest {
                         new MemoryStore()));
         repository.init();
 
-        SPARQLService localService = new SPARQLService(new RDF4JConnection(repository.getConnection()));
+        SPARQLService localService = new SPARQLService(new RDF4JConnection(repository));
 
         SPARQLServiceTest.initialize(localService);
     }
@@ -0,0 +1,61 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package test.opensilex.sparql.rdf4j;
+
+import org.eclipse.rdf4j.repository.RepositoryException;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.opensilex.config.ConfigManager;
+import org.opensilex.sparql.rdf4j.RDF4JConfig;
+import org.opensilex.sparql.rdf4j.RDF4JConnection;
+
+/**
+ *
+ * @author vincent
+ */
+public class RDF4JHTTPConfigTest {
+
+    private RDF4JConfig getConfig(String tupleQueryResultFormat, String rdfFormat) throws Exception {
+        ConfigManager configManager = new ConfigManager();
+        // No connection is opened at startup, no RDF4J server is needed
+        configManager.addLines(
+                "rdf4j:",
+                "  repositoryType: http",
+                "  poolMinSize: 0",
+                "  tupleQueryResultFormat: " + tupleQueryResultFormat,
+                "  rdfFormat: " + rdfFormat
+        );
+        return configManager.loadConfig("rdf4j", RDF4JConfig.class);
+    }
+
+    @Test
+    public void testFormatsAreResolvedIgnoringCase() throws Exception {
+        RDF4JConnection connection = new RDF4JConnection(getConfig("binary", "binaryrdf"));
+        connection.startup();
+        connection.shutdown();
+
+        connection = new RDF4JConnection(getConfig("SPARQL/JSON", "Turtle"));
+        connection.startup();
+        connection.shutdown();
+    }
+
+    @Test
+    public void testUnknownFormatIsRejected() throws Exception {
+        try {
+            new RDF4JConnection(getConfig("unknown", RDF4JConnection.DEFAULT_RDF_FORMAT)).startup();
+            assertTrue("Unknown tuple query result format must be rejected", false);
+        } catch (RepositoryException ex) {
+            assertTrue("Error must list available formats", ex.getMessage().contains(RDF4JConnection.DEFAULT_TUPLE_QUERY_RESULT_FORMAT));
+        }
+
+        try {
+            new RDF4JConnection(getConfig(RDF4JConnection.DEFAULT_TUPLE_QUERY_RESULT_FORMAT, "unknown")).startup();
+            assertTrue("Unknown RDF format must be rejected", false);
+        } catch (RepositoryException ex) {
+            assertTrue("Error must list available formats", ex.getMessage().contains(RDF4JConnection.DEFAULT_RDF_FORMAT));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package test.opensilex.sparql.rdf4j;
+
+import java.io.File;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.opensilex.config.ConfigManager;
+import org.opensilex.sparql.rdf4j.RDF4JConfig;
+import org.opensilex.sparql.rdf4j.RDF4JConnection;
+
+/**
+ *
+ * @author vincent
+ */
+public class RDF4JRepositoryTypeTest {
+
+    private final static String INSERT_QUERY = "INSERT DATA { <http://test.opensilex.org/s> <http://test.opensilex.org/p> \"o\" }";
+
+    private final static String ASK_QUERY = "ASK { <http://test.opensilex.org/s> <http://test.opensilex.org/p> \"o\" }";
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private RDF4JConfig getConfig(String... yamlLines) throws Exception {
+        ConfigManager configManager = new ConfigManager();
+        configManager.addLines(yamlLines);
+        return configManager.loadConfig("rdf4j", RDF4JConfig.class);
+    }
+
+    @Test
+    public void testMemoryStore() throws Exception {
+        RDF4JConnection connection = new RDF4JConnection(getConfig(
+                "rdf4j:",
+                "  repositoryType: memory"
+        ));
+        connection.startup();
+        try {
+            connection.executeUpdateQuery(INSERT_QUERY);
+            assertTrue("Embedded memory store must answer queries", connection.executeAskQuery(ASK_QUERY));
+        } finally {
+            connection.shutdown();
+        }
+    }
+
+    @Test
+    public void testNativeStoreIsPersisted() throws Exception {
+        File dataDir = tempFolder.newFolder();
+        RDF4JConfig config = getConfig(
+                "rdf4j:",
+                "  repositoryType: native",
+                "  repository: test",
+                "  dataDir: " + dataDir.getAbsolutePath(),
+                "  nativeIndexes: spoc,posc"
+        );
+
+        RDF4JConnection connection = new RDF4JConnection(config);
+        connection.startup();
+        try {
+            assertFalse(connection.executeAskQuery(ASK_QUERY));
+            connection.executeUpdateQuery(INSERT_QUERY);
+        } finally {
+            connection.shutdown();
+        }
+        assertTrue("Native store must be created in repository folder", new File(dataDir, "test").isDirectory());
+
+        connection = new RDF4JConnection(config);
+        connection.startup();
+        try {
+            assertTrue("Native store data must be kept after restart", connection.executeAskQuery(ASK_QUERY));
+        } finally {
+            connection.shutdown();
+        }
+    }
+
+    @Test
+    public void testInvalidRepositoryConfig() throws Exception {
+        try {
+            new RDF4JConnection(getConfig(
+                    "rdf4j:",
+                    "  repositoryType: native"
+            )).startup();
+            assertTrue("Native store without data directory must be rejected", false);
+        } catch (RepositoryException ex) {
+            // expected
+        }
+
+        try {
+            new RDF4JConnection(getConfig(
+                    "rdf4j:",
+                    "  repositoryType: unknown"
+            )).startup();
+            assertTrue("Unknown repository type must be rejected", false);
+        } catch (RepositoryException ex) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,69 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package test.opensilex.sparql.rdf4j;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
+import org.eclipse.rdf4j.query.impl.MapBindingSet;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.opensilex.sparql.rdf4j.RDF4JResult;
+
+/**
+ *
+ * @author vincent
+ */
+public class RDF4JResultTest {
+
+    private final ValueFactory factory = SimpleValueFactory.getInstance();
+
+    private RDF4JResult getResult(String label, IRI datatype) {
+        MapBindingSet bindingSet = new MapBindingSet();
+        bindingSet.addBinding("value", factory.createLiteral(label, datatype));
+        return new RDF4JResult(bindingSet);
+    }
+
+    @Test
+    public void testBooleanKeepsStringParsingRules() {
+        assertEquals(Boolean.TRUE, getResult("true", XMLSchema.BOOLEAN).getBoolean("value"));
+        assertEquals("Numeric boolean form must be read as before", Boolean.FALSE, getResult("1", XMLSchema.BOOLEAN).getBoolean("value"));
+        assertEquals("Invalid boolean form must not throw", Boolean.FALSE, getResult("yes", XMLSchema.BOOLEAN).getBoolean("value"));
+        assertNull("Unbound value must be null", getResult("true", XMLSchema.BOOLEAN).getBoolean("unbound"));
+    }
+
+    @Test
+    public void testDateTimeKeepsPrecisionAndOffset() {
+        OffsetDateTime expected = OffsetDateTime.of(2017, 5, 1, 9, 30, 10, 123456789, ZoneOffset.ofHours(6));
+        assertEquals("Sub-millisecond precision must be kept", expected, getResult("2017-05-01T09:30:10.123456789+06:00", XMLSchema.DATETIME).getOffsetDateTime("value"));
+
+        try {
+            getResult("2017-05-01T09:30:10", XMLSchema.DATETIME).getOffsetDateTime("value");
+            assertTrue("Date time without offset must be rejected", false);
+        } catch (DateTimeParseException ex) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testDate() {
+        assertEquals(LocalDate.of(2017, 12, 10), getResult("2017-12-10", XMLSchema.DATE).getLocalDate("value"));
+    }
+
+    @Test
+    public void testNumbers() {
+        assertEquals(Integer.valueOf(-6), getResult("-6", XMLSchema.INT).getInt("value"));
+        assertEquals(Long.valueOf(9), getResult("9", XMLSchema.LONG).getLong("value"));
+        assertEquals(3.5, getResult("3.5", XMLSchema.DOUBLE).getDouble("value"), 0);
+    }
+}
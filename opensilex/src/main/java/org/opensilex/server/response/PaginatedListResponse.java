@@ -25,7 +25,7 @@ public class PaginatedListResponse<T> extends JsonResponse<List<T>> {
     public PaginatedListResponse(ListWithPagination<T> paginatedList) {
         super(javax.ws.rs.core.Response.Status.OK);
         this.result = paginatedList.getList();
-        this.metadata = new MetadataDTO(new PaginationDTO(paginatedList.getPageSize(), paginatedList.getPage(), paginatedList.getTotal()));
+        this.metadata = new MetadataDTO(new PaginationDTO(paginatedList.getPageSize(), paginatedList.getPage(), paginatedList.getTotal(), paginatedList.getNextCursor(), paginatedList.hasMore()));
 
     }
 
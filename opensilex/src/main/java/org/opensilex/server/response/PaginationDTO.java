@@ -34,6 +34,16 @@ public class PaginationDTO {
      */
     private final long totalPages;
 
+    /**
+     * opaque cursor to request the next page, null if there is no next page
+     */
+    private final String nextCursor;
+
+    /**
+     * true if more elements are available after the current page
+     */
+    private final boolean hasMore;
+
     /**
      * Empty constructor assume no pagination
      */
@@ -42,6 +52,8 @@ public class PaginationDTO {
         this.currentPage = 0;
         this.totalCount = 0;
         this.totalPages = 0;
+        this.nextCursor = null;
+        this.hasMore = false;
     }
 
     /**
@@ -52,9 +64,36 @@ public class PaginationDTO {
      * @param totalCount Total item count
      */
     public PaginationDTO(long pageSize, long currentPage, long totalCount) {
+        this(pageSize, currentPage, totalCount, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param pageSize Number of items per page
+     * @param currentPage Current page index (0 based)
+     * @param totalCount Total item count
+     * @param nextCursor Cursor of the next page
+     */
+    public PaginationDTO(long pageSize, long currentPage, long totalCount, String nextCursor) {
+        this(pageSize, currentPage, totalCount, nextCursor, pageSize > 0 && (currentPage + 1) * pageSize < totalCount);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param pageSize Number of items per page
+     * @param currentPage Current page index (0 based)
+     * @param totalCount Total item count, may be an estimate if count was skipped
+     * @param nextCursor Cursor of the next page
+     * @param hasMore True if more items are available after current page
+     */
+    public PaginationDTO(long pageSize, long currentPage, long totalCount, String nextCursor, boolean hasMore) {
         this.pageSize = pageSize;
         this.currentPage = currentPage;
         this.totalCount = totalCount;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
 
         // Add a page if the the total number of elements divided by the page
         if (pageSize == 0) {
@@ -83,4 +122,12 @@ public class PaginationDTO {
     public long getTotalPages() {
         return totalPages;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean getHasMore() {
+        return hasMore;
+    }
 }
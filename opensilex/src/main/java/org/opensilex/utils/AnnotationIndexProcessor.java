@@ -0,0 +1,172 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package org.opensilex.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * <pre>
+ * Annotation processor generating at compile time the index of annotated
+ * classes of a module, read by ClassUtils instead of scanning module jars.
+ *
+ * Each line of the generated resource associates a runtime annotation with a
+ * class annotated by it, directly or through one of its super types:
+ * org.opensilex.sparql.annotations.SPARQLResource=org.opensilex.rest.user.dal.UserModel
+ *
+ * Entries of classes not compiled in the current build are kept from the
+ * previous index to support incremental compilation.
+ * </pre>
+ *
+ * @see ClassUtils#ANNOTATION_INDEX_PATH
+ * @author vincent
+ */
+@SupportedAnnotationTypes("*")
+public class AnnotationIndexProcessor extends AbstractProcessor {
+
+    private final Map<String, Set<String>> index = new TreeMap<>();
+
+    private final Map<String, Set<String>> previousIndex = new TreeMap<>();
+
+    private final Set<String> processedClasses = new HashSet<>();
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        readPreviousIndex();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        } else {
+            for (Element element : roundEnv.getRootElements()) {
+                if (element instanceof TypeElement) {
+                    indexType((TypeElement) element);
+                }
+            }
+        }
+
+        // Never claim annotations to let other processors handle them
+        return false;
+    }
+
+    private void indexType(TypeElement type) {
+        String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+        processedClasses.add(className);
+
+        Set<String> typeAnnotations = new HashSet<>();
+        collectAnnotations(type.asType(), typeAnnotations, new HashSet<>());
+        for (String annotation : typeAnnotations) {
+            index.computeIfAbsent(annotation, (String key) -> new TreeSet<>()).add(className);
+        }
+
+        for (Element enclosed : type.getEnclosedElements()) {
+            if (enclosed instanceof TypeElement) {
+                indexType((TypeElement) enclosed);
+            }
+        }
+    }
+
+    private void collectAnnotations(TypeMirror typeMirror, Set<String> typeAnnotations, Set<String> visitedTypes) {
+        Element element = processingEnv.getTypeUtils().asElement(typeMirror);
+        if (!(element instanceof TypeElement)) {
+            return;
+        }
+
+        TypeElement type = (TypeElement) element;
+        String typeName = type.getQualifiedName().toString();
+        if (typeName.startsWith("java.") || !visitedTypes.add(typeName)) {
+            return;
+        }
+
+        for (AnnotationMirror annotation : type.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            Retention retention = annotationType.getAnnotation(Retention.class);
+            if (retention != null && retention.value() == RetentionPolicy.RUNTIME
+                    && !annotationType.getQualifiedName().toString().startsWith("java.")) {
+                typeAnnotations.add(processingEnv.getElementUtils().getBinaryName(annotationType).toString());
+            }
+        }
+
+        for (TypeMirror superType : processingEnv.getTypeUtils().directSupertypes(typeMirror)) {
+            collectAnnotations(superType, typeAnnotations, visitedTypes);
+        }
+    }
+
+    private void readPreviousIndex() {
+        try {
+            FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", ClassUtils.ANNOTATION_INDEX_PATH);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int separator = line.indexOf('=');
+                    if (!line.startsWith("#") && separator > 0) {
+                        previousIndex.computeIfAbsent(line.substring(0, separator), (String key) -> new TreeSet<>()).add(line.substring(separator + 1).trim());
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException ex) {
+            // No previous index, full build
+        }
+    }
+
+    private void writeIndex() {
+        previousIndex.forEach((String annotation, Set<String> classNames) -> {
+            for (String className : classNames) {
+                if (!processedClasses.contains(className)
+                        && processingEnv.getElementUtils().getTypeElement(className.replace('$', '.')) != null) {
+                    index.computeIfAbsent(annotation, (String key) -> new TreeSet<>()).add(className);
+                }
+            }
+        });
+
+        // Index is written even if empty to mark module as indexed and avoid
+        // scanning it at runtime
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ClassUtils.ANNOTATION_INDEX_PATH);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                writer.write("# Generated by " + AnnotationIndexProcessor.class.getCanonicalName() + "\n");
+                for (Map.Entry<String, Set<String>> entry : index.entrySet()) {
+                    for (String className : entry.getValue()) {
+                        writer.write(entry.getKey() + "=" + className + "\n");
+                    }
+                }
+            }
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Unable to write annotation index: " + ex.getMessage());
+        }
+    }
+}
@@ -5,11 +5,13 @@
 //******************************************************************************
 package org.opensilex.utils;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
@@ -18,22 +20,31 @@ import java.lang.reflect.Type;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
 import org.opensilex.OpenSilex;
 import org.reflections.Reflections;
+import org.reflections.ReflectionsException;
+import org.reflections.util.ClasspathHelper;
 import org.reflections.util.ConfigurationBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -293,11 +304,33 @@ public class ClassUtils {
         return null;
     }
 
+    /**
+     * Path of the annotation index resource generated in each module
+     *
+     * @see AnnotationIndexProcessor
+     */
+    public final static String ANNOTATION_INDEX_PATH = "META-INF/opensilex/annotations.index";
+
+    private static Map<String, Set<String>> annotationIndex;
+
+    private static Set<Path> indexedRoots;
+
     private static Reflections reflections;
 
-    public static Reflections getReflectionInstance() {
-        if (reflections == null) {
-            List<URL> urls = new ArrayList<>();
+    private static boolean reflectionsInitialized = false;
+
+    /**
+     * Return Reflections instance scanning only modules jars and module class
+     * loader jars without annotation index, null if all of them are indexed.
+     *
+     * @return Reflections instance for jars without index or null
+     */
+    public static synchronized Reflections getReflectionInstance() {
+        if (!reflectionsInitialized) {
+            reflectionsInitialized = true;
+            getAnnotationIndex();
+
+            Set<URL> urls = new LinkedHashSet<>();
             if (OpenSilex.getInstance() != null) {
                 OpenSilex.getInstance().getModules().forEach(module -> {
                     File jar = getJarFile(module.getClass());
@@ -308,23 +341,139 @@ public class ClassUtils {
                         LOGGER.error("Error in jar file", ex);
                     }
                 });
-                reflections = new Reflections(ConfigurationBuilder.build("", OpenSilex.getClassLoader()).setUrls(urls).setExpandSuperTypes(false));
+
+                // Modules and dependencies loaded at runtime by ModuleManager,
+                // application class path is not scanned
+                ClassLoader classLoader = OpenSilex.getClassLoader();
+                if (classLoader instanceof URLClassLoader && classLoader != ClassLoader.getSystemClassLoader()) {
+                    urls.addAll(Arrays.asList(((URLClassLoader) classLoader).getURLs()));
+                }
             } else {
-                reflections = new Reflections(ConfigurationBuilder.build("", OpenSilex.getClassLoader()).setExpandSuperTypes(false));
+                urls.addAll(ClasspathHelper.forPackage("", OpenSilex.getClassLoader()));
+            }
+
+            urls.removeIf((URL url) -> indexedRoots.contains(getRootPath(url)));
+            if (!urls.isEmpty()) {
+                LOGGER.debug("Scan jars without annotation index:\n" + urls.stream().map(URL::toString).collect(Collectors.joining("\n")));
+                reflections = new Reflections(ConfigurationBuilder.build("", OpenSilex.getClassLoader()).setUrls(urls).setExpandSuperTypes(false));
             }
         }
 
         return reflections;
     }
 
+    /**
+     * Load and merge annotation indexes of all modules available in class
+     * loader and record the jars or folders providing them.
+     *
+     * @return Map of annotated class names by annotation name
+     */
+    private static synchronized Map<String, Set<String>> getAnnotationIndex() {
+        if (annotationIndex == null) {
+            Map<String, Set<String>> index = new HashMap<>();
+            Set<Path> roots = new HashSet<>();
+            try {
+                Enumeration<URL> resources = OpenSilex.getClassLoader().getResources(ANNOTATION_INDEX_PATH);
+                while (resources.hasMoreElements()) {
+                    URL resource = resources.nextElement();
+                    LOGGER.debug("Load annotation index: " + resource);
+                    try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+                        String line;
+                        while ((line = reader.readLine()) != null) {
+                            int separator = line.indexOf('=');
+                            if (!line.startsWith("#") && separator > 0) {
+                                index.computeIfAbsent(line.substring(0, separator), (String key) -> new HashSet<>()).add(line.substring(separator + 1).trim());
+                            }
+                        }
+                    }
+                    Path root = getIndexRootPath(resource);
+                    if (root != null) {
+                        roots.add(root);
+                    }
+                }
+            } catch (IOException ex) {
+                LOGGER.error("Error while reading annotation indexes", ex);
+                index.clear();
+                roots.clear();
+            }
+
+            annotationIndex = index;
+            indexedRoots = roots;
+        }
+
+        return annotationIndex;
+    }
+
+    /**
+     * Return the jar file or class folder path containing the given annotation
+     * index resource
+     *
+     * @param indexURL annotation index URL
+     * @return jar or folder path, null if it can't be determined
+     */
+    private static Path getIndexRootPath(URL indexURL) {
+        String url = indexURL.toString();
+        try {
+            if ("jar".equals(indexURL.getProtocol())) {
+                int separator = url.indexOf("!/");
+                if (separator > 0) {
+                    return getRootPath(new URL(url.substring("jar:".length(), separator)));
+                }
+            } else if ("file".equals(indexURL.getProtocol()) && url.endsWith(ANNOTATION_INDEX_PATH)) {
+                return getRootPath(new URL(url.substring(0, url.length() - ANNOTATION_INDEX_PATH.length())));
+            }
+        } catch (MalformedURLException ex) {
+            LOGGER.warn("Invalid annotation index URL: " + url, ex);
+        }
+
+        return null;
+    }
+
+    private static Path getRootPath(URL url) {
+        return getJarFileFromURL(url).toPath().toAbsolutePath().normalize();
+    }
+
+    /**
+     * Return classes annotated with the given annotation or extending an
+     * annotated class, read from modules annotation indexes and from class
+     * path scanning of jars without index.
+     *
+     * @param annotation annotation to look for
+     * @return Set of annotated classes
+     */
     public static Set<Class<?>> getAnnotatedClasses(Class<? extends Annotation> annotation) {
-        return getReflectionInstance().getTypesAnnotatedWith(annotation);
+        Map<String, Set<String>> index = getAnnotationIndex();
+
+        Set<Class<?>> classes = new HashSet<>();
+        for (String className : index.getOrDefault(annotation.getName(), Collections.emptySet())) {
+            try {
+                classes.add(Class.forName(className, false, OpenSilex.getClassLoader()));
+            } catch (ClassNotFoundException | LinkageError ex) {
+                LOGGER.warn("Indexed class not found: " + className, ex);
+            }
+        }
+
+        Reflections jarsWithoutIndex = getReflectionInstance();
+        if (jarsWithoutIndex != null) {
+            try {
+                // Sub classes of indexed classes may be defined in jars without index
+                for (Class<?> indexedClass : new ArrayList<>(classes)) {
+                    classes.addAll(jarsWithoutIndex.getSubTypesOf(indexedClass));
+                }
+                classes.addAll(jarsWithoutIndex.getTypesAnnotatedWith(annotation));
+            } catch (ReflectionsException ex) {
+                // Thrown by Reflections when scanned jars contain no matching type
+                LOGGER.debug("No class annotated with " + annotation.getName() + " found in jars without index");
+            }
+        }
+
+        return classes;
     }
 
     public static Map<String, Class<?>> getAnnotatedClassesMap(Class<? extends Annotation> annotation) {
         Map<String, Class<?>> classMap = new HashMap<>();
 
-        getReflectionInstance().getTypesAnnotatedWith(annotation).forEach((Class<?> c) -> {
+        getAnnotatedClasses(annotation).forEach((Class<?> c) -> {
             LOGGER.debug("Annoted class found: " + annotation.getCanonicalName() + " in " + c.getCanonicalName());
             classMap.put(c.getCanonicalName(), c);
         });
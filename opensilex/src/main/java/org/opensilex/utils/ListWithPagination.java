@@ -18,10 +18,31 @@ public class ListWithPagination<T> {
     private final Integer page;
     
     private final Integer pageSize;
+
+    /**
+     * Opaque cursor of the next page, null if there is no next page or if
+     * cursor pagination is not supported
+     */
+    private final String nextCursor;
+
+    /**
+     * True if more results are available after this page
+     */
+    private final boolean hasMore;
     
     public ListWithPagination(List<T> list, Integer page, Integer pageSize, Integer total) {
+        this(list, page, pageSize, total, null);
+    }
+
+    public ListWithPagination(List<T> list, Integer page, Integer pageSize, Integer total, String nextCursor) {
+        this(list, page, pageSize, total, nextCursor, pageSize != null && pageSize > 0 && page != null && total != null && ((long) page + 1) * pageSize < total);
+    }
+
+    public ListWithPagination(List<T> list, Integer page, Integer pageSize, Integer total, String nextCursor, boolean hasMore) {
         this.list = list;
         this.total = total;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
         
         if (page == null || page < 0) {
             this.page = 0;
@@ -51,6 +72,14 @@ public class ListWithPagination<T> {
     public int getPageSize() {
         return pageSize;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
     
     public <U> ListWithPagination<U> convert(Class<U> resultClass, Function<T, U> converter) {
         List<U> resultList = new ArrayList<>();
@@ -59,7 +88,7 @@ public class ListWithPagination<T> {
             resultList.add(converter.apply(element));
         });
         
-        return new ListWithPagination<U>(resultList, this.page, this.pageSize, this.total);
+        return new ListWithPagination<U>(resultList, this.page, this.pageSize, this.total, this.nextCursor, this.hasMore);
     }
     
 }
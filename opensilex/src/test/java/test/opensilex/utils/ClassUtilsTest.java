@@ -0,0 +1,52 @@
+//******************************************************************************
+// OpenSILEX - Licence AGPL V3.0 - https://www.gnu.org/licenses/agpl-3.0.en.html
+// Copyright © INRA 2019
+// Contact: vincent.migot@inra.fr, anne.tireau@inra.fr, pascal.neveu@inra.fr
+//******************************************************************************
+package test.opensilex.utils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.Set;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+import org.opensilex.utils.ClassUtils;
+
+/**
+ *
+ * @author vincent
+ */
+public class ClassUtilsTest {
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.TYPE)
+    public @interface TestIndexedAnnotation {
+
+    }
+
+    @TestIndexedAnnotation
+    public static class AnnotatedClass {
+
+    }
+
+    public static class AnnotatedSubClass extends AnnotatedClass {
+
+    }
+
+    public static class NotAnnotatedClass {
+
+    }
+
+    @Test
+    public void testAnnotatedClassesOfJarsWithoutIndex() {
+        // Test classes of this module are compiled without annotation index
+        Set<Class<?>> classes = ClassUtils.getAnnotatedClasses(TestIndexedAnnotation.class);
+
+        assertTrue("Annotated class must be found by scanning", classes.contains(AnnotatedClass.class));
+        assertTrue("Sub class of annotated class must be found by scanning", classes.contains(AnnotatedSubClass.class));
+        assertFalse("Not annotated class must not be found", classes.contains(NotAnnotatedClass.class));
+    }
+}